@@ -0,0 +1,105 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.benchmarks;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pulsar.client.api.Messages;
+import org.apache.pulsar.client.api.Schema;
+import org.apache.pulsar.client.api.SubscriptionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.pulsar.benchmarks.PulsarStubs.StubConsumerFactory;
+import org.springframework.pulsar.listener.DefaultPulsarMessageListenerContainer;
+import org.springframework.pulsar.listener.PulsarContainerProperties;
+import org.springframework.pulsar.listener.PulsarRecordMessageListener;
+
+/**
+ * Benchmarks a CPU-bound record listener of a single
+ * {@link DefaultPulsarMessageListenerContainer} consumer with and without key-ordered
+ * dispatch. The gain depends on the number of available cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class KeyOrderedDispatchBenchmark {
+
+	private static final int BATCH_SIZE = 100;
+
+	/**
+	 * The number of messages handled concurrently by the consumer.
+	 */
+	@Param({ "1", "4" })
+	public int dispatchConcurrency;
+
+	/**
+	 * The amount of work done by the listener for each message, in
+	 * {@link Blackhole#consumeCPU(long) tokens}.
+	 */
+	@Param({ "1000" })
+	public long listenerWork;
+
+	private final StubConsumerFactory<String> consumerFactory = new StubConsumerFactory<>();
+
+	private DefaultPulsarMessageListenerContainer<String> container;
+
+	private Messages<String> batch;
+
+	private volatile CountDownLatch remaining;
+
+	@Setup
+	public void setup() {
+		this.batch = PulsarStubs.messages("bench-topic", BATCH_SIZE, 1024);
+		PulsarContainerProperties containerProperties = new PulsarContainerProperties();
+		containerProperties.setTopics(new String[] { "bench-topic" });
+		containerProperties.setSubscriptionName("bench-subscription");
+		containerProperties.setSubscriptionType(SubscriptionType.Key_Shared);
+		containerProperties.setSchema(Schema.STRING);
+		containerProperties.setDispatchConcurrency(this.dispatchConcurrency);
+		containerProperties.setMessageListener((PulsarRecordMessageListener<String>) (consumer, message) -> {
+			Blackhole.consumeCPU(this.listenerWork);
+			this.remaining.countDown();
+		});
+		this.container = new DefaultPulsarMessageListenerContainer<>(this.consumerFactory, containerProperties);
+		this.container.start();
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.container.stop();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public void dispatch() throws InterruptedException {
+		this.remaining = new CountDownLatch(BATCH_SIZE);
+		this.consumerFactory.offer(this.batch);
+		this.remaining.await();
+	}
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.benchmarks;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pulsar.client.api.Messages;
+import org.apache.pulsar.client.api.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.pulsar.benchmarks.PulsarStubs.StubConsumerFactory;
+import org.springframework.pulsar.listener.AckMode;
+import org.springframework.pulsar.listener.DefaultPulsarMessageListenerContainer;
+import org.springframework.pulsar.listener.PulsarBatchMessageListener;
+import org.springframework.pulsar.listener.PulsarContainerProperties;
+import org.springframework.pulsar.listener.PulsarRecordMessageListener;
+
+/**
+ * Benchmarks the per-message dispatch overhead of
+ * {@link DefaultPulsarMessageListenerContainer} for record and batch listeners against a
+ * stand-in consumer whose receives and acknowledgements complete immediately.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ListenerContainerBenchmark {
+
+	private static final int BATCH_SIZE = 100;
+
+	private static final int BATCHES_PER_INVOCATION = 10;
+
+	/**
+	 * The type of listener to dispatch to.
+	 */
+	@Param({ "record", "batch" })
+	public String listenerType;
+
+	/**
+	 * The ack mode of the container.
+	 */
+	@Param({ "BATCH", "RECORD" })
+	public AckMode ackMode;
+
+	private final StubConsumerFactory<String> consumerFactory = new StubConsumerFactory<>();
+
+	private DefaultPulsarMessageListenerContainer<String> container;
+
+	private Messages<String> batch;
+
+	private volatile CountDownLatch remaining;
+
+	@Setup
+	public void setup() {
+		this.batch = PulsarStubs.messages("bench-topic", BATCH_SIZE, 1024);
+		PulsarContainerProperties containerProperties = new PulsarContainerProperties();
+		containerProperties.setTopics(new String[] { "bench-topic" });
+		containerProperties.setSubscriptionName("bench-subscription");
+		containerProperties.setSchema(Schema.STRING);
+		containerProperties.setAckMode(this.ackMode);
+		if (this.listenerType.equals("batch")) {
+			containerProperties.setBatchListener(true);
+			containerProperties.setMessageListener((PulsarBatchMessageListener<String>) (consumer, messages) -> {
+				for (int i = 0; i < messages.size(); i++) {
+					this.remaining.countDown();
+				}
+			});
+		}
+		else {
+			containerProperties.setMessageListener(
+					(PulsarRecordMessageListener<String>) (consumer, message) -> this.remaining.countDown());
+		}
+		this.container = new DefaultPulsarMessageListenerContainer<>(this.consumerFactory, containerProperties);
+		this.container.start();
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.container.stop();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE * BATCHES_PER_INVOCATION)
+	public void dispatch() throws InterruptedException {
+		this.remaining = new CountDownLatch(BATCH_SIZE * BATCHES_PER_INVOCATION);
+		for (int i = 0; i < BATCHES_PER_INVOCATION; i++) {
+			this.consumerFactory.offer(this.batch);
+		}
+		this.remaining.await();
+	}
+
+}
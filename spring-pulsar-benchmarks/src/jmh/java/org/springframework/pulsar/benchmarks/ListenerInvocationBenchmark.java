@@ -0,0 +1,119 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.benchmarks;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pulsar.client.api.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+import org.springframework.messaging.handler.invocation.InvocableHandlerMethod;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.pulsar.listener.adapter.DelegatingInvocableHandler;
+import org.springframework.pulsar.listener.adapter.HandlerAdapter;
+import org.springframework.pulsar.listener.adapter.PulsarRecordMessagingMessageListenerAdapter;
+import org.springframework.pulsar.support.PulsarHeaders;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Benchmarks the invocation of listener methods through the handler infrastructure used
+ * by {@code @PulsarListener} endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ListenerInvocationBenchmark {
+
+	private final BenchListener bean = new BenchListener();
+
+	private DelegatingInvocableHandler delegatingHandler;
+
+	private org.springframework.messaging.Message<String> springMessage;
+
+	private PulsarRecordMessagingMessageListenerAdapter<String> simpleAdapter;
+
+	private PulsarRecordMessagingMessageListenerAdapter<String> headerAdapter;
+
+	private Message<String> message;
+
+	@Setup
+	public void setup() {
+		DefaultMessageHandlerMethodFactory handlerMethodFactory = new DefaultMessageHandlerMethodFactory();
+		handlerMethodFactory.afterPropertiesSet();
+
+		Method simpleMethod = ReflectionUtils.findMethod(BenchListener.class, "listen", String.class);
+		InvocableHandlerMethod simpleHandlerMethod = handlerMethodFactory.createInvocableHandlerMethod(this.bean,
+				simpleMethod);
+		this.delegatingHandler = new DelegatingInvocableHandler(List.of(simpleHandlerMethod), null, this.bean, null,
+				null, null, null);
+		this.springMessage = MessageBuilder.withPayload("payload").build();
+
+		this.simpleAdapter = new PulsarRecordMessagingMessageListenerAdapter<>(this.bean, simpleMethod);
+		this.simpleAdapter.setHandlerMethod(new HandlerAdapter(simpleHandlerMethod));
+
+		Method headerMethod = ReflectionUtils.findMethod(BenchListener.class, "listenWithKey", String.class,
+				String.class);
+		this.headerAdapter = new PulsarRecordMessagingMessageListenerAdapter<>(this.bean, headerMethod);
+		this.headerAdapter.setHandlerMethod(
+				new HandlerAdapter(handlerMethodFactory.createInvocableHandlerMethod(this.bean, headerMethod)));
+
+		this.message = PulsarStubs.message("bench-topic", 1L, 16);
+	}
+
+	@Benchmark
+	public Object delegatingHandlerInvoke() throws Exception {
+		return this.delegatingHandler.invoke(this.springMessage);
+	}
+
+	@Benchmark
+	public void recordAdapterSimplePayload(Blackhole blackhole) {
+		this.simpleAdapter.received(null, this.message, null);
+		blackhole.consume(this.bean.last);
+	}
+
+	@Benchmark
+	public void recordAdapterWithHeader(Blackhole blackhole) {
+		this.headerAdapter.received(null, this.message, null);
+		blackhole.consume(this.bean.last);
+	}
+
+	public static class BenchListener {
+
+		private Object last;
+
+		public void listen(String payload) {
+			this.last = payload;
+		}
+
+		public void listenWithKey(String payload, @Header(PulsarHeaders.KEY) String key) {
+			this.last = key;
+		}
+
+	}
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pulsar.client.api.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.pulsar.support.DefaultPulsarMessageHeaderMapper;
+import org.springframework.pulsar.support.converter.PulsarMessagingMessageConverter;
+
+/**
+ * Benchmarks the conversion of an inbound Pulsar message to a Spring message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageConversionBenchmark {
+
+	/**
+	 * The size of the message payload in bytes.
+	 */
+	@Param({ "16", "1024" })
+	public int payloadSize;
+
+	private final DefaultPulsarMessageHeaderMapper headerMapper = new DefaultPulsarMessageHeaderMapper();
+
+	private final PulsarMessagingMessageConverter<String> messageConverter = new PulsarMessagingMessageConverter<>(
+			this.headerMapper);
+
+	private Message<String> message;
+
+	@Setup
+	public void setup() {
+		this.message = PulsarStubs.message("bench-topic", 1L, this.payloadSize);
+	}
+
+	@Benchmark
+	public Map<String, Object> toHeaders() {
+		Map<String, Object> headers = new HashMap<>();
+		this.headerMapper.toHeaders(this.message, headers);
+		return headers;
+	}
+
+	@Benchmark
+	public org.springframework.messaging.Message<?> toMessage() {
+		return this.messageConverter.toMessage(this.message, null, String.class);
+	}
+
+}
@@ -0,0 +1,459 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.benchmarks;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.Messages;
+import org.apache.pulsar.client.api.Producer;
+import org.apache.pulsar.client.api.ProducerBuilder;
+import org.apache.pulsar.client.api.ProducerStats;
+import org.apache.pulsar.client.api.PulsarClient;
+import org.apache.pulsar.client.api.PulsarClientException;
+import org.apache.pulsar.client.api.Schema;
+import org.apache.pulsar.client.api.TypedMessageBuilder;
+import org.apache.pulsar.client.api.transaction.Transaction;
+import org.apache.pulsar.client.impl.MessageIdImpl;
+import org.apache.pulsar.client.impl.MessageImpl;
+import org.apache.pulsar.common.api.proto.MessageMetadata;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.lang.Nullable;
+import org.springframework.pulsar.core.ConsumerBuilderCustomizer;
+import org.springframework.pulsar.core.PulsarConsumerFactory;
+
+/**
+ * In-process stand-ins for the Pulsar client, producers and consumers.
+ * <p>
+ * The stand-ins complete every operation immediately so that the benchmarks measure the
+ * framework overhead rather than the broker latency.
+ */
+final class PulsarStubs {
+
+	private PulsarStubs() {
+	}
+
+	/**
+	 * Create a client that hands out {@link StubProducer stub producers}.
+	 * @return the stub client
+	 */
+	static PulsarClient client() {
+		return client(0L);
+	}
+
+	/**
+	 * Create a client that hands out {@link StubProducer stub producers} that serialize
+	 * their sends, like the batch assembly of a real producer does.
+	 * @param sendWork the amount of work done by each send while holding the lock of the
+	 * producer, in {@link Blackhole#consumeCPU tokens}
+	 * @return the stub client
+	 */
+	static PulsarClient client(long sendWork) {
+		return proxy(PulsarClient.class, (proxy, method, args) -> {
+			if (method.getName().equals("newProducer") && args != null && args.length == 1) {
+				return producerBuilder((Schema<?>) args[0], sendWork);
+			}
+			return defaultValue(method);
+		});
+	}
+
+	/**
+	 * Create a batch of messages.
+	 * @param topic the topic of the messages
+	 * @param size the number of messages in the batch
+	 * @param payloadSize the size of each message payload in bytes
+	 * @return the batch of messages
+	 */
+	static Messages<String> messages(String topic, int size, int payloadSize) {
+		List<Message<String>> messages = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			messages.add(message(topic, i, payloadSize));
+		}
+		return new StubMessages<>(messages);
+	}
+
+	/**
+	 * Create a message with a string payload and a couple of properties.
+	 * @param topic the topic of the message
+	 * @param entryId the entry id of the message
+	 * @param payloadSize the size of the message payload in bytes
+	 * @return the message
+	 */
+	static Message<String> message(String topic, long entryId, int payloadSize) {
+		byte[] payload = new byte[payloadSize];
+		Arrays.fill(payload, (byte) 'x');
+		MessageMetadata metadata = new MessageMetadata().setProducerName("bench-producer")
+				.setPublishTime(System.currentTimeMillis()).setSequenceId(entryId).setPartitionKey("key-" + entryId)
+				.setEventTime(System.currentTimeMillis());
+		return new MessageImpl<>(topic, "1:" + entryId, Map.of("prop1", "value1", "prop2", "value2"), payload,
+				Schema.STRING, metadata);
+	}
+
+	/**
+	 * Create a string payload.
+	 * @param payloadSize the size of the payload in bytes
+	 * @return the payload
+	 */
+	static String payload(int payloadSize) {
+		byte[] payload = new byte[payloadSize];
+		Arrays.fill(payload, (byte) 'x');
+		return new String(payload, StandardCharsets.UTF_8);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static ProducerBuilder<?> producerBuilder(Schema<?> schema, long sendWork) {
+		String[] topic = new String[1];
+		return proxy(ProducerBuilder.class, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "topic":
+					topic[0] = (String) args[0];
+					return proxy;
+				case "create":
+					return new StubProducer(topic[0], sendWork);
+				case "createAsync":
+					return CompletableFuture.completedFuture(new StubProducer(topic[0], sendWork));
+				default:
+					return method.getReturnType().equals(ProducerBuilder.class) ? proxy : defaultValue(method);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(PulsarStubs.class.getClassLoader(), new Class<?>[] { type }, handler);
+	}
+
+	@Nullable
+	private static Object defaultValue(Method method) {
+		Class<?> returnType = method.getReturnType();
+		if (method.getName().equals("toString")) {
+			return "stub";
+		}
+		if (returnType.equals(boolean.class)) {
+			return false;
+		}
+		if (returnType.equals(int.class)) {
+			return 0;
+		}
+		if (returnType.equals(long.class)) {
+			return 0L;
+		}
+		if (returnType.equals(double.class)) {
+			return 0d;
+		}
+		if (returnType.equals(CompletableFuture.class)) {
+			return CompletableFuture.completedFuture(null);
+		}
+		return null;
+	}
+
+	/**
+	 * A consumer factory whose consumers receive the batches offered to the factory.
+	 *
+	 * @param <T> the message payload type
+	 */
+	static final class StubConsumerFactory<T> implements PulsarConsumerFactory<T> {
+
+		private final BlockingQueue<Messages<T>> batches = new LinkedBlockingQueue<>();
+
+		/**
+		 * Make a batch available to the next {@link Consumer#batchReceive()}.
+		 * @param batch the batch to receive
+		 */
+		void offer(Messages<T> batch) {
+			this.batches.add(batch);
+		}
+
+		@Override
+		public Consumer<T> createConsumer(Schema<T> schema) {
+			return createConsumer(schema, null, null, null);
+		}
+
+		@Override
+		public Consumer<T> createConsumer(Schema<T> schema, @Nullable Collection<String> topics) {
+			return createConsumer(schema, topics, null, null);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Consumer<T> createConsumer(Schema<T> schema, @Nullable Collection<String> topics,
+				@Nullable Map<String, String> properties, @Nullable List<ConsumerBuilderCustomizer<T>> customizers) {
+			Messages<T> empty = new StubMessages<>(Collections.emptyList());
+			return proxy(Consumer.class, (proxy, method, args) -> {
+				if (method.getName().equals("batchReceive")) {
+					try {
+						Messages<T> batch = this.batches.poll(10, TimeUnit.MILLISECONDS);
+						return batch != null ? batch : empty;
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+						throw new PulsarClientException(ex);
+					}
+				}
+				return defaultValue(method);
+			});
+		}
+
+		@Override
+		public Map<String, Object> getConsumerConfig() {
+			return Collections.emptyMap();
+		}
+
+	}
+
+	/**
+	 * A batch of messages backed by a list.
+	 *
+	 * @param <T> the message payload type
+	 */
+	static final class StubMessages<T> implements Messages<T> {
+
+		private final List<Message<T>> messages;
+
+		StubMessages(List<Message<T>> messages) {
+			this.messages = messages;
+		}
+
+		@Override
+		public int size() {
+			return this.messages.size();
+		}
+
+		@Override
+		public Iterator<Message<T>> iterator() {
+			return this.messages.iterator();
+		}
+
+	}
+
+	/**
+	 * A producer whose sends complete immediately.
+	 *
+	 * @param <T> the message payload type
+	 */
+	static final class StubProducer<T> implements Producer<T> {
+
+		private final String topic;
+
+		private final AtomicLong sequence = new AtomicLong();
+
+		private final long sendWork;
+
+		StubProducer(String topic, long sendWork) {
+			this.topic = topic;
+			this.sendWork = sendWork;
+		}
+
+		@Override
+		public String getTopic() {
+			return this.topic;
+		}
+
+		@Override
+		public String getProducerName() {
+			return "stub-producer";
+		}
+
+		@Override
+		public MessageId send(T message) {
+			return nextMessageId();
+		}
+
+		@Override
+		public CompletableFuture<MessageId> sendAsync(T message) {
+			return CompletableFuture.completedFuture(nextMessageId());
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public CompletableFuture<Void> flushAsync() {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		@Override
+		public TypedMessageBuilder<T> newMessage() {
+			return new StubTypedMessageBuilder<>(this);
+		}
+
+		@Override
+		public <V> TypedMessageBuilder<V> newMessage(Schema<V> schema) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public TypedMessageBuilder<T> newMessage(Transaction txn) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public long getLastSequenceId() {
+			return this.sequence.get();
+		}
+
+		@Override
+		public ProducerStats getStats() {
+			return null;
+		}
+
+		@Override
+		public void close() {
+		}
+
+		@Override
+		public CompletableFuture<Void> closeAsync() {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		@Override
+		public boolean isConnected() {
+			return true;
+		}
+
+		@Override
+		public long getLastDisconnectedTimestamp() {
+			return 0;
+		}
+
+		@Override
+		public int getNumOfPartitions() {
+			return 0;
+		}
+
+		MessageId nextMessageId() {
+			if (this.sendWork > 0) {
+				synchronized (this) {
+					Blackhole.consumeCPU(this.sendWork);
+				}
+			}
+			return new MessageIdImpl(1L, this.sequence.incrementAndGet(), -1);
+		}
+
+	}
+
+	/**
+	 * A message builder whose sends complete immediately.
+	 *
+	 * @param <T> the message payload type
+	 */
+	@SuppressWarnings("serial")
+	static final class StubTypedMessageBuilder<T> implements TypedMessageBuilder<T> {
+
+		private final transient StubProducer<T> producer;
+
+		StubTypedMessageBuilder(StubProducer<T> producer) {
+			this.producer = producer;
+		}
+
+		@Override
+		public MessageId send() {
+			return this.producer.nextMessageId();
+		}
+
+		@Override
+		public CompletableFuture<MessageId> sendAsync() {
+			return CompletableFuture.completedFuture(this.producer.nextMessageId());
+		}
+
+		@Override
+		public TypedMessageBuilder<T> key(String key) {
+			return this;
+		}
+
+		@Override
+		public TypedMessageBuilder<T> keyBytes(byte[] key) {
+			return this;
+		}
+
+		@Override
+		public TypedMessageBuilder<T> orderingKey(byte[] orderingKey) {
+			return this;
+		}
+
+		@Override
+		public TypedMessageBuilder<T> value(T value) {
+			return this;
+		}
+
+		@Override
+		public TypedMessageBuilder<T> property(String name, String value) {
+			return this;
+		}
+
+		@Override
+		public TypedMessageBuilder<T> properties(Map<String, String> properties) {
+			return this;
+		}
+
+		@Override
+		public TypedMessageBuilder<T> eventTime(long timestamp) {
+			return this;
+		}
+
+		@Override
+		public TypedMessageBuilder<T> sequenceId(long sequenceId) {
+			return this;
+		}
+
+		@Override
+		public TypedMessageBuilder<T> replicationClusters(List<String> clusters) {
+			return this;
+		}
+
+		@Override
+		public TypedMessageBuilder<T> disableReplication() {
+			return this;
+		}
+
+		@Override
+		public TypedMessageBuilder<T> deliverAt(long timestamp) {
+			return this;
+		}
+
+		@Override
+		public TypedMessageBuilder<T> deliverAfter(long delay, TimeUnit unit) {
+			return this;
+		}
+
+		@Override
+		public TypedMessageBuilder<T> loadConf(Map<String, Object> config) {
+			return this;
+		}
+
+	}
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.benchmarks;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.Producer;
+import org.apache.pulsar.client.api.PulsarClient;
+import org.apache.pulsar.client.api.PulsarClientException;
+import org.apache.pulsar.client.api.interceptor.ProducerInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.pulsar.core.CachingPulsarProducerFactory;
+import org.springframework.pulsar.core.DefaultPulsarProducerFactory;
+import org.springframework.pulsar.core.PulsarProducerFactory;
+import org.springframework.pulsar.core.PulsarTemplate;
+
+/**
+ * Benchmarks the per-message overhead of {@link PulsarTemplate#sendAsync} against a
+ * stand-in client whose sends complete immediately.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PulsarTemplateBenchmark {
+
+	private static final String TOPIC = "bench-topic";
+
+	private static final int BATCH_SIZE = 100;
+
+	/**
+	 * The type of producer factory backing the template.
+	 */
+	@Param({ "default", "caching" })
+	public String producerFactoryType;
+
+	/**
+	 * Whether the template is configured with a producer interceptor.
+	 */
+	@Param({ "false", "true" })
+	public boolean withInterceptors;
+
+	/**
+	 * The size of the message payload in bytes.
+	 */
+	@Param({ "16", "1024" })
+	public int payloadSize;
+
+	private PulsarProducerFactory<String> producerFactory;
+
+	private PulsarTemplate<String> template;
+
+	private String payload;
+
+	private List<String> batchPayloads;
+
+	@Setup
+	public void setup() {
+		PulsarClient client = PulsarStubs.client();
+		Map<String, Object> producerConfig = Collections.singletonMap("topicName", TOPIC);
+		this.producerFactory = this.producerFactoryType.equals("caching")
+				? new CachingPulsarProducerFactory<>(client, producerConfig, Duration.ofMinutes(5L), 10L, 2)
+				: new DefaultPulsarProducerFactory<>(client, producerConfig);
+		List<ProducerInterceptor> interceptors = this.withInterceptors ? List.of(new NoOpProducerInterceptor())
+				: Collections.emptyList();
+		this.template = new PulsarTemplate<>(this.producerFactory, interceptors);
+		this.payload = PulsarStubs.payload(this.payloadSize);
+		this.batchPayloads = Collections.nCopies(BATCH_SIZE, this.payload);
+	}
+
+	@TearDown
+	public void tearDown() {
+		if (this.producerFactory instanceof CachingPulsarProducerFactory<String> cachingProducerFactory) {
+			cachingProducerFactory.destroy();
+		}
+	}
+
+	@Benchmark
+	public CompletableFuture<MessageId> sendAsync() throws PulsarClientException {
+		return this.template.sendAsync(this.payload);
+	}
+
+	@Benchmark
+	public CompletableFuture<MessageId> sendAsyncWithTopic() throws PulsarClientException {
+		return this.template.sendAsync(TOPIC, this.payload);
+	}
+
+	@Benchmark
+	public CompletableFuture<MessageId> fluentSendAsync() throws PulsarClientException {
+		return this.template.newMessage(this.payload).withTopic(TOPIC)
+				.withMessageCustomizer((messageBuilder) -> messageBuilder.key("bench-key")).sendAsync();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BATCH_SIZE)
+	public CompletableFuture<List<MessageId>> sendBatchAsync() throws PulsarClientException {
+		return this.template.sendBatchAsync(TOPIC, this.batchPayloads);
+	}
+
+	@SuppressWarnings("rawtypes")
+	static class NoOpProducerInterceptor implements ProducerInterceptor {
+
+		@Override
+		public void close() {
+		}
+
+		@Override
+		public boolean eligible(Message message) {
+			return false;
+		}
+
+		@Override
+		public Message beforeSend(Producer producer, Message message) {
+			return message;
+		}
+
+		@Override
+		public void onSendAcknowledgement(Producer producer, Message message, MessageId msgId, Throwable exception) {
+		}
+
+	}
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.benchmarks;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.PulsarClientException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import org.springframework.pulsar.core.CachingPulsarProducerFactory;
+import org.springframework.pulsar.core.PulsarTemplate;
+
+/**
+ * Benchmarks the throughput of many threads sending to one topic through
+ * {@link PulsarTemplate} when the sends are striped across several producers, against
+ * stand-in producers that serialize their sends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+public class StripedSendBenchmark {
+
+	private static final String TOPIC = "bench-topic";
+
+	private static final long SEND_WORK = 200L;
+
+	/**
+	 * The number of producers the sends to the topic are striped across.
+	 */
+	@Param({ "1", "4" })
+	public int stripes;
+
+	private CachingPulsarProducerFactory<String> producerFactory;
+
+	private PulsarTemplate<String> template;
+
+	@Setup
+	public void setup() {
+		this.producerFactory = new CachingPulsarProducerFactory<>(PulsarStubs.client(SEND_WORK), Collections.emptyMap(),
+				Duration.ofMinutes(5L), 10L, 2);
+		this.producerFactory.setProducerStripes(TOPIC, this.stripes);
+		this.template = new PulsarTemplate<>(this.producerFactory);
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.producerFactory.destroy();
+	}
+
+	@Benchmark
+	public CompletableFuture<MessageId> sendAsync() throws PulsarClientException {
+		return this.template.sendAsync(TOPIC, "payload");
+	}
+
+	@Benchmark
+	public CompletableFuture<MessageId> sendAsyncWithKey() throws PulsarClientException {
+		String key = "key-" + ThreadLocalRandom.current().nextInt(64);
+		return this.template.newMessage("payload").withTopic(TOPIC)
+				.withMessageCustomizer((messageBuilder) -> messageBuilder.key(key)).sendAsync();
+	}
+
+}
@@ -19,14 +19,18 @@ package org.springframework.pulsar.autoconfigure;
 import java.time.Duration;
 
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.PropertyMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.pulsar.annotation.EnablePulsar;
+import org.springframework.pulsar.annotation.PulsarListenerConfigurer;
 import org.springframework.pulsar.config.ConcurrentPulsarListenerContainerFactory;
 import org.springframework.pulsar.config.PulsarListenerBeanNames;
+import org.springframework.pulsar.config.PulsarListenerEndpointRegistry;
 import org.springframework.pulsar.core.PulsarConsumerFactory;
 import org.springframework.pulsar.core.SchemaResolver;
 import org.springframework.pulsar.listener.PulsarContainerProperties;
@@ -72,10 +76,39 @@ public class PulsarAnnotationDrivenConfiguration {
 				.to(containerProperties::setBatchTimeoutMillis);
 		map.from(listenerProperties::getMaxNumBytes).asInt(DataSize::toBytes).to(containerProperties::setMaxNumBytes);
 		map.from(listenerProperties::getMaxNumMessages).to(containerProperties::setMaxNumMessages);
+		map.from(listenerProperties::getVirtualThreads).to(containerProperties::setVirtualThreads);
+		map.from(listenerProperties::getMetricsEnabled).to(containerProperties::setMicrometerEnabled);
+		map.from(listenerProperties::getDispatchConcurrency).to(containerProperties::setDispatchConcurrency);
+		map.from(listenerProperties::getMaxInFlightMessages).to(containerProperties::setMaxInFlightMessages);
+		map.from(listenerProperties::getAckCount).to(containerProperties::setAckCount);
+		map.from(listenerProperties::getAckTime).to(containerProperties::setAckTime);
+		map.from(listenerProperties::getMaxMessagesPerSecond).to(containerProperties::setMaxMessagesPerSecond);
+		map.from(listenerProperties::getMaxBytesPerSecond).as(DataSize::toBytes)
+				.to(containerProperties::setMaxBytesPerSecond);
+		map.from(listenerProperties::getShutdownTimeout).to(containerProperties::setShutdownTimeout);
+		map.from(listenerProperties::getBatchWindowMaxMessages).to(containerProperties::setBatchWindowMaxMessages);
+		map.from(listenerProperties::getBatchWindowMaxBytes).as(DataSize::toBytes)
+				.to(containerProperties::setBatchWindowMaxBytes);
+		map.from(listenerProperties::getBatchWindowMaxWait).to(containerProperties::setBatchWindowMaxWait);
+		map.from(listenerProperties::getReceivePipelineDepth).to(containerProperties::setReceivePipelineDepth);
 
-		return new ConcurrentPulsarListenerContainerFactory<>(consumerFactoryProvider.getIfAvailable(),
-				containerProperties, this.pulsarProperties.getListener().isObservationsEnabled()
-						? observationRegistryProvider.getIfUnique() : null);
+		ConcurrentPulsarListenerContainerFactory<Object> factory = new ConcurrentPulsarListenerContainerFactory<>(
+				consumerFactoryProvider.getIfAvailable(), containerProperties,
+				this.pulsarProperties.getListener().isObservationsEnabled() ? observationRegistryProvider.getIfUnique()
+						: null);
+		map.from(listenerProperties::getMaxConcurrency).to(factory::setMaxConcurrency);
+		map.from(listenerProperties::getAutoscaleInterval).to(factory::setAutoscaleInterval);
+		map.from(listenerProperties::getAutoscaleCooldown).to(factory::setAutoscaleCooldown);
+		return factory;
+	}
+
+	@Bean
+	@ConditionalOnProperty("spring.pulsar.listener.startup-parallelism")
+	PulsarListenerConfigurer pulsarListenerStartupParallelismConfigurer(
+			@Qualifier(PulsarListenerBeanNames.PULSAR_LISTENER_ENDPOINT_REGISTRY_BEAN_NAME) ObjectProvider<PulsarListenerEndpointRegistry> endpointRegistryProvider) {
+		int startupParallelism = this.pulsarProperties.getListener().getStartupParallelism();
+		return (registrar) -> endpointRegistryProvider
+				.ifAvailable((endpointRegistry) -> endpointRegistry.setStartupParallelism(startupParallelism));
 	}
 
 	@Configuration(proxyBeanMethods = false)
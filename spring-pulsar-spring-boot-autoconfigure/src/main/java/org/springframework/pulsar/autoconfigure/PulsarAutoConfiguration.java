@@ -19,7 +19,9 @@ package org.springframework.pulsar.autoconfigure;
 import java.util.Optional;
 
 import org.apache.pulsar.client.api.PulsarClient;
+import org.apache.pulsar.client.api.Schema;
 import org.apache.pulsar.client.api.interceptor.ProducerInterceptor;
+import org.apache.pulsar.common.schema.SchemaType;
 
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
@@ -29,13 +31,17 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.ResolvableType;
 import org.springframework.pulsar.config.PulsarClientConfiguration;
 import org.springframework.pulsar.config.PulsarClientFactoryBean;
 import org.springframework.pulsar.core.CachingPulsarProducerFactory;
 import org.springframework.pulsar.core.DefaultPulsarConsumerFactory;
 import org.springframework.pulsar.core.DefaultPulsarProducerFactory;
 import org.springframework.pulsar.core.DefaultSchemaResolver;
+import org.springframework.pulsar.core.InFlightSendLimiter;
+import org.springframework.pulsar.core.InFlightSendLimiterMeterBinder;
 import org.springframework.pulsar.core.PulsarAdministration;
 import org.springframework.pulsar.core.PulsarConsumerFactory;
 import org.springframework.pulsar.core.PulsarProducerFactory;
@@ -48,6 +54,7 @@ import org.springframework.pulsar.function.PulsarSink;
 import org.springframework.pulsar.function.PulsarSource;
 import org.springframework.pulsar.observation.PulsarTemplateObservationConvention;
 
+import io.micrometer.core.instrument.binder.MeterBinder;
 import io.micrometer.observation.ObservationRegistry;
 
 /**
@@ -89,13 +96,31 @@ public class PulsarAutoConfiguration {
 	}
 
 	@Bean
-	@ConditionalOnMissingBean
+	@ConditionalOnMissingBean(PulsarProducerFactory.class)
 	@ConditionalOnProperty(name = "spring.pulsar.producer.cache.enabled", havingValue = "true", matchIfMissing = true)
-	public PulsarProducerFactory<?> cachingPulsarProducerFactory(PulsarClient pulsarClient) {
-		return new CachingPulsarProducerFactory<>(pulsarClient, this.properties.buildProducerProperties(),
+	public CachingPulsarProducerFactory<?> cachingPulsarProducerFactory(PulsarClient pulsarClient,
+			SchemaResolver schemaResolver) {
+		CachingPulsarProducerFactory<?> producerFactory = new CachingPulsarProducerFactory<>(pulsarClient,
+				this.properties.buildProducerProperties(),
 				this.properties.getProducer().getCache().getExpireAfterAccess(),
 				this.properties.getProducer().getCache().getMaximumSize(),
 				this.properties.getProducer().getCache().getInitialCapacity());
+		producerFactory.setEvictionDrainTimeout(this.properties.getProducer().getCache().getEvictionDrainTimeout());
+		PulsarProperties.Striping striping = this.properties.getProducer().getCache().getStriping();
+		striping.getTopics().forEach(producerFactory::setProducerStripes);
+		producerFactory.setStripingStrategy(striping.getStrategy());
+		PulsarProperties.Prewarm prewarm = this.properties.getProducer().getCache().getPrewarm();
+		if (!prewarm.getTopics().isEmpty() || prewarm.getTopicBeans()) {
+			SchemaType schemaType = prewarm.getSchemaType() != null ? prewarm.getSchemaType() : SchemaType.NONE;
+			Schema<?> schema = schemaResolver.getSchema(schemaType,
+					prewarm.getMessageType() != null ? ResolvableType.forClass(prewarm.getMessageType()) : null);
+			prewarm.getTopics().forEach((topic) -> producerFactory.addPrewarmTopic(topic, schema));
+			if (prewarm.getTopicBeans()) {
+				producerFactory.setPrewarmTopicBeansSchema(schema);
+			}
+			producerFactory.setPrewarmTimeout(prewarm.getTimeout());
+		}
+		return producerFactory;
 	}
 
 	@Bean
@@ -103,11 +128,24 @@ public class PulsarAutoConfiguration {
 	public PulsarTemplate<?> pulsarTemplate(PulsarProducerFactory<?> pulsarProducerFactory,
 			ObjectProvider<ProducerInterceptor> interceptorsProvider, SchemaResolver schemaResolver,
 			ObjectProvider<ObservationRegistry> observationRegistryProvider,
-			ObjectProvider<PulsarTemplateObservationConvention> observationConventionProvider) {
-		return new PulsarTemplate<>(pulsarProducerFactory, interceptorsProvider.orderedStream().toList(),
-				schemaResolver, this.properties.getTemplate().isObservationsEnabled()
-						? observationRegistryProvider.getIfUnique() : null,
+			ObjectProvider<PulsarTemplateObservationConvention> observationConventionProvider,
+			ObjectProvider<InFlightSendLimiter> sendLimiterProvider) {
+		PulsarTemplate<?> pulsarTemplate = new PulsarTemplate<>(pulsarProducerFactory,
+				interceptorsProvider.orderedStream().toList(), schemaResolver,
+				this.properties.getTemplate().isObservationsEnabled() ? observationRegistryProvider.getIfUnique()
+						: null,
 				observationConventionProvider.getIfUnique());
+		sendLimiterProvider.ifUnique(pulsarTemplate::setSendLimiter);
+		return pulsarTemplate;
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(name = "spring.pulsar.template.in-flight.max")
+	public InFlightSendLimiter pulsarTemplateSendLimiter() {
+		PulsarProperties.InFlight inFlight = this.properties.getTemplate().getInFlight();
+		return new InFlightSendLimiter(inFlight.getMax(), inFlight.getOverflowStrategy(), inFlight.getPerTopic(),
+				inFlight.getMaxBlockTime());
 	}
 
 	@Bean
@@ -142,4 +180,17 @@ public class PulsarAutoConfiguration {
 				this.properties.getFunction().getPropagateStopFailures());
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(MeterBinder.class)
+	@ConditionalOnProperty(name = "spring.pulsar.template.in-flight.max")
+	static class InFlightSendLimiterMetricsConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		public InFlightSendLimiterMeterBinder pulsarTemplateSendLimiterMeterBinder(InFlightSendLimiter sendLimiter) {
+			return new InFlightSendLimiterMeterBinder(sendLimiter);
+		}
+
+	}
+
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.autoconfigure;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.pulsar.core.CachingPulsarProducerFactory;
+import org.springframework.pulsar.core.CachingPulsarProducerFactoryMeterBinder;
+import org.springframework.pulsar.core.PulsarTemplate;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * {@link EnableAutoConfiguration Auto-configuration} for the Micrometer metrics of the
+ * Spring for Apache Pulsar components.
+ */
+@AutoConfiguration(after = PulsarAutoConfiguration.class)
+@ConditionalOnClass({ PulsarTemplate.class, MeterBinder.class })
+public class PulsarMetricsAutoConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnBean(CachingPulsarProducerFactory.class)
+	public CachingPulsarProducerFactoryMeterBinder pulsarProducerCacheMeterBinder(
+			CachingPulsarProducerFactory<?> cachingPulsarProducerFactory) {
+		return new CachingPulsarProducerFactoryMeterBinder(cachingPulsarProducerFactory);
+	}
+
+}
@@ -17,8 +17,10 @@
 package org.springframework.pulsar.autoconfigure;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
@@ -44,6 +46,8 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 import org.springframework.boot.context.properties.PropertyMapper;
 import org.springframework.lang.Nullable;
+import org.springframework.pulsar.core.CachingPulsarProducerFactory.StripingStrategy;
+import org.springframework.pulsar.core.InFlightSendLimiter.OverflowStrategy;
 import org.springframework.pulsar.listener.AckMode;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
@@ -986,6 +990,8 @@ public class PulsarProperties {
 		 */
 		private Boolean observationsEnabled = true;
 
+		private final InFlight inFlight = new InFlight();
+
 		public Boolean isObservationsEnabled() {
 			return this.observationsEnabled;
 		}
@@ -994,6 +1000,70 @@ public class PulsarProperties {
 			this.observationsEnabled = observationsEnabled;
 		}
 
+		public InFlight getInFlight() {
+			return this.inFlight;
+		}
+
+	}
+
+	public static class InFlight {
+
+		/**
+		 * Maximum number of messages the template may have in flight (sent but not yet
+		 * acknowledged). When not set, the template does not limit the messages in
+		 * flight.
+		 */
+		private Integer max;
+
+		/**
+		 * What to do when a message is sent while the maximum number of messages are in
+		 * flight.
+		 */
+		private OverflowStrategy overflowStrategy = OverflowStrategy.BLOCK;
+
+		/**
+		 * Whether the maximum applies to each topic rather than to the whole template.
+		 */
+		private Boolean perTopic = false;
+
+		/**
+		 * Maximum time to wait for a message to be allowed in flight when using the
+		 * 'block' overflow strategy.
+		 */
+		private Duration maxBlockTime = Duration.ofSeconds(30);
+
+		public Integer getMax() {
+			return this.max;
+		}
+
+		public void setMax(Integer max) {
+			this.max = max;
+		}
+
+		public OverflowStrategy getOverflowStrategy() {
+			return this.overflowStrategy;
+		}
+
+		public void setOverflowStrategy(OverflowStrategy overflowStrategy) {
+			this.overflowStrategy = overflowStrategy;
+		}
+
+		public Boolean getPerTopic() {
+			return this.perTopic;
+		}
+
+		public void setPerTopic(Boolean perTopic) {
+			this.perTopic = perTopic;
+		}
+
+		public Duration getMaxBlockTime() {
+			return this.maxBlockTime;
+		}
+
+		public void setMaxBlockTime(Duration maxBlockTime) {
+			this.maxBlockTime = maxBlockTime;
+		}
+
 	}
 
 	public static class Cache {
@@ -1007,6 +1077,16 @@ public class PulsarProperties {
 		/** Initial size of cache. */
 		private Integer initialCapacity = 50;
 
+		/**
+		 * Maximum time to wait for the sends in flight on an evicted producer to complete
+		 * before closing it.
+		 */
+		private Duration evictionDrainTimeout = Duration.ofSeconds(30);
+
+		private final Prewarm prewarm = new Prewarm();
+
+		private final Striping striping = new Striping();
+
 		public Duration getExpireAfterAccess() {
 			return this.expireAfterAccess;
 		}
@@ -1031,6 +1111,126 @@ public class PulsarProperties {
 			this.initialCapacity = initialCapacity;
 		}
 
+		public Duration getEvictionDrainTimeout() {
+			return this.evictionDrainTimeout;
+		}
+
+		public void setEvictionDrainTimeout(Duration evictionDrainTimeout) {
+			this.evictionDrainTimeout = evictionDrainTimeout;
+		}
+
+		public Prewarm getPrewarm() {
+			return this.prewarm;
+		}
+
+		public Striping getStriping() {
+			return this.striping;
+		}
+
+	}
+
+	public static class Striping {
+
+		/**
+		 * Number of producers to stripe the sends to each topic across, keyed by the
+		 * topic named as it is when sending to it.
+		 */
+		private Map<String, Integer> topics = new HashMap<>();
+
+		/**
+		 * Strategy used to select the producer of a message for the striped topics.
+		 */
+		private StripingStrategy strategy = StripingStrategy.MESSAGE_KEY;
+
+		public Map<String, Integer> getTopics() {
+			return this.topics;
+		}
+
+		public void setTopics(Map<String, Integer> topics) {
+			this.topics = topics;
+		}
+
+		public StripingStrategy getStrategy() {
+			return this.strategy;
+		}
+
+		public void setStrategy(StripingStrategy strategy) {
+			this.strategy = strategy;
+		}
+
+	}
+
+	public static class Prewarm {
+
+		/**
+		 * Topics to create cached producers for on startup, named as they are when
+		 * sending to them.
+		 */
+		private List<String> topics = new ArrayList<>();
+
+		/**
+		 * Whether to also create cached producers on startup for the PulsarTopic beans.
+		 */
+		private Boolean topicBeans = false;
+
+		/**
+		 * Schema type of the messages sent to the pre-warmed topics. When not set, the
+		 * schema is resolved from the message type.
+		 */
+		private SchemaType schemaType;
+
+		/**
+		 * Type of the messages sent to the pre-warmed topics. When neither this nor the
+		 * schema type are set, the bytes schema is used.
+		 */
+		private Class<?> messageType;
+
+		/**
+		 * Maximum time to wait on startup for the producers to be created. Producers not
+		 * created in time continue to be created in the background.
+		 */
+		private Duration timeout = Duration.ofSeconds(30);
+
+		public List<String> getTopics() {
+			return this.topics;
+		}
+
+		public void setTopics(List<String> topics) {
+			this.topics = topics;
+		}
+
+		public Boolean getTopicBeans() {
+			return this.topicBeans;
+		}
+
+		public void setTopicBeans(Boolean topicBeans) {
+			this.topicBeans = topicBeans;
+		}
+
+		public SchemaType getSchemaType() {
+			return this.schemaType;
+		}
+
+		public void setSchemaType(SchemaType schemaType) {
+			this.schemaType = schemaType;
+		}
+
+		public Class<?> getMessageType() {
+			return this.messageType;
+		}
+
+		public void setMessageType(Class<?> messageType) {
+			this.messageType = messageType;
+		}
+
+		public Duration getTimeout() {
+			return this.timeout;
+		}
+
+		public void setTimeout(Duration timeout) {
+			this.timeout = timeout;
+		}
+
 	}
 
 	public static class Client {
@@ -1739,6 +1939,106 @@ public class PulsarProperties {
 		 */
 		private Boolean observationsEnabled = true;
 
+		/**
+		 * Whether to publish Micrometer meters about the consumers of the listener
+		 * containers when a meter registry is available.
+		 */
+		private Boolean metricsEnabled = false;
+
+		/**
+		 * Whether to run the listener container consumers on virtual threads. Requires
+		 * Java 21 or later.
+		 */
+		private Boolean virtualThreads = false;
+
+		/**
+		 * Max number of received messages a record listener handles concurrently per
+		 * consumer. Messages with the same key are still handled in order.
+		 */
+		private Integer dispatchConcurrency = 1;
+
+		/**
+		 * Max number of messages an asynchronous listener can have in flight per
+		 * consumer.
+		 */
+		private Integer maxInFlightMessages = 1000;
+
+		/**
+		 * Number of pending acknowledgements sent to the broker together. Raising it
+		 * holds acknowledgements back across records or batches.
+		 */
+		private Integer ackCount = 1;
+
+		/**
+		 * Max time an acknowledgement is held back when fewer than 'ack-count'
+		 * acknowledgements are pending.
+		 */
+		private Duration ackTime;
+
+		/**
+		 * Max number of messages per second a listener receives. Not limited by default.
+		 */
+		private Long maxMessagesPerSecond;
+
+		/**
+		 * Max payload size per second a listener receives. Not limited by default.
+		 */
+		private DataSize maxBytesPerSecond;
+
+		/**
+		 * Max number of consumers per listener when the number of consumers is adjusted
+		 * at runtime according to their load, in which case the listener concurrency is
+		 * the min number of consumers. Not applicable to exclusive subscriptions.
+		 */
+		private Integer maxConcurrency;
+
+		/**
+		 * How often the load of the consumers is sampled when the number of consumers is
+		 * adjusted at runtime.
+		 */
+		private Duration autoscaleInterval = Duration.ofSeconds(10);
+
+		/**
+		 * Min time between two adjustments of the number of consumers.
+		 */
+		private Duration autoscaleCooldown = Duration.ofMinutes(1);
+
+		/**
+		 * Max number of listener containers started concurrently on application startup.
+		 */
+		private Integer startupParallelism;
+
+		/**
+		 * Max time to wait, when a listener stops, for the messages already received to
+		 * be handled and acknowledged before its consumers are closed.
+		 */
+		private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+		/**
+		 * Max number of messages a batch listener accumulates over several batch receives
+		 * before it is invoked. Requires batch-window-max-wait.
+		 */
+		private Integer batchWindowMaxMessages;
+
+		/**
+		 * Max size of the messages a batch listener accumulates over several batch
+		 * receives before it is invoked. Requires batch-window-max-wait.
+		 */
+		private DataSize batchWindowMaxBytes;
+
+		/**
+		 * Max time a batch listener waits for messages to accumulate over several batch
+		 * receives before it is invoked, which by default is invoked with the messages of
+		 * each batch receive.
+		 */
+		private Duration batchWindowMaxWait;
+
+		/**
+		 * Number of batch receives issued, and decoded, ahead of the batch being handled.
+		 * The next batch is only received once the current one has been handled when 0.
+		 */
+		private Integer receivePipelineDepth;
+
 		public AckMode getAckMode() {
 			return this.ackMode;
 		}
@@ -1787,6 +2087,142 @@ public class PulsarProperties {
 			this.observationsEnabled = observationsEnabled;
 		}
 
+		public Boolean getMetricsEnabled() {
+			return this.metricsEnabled;
+		}
+
+		public void setMetricsEnabled(Boolean metricsEnabled) {
+			this.metricsEnabled = metricsEnabled;
+		}
+
+		public Boolean getVirtualThreads() {
+			return this.virtualThreads;
+		}
+
+		public void setVirtualThreads(Boolean virtualThreads) {
+			this.virtualThreads = virtualThreads;
+		}
+
+		public Integer getDispatchConcurrency() {
+			return this.dispatchConcurrency;
+		}
+
+		public void setDispatchConcurrency(Integer dispatchConcurrency) {
+			this.dispatchConcurrency = dispatchConcurrency;
+		}
+
+		public Integer getMaxInFlightMessages() {
+			return this.maxInFlightMessages;
+		}
+
+		public void setMaxInFlightMessages(Integer maxInFlightMessages) {
+			this.maxInFlightMessages = maxInFlightMessages;
+		}
+
+		public Integer getAckCount() {
+			return this.ackCount;
+		}
+
+		public void setAckCount(Integer ackCount) {
+			this.ackCount = ackCount;
+		}
+
+		public Duration getAckTime() {
+			return this.ackTime;
+		}
+
+		public void setAckTime(Duration ackTime) {
+			this.ackTime = ackTime;
+		}
+
+		public Long getMaxMessagesPerSecond() {
+			return this.maxMessagesPerSecond;
+		}
+
+		public void setMaxMessagesPerSecond(Long maxMessagesPerSecond) {
+			this.maxMessagesPerSecond = maxMessagesPerSecond;
+		}
+
+		public DataSize getMaxBytesPerSecond() {
+			return this.maxBytesPerSecond;
+		}
+
+		public void setMaxBytesPerSecond(DataSize maxBytesPerSecond) {
+			this.maxBytesPerSecond = maxBytesPerSecond;
+		}
+
+		public Integer getMaxConcurrency() {
+			return this.maxConcurrency;
+		}
+
+		public void setMaxConcurrency(Integer maxConcurrency) {
+			this.maxConcurrency = maxConcurrency;
+		}
+
+		public Duration getAutoscaleInterval() {
+			return this.autoscaleInterval;
+		}
+
+		public void setAutoscaleInterval(Duration autoscaleInterval) {
+			this.autoscaleInterval = autoscaleInterval;
+		}
+
+		public Duration getAutoscaleCooldown() {
+			return this.autoscaleCooldown;
+		}
+
+		public void setAutoscaleCooldown(Duration autoscaleCooldown) {
+			this.autoscaleCooldown = autoscaleCooldown;
+		}
+
+		public Integer getStartupParallelism() {
+			return this.startupParallelism;
+		}
+
+		public void setStartupParallelism(Integer startupParallelism) {
+			this.startupParallelism = startupParallelism;
+		}
+
+		public Integer getBatchWindowMaxMessages() {
+			return this.batchWindowMaxMessages;
+		}
+
+		public void setBatchWindowMaxMessages(Integer batchWindowMaxMessages) {
+			this.batchWindowMaxMessages = batchWindowMaxMessages;
+		}
+
+		public DataSize getBatchWindowMaxBytes() {
+			return this.batchWindowMaxBytes;
+		}
+
+		public void setBatchWindowMaxBytes(DataSize batchWindowMaxBytes) {
+			this.batchWindowMaxBytes = batchWindowMaxBytes;
+		}
+
+		public Duration getBatchWindowMaxWait() {
+			return this.batchWindowMaxWait;
+		}
+
+		public void setBatchWindowMaxWait(Duration batchWindowMaxWait) {
+			this.batchWindowMaxWait = batchWindowMaxWait;
+		}
+
+		public Integer getReceivePipelineDepth() {
+			return this.receivePipelineDepth;
+		}
+
+		public void setReceivePipelineDepth(Integer receivePipelineDepth) {
+			this.receivePipelineDepth = receivePipelineDepth;
+		}
+
+		public Duration getShutdownTimeout() {
+			return this.shutdownTimeout;
+		}
+
+		public void setShutdownTimeout(Duration shutdownTimeout) {
+			this.shutdownTimeout = shutdownTimeout;
+		}
+
 	}
 
 	public static class Admin {
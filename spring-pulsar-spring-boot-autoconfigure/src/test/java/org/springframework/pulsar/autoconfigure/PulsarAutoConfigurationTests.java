@@ -17,14 +17,23 @@
 package org.springframework.pulsar.autoconfigure;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.util.Collections;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.pulsar.client.api.PulsarClient;
 import org.apache.pulsar.client.api.Schema;
 import org.apache.pulsar.client.api.SubscriptionInitialPosition;
 import org.apache.pulsar.client.api.SubscriptionType;
 import org.apache.pulsar.client.api.interceptor.ProducerInterceptor;
+import org.apache.pulsar.client.impl.schema.JSONSchema;
 import org.apache.pulsar.common.schema.SchemaType;
 import org.assertj.core.api.AbstractObjectAssert;
 import org.assertj.core.api.InstanceOfAssertFactories;
@@ -38,6 +47,7 @@ import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.lang.Nullable;
 import org.springframework.pulsar.annotation.EnablePulsar;
 import org.springframework.pulsar.annotation.PulsarBootstrapConfiguration;
 import org.springframework.pulsar.annotation.PulsarListenerAnnotationBeanPostProcessor;
@@ -47,8 +57,12 @@ import org.springframework.pulsar.config.PulsarClientFactoryBean;
 import org.springframework.pulsar.config.PulsarListenerContainerFactory;
 import org.springframework.pulsar.config.PulsarListenerEndpointRegistry;
 import org.springframework.pulsar.core.CachingPulsarProducerFactory;
+import org.springframework.pulsar.core.CachingPulsarProducerFactory.StripingStrategy;
 import org.springframework.pulsar.core.DefaultPulsarProducerFactory;
 import org.springframework.pulsar.core.DefaultSchemaResolver;
+import org.springframework.pulsar.core.InFlightSendLimiter;
+import org.springframework.pulsar.core.InFlightSendLimiter.OverflowStrategy;
+import org.springframework.pulsar.core.InFlightSendLimiterMeterBinder;
 import org.springframework.pulsar.core.PulsarAdministration;
 import org.springframework.pulsar.core.PulsarConsumerFactory;
 import org.springframework.pulsar.core.PulsarProducerFactory;
@@ -265,10 +279,16 @@ class PulsarAutoConfigurationTests {
 
 	@Test
 	void listenerPropertiesAreHonored() {
-		contextRunner
-				.withPropertyValues("spring.pulsar.listener.ack-mode=manual", "spring.pulsar.listener.schema-type=avro",
-						"spring.pulsar.listener.max-num-messages=10", "spring.pulsar.listener.max-num-bytes=101B",
-						"spring.pulsar.listener.batch-timeout=50ms", "spring.pulsar.consumer.subscription-type=shared")
+		contextRunner.withPropertyValues("spring.pulsar.listener.ack-mode=manual",
+				"spring.pulsar.listener.schema-type=avro", "spring.pulsar.listener.max-num-messages=10",
+				"spring.pulsar.listener.max-num-bytes=101B", "spring.pulsar.listener.batch-timeout=50ms",
+				"spring.pulsar.listener.virtual-threads=true", "spring.pulsar.listener.dispatch-concurrency=4",
+				"spring.pulsar.listener.max-in-flight-messages=50", "spring.pulsar.listener.ack-count=20",
+				"spring.pulsar.listener.ack-time=2s", "spring.pulsar.listener.max-messages-per-second=500",
+				"spring.pulsar.listener.max-bytes-per-second=1MB", "spring.pulsar.listener.metrics-enabled=true",
+				"spring.pulsar.listener.shutdown-timeout=30s", "spring.pulsar.listener.batch-window-max-messages=5000",
+				"spring.pulsar.listener.batch-window-max-bytes=8MB", "spring.pulsar.listener.batch-window-max-wait=1s",
+				"spring.pulsar.listener.receive-pipeline-depth=2", "spring.pulsar.consumer.subscription-type=shared")
 				.run((context -> {
 					AbstractObjectAssert<?, PulsarContainerProperties> properties = assertThat(context).hasNotFailed()
 							.getBean(ConcurrentPulsarListenerContainerFactory.class)
@@ -278,11 +298,48 @@ class PulsarAutoConfigurationTests {
 					properties.extracting(PulsarContainerProperties::getMaxNumMessages).isEqualTo(10);
 					properties.extracting(PulsarContainerProperties::getMaxNumBytes).isEqualTo(101);
 					properties.extracting(PulsarContainerProperties::getBatchTimeoutMillis).isEqualTo(50);
+					properties.extracting(PulsarContainerProperties::isVirtualThreads).isEqualTo(true);
+					properties.extracting(PulsarContainerProperties::getDispatchConcurrency).isEqualTo(4);
+					properties.extracting(PulsarContainerProperties::getMaxInFlightMessages).isEqualTo(50);
+					properties.extracting(PulsarContainerProperties::getAckCount).isEqualTo(20);
+					properties.extracting(PulsarContainerProperties::getAckTime).isEqualTo(Duration.ofSeconds(2));
+					properties.extracting(PulsarContainerProperties::getMaxMessagesPerSecond).isEqualTo(500L);
+					properties.extracting(PulsarContainerProperties::getMaxBytesPerSecond).isEqualTo(1024L * 1024);
+					properties.extracting(PulsarContainerProperties::isMicrometerEnabled).isEqualTo(true);
+					properties.extracting(PulsarContainerProperties::getShutdownTimeout)
+							.isEqualTo(Duration.ofSeconds(30));
+					properties.extracting(PulsarContainerProperties::getBatchWindowMaxMessages).isEqualTo(5000);
+					properties.extracting(PulsarContainerProperties::getBatchWindowMaxBytes)
+							.isEqualTo(8L * 1024 * 1024);
+					properties.extracting(PulsarContainerProperties::getBatchWindowMaxWait)
+							.isEqualTo(Duration.ofSeconds(1));
+					properties.extracting(PulsarContainerProperties::getReceivePipelineDepth).isEqualTo(2);
 					properties.extracting(PulsarContainerProperties::getSubscriptionType)
 							.isEqualTo(SubscriptionType.Shared);
 				}));
 	}
 
+	@Test
+	void listenerAutoscalePropertiesAreHonored() {
+		contextRunner
+				.withPropertyValues("spring.pulsar.listener.max-concurrency=8",
+						"spring.pulsar.listener.autoscale-interval=5s", "spring.pulsar.listener.autoscale-cooldown=30s")
+				.run((context -> assertThat(context).hasNotFailed()
+						.getBean(ConcurrentPulsarListenerContainerFactory.class)
+						.hasFieldOrPropertyWithValue("maxConcurrency", 8)
+						.hasFieldOrPropertyWithValue("autoscaleInterval", Duration.ofSeconds(5))
+						.hasFieldOrPropertyWithValue("autoscaleCooldown", Duration.ofSeconds(30))));
+	}
+
+	@Test
+	void listenerStartupParallelismIsHonored() {
+		contextRunner.run((context -> assertThat(context).hasNotFailed().getBean(PulsarListenerEndpointRegistry.class)
+				.hasFieldOrPropertyWithValue("startupParallelism", 1)));
+		contextRunner.withPropertyValues("spring.pulsar.listener.startup-parallelism=8")
+				.run((context -> assertThat(context).hasNotFailed().getBean(PulsarListenerEndpointRegistry.class)
+						.hasFieldOrPropertyWithValue("startupParallelism", 8)));
+	}
+
 	@Nested
 	class ClientAutoConfigurationTests {
 
@@ -437,6 +494,60 @@ class PulsarAutoConfigurationTests {
 							.hasFieldOrPropertyWithValue("expiresAfterAccessNanos", TimeUnit.SECONDS.toNanos(100))));
 		}
 
+		@Test
+		void cachingProducerFactoryEvictionDrainTimeoutCanBeConfigured() {
+			contextRunner.withPropertyValues("spring.pulsar.producer.cache.eviction-drain-timeout=5s")
+					.run((context -> assertThat(context).hasNotFailed().getBean(PulsarProducerFactory.class)
+							.hasFieldOrPropertyWithValue("evictionDrainTimeout", Duration.ofSeconds(5))));
+		}
+
+		@Test
+		void cachingProducerFactoryCanBePrewarmed() {
+			PulsarClient pulsarClient = mock(PulsarClient.class);
+			when(pulsarClient.newProducer(any())).thenThrow(new RuntimeException("no broker"));
+			contextRunner
+					.withBean("customPulsarClientFactoryBean", PulsarClientFactoryBean.class,
+							() -> new MockPulsarClientFactoryBean(pulsarClient))
+					.withPropertyValues("spring.pulsar.producer.cache.prewarm.topics=foo,bar",
+							"spring.pulsar.producer.cache.prewarm.message-type=java.lang.String",
+							"spring.pulsar.producer.cache.prewarm.timeout=5s")
+					.run((context -> {
+						assertThat(context).hasNotFailed().getBean(PulsarProducerFactory.class)
+								.extracting("prewarmTopics", InstanceOfAssertFactories.MAP)
+								.containsExactly(entry("foo", Schema.STRING), entry("bar", Schema.STRING));
+						assertThat(context).getBean(PulsarProducerFactory.class)
+								.hasFieldOrPropertyWithValue("prewarmTimeout", Duration.ofSeconds(5));
+						verify(pulsarClient, times(2)).newProducer(Schema.STRING);
+					}));
+		}
+
+		@Test
+		void cachingProducerFactoryCanPrewarmTopicBeans() {
+			PulsarClient pulsarClient = mock(PulsarClient.class);
+			when(pulsarClient.newProducer(any())).thenThrow(new RuntimeException("no broker"));
+			contextRunner
+					.withBean("customPulsarClientFactoryBean", PulsarClientFactoryBean.class,
+							() -> new MockPulsarClientFactoryBean(pulsarClient))
+					.withPropertyValues("spring.pulsar.producer.cache.prewarm.topic-beans=true",
+							"spring.pulsar.producer.cache.prewarm.schema-type=JSON",
+							"spring.pulsar.producer.cache.prewarm.message-type=" + Foo.class.getName())
+					.run((context -> assertThat(context).hasNotFailed().getBean(PulsarProducerFactory.class)
+							.extracting("prewarmTopicBeansSchema").isInstanceOf(JSONSchema.class)));
+		}
+
+		@Test
+		void cachingProducerFactoryCanStripeTopics() {
+			contextRunner.withPropertyValues("spring.pulsar.producer.cache.striping.topics[hot-topic]=4",
+					"spring.pulsar.producer.cache.striping.topics[public/default/other]=2",
+					"spring.pulsar.producer.cache.striping.strategy=thread").run((context -> {
+						assertThat(context).hasNotFailed().getBean(PulsarProducerFactory.class)
+								.extracting("producerStripes", InstanceOfAssertFactories.MAP)
+								.containsOnly(entry("hot-topic", 4), entry("public/default/other", 2));
+						assertThat(context).getBean(PulsarProducerFactory.class)
+								.hasFieldOrPropertyWithValue("stripingStrategy", StripingStrategy.THREAD);
+					}));
+		}
+
 		private void assertHasProducerFactoryOfType(Class<?> producerFactoryType,
 				AssertableApplicationContext context) {
 			assertThat(context).hasNotFailed().hasSingleBean(PulsarProducerFactory.class)
@@ -445,6 +556,67 @@ class PulsarAutoConfigurationTests {
 
 	}
 
+	@Nested
+	class TemplateSendLimiterAutoConfigurationTests {
+
+		@Test
+		void sendLimiterNotConfiguredByDefault() {
+			contextRunner.run((context -> assertThat(context).hasNotFailed().doesNotHaveBean(InFlightSendLimiter.class)
+					.doesNotHaveBean(InFlightSendLimiterMeterBinder.class).getBean(PulsarTemplate.class)
+					.extracting("sendLimiter").isNull()));
+		}
+
+		@Test
+		void sendLimiterCanBeConfigured() {
+			contextRunner.withPropertyValues("spring.pulsar.template.in-flight.max=500",
+					"spring.pulsar.template.in-flight.overflow-strategy=delay",
+					"spring.pulsar.template.in-flight.per-topic=true",
+					"spring.pulsar.template.in-flight.max-block-time=5s").run((context -> {
+						assertThat(context).hasNotFailed().hasSingleBean(InFlightSendLimiterMeterBinder.class);
+						InFlightSendLimiter sendLimiter = context.getBean(InFlightSendLimiter.class);
+						assertThat(sendLimiter.getMaxInFlight()).isEqualTo(500);
+						assertThat(sendLimiter.getOverflowStrategy()).isEqualTo(OverflowStrategy.DELAY);
+						assertThat(sendLimiter.isPerTopic()).isTrue();
+						assertThat(sendLimiter).hasFieldOrPropertyWithValue("maxBlockTime", Duration.ofSeconds(5));
+						assertThat(context).getBean(PulsarTemplate.class).extracting("sendLimiter")
+								.isSameAs(sendLimiter);
+					}));
+		}
+
+		@Test
+		void customSendLimiterIsRespected() {
+			InFlightSendLimiter sendLimiter = new InFlightSendLimiter(10, OverflowStrategy.FAIL);
+			contextRunner.withPropertyValues("spring.pulsar.template.in-flight.max=500")
+					.withBean("customSendLimiter", InFlightSendLimiter.class, () -> sendLimiter)
+					.run((context -> assertThat(context).hasNotFailed().getBean(PulsarTemplate.class)
+							.extracting("sendLimiter").isSameAs(sendLimiter)));
+		}
+
+	}
+
+	record Foo(String value) {
+	}
+
+	static class MockPulsarClientFactoryBean extends PulsarClientFactoryBean {
+
+		private final PulsarClient pulsarClient;
+
+		MockPulsarClientFactoryBean(PulsarClient pulsarClient) {
+			super(new PulsarClientConfiguration(Collections.emptyMap()));
+			this.pulsarClient = pulsarClient;
+		}
+
+		@Override
+		protected PulsarClient createInstance() {
+			return this.pulsarClient;
+		}
+
+		@Override
+		protected void destroyInstance(@Nullable PulsarClient instance) {
+		}
+
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	static class InterceptorTestConfiguration {
 
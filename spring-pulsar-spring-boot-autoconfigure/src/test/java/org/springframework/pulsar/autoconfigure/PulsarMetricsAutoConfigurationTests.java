@@ -0,0 +1,65 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.FilteredClassLoader;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.pulsar.core.CachingPulsarProducerFactoryMeterBinder;
+import org.springframework.pulsar.core.PulsarProducerFactory;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Autoconfiguration tests for {@link PulsarMetricsAutoConfiguration}.
+ */
+class PulsarMetricsAutoConfigurationTests {
+
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner().withConfiguration(
+			AutoConfigurations.of(PulsarAutoConfiguration.class, PulsarMetricsAutoConfiguration.class));
+
+	@Test
+	void producerCacheMeterBinderIsAutoConfiguredForCachingProducerFactory() {
+		this.contextRunner
+				.run((context) -> assertThat(context).hasSingleBean(CachingPulsarProducerFactoryMeterBinder.class));
+	}
+
+	@Test
+	void producerCacheMeterBinderIsNotAutoConfiguredWhenCachingIsDisabled() {
+		this.contextRunner.withPropertyValues("spring.pulsar.producer.cache.enabled=false")
+				.run((context) -> assertThat(context).doesNotHaveBean(CachingPulsarProducerFactoryMeterBinder.class));
+	}
+
+	@Test
+	void producerCacheMeterBinderIsNotAutoConfiguredForCustomProducerFactory() {
+		this.contextRunner
+				.withBean("customProducerFactory", PulsarProducerFactory.class, () -> mock(PulsarProducerFactory.class))
+				.run((context) -> assertThat(context).doesNotHaveBean(CachingPulsarProducerFactoryMeterBinder.class));
+	}
+
+	@Test
+	void producerCacheMeterBinderIsNotAutoConfiguredWithoutMicrometer() {
+		this.contextRunner.withClassLoader(new FilteredClassLoader(MeterBinder.class))
+				.run((context) -> assertThat(context).doesNotHaveBean(CachingPulsarProducerFactoryMeterBinder.class));
+	}
+
+}
@@ -207,4 +207,13 @@ public @interface PulsarListener {
 	 */
 	String pulsarConsumerErrorHandler() default "";
 
+	/**
+	 * The bean name or a 'SpEL' expression that resolves to a
+	 * {@link org.springframework.pulsar.listener.RecordFilterStrategy} which discards
+	 * messages before they are converted and handed to the listener, overriding the
+	 * strategy configured on the container factory, if any.
+	 * @return the bean name for the record filter strategy or an empty string.
+	 */
+	String recordFilterStrategy() default "";
+
 }
@@ -83,6 +83,7 @@ import org.springframework.pulsar.config.PulsarListenerEndpoint;
 import org.springframework.pulsar.config.PulsarListenerEndpointRegistrar;
 import org.springframework.pulsar.config.PulsarListenerEndpointRegistry;
 import org.springframework.pulsar.listener.PulsarConsumerErrorHandler;
+import org.springframework.pulsar.listener.RecordFilterStrategy;
 import org.springframework.util.Assert;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
@@ -343,6 +344,7 @@ public class PulsarListenerAnnotationBeanPostProcessor<V>
 		resolveAckTimeoutRedeliveryBackoff(endpoint, pulsarListener);
 		resolveDeadLetterPolicy(endpoint, pulsarListener);
 		resolvePulsarConsumerErrorHandler(endpoint, pulsarListener);
+		resolveRecordFilterStrategy(endpoint, pulsarListener);
 	}
 
 	@SuppressWarnings({ "rawtypes" })
@@ -362,6 +364,22 @@ public class PulsarListenerAnnotationBeanPostProcessor<V>
 		}
 	}
 
+	@SuppressWarnings({ "rawtypes" })
+	private void resolveRecordFilterStrategy(MethodPulsarListenerEndpoint<?> endpoint, PulsarListener pulsarListener) {
+		Object recordFilterStrategy = resolveExpression(pulsarListener.recordFilterStrategy());
+		if (recordFilterStrategy instanceof RecordFilterStrategy) {
+			endpoint.setRecordFilterStrategy((RecordFilterStrategy) recordFilterStrategy);
+		}
+		else {
+			String recordFilterStrategyBeanName = resolveExpressionAsString(pulsarListener.recordFilterStrategy(),
+					"recordFilterStrategy");
+			if (StringUtils.hasText(recordFilterStrategyBeanName)) {
+				endpoint.setRecordFilterStrategy(
+						this.beanFactory.getBean(recordFilterStrategyBeanName, RecordFilterStrategy.class));
+			}
+		}
+	}
+
 	private void resolveNegativeAckRedeliveryBackoff(MethodPulsarListenerEndpoint<?> endpoint,
 			PulsarListener pulsarListener) {
 		Object negativeAckRedeliveryBackoff = resolveExpression(pulsarListener.negativeAckRedeliveryBackoff());
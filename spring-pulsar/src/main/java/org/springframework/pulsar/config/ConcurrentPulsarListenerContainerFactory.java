@@ -16,6 +16,7 @@
 
 package org.springframework.pulsar.config;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 
@@ -41,6 +42,12 @@ public class ConcurrentPulsarListenerContainerFactory<T>
 
 	private Integer concurrency;
 
+	private Integer maxConcurrency;
+
+	private Duration autoscaleInterval;
+
+	private Duration autoscaleCooldown;
+
 	public ConcurrentPulsarListenerContainerFactory(PulsarConsumerFactory<? super T> consumerFactory,
 			PulsarContainerProperties containerProperties, @Nullable ObservationRegistry observationRegistry) {
 		super(consumerFactory, containerProperties, observationRegistry);
@@ -54,11 +61,56 @@ public class ConcurrentPulsarListenerContainerFactory<T>
 		this.concurrency = concurrency;
 	}
 
+	/**
+	 * Specify the maximum container concurrency when the number of consumers is adjusted
+	 * at runtime, in which case the concurrency is the minimum number of consumers.
+	 * @param maxConcurrency the maximum number of consumers to create.
+	 * @see ConcurrentPulsarMessageListenerContainer#setMaxConcurrency(int)
+	 */
+	public void setMaxConcurrency(Integer maxConcurrency) {
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	/**
+	 * Specify how often the load of the consumers is sampled when the number of consumers
+	 * is adjusted at runtime.
+	 * @param autoscaleInterval the sampling interval.
+	 * @see ConcurrentPulsarMessageListenerContainer#setAutoscaleInterval(Duration)
+	 */
+	public void setAutoscaleInterval(Duration autoscaleInterval) {
+		this.autoscaleInterval = autoscaleInterval;
+	}
+
+	/**
+	 * Specify the minimum time between two adjustments of the number of consumers.
+	 * @param autoscaleCooldown the cooldown.
+	 * @see ConcurrentPulsarMessageListenerContainer#setAutoscaleCooldown(Duration)
+	 */
+	public void setAutoscaleCooldown(Duration autoscaleCooldown) {
+		this.autoscaleCooldown = autoscaleCooldown;
+	}
+
 	@Override
 	protected ConcurrentPulsarMessageListenerContainer<T> createContainerInstance(PulsarListenerEndpoint endpoint) {
 
 		PulsarContainerProperties properties = new PulsarContainerProperties();
 		properties.setSchemaResolver(this.getContainerProperties().getSchemaResolver());
+		properties.setVirtualThreads(this.getContainerProperties().isVirtualThreads());
+		properties.setDispatchConcurrency(this.getContainerProperties().getDispatchConcurrency());
+		properties.setMaxInFlightMessages(this.getContainerProperties().getMaxInFlightMessages());
+		properties.setAckCount(this.getContainerProperties().getAckCount());
+		properties.setAckTime(this.getContainerProperties().getAckTime());
+		properties.setMaxMessagesPerSecond(this.getContainerProperties().getMaxMessagesPerSecond());
+		properties.setMaxBytesPerSecond(this.getContainerProperties().getMaxBytesPerSecond());
+		properties.setPoolMessages(this.getContainerProperties().isPoolMessages());
+		properties.setShutdownTimeout(this.getContainerProperties().getShutdownTimeout());
+		properties.setBatchWindowMaxMessages(this.getContainerProperties().getBatchWindowMaxMessages());
+		properties.setBatchWindowMaxBytes(this.getContainerProperties().getBatchWindowMaxBytes());
+		properties.setBatchWindowMaxWait(this.getContainerProperties().getBatchWindowMaxWait());
+		properties.setReceivePipelineDepth(this.getContainerProperties().getReceivePipelineDepth());
+		properties.setRecordFilterStrategy(this.getContainerProperties().getRecordFilterStrategy());
+		properties.setMicrometerEnabled(this.getContainerProperties().isMicrometerEnabled());
+		properties.setMicrometerTags(this.getContainerProperties().getMicrometerTags());
 
 		if (!CollectionUtils.isEmpty(endpoint.getTopics())) {
 			properties.setTopics(endpoint.getTopics().toArray(new String[0]));
@@ -96,6 +148,15 @@ public class ConcurrentPulsarListenerContainerFactory<T>
 		else if (this.concurrency != null) {
 			instance.setConcurrency(this.concurrency);
 		}
+		if (this.maxConcurrency != null) {
+			instance.setMaxConcurrency(this.maxConcurrency);
+		}
+		if (this.autoscaleInterval != null) {
+			instance.setAutoscaleInterval(this.autoscaleInterval);
+		}
+		if (this.autoscaleCooldown != null) {
+			instance.setAutoscaleCooldown(this.autoscaleCooldown);
+		}
 	}
 
 	@Override
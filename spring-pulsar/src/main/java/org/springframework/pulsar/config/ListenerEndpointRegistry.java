@@ -23,6 +23,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.beans.BeansException;
@@ -35,9 +40,11 @@ import org.springframework.context.ApplicationListener;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.SmartLifecycle;
 import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.log.LogAccessor;
 import org.springframework.lang.Nullable;
 import org.springframework.pulsar.listener.MessageListenerContainer;
 import org.springframework.pulsar.listener.PulsarListenerContainerRegistry;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.Assert;
 
 /**
@@ -62,6 +69,8 @@ public class ListenerEndpointRegistry<C extends MessageListenerContainer, E exte
 		implements PulsarListenerContainerRegistry, DisposableBean, SmartLifecycle, ApplicationContextAware,
 		ApplicationListener<ContextRefreshedEvent> {
 
+	private final LogAccessor logger = new LogAccessor(this.getClass());
+
 	private final Class<? extends C> type;
 
 	private final Map<String, C> listenerContainers = new ConcurrentHashMap<>();
@@ -72,6 +81,8 @@ public class ListenerEndpointRegistry<C extends MessageListenerContainer, E exte
 
 	private boolean contextRefreshed;
 
+	private int startupParallelism = 1;
+
 	private volatile boolean running;
 
 	@SuppressWarnings("unchecked")
@@ -86,6 +97,24 @@ public class ListenerEndpointRegistry<C extends MessageListenerContainer, E exte
 		}
 	}
 
+	/**
+	 * Set the maximum number of listener containers that are started concurrently. As
+	 * starting a container subscribes its consumers to the broker, starting them
+	 * concurrently shortens the startup of applications with many listeners. Each
+	 * container still publishes its own events, such as a {@code ConsumerFailedToStart}
+	 * event if its consumer does not start in time. Default 1, which starts the
+	 * containers one after another on the calling thread.
+	 * @param startupParallelism the maximum number of containers started concurrently
+	 */
+	public void setStartupParallelism(int startupParallelism) {
+		Assert.isTrue(startupParallelism > 0, "startupParallelism must be greater than 0");
+		this.startupParallelism = startupParallelism;
+	}
+
+	public int getStartupParallelism() {
+		return this.startupParallelism;
+	}
+
 	@Override
 	@Nullable
 	public C getListenerContainer(String id) {
@@ -181,10 +210,59 @@ public class ListenerEndpointRegistry<C extends MessageListenerContainer, E exte
 
 	@Override
 	public void start() {
-		for (C listenerContainer : getListenerContainers()) {
-			startIfNecessary(listenerContainer);
+		List<C> containersToStart = getListenerContainers().stream().filter(this::shouldStart).toList();
+		long startNanos = System.nanoTime();
+		if (this.startupParallelism > 1 && containersToStart.size() > 1) {
+			startConcurrently(containersToStart);
+		}
+		else {
+			containersToStart.forEach(C::start);
 		}
 		this.running = true;
+		if (!containersToStart.isEmpty()) {
+			this.logger.info(() -> String.format("Started %d listener container(s) in %d ms", containersToStart.size(),
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)));
+		}
+	}
+
+	private void startConcurrently(List<C> containersToStart) {
+		int threads = Math.min(this.startupParallelism, containersToStart.size());
+		ExecutorService executor = Executors.newFixedThreadPool(threads,
+				new CustomizableThreadFactory("pulsar-listener-start-"));
+		try {
+			List<Future<?>> futures = new ArrayList<>(containersToStart.size());
+			for (C listenerContainer : containersToStart) {
+				futures.add(executor.submit(listenerContainer::start));
+			}
+			// wait for all the containers so that none is left starting on failure
+			RuntimeException failure = null;
+			for (Future<?> future : futures) {
+				try {
+					future.get();
+				}
+				catch (ExecutionException ex) {
+					RuntimeException cause = (ex.getCause() instanceof RuntimeException runtimeException
+							? runtimeException
+							: new IllegalStateException("Failed to start listener container", ex.getCause()));
+					if (failure == null) {
+						failure = cause;
+					}
+					else {
+						failure.addSuppressed(cause);
+					}
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException("Interrupted while starting listener containers", ex);
+				}
+			}
+			if (failure != null) {
+				throw failure;
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
 	}
 
 	@Override
@@ -228,10 +306,8 @@ public class ListenerEndpointRegistry<C extends MessageListenerContainer, E exte
 		}
 	}
 
-	private void startIfNecessary(C listenerContainer) {
-		if (this.contextRefreshed || listenerContainer.isAutoStartup()) {
-			listenerContainer.start();
-		}
+	private boolean shouldStart(C listenerContainer) {
+		return this.contextRefreshed || listenerContainer.isAutoStartup();
 	}
 
 	private static final class AggregatingCallback implements Runnable {
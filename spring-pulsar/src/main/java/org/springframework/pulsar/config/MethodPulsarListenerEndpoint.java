@@ -40,17 +40,22 @@ import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.support.MessageHandlerMethodFactory;
 import org.springframework.messaging.handler.invocation.InvocableHandlerMethod;
 import org.springframework.pulsar.core.SchemaResolver;
+import org.springframework.pulsar.listener.AbstractPulsarMessageListenerContainer;
 import org.springframework.pulsar.listener.Acknowledgement;
 import org.springframework.pulsar.listener.ConcurrentPulsarMessageListenerContainer;
 import org.springframework.pulsar.listener.PulsarConsumerErrorHandler;
 import org.springframework.pulsar.listener.PulsarContainerProperties;
 import org.springframework.pulsar.listener.PulsarMessageListenerContainer;
+import org.springframework.pulsar.listener.RecordFilterStrategy;
 import org.springframework.pulsar.listener.adapter.HandlerAdapter;
+import org.springframework.pulsar.listener.adapter.PulsarAsyncRecordMessagingMessageListenerAdapter;
 import org.springframework.pulsar.listener.adapter.PulsarBatchMessagingMessageListenerAdapter;
 import org.springframework.pulsar.listener.adapter.PulsarMessagingMessageListenerAdapter;
 import org.springframework.pulsar.listener.adapter.PulsarRecordMessagingMessageListenerAdapter;
+import org.springframework.pulsar.support.DefaultPulsarMessageHeaderMapper;
 import org.springframework.pulsar.support.MessageConverter;
 import org.springframework.pulsar.support.converter.PulsarBatchMessageConverter;
+import org.springframework.pulsar.support.converter.PulsarMessagingMessageConverter;
 import org.springframework.pulsar.support.converter.PulsarRecordMessageConverter;
 import org.springframework.util.Assert;
 
@@ -84,6 +89,9 @@ public class MethodPulsarListenerEndpoint<V> extends AbstractPulsarListenerEndpo
 	@SuppressWarnings("rawtypes")
 	private PulsarConsumerErrorHandler pulsarConsumerErrorHandler;
 
+	@Nullable
+	private RecordFilterStrategy<?> recordFilterStrategy;
+
 	public void setBean(Object bean) {
 		this.bean = bean;
 	}
@@ -114,6 +122,9 @@ public class MethodPulsarListenerEndpoint<V> extends AbstractPulsarListenerEndpo
 		Assert.state(this.messageHandlerMethodFactory != null,
 				"Could not create message listener - MessageHandlerMethodFactory not set");
 		PulsarMessagingMessageListenerAdapter<V> messageListener = createMessageListenerInstance(messageConverter);
+		if (!(messageConverter instanceof PulsarRecordMessageConverter) && isPoolMessagesRequested(container)) {
+			mapHeadersEagerly(messageListener);
+		}
 		HandlerAdapter handlerMethod = configureListenerAdapter(messageListener);
 		messageListener.setHandlerMethod(handlerMethod);
 
@@ -157,10 +168,37 @@ public class MethodPulsarListenerEndpoint<V> extends AbstractPulsarListenerEndpo
 		container.setAckTimeoutRedeliveryBackoff(this.ackTimeoutRedeliveryBackoff);
 		container.setDeadLetterPolicy(this.deadLetterPolicy);
 		container.setPulsarConsumerErrorHandler(this.pulsarConsumerErrorHandler);
+		if (this.recordFilterStrategy != null) {
+			pulsarContainerProperties.setRecordFilterStrategy(this.recordFilterStrategy);
+		}
 
 		return messageListener;
 	}
 
+	private boolean isPoolMessagesRequested(PulsarMessageListenerContainer container) {
+		return container instanceof AbstractPulsarMessageListenerContainer<?> abstractContainer
+				&& abstractContainer.isPoolMessagesRequested();
+	}
+
+	/**
+	 * Pooled messages are released once acknowledged, so the headers handed to a record
+	 * listener must not read them lazily, in case the listener keeps them.
+	 * @param messageListener the message listener
+	 */
+	private void mapHeadersEagerly(PulsarMessagingMessageListenerAdapter<V> messageListener) {
+		if (!(messageListener instanceof PulsarRecordMessagingMessageListenerAdapter<V> recordMessageListener)
+				|| messageListener instanceof PulsarAsyncRecordMessagingMessageListenerAdapter) {
+			return;
+		}
+		DefaultPulsarMessageHeaderMapper headerMapper = new DefaultPulsarMessageHeaderMapper();
+		headerMapper.setLazyHeaders(false);
+		PulsarMessagingMessageConverter<V> messageConverter = new PulsarMessagingMessageConverter<>(headerMapper);
+		if (this.messagingConverter != null) {
+			messageConverter.setMessagingConverter(this.messagingConverter);
+		}
+		recordMessageListener.setMessageConverter(messageConverter);
+	}
+
 	private ResolvableType resolvableType(MethodParameter methodParameter) {
 		ResolvableType resolvableType = ResolvableType.forMethodParameter(methodParameter);
 		Class<?> rawClass = resolvableType.getRawClass();
@@ -200,8 +238,10 @@ public class MethodPulsarListenerEndpoint<V> extends AbstractPulsarListenerEndpo
 			listener = messageListener;
 		}
 		else {
-			PulsarRecordMessagingMessageListenerAdapter<V> messageListener = new PulsarRecordMessagingMessageListenerAdapter<V>(
-					this.bean, this.method);
+			PulsarRecordMessagingMessageListenerAdapter<V> messageListener = PulsarAsyncRecordMessagingMessageListenerAdapter
+					.isAsyncReturnType(this.method.getReturnType())
+							? new PulsarAsyncRecordMessagingMessageListenerAdapter<V>(this.bean, this.method)
+							: new PulsarRecordMessagingMessageListenerAdapter<V>(this.bean, this.method);
 			if (messageConverter instanceof PulsarRecordMessageConverter) {
 				messageListener.setMessageConverter((PulsarRecordMessageConverter) messageConverter);
 			}
@@ -234,6 +274,10 @@ public class MethodPulsarListenerEndpoint<V> extends AbstractPulsarListenerEndpo
 		this.pulsarConsumerErrorHandler = pulsarConsumerErrorHandler;
 	}
 
+	public void setRecordFilterStrategy(RecordFilterStrategy<?> recordFilterStrategy) {
+		this.recordFilterStrategy = recordFilterStrategy;
+	}
+
 	public void setAckTimeoutRedeliveryBackoff(RedeliveryBackoff ackTimeoutRedeliveryBackoff) {
 		this.ackTimeoutRedeliveryBackoff = ackTimeoutRedeliveryBackoff;
 	}
@@ -17,14 +17,27 @@
 package org.springframework.pulsar.core;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import org.apache.commons.logging.LogFactory;
 import org.apache.pulsar.client.api.MessageId;
@@ -37,13 +50,19 @@ import org.apache.pulsar.client.api.TypedMessageBuilder;
 import org.apache.pulsar.client.api.transaction.Transaction;
 import org.apache.pulsar.common.protocol.schema.SchemaHash;
 
+import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
 import org.springframework.core.log.LogAccessor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.github.benmanes.caffeine.cache.RemovalListener;
 import com.github.benmanes.caffeine.cache.Scheduler;
 
@@ -56,19 +75,59 @@ import com.github.benmanes.caffeine.cache.Scheduler;
  * cache or when {@link DisposableBean#destroy()} is invoked.
  * <p>
  * The proxied producer is cached in an LRU fashion and evicted when it has not been used
- * within a configured time period.
+ * within a configured time period. A producer handed out by the factory is leased to the
+ * caller until the caller closes it, and an evicted producer is only closed once its
+ * leases are returned and its sends in flight complete, waiting at most for the
+ * {@link #setEvictionDrainTimeout eviction drain timeout}.
+ * <p>
+ * Producers for {@link #addPrewarmTopic declared topics} are created in parallel when the
+ * factory is initialized so that the first send to each topic does not pay the producer
+ * creation cost. Pre-warmed producers are created without encryption keys or customizers
+ * and are therefore only used for sends without them.
+ * <p>
+ * Sends to {@link #setProducerStripes hot topics} can be striped across several producers
+ * so that concurrent senders do not contend on the lock of a single producer. The
+ * producer used for a message is selected by the {@link StripingStrategy}.
+ * <p>
+ * The cache records its statistics, which along with the eviction counts and the producer
+ * creation times can be bound to a meter registry with a
+ * {@link CachingPulsarProducerFactoryMeterBinder}.
  *
  * @param <T> producer type.
  * @author Chris Bono
  * @author Alexander Preuß
  * @author Christophe Bornet
  */
-public class CachingPulsarProducerFactory<T> extends DefaultPulsarProducerFactory<T> implements DisposableBean {
+public class CachingPulsarProducerFactory<T> extends DefaultPulsarProducerFactory<T>
+		implements ApplicationContextAware, SmartInitializingSingleton, DisposableBean {
+
+	private static final int PREWARM_CONCURRENCY_LIMIT = 8;
 
 	private final LogAccessor logger = new LogAccessor(LogFactory.getLog(this.getClass()));
 
 	private final Cache<ProducerCacheKey<T>, Producer<T>> producerCache;
 
+	private final Map<RemovalCause, LongAdder> evictionCounts = new EnumMap<>(RemovalCause.class);
+
+	@Nullable
+	private volatile ProducerCreationListener producerCreationListener;
+
+	private final Map<String, Schema<?>> prewarmTopics = new LinkedHashMap<>();
+
+	@Nullable
+	private Schema<?> prewarmTopicBeansSchema;
+
+	private Duration prewarmTimeout = Duration.ofSeconds(30);
+
+	private final Map<String, Integer> producerStripes = new HashMap<>();
+
+	private StripingStrategy stripingStrategy = StripingStrategy.MESSAGE_KEY;
+
+	private Duration evictionDrainTimeout = Duration.ofSeconds(30);
+
+	@Nullable
+	private ApplicationContext applicationContext;
+
 	/**
 	 * Construct a caching producer factory with the specified values for the cache
 	 * configuration.
@@ -81,31 +140,201 @@ public class CachingPulsarProducerFactory<T> extends DefaultPulsarProducerFactor
 	public CachingPulsarProducerFactory(PulsarClient pulsarClient, Map<String, Object> producerConfig,
 			Duration cacheExpireAfterAccess, Long cacheMaximumSize, Integer cacheInitialCapacity) {
 		super(pulsarClient, producerConfig);
+		for (RemovalCause cause : RemovalCause.values()) {
+			this.evictionCounts.put(cause, new LongAdder());
+		}
 		this.producerCache = Caffeine.newBuilder().expireAfterAccess(cacheExpireAfterAccess)
 				.maximumSize(cacheMaximumSize).initialCapacity(cacheInitialCapacity)
-				.scheduler(Scheduler.systemScheduler()).evictionListener(
+				.scheduler(Scheduler.systemScheduler()).recordStats().evictionListener(
 						(RemovalListener<ProducerCacheKey<T>, Producer<T>>) (producerCacheKey, producer, cause) -> {
 							this.logger.debug(() -> String.format("Producer %s evicted from cache due to %s",
 									ProducerUtils.formatProducer(producer), cause));
-							closeProducer(producer);
+							this.evictionCounts.get(cause).increment();
+							retireProducer(producer);
 						})
 				.build();
 	}
 
+	/**
+	 * Declare a topic to create a producer for when the factory is initialized.
+	 * @param topic the topic, named as it is when sending to it
+	 * @param schema the schema of the messages sent to the topic
+	 */
+	public void addPrewarmTopic(String topic, Schema<?> schema) {
+		Assert.hasText(topic, "topic must not be empty");
+		Assert.notNull(schema, "schema must not be null");
+		this.prewarmTopics.put(topic, schema);
+	}
+
+	/**
+	 * Set the schema to use to also create producers for the {@link PulsarTopic} beans in
+	 * the application context when the factory is initialized.
+	 * @param schema the schema of the messages sent to the topics or {@code null} to not
+	 * create producers for the topic beans
+	 */
+	public void setPrewarmTopicBeansSchema(@Nullable Schema<?> schema) {
+		this.prewarmTopicBeansSchema = schema;
+	}
+
+	/**
+	 * Set the maximum time to wait for the producers to be created when the factory is
+	 * initialized. Producers that are not created in time continue to be created in the
+	 * background. Defaults to 30 seconds.
+	 * @param prewarmTimeout the maximum time to wait
+	 */
+	public void setPrewarmTimeout(Duration prewarmTimeout) {
+		Assert.notNull(prewarmTimeout, "prewarmTimeout must not be null");
+		this.prewarmTimeout = prewarmTimeout;
+	}
+
+	/**
+	 * Set the number of producers to stripe the sends to a topic across. If a producer
+	 * name is configured, the index of each producer is appended to it to keep the names
+	 * unique.
+	 * @param topic the topic, named as it is when sending to it
+	 * @param stripes the number of producers for the topic
+	 */
+	public void setProducerStripes(String topic, int stripes) {
+		Assert.hasText(topic, "topic must not be empty");
+		Assert.isTrue(stripes > 0, "stripes must be greater than 0");
+		this.producerStripes.put(topic, stripes);
+	}
+
+	/**
+	 * Set the strategy used to select the producer of a message for the topics whose
+	 * sends are {@link #setProducerStripes striped}. Defaults to
+	 * {@link StripingStrategy#MESSAGE_KEY}.
+	 * @param stripingStrategy the striping strategy
+	 */
+	public void setStripingStrategy(StripingStrategy stripingStrategy) {
+		Assert.notNull(stripingStrategy, "stripingStrategy must not be null");
+		this.stripingStrategy = stripingStrategy;
+	}
+
+	/**
+	 * Set the maximum time to wait for the callers of an evicted producer to close it and
+	 * for its sends in flight to complete before closing it. Defaults to 30 seconds.
+	 * @param evictionDrainTimeout the maximum time to wait
+	 */
+	public void setEvictionDrainTimeout(Duration evictionDrainTimeout) {
+		Assert.notNull(evictionDrainTimeout, "evictionDrainTimeout must not be null");
+		this.evictionDrainTimeout = evictionDrainTimeout;
+	}
+
+	/**
+	 * Return the number of producers evicted from the cache for the given cause.
+	 * @param cause the removal cause
+	 * @return the number of producers evicted for the cause
+	 */
+	public long getEvictionCount(RemovalCause cause) {
+		return this.evictionCounts.get(cause).sum();
+	}
+
+	Cache<ProducerCacheKey<T>, Producer<T>> getProducerCache() {
+		return this.producerCache;
+	}
+
+	void setProducerCreationListener(@Nullable ProducerCreationListener producerCreationListener) {
+		this.producerCreationListener = producerCreationListener;
+	}
+
+	@Override
+	public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
+		this.applicationContext = applicationContext;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		Map<String, Schema<?>> topics = new LinkedHashMap<>(this.prewarmTopics);
+		if (this.prewarmTopicBeansSchema != null && this.applicationContext != null) {
+			this.applicationContext.getBeansOfType(PulsarTopic.class, false, false).values()
+					.forEach((topic) -> topics.putIfAbsent(topic.topicName(), this.prewarmTopicBeansSchema));
+		}
+		prewarmProducers(topics);
+	}
+
+	private void prewarmProducers(Map<String, Schema<?>> topics) {
+		if (topics.isEmpty()) {
+			return;
+		}
+		this.logger.info(() -> String.format("Pre-warming producers for topics %s", topics.keySet()));
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("pulsar-producer-prewarm-");
+		executor.setConcurrencyLimit(PREWARM_CONCURRENCY_LIMIT);
+		CompletableFuture<?>[] prewarmFutures = topics
+				.entrySet().stream().map((entry) -> CompletableFuture
+						.runAsync(() -> prewarmProducer(entry.getKey(), entry.getValue()), executor))
+				.toArray(CompletableFuture[]::new);
+		try {
+			CompletableFuture.allOf(prewarmFutures).get(this.prewarmTimeout.toMillis(), TimeUnit.MILLISECONDS);
+		}
+		catch (TimeoutException ex) {
+			this.logger.warn(() -> String.format(
+					"Timed out after %s pre-warming producers - remaining producers are created in the background",
+					this.prewarmTimeout));
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			this.logger.warn("Interrupted while pre-warming producers");
+		}
+		catch (ExecutionException ex) {
+			this.logger.warn(ex.getCause(), "Failed to pre-warm producers");
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void prewarmProducer(String topic, Schema<?> schema) {
+		try {
+			// Use the same (empty) customizers as a template without interceptors so that
+			// its sends reuse the pre-warmed producer
+			getCachedProducer(cacheKey((Schema<T>) schema, topic, null, Collections.emptyList()));
+			this.logger.debug(() -> String.format("Pre-warmed producer for '%s' topic", topic));
+		}
+		catch (RuntimeException ex) {
+			this.logger.warn(ex, () -> String.format("Failed to pre-warm producer for '%s' topic", topic));
+		}
+	}
+
 	@Override
 	protected Producer<T> doCreateProducer(Schema<T> schema, @Nullable String topic,
 			@Nullable Collection<String> encryptionKeys, @Nullable List<ProducerBuilderCustomizer<T>> customizers) {
+		ProducerCacheKey<T> producerCacheKey = cacheKey(schema, topic, encryptionKeys, customizers);
+		while (true) {
+			Producer<T> producer = getCachedProducer(producerCacheKey);
+			// Leased until the caller closes it, so that an eviction before the send does
+			// not close it. A producer retired in the meantime is no longer cached.
+			if (!(producer instanceof ProducerWithCloseCallback<T> wrappedProducer)) {
+				return producer;
+			}
+			if (wrappedProducer.checkout()) {
+				return new LeasedProducer<>(wrappedProducer);
+			}
+		}
+	}
+
+	private ProducerCacheKey<T> cacheKey(Schema<T> schema, @Nullable String topic,
+			@Nullable Collection<String> encryptionKeys, @Nullable List<ProducerBuilderCustomizer<T>> customizers) {
 		String topicName = ProducerUtils.resolveTopicName(topic, this);
-		ProducerCacheKey<T> producerCacheKey = new ProducerCacheKey<>(schema, topicName,
-				encryptionKeys == null ? null : new HashSet<>(encryptionKeys), customizers);
+		return new ProducerCacheKey<>(schema, topicName, encryptionKeys == null ? null : new HashSet<>(encryptionKeys),
+				customizers);
+	}
+
+	private Producer<T> getCachedProducer(ProducerCacheKey<T> producerCacheKey) {
 		return this.producerCache.get(producerCacheKey,
-				(st) -> createCacheableProducer(st.schema, st.topic, st.encryptionKeys, customizers));
+				(st) -> createCacheableProducer(st.schema, st.topic, st.encryptionKeys, st.customizers));
 	}
 
 	private Producer<T> createCacheableProducer(Schema<T> schema, String topic,
 			@Nullable Collection<String> encryptionKeys, @Nullable List<ProducerBuilderCustomizer<T>> customizers) {
 		try {
-			Producer<T> producer = super.doCreateProducer(schema, topic, encryptionKeys, customizers);
+			long start = System.nanoTime();
+			int stripes = this.producerStripes.getOrDefault(topic, 1);
+			Producer<T> producer = (stripes > 1)
+					? createStripedProducer(schema, topic, encryptionKeys, customizers, stripes)
+					: super.doCreateProducer(schema, topic, encryptionKeys, customizers);
+			ProducerCreationListener listener = this.producerCreationListener;
+			if (listener != null) {
+				listener.producerCreated(topic, System.nanoTime() - start);
+			}
 			return new ProducerWithCloseCallback<>(producer,
 					(p) -> this.logger
 							.trace(() -> String.format("Client closed producer %s but will skip actual closing",
@@ -116,6 +345,36 @@ public class CachingPulsarProducerFactory<T> extends DefaultPulsarProducerFactor
 		}
 	}
 
+	private Producer<T> createStripedProducer(Schema<T> schema, String topic,
+			@Nullable Collection<String> encryptionKeys, @Nullable List<ProducerBuilderCustomizer<T>> customizers,
+			int stripes) throws PulsarClientException {
+		List<Producer<T>> producers = new ArrayList<>(stripes);
+		try {
+			for (int stripe = 0; stripe < stripes; stripe++) {
+				producers.add(
+						super.doCreateProducer(schema, topic, encryptionKeys, stripeCustomizers(customizers, stripe)));
+			}
+		}
+		catch (PulsarClientException | RuntimeException ex) {
+			producers.forEach((producer) -> ProducerUtils.closeProducerAsync(producer, this.logger));
+			throw ex;
+		}
+		return new StripedProducer<>(producers, this.stripingStrategy);
+	}
+
+	@Nullable
+	private List<ProducerBuilderCustomizer<T>> stripeCustomizers(
+			@Nullable List<ProducerBuilderCustomizer<T>> customizers, int stripe) {
+		Object producerName = getProducerConfig().get("producerName");
+		if (producerName == null) {
+			return customizers;
+		}
+		List<ProducerBuilderCustomizer<T>> stripeCustomizers = (customizers != null) ? new ArrayList<>(customizers)
+				: new ArrayList<>();
+		stripeCustomizers.add((builder) -> builder.producerName(producerName + "-" + stripe));
+		return stripeCustomizers;
+	}
+
 	@Override
 	public void destroy() {
 		this.producerCache.asMap().forEach((producerCacheKey, producer) -> {
@@ -124,6 +383,26 @@ public class CachingPulsarProducerFactory<T> extends DefaultPulsarProducerFactor
 		});
 	}
 
+	private void retireProducer(Producer<T> producer) {
+		if (!(producer instanceof ProducerWithCloseCallback<T> wrappedProducer)) {
+			closeProducer(producer);
+			return;
+		}
+		if (wrappedProducer.retire(() -> closeProducer(wrappedProducer))) {
+			return;
+		}
+		this.logger.debug(() -> String.format("Deferring close of producer %s until its %d leases are returned",
+				ProducerUtils.formatProducer(producer), wrappedProducer.getLeases()));
+		Scheduler.systemScheduler().schedule(ForkJoinPool.commonPool(), () -> {
+			if (wrappedProducer.forceClose()) {
+				this.logger.warn(
+						() -> String.format("Closed producer %s with %d leases not returned after waiting %s for them",
+								ProducerUtils.formatProducer(producer), wrappedProducer.getLeases(),
+								this.evictionDrainTimeout));
+			}
+		}, this.evictionDrainTimeout.toNanos(), TimeUnit.NANOSECONDS);
+	}
+
 	@SuppressWarnings("unchecked")
 	private void closeProducer(Producer<T> producer) {
 		Producer<T> actualProducer = null;
@@ -138,6 +417,41 @@ public class CachingPulsarProducerFactory<T> extends DefaultPulsarProducerFactor
 		ProducerUtils.closeProducerAsync(actualProducer, this.logger);
 	}
 
+	/**
+	 * Strategy to select the producer of a message for the topics whose sends are striped
+	 * across several producers.
+	 */
+	public enum StripingStrategy {
+
+		/**
+		 * Select the producer by the sending thread.
+		 */
+		THREAD,
+
+		/**
+		 * Select the producer by the ordering key or key of the message, so that the
+		 * messages with the same key are sent in order. Messages without a key are
+		 * striped by the sending thread.
+		 */
+		MESSAGE_KEY
+
+	}
+
+	/**
+	 * Callback for the creation of the producers that are added to the cache.
+	 */
+	@FunctionalInterface
+	interface ProducerCreationListener {
+
+		/**
+		 * Called after a producer is created.
+		 * @param topic the topic of the producer
+		 * @param creationTimeNanos the time it took to create the producer
+		 */
+		void producerCreated(String topic, long creationTimeNanos);
+
+	}
+
 	/**
 	 * Uniquely identifies a producer that was handed out by the factory.
 	 *
@@ -201,15 +515,30 @@ public class CachingPulsarProducerFactory<T> extends DefaultPulsarProducerFactor
 	/**
 	 * A producer that does not actually close when the user calls
 	 * {@link Producer#close()}.
+	 * <p>
+	 * The producer keeps track of its {@link #checkout checkouts} that are not closed yet
+	 * and of its sends in flight so that, once it is {@link #retire retired}, it is only
+	 * closed when they complete.
 	 *
 	 * @param <T> producer type.
 	 */
 	static class ProducerWithCloseCallback<T> implements Producer<T> {
 
+		private static final long RETIRED = 1L << 62;
+
 		private final Producer<T> producer;
 
 		private final Consumer<Producer<T>> closeCallback;
 
+		// The number of leases (checkouts and sends in flight), with the RETIRED bit set
+		// once retired
+		private final AtomicLong state = new AtomicLong();
+
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		@Nullable
+		private volatile Runnable closeAction;
+
 		ProducerWithCloseCallback(Producer<T> producer, Consumer<Producer<T>> closeCallback) {
 			this.producer = producer;
 			this.closeCallback = closeCallback;
@@ -219,6 +548,317 @@ public class CachingPulsarProducerFactory<T> extends DefaultPulsarProducerFactor
 			return this.producer;
 		}
 
+		/**
+		 * Return the number of leases on the producer, that is its checkouts that are not
+		 * closed yet and its sends in flight.
+		 * @return the number of leases
+		 */
+		long getLeases() {
+			return this.state.get() & ~RETIRED;
+		}
+
+		/**
+		 * Lease the producer to a caller that checked it out of the cache, until the
+		 * caller closes it.
+		 * @return {@code false} if the producer is already retired and was not leased
+		 */
+		boolean checkout() {
+			long previousState = this.state.getAndUpdate((state) -> (state & RETIRED) != 0 ? state : state + 1);
+			return (previousState & RETIRED) == 0;
+		}
+
+		/**
+		 * Retire the producer so that it is closed as soon as there are no sends in
+		 * flight.
+		 * @param closeAction the action that closes the producer
+		 * @return whether the producer was closed right away
+		 */
+		boolean retire(Runnable closeAction) {
+			this.closeAction = closeAction;
+			long previousState = this.state.getAndUpdate((state) -> state | RETIRED);
+			if (previousState == 0) {
+				return closeOnce();
+			}
+			return false;
+		}
+
+		/**
+		 * Close the retired producer even if there are sends in flight.
+		 * @return whether the producer was closed by this call
+		 */
+		boolean forceClose() {
+			return closeOnce();
+		}
+
+		private boolean closeOnce() {
+			Runnable action = this.closeAction;
+			if (action != null && this.closed.compareAndSet(false, true)) {
+				action.run();
+				return true;
+			}
+			return false;
+		}
+
+		private <R> CompletableFuture<R> leaseAsync(Supplier<CompletableFuture<R>> send) {
+			this.state.incrementAndGet();
+			CompletableFuture<R> sendFuture;
+			try {
+				sendFuture = send.get();
+			}
+			catch (RuntimeException ex) {
+				releaseLease();
+				throw ex;
+			}
+			sendFuture.whenComplete((result, ex) -> releaseLease());
+			return sendFuture;
+		}
+
+		private MessageId lease(SendOperation send) throws PulsarClientException {
+			this.state.incrementAndGet();
+			try {
+				return send.send();
+			}
+			finally {
+				releaseLease();
+			}
+		}
+
+		private void releaseLease() {
+			// Each checkout is released once by its LeasedProducer, each send on
+			// completion
+			if (this.state.decrementAndGet() == RETIRED) {
+				closeOnce();
+			}
+		}
+
+		@Override
+		public String getTopic() {
+			return this.producer.getTopic();
+		}
+
+		@Override
+		public String getProducerName() {
+			return this.producer.getProducerName();
+		}
+
+		@Override
+		public MessageId send(T message) throws PulsarClientException {
+			return lease(() -> this.producer.send(message));
+		}
+
+		@Override
+		public CompletableFuture<MessageId> sendAsync(T message) {
+			return leaseAsync(() -> this.producer.sendAsync(message));
+		}
+
+		@Override
+		public void flush() throws PulsarClientException {
+			this.producer.flush();
+		}
+
+		@Override
+		public CompletableFuture<Void> flushAsync() {
+			return this.producer.flushAsync();
+		}
+
+		@Override
+		public TypedMessageBuilder<T> newMessage() {
+			return new LeasedMessageBuilder<>(this.producer.newMessage());
+		}
+
+		@Override
+		public <V> TypedMessageBuilder<V> newMessage(Schema<V> schema) {
+			return new LeasedMessageBuilder<>(this.producer.newMessage(schema));
+		}
+
+		@Override
+		public TypedMessageBuilder<T> newMessage(Transaction txn) {
+			return new LeasedMessageBuilder<>(this.producer.newMessage(txn));
+		}
+
+		@Override
+		public long getLastSequenceId() {
+			return this.producer.getLastSequenceId();
+		}
+
+		@Override
+		public ProducerStats getStats() {
+			return this.producer.getStats();
+		}
+
+		/**
+		 * Return the checkout of a caller to the cache.
+		 * <p>
+		 * Only called once per {@link #checkout checkout}, see {@link LeasedProducer}.
+		 */
+		@Override
+		public void close() {
+			this.closeCallback.accept(this.producer);
+			releaseLease();
+		}
+
+		@Override
+		public CompletableFuture<Void> closeAsync() {
+			close();
+			return CompletableFuture.completedFuture(null);
+		}
+
+		@Override
+		public boolean isConnected() {
+			return this.producer.isConnected();
+		}
+
+		@Override
+		public long getLastDisconnectedTimestamp() {
+			return this.producer.getLastDisconnectedTimestamp();
+		}
+
+		@Override
+		public int getNumOfPartitions() {
+			return this.producer.getNumOfPartitions();
+		}
+
+		@FunctionalInterface
+		private interface SendOperation {
+
+			MessageId send() throws PulsarClientException;
+
+		}
+
+		/**
+		 * A message builder that holds a lease on the producer while its message is sent.
+		 *
+		 * @param <V> message type.
+		 */
+		@SuppressWarnings("serial")
+		private final class LeasedMessageBuilder<V> implements TypedMessageBuilder<V> {
+
+			private final TypedMessageBuilder<V> builder;
+
+			LeasedMessageBuilder(TypedMessageBuilder<V> builder) {
+				this.builder = builder;
+			}
+
+			@Override
+			public MessageId send() throws PulsarClientException {
+				return lease(this.builder::send);
+			}
+
+			@Override
+			public CompletableFuture<MessageId> sendAsync() {
+				return leaseAsync(this.builder::sendAsync);
+			}
+
+			@Override
+			public TypedMessageBuilder<V> key(String key) {
+				this.builder.key(key);
+				return this;
+			}
+
+			@Override
+			public TypedMessageBuilder<V> keyBytes(byte[] key) {
+				this.builder.keyBytes(key);
+				return this;
+			}
+
+			@Override
+			public TypedMessageBuilder<V> orderingKey(byte[] orderingKey) {
+				this.builder.orderingKey(orderingKey);
+				return this;
+			}
+
+			@Override
+			public TypedMessageBuilder<V> value(V value) {
+				this.builder.value(value);
+				return this;
+			}
+
+			@Override
+			public TypedMessageBuilder<V> property(String name, String value) {
+				this.builder.property(name, value);
+				return this;
+			}
+
+			@Override
+			public TypedMessageBuilder<V> properties(Map<String, String> properties) {
+				this.builder.properties(properties);
+				return this;
+			}
+
+			@Override
+			public TypedMessageBuilder<V> eventTime(long timestamp) {
+				this.builder.eventTime(timestamp);
+				return this;
+			}
+
+			@Override
+			public TypedMessageBuilder<V> sequenceId(long sequenceId) {
+				this.builder.sequenceId(sequenceId);
+				return this;
+			}
+
+			@Override
+			public TypedMessageBuilder<V> replicationClusters(List<String> clusters) {
+				this.builder.replicationClusters(clusters);
+				return this;
+			}
+
+			@Override
+			public TypedMessageBuilder<V> disableReplication() {
+				this.builder.disableReplication();
+				return this;
+			}
+
+			@Override
+			public TypedMessageBuilder<V> deliverAt(long timestamp) {
+				this.builder.deliverAt(timestamp);
+				return this;
+			}
+
+			@Override
+			public TypedMessageBuilder<V> deliverAfter(long delay, TimeUnit unit) {
+				this.builder.deliverAfter(delay, unit);
+				return this;
+			}
+
+			@Override
+			public TypedMessageBuilder<V> loadConf(Map<String, Object> config) {
+				this.builder.loadConf(config);
+				return this;
+			}
+
+		}
+
+	}
+
+	/**
+	 * The producer handed out for a single {@link ProducerWithCloseCallback#checkout
+	 * checkout} of a cached producer.
+	 * <p>
+	 * Closing it returns the checkout to the cached producer the first time only, so that
+	 * a caller closing its producer more than once does not release the checkout of
+	 * another caller.
+	 *
+	 * @param <T> producer type.
+	 */
+	static class LeasedProducer<T> implements Producer<T> {
+
+		private final ProducerWithCloseCallback<T> producer;
+
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		LeasedProducer(ProducerWithCloseCallback<T> producer) {
+			this.producer = producer;
+		}
+
+		ProducerWithCloseCallback<T> getCachedProducer() {
+			return this.producer;
+		}
+
+		public Producer<T> getActualProducer() {
+			return this.producer.getActualProducer();
+		}
+
 		@Override
 		public String getTopic() {
 			return this.producer.getTopic();
@@ -275,13 +915,15 @@ public class CachingPulsarProducerFactory<T> extends DefaultPulsarProducerFactor
 		}
 
 		@Override
-		public void close() throws PulsarClientException {
-			this.closeCallback.accept(this.producer);
+		public void close() {
+			if (this.closed.compareAndSet(false, true)) {
+				this.producer.close();
+			}
 		}
 
 		@Override
 		public CompletableFuture<Void> closeAsync() {
-			this.closeCallback.accept(this.producer);
+			close();
 			return CompletableFuture.completedFuture(null);
 		}
 
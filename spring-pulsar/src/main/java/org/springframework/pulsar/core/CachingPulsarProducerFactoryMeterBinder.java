@@ -0,0 +1,217 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.core;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.pulsar.client.api.Producer;
+import org.apache.pulsar.client.api.ProducerStats;
+
+import org.springframework.lang.Nullable;
+import org.springframework.pulsar.core.CachingPulsarProducerFactory.ProducerWithCloseCallback;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Binds the metrics of the producer cache of a {@link CachingPulsarProducerFactory} to a
+ * {@link MeterRegistry}.
+ * <p>
+ * Besides the standard cache metrics (hits, misses, size and evictions), the binder
+ * publishes the evictions by cause, the time it takes to create the producers by topic,
+ * and the {@link Producer#getStats() statistics} of each cached producer. The set of
+ * cached producers whose statistics are published is refreshed periodically.
+ */
+public class CachingPulsarProducerFactoryMeterBinder implements MeterBinder, AutoCloseable {
+
+	private static final String CACHE_NAME = "pulsarProducerCache";
+
+	private final CachingPulsarProducerFactory<?> producerFactory;
+
+	private final Iterable<Tag> tags;
+
+	private final Duration statsRefreshInterval;
+
+	private final List<MeterRegistry> registries = new CopyOnWriteArrayList<>();
+
+	private final List<ProducerStatsMeters> producerStatsMeters = new CopyOnWriteArrayList<>();
+
+	@Nullable
+	private ScheduledExecutorService statsRefresher;
+
+	/**
+	 * Construct a binder for the given producer factory.
+	 * @param producerFactory the producer factory to bind
+	 */
+	public CachingPulsarProducerFactoryMeterBinder(CachingPulsarProducerFactory<?> producerFactory) {
+		this(producerFactory, Collections.emptyList(), Duration.ofSeconds(30));
+	}
+
+	/**
+	 * Construct a binder for the given producer factory.
+	 * @param producerFactory the producer factory to bind
+	 * @param tags the tags to add to each meter
+	 * @param statsRefreshInterval how often to refresh the set of producers whose
+	 * statistics are published
+	 */
+	public CachingPulsarProducerFactoryMeterBinder(CachingPulsarProducerFactory<?> producerFactory, Iterable<Tag> tags,
+			Duration statsRefreshInterval) {
+		Assert.notNull(producerFactory, "producerFactory must not be null");
+		Assert.isTrue(!statsRefreshInterval.isNegative() && !statsRefreshInterval.isZero(),
+				"statsRefreshInterval must be positive");
+		this.producerFactory = producerFactory;
+		this.tags = tags;
+		this.statsRefreshInterval = statsRefreshInterval;
+	}
+
+	@Override
+	public synchronized void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, this.producerFactory.getProducerCache(), CACHE_NAME, this.tags);
+		for (RemovalCause cause : RemovalCause.values()) {
+			if (cause.wasEvicted()) {
+				FunctionCounter
+						.builder("spring.pulsar.producer.cache.evictions", this.producerFactory,
+								(factory) -> factory.getEvictionCount(cause))
+						.description("Producers evicted from the cache").tags(this.tags)
+						.tag("cause", cause.name().toLowerCase(Locale.ROOT)).register(registry);
+			}
+		}
+		this.registries.add(registry);
+		this.producerFactory.setProducerCreationListener(this::recordProducerCreation);
+		ProducerStatsMeters statsMeters = new ProducerStatsMeters(registry);
+		statsMeters.refresh(cachedProducers());
+		this.producerStatsMeters.add(statsMeters);
+		if (this.statsRefresher == null) {
+			CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("pulsar-producer-stats-");
+			threadFactory.setDaemon(true);
+			this.statsRefresher = Executors.newSingleThreadScheduledExecutor(threadFactory);
+			long interval = this.statsRefreshInterval.toMillis();
+			this.statsRefresher.scheduleWithFixedDelay(this::refreshProducerStats, interval, interval,
+					TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void recordProducerCreation(String topic, long creationTimeNanos) {
+		this.registries.forEach((registry) -> Timer.builder("spring.pulsar.producer.cache.creation")
+				.description("Time taken to create the producers added to the cache").tags(this.tags)
+				.tag("topic", topic).register(registry).record(creationTimeNanos, TimeUnit.NANOSECONDS));
+	}
+
+	private void refreshProducerStats() {
+		Collection<? extends Producer<?>> producers = cachedProducers();
+		this.producerStatsMeters.forEach((statsMeters) -> statsMeters.refresh(producers));
+	}
+
+	private Collection<? extends Producer<?>> cachedProducers() {
+		return this.producerFactory.getProducerCache().asMap().values().stream().flatMap((producer) -> {
+			Producer<?> actualProducer = (producer instanceof ProducerWithCloseCallback<?> wrappedProducer)
+					? wrappedProducer.getActualProducer() : producer;
+			return (actualProducer instanceof StripedProducer<?> stripedProducer)
+					? stripedProducer.getProducers().stream() : Stream.of(producer);
+		}).collect(Collectors.toList());
+	}
+
+	@Override
+	public synchronized void close() {
+		this.producerFactory.setProducerCreationListener(null);
+		if (this.statsRefresher != null) {
+			this.statsRefresher.shutdownNow();
+			this.statsRefresher = null;
+		}
+	}
+
+	/**
+	 * The meters publishing the statistics of the cached producers to a registry.
+	 */
+	private final class ProducerStatsMeters {
+
+		private final MultiGauge pendingQueueSize;
+
+		private final MultiGauge sendRate;
+
+		private final MultiGauge sendBytesRate;
+
+		private final MultiGauge sendLatency;
+
+		ProducerStatsMeters(MeterRegistry registry) {
+			Iterable<Tag> tags = CachingPulsarProducerFactoryMeterBinder.this.tags;
+			this.pendingQueueSize = MultiGauge.builder("spring.pulsar.producer.pending.queue.size")
+					.description("Messages waiting for an acknowledgment from the broker").tags(tags)
+					.register(registry);
+			this.sendRate = MultiGauge.builder("spring.pulsar.producer.send.rate").baseUnit("messages")
+					.description("Messages sent per second").tags(tags).register(registry);
+			this.sendBytesRate = MultiGauge.builder("spring.pulsar.producer.send.bytes.rate").baseUnit("bytes")
+					.description("Bytes sent per second").tags(tags).register(registry);
+			this.sendLatency = MultiGauge.builder("spring.pulsar.producer.send.latency").baseUnit("milliseconds")
+					.description("Send latency").tags(tags).register(registry);
+		}
+
+		void refresh(Collection<? extends Producer<?>> producers) {
+			this.pendingQueueSize.register(rows(producers, ProducerStats::getPendingQueueSize), true);
+			this.sendRate.register(rows(producers, ProducerStats::getSendMsgsRate), true);
+			this.sendBytesRate.register(rows(producers, ProducerStats::getSendBytesRate), true);
+			List<MultiGauge.Row<?>> latencyRows = producers.stream().flatMap((producer) -> {
+				Tags producerTags = producerTags(producer);
+				return Stream.of(
+						row(producerTags.and("quantile", "0.5"), producer, ProducerStats::getSendLatencyMillis50pct),
+						row(producerTags.and("quantile", "0.95"), producer, ProducerStats::getSendLatencyMillis95pct),
+						row(producerTags.and("quantile", "0.99"), producer, ProducerStats::getSendLatencyMillis99pct),
+						row(producerTags.and("quantile", "1.0"), producer, ProducerStats::getSendLatencyMillisMax));
+			}).collect(Collectors.toList());
+			this.sendLatency.register(latencyRows, true);
+		}
+
+		private List<MultiGauge.Row<?>> rows(Collection<? extends Producer<?>> producers,
+				ToDoubleFunction<ProducerStats> statFunction) {
+			return producers.stream().map((producer) -> row(producerTags(producer), producer, statFunction))
+					.collect(Collectors.toList());
+		}
+
+		private MultiGauge.Row<?> row(Tags tags, Producer<?> producer, ToDoubleFunction<ProducerStats> statFunction) {
+			return MultiGauge.Row.of(tags, producer, (p) -> {
+				ProducerStats stats = p.getStats();
+				return (stats != null) ? statFunction.applyAsDouble(stats) : Double.NaN;
+			});
+		}
+
+		private Tags producerTags(Producer<?> producer) {
+			return Tags.of("topic", producer.getTopic(), "producer", producer.getProducerName());
+		}
+
+	}
+
+}
@@ -29,6 +29,9 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import org.apache.pulsar.client.api.Schema;
 import org.apache.pulsar.client.impl.schema.AvroSchema;
@@ -40,6 +43,7 @@ import org.apache.pulsar.common.schema.SchemaType;
 
 import org.springframework.core.ResolvableType;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
 
 import com.google.protobuf.GeneratedMessageV3;
 
@@ -48,7 +52,15 @@ import com.google.protobuf.GeneratedMessageV3;
  *
  * <p>
  * Additional message types can be configured with
- * {@link #addCustomSchemaMapping(Class, Schema)}.
+ * {@link #addCustomSchemaMapping(Class, Schema)}. A custom mapping also applies to
+ * subclasses and implementations of the mapped type, with the closest superclass taking
+ * precedence over interfaces.
+ *
+ * <p>
+ * The resolved custom mappings and the generated {@code JSON}, {@code AVRO} and
+ * {@code PROTOBUF} schemas are cached per message class. The caches are not bounded nor
+ * evicted, as they are only expected to hold the fixed set of message classes sent by an
+ * application, and they reference the message classes for the lifetime of the resolver.
  *
  * @author Soby Chacko
  * @author Alexander Preuß
@@ -88,6 +100,10 @@ public class DefaultSchemaResolver implements SchemaResolver {
 
 	private final Map<Class<?>, Schema<?>> customSchemaMappings = new LinkedHashMap<>();
 
+	private final Map<Class<?>, Optional<Schema<?>>> resolvedCustomSchemaMappings = new ConcurrentHashMap<>();
+
+	private final Map<StructSchemaKey, Schema<?>> structSchemas = new ConcurrentHashMap<>();
+
 	/**
 	 * Adds a custom mapping from message type to schema.
 	 * @param messageType the message type
@@ -97,7 +113,11 @@ public class DefaultSchemaResolver implements SchemaResolver {
 	 */
 	@Nullable
 	public Schema<?> addCustomSchemaMapping(Class<?> messageType, Schema<?> schema) {
-		return this.customSchemaMappings.put(messageType, schema);
+		synchronized (this.customSchemaMappings) {
+			Schema<?> previousSchema = this.customSchemaMappings.put(messageType, schema);
+			this.resolvedCustomSchemaMappings.clear();
+			return previousSchema;
+		}
 	}
 
 	/**
@@ -108,7 +128,11 @@ public class DefaultSchemaResolver implements SchemaResolver {
 	 */
 	@Nullable
 	public Schema<?> removeCustomMapping(Class<?> messageType) {
-		return this.customSchemaMappings.remove(messageType);
+		synchronized (this.customSchemaMappings) {
+			Schema<?> previousSchema = this.customSchemaMappings.remove(messageType);
+			this.resolvedCustomSchemaMappings.clear();
+			return previousSchema;
+		}
 	}
 
 	/**
@@ -130,7 +154,38 @@ public class DefaultSchemaResolver implements SchemaResolver {
 
 	@Nullable
 	private Schema<?> getCustomSchemaOrMaybeDefault(Class<?> messageClass, boolean returnDefault) {
-		return this.customSchemaMappings.getOrDefault(messageClass, (returnDefault ? Schema.BYTES : null));
+		Optional<Schema<?>> schema = this.resolvedCustomSchemaMappings.get(messageClass);
+		if (schema == null) {
+			// Resolve under the lock, a stale resolution must not hide a mapping change
+			synchronized (this.customSchemaMappings) {
+				schema = this.resolvedCustomSchemaMappings.computeIfAbsent(messageClass,
+						(clazz) -> Optional.ofNullable(findCustomSchemaMapping(clazz)));
+			}
+		}
+		return schema.orElse(returnDefault ? Schema.BYTES : null);
+	}
+
+	@Nullable
+	private Schema<?> findCustomSchemaMapping(Class<?> messageClass) {
+		Schema<?> schema = this.customSchemaMappings.get(messageClass);
+		if (schema != null || this.customSchemaMappings.isEmpty()) {
+			return schema;
+		}
+		Class<?> superClass = messageClass.getSuperclass();
+		while (superClass != null) {
+			schema = this.customSchemaMappings.get(superClass);
+			if (schema != null) {
+				return schema;
+			}
+			superClass = superClass.getSuperclass();
+		}
+		for (Class<?> interfaceClass : ClassUtils.getAllInterfacesForClassAsSet(messageClass)) {
+			schema = this.customSchemaMappings.get(interfaceClass);
+			if (schema != null) {
+				return schema;
+			}
+		}
+		return null;
 	}
 
 	@Override
@@ -153,12 +208,10 @@ public class DefaultSchemaResolver implements SchemaResolver {
 			case LOCAL_DATE -> Schema.LOCAL_DATE;
 			case LOCAL_TIME -> Schema.LOCAL_TIME;
 			case LOCAL_DATE_TIME -> Schema.LOCAL_DATE_TIME;
-			case JSON -> JSONSchema.of(requireNonNullMessageType(schemaType, messageType));
-			case AVRO -> AvroSchema.of(requireNonNullMessageType(schemaType, messageType));
-			case PROTOBUF -> {
-				Class<?> messageClass = requireNonNullMessageType(schemaType, messageType);
-				yield ProtobufSchema.of((Class<? extends GeneratedMessageV3>) messageClass);
-			}
+			case JSON -> getStructSchema(schemaType, messageType, JSONSchema::of);
+			case AVRO -> getStructSchema(schemaType, messageType, AvroSchema::of);
+			case PROTOBUF -> getStructSchema(schemaType, messageType,
+					(messageClass) -> ProtobufSchema.of((Class<? extends GeneratedMessageV3>) messageClass));
 			case KEY_VALUE -> {
 				requireNonNullMessageType(schemaType, messageType);
 				yield getMessageKeyValueSchema(messageType);
@@ -177,6 +230,13 @@ public class DefaultSchemaResolver implements SchemaResolver {
 		return schema != null ? castToType(schema) : null;
 	}
 
+	private Schema<?> getStructSchema(SchemaType schemaType, @Nullable ResolvableType messageType,
+			Function<Class<?>, Schema<?>> schemaFactory) {
+		Class<?> messageClass = requireNonNullMessageType(schemaType, messageType);
+		return this.structSchemas.computeIfAbsent(new StructSchemaKey(schemaType, messageClass),
+				(key) -> schemaFactory.apply(messageClass));
+	}
+
 	private Class<?> requireNonNullMessageType(SchemaType schemaType, ResolvableType messageType) {
 		return Objects.requireNonNull(messageType, "messageType must be specified for " + schemaType.name())
 				.getRawClass();
@@ -195,4 +255,37 @@ public class DefaultSchemaResolver implements SchemaResolver {
 		return (Schema<X>) rawSchema;
 	}
 
+	/**
+	 * Cache key for the generated struct schemas.
+	 */
+	private static final class StructSchemaKey {
+
+		private final SchemaType schemaType;
+
+		private final Class<?> messageClass;
+
+		StructSchemaKey(SchemaType schemaType, Class<?> messageClass) {
+			this.schemaType = schemaType;
+			this.messageClass = messageClass;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			StructSchemaKey that = (StructSchemaKey) o;
+			return this.schemaType == that.schemaType && this.messageClass.equals(that.messageClass);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.schemaType, this.messageClass);
+		}
+
+	}
+
 }
@@ -0,0 +1,443 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.core;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.pulsar.client.api.PulsarClientException;
+
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Limits the number of messages a {@link PulsarTemplate} has in flight, that is sent but
+ * not yet acknowledged by the broker.
+ * <p>
+ * A permit is acquired before each message is sent and released when the send completes.
+ * The permits are pooled either for the whole template or separately for each topic. The
+ * {@link OverflowStrategy} determines what happens when a send is attempted while all
+ * permits are in use.
+ */
+public class InFlightSendLimiter {
+
+	private final int maxInFlight;
+
+	private final OverflowStrategy overflowStrategy;
+
+	private final boolean perTopic;
+
+	private final Duration maxBlockTime;
+
+	private final Window templateWindow = new Window(null);
+
+	private final Map<String, Window> topicWindows = new ConcurrentHashMap<>();
+
+	private final LongAdder waitCount = new LongAdder();
+
+	private final LongAdder waitTimeNanos = new LongAdder();
+
+	private final LongAdder rejectedCount = new LongAdder();
+
+	private Executor delayedSendExecutor = defaultDelayedSendExecutor();
+
+	/**
+	 * Construct a limiter that pools the permits for the whole template and blocks for at
+	 * most 30 seconds when the {@link OverflowStrategy#BLOCK block} strategy is used.
+	 * @param maxInFlight the maximum number of messages in flight
+	 * @param overflowStrategy what to do when all permits are in use
+	 */
+	public InFlightSendLimiter(int maxInFlight, OverflowStrategy overflowStrategy) {
+		this(maxInFlight, overflowStrategy, false, Duration.ofSeconds(30));
+	}
+
+	/**
+	 * Construct a limiter.
+	 * @param maxInFlight the maximum number of messages in flight (per topic when
+	 * {@code perTopic} is set)
+	 * @param overflowStrategy what to do when all permits are in use
+	 * @param perTopic whether the permits are pooled per topic rather than for the whole
+	 * template
+	 * @param maxBlockTime the maximum time to wait for a permit when the
+	 * {@link OverflowStrategy#BLOCK block} strategy is used
+	 */
+	public InFlightSendLimiter(int maxInFlight, OverflowStrategy overflowStrategy, boolean perTopic,
+			Duration maxBlockTime) {
+		Assert.isTrue(maxInFlight > 0, "maxInFlight must be greater than 0");
+		Assert.notNull(overflowStrategy, "overflowStrategy must not be null");
+		Assert.notNull(maxBlockTime, "maxBlockTime must not be null");
+		this.maxInFlight = maxInFlight;
+		this.overflowStrategy = overflowStrategy;
+		this.perTopic = perTopic;
+		this.maxBlockTime = maxBlockTime;
+	}
+
+	public int getMaxInFlight() {
+		return this.maxInFlight;
+	}
+
+	public OverflowStrategy getOverflowStrategy() {
+		return this.overflowStrategy;
+	}
+
+	public boolean isPerTopic() {
+		return this.perTopic;
+	}
+
+	public Executor getDelayedSendExecutor() {
+		return this.delayedSendExecutor;
+	}
+
+	/**
+	 * Set the executor that sends the messages delayed by the
+	 * {@link OverflowStrategy#DELAY delay} strategy once their permits are available.
+	 * <p>
+	 * Permits are released from the send callbacks, usually on a Pulsar client I/O
+	 * thread, which must not be used to send as the send may have to create a producer.
+	 * Defaults to a single daemon thread so that delayed messages are sent in the order
+	 * they were delayed.
+	 * @param delayedSendExecutor the executor
+	 */
+	public void setDelayedSendExecutor(Executor delayedSendExecutor) {
+		Assert.notNull(delayedSendExecutor, "delayedSendExecutor must not be null");
+		this.delayedSendExecutor = delayedSendExecutor;
+	}
+
+	/**
+	 * Return the number of permits currently in use across all topics.
+	 * @return the number of permits in use
+	 */
+	public int getPermitsInUse() {
+		if (!this.perTopic) {
+			return this.templateWindow.inUse();
+		}
+		return this.topicWindows.values().stream().mapToInt(Window::inUse).sum();
+	}
+
+	/**
+	 * Return the number of permits currently in use for a topic.
+	 * @param topic the fully qualified topic name
+	 * @return the number of permits in use for the topic or for the whole template when
+	 * the permits are not pooled per topic
+	 */
+	public int getPermitsInUse(String topic) {
+		if (!this.perTopic) {
+			return this.templateWindow.inUse();
+		}
+		Window window = this.topicWindows.get(topic);
+		return window != null ? window.inUse() : 0;
+	}
+
+	/**
+	 * Return the number of sends that had to wait for a permit.
+	 * @return the number of sends that waited
+	 */
+	public long getWaitCount() {
+		return this.waitCount.sum();
+	}
+
+	/**
+	 * Return the total time sends spent waiting for a permit.
+	 * @param unit the time unit of the returned value
+	 * @return the total wait time
+	 */
+	public double getTotalWaitTime(TimeUnit unit) {
+		return (double) this.waitTimeNanos.sum() / unit.toNanos(1);
+	}
+
+	/**
+	 * Return the number of sends that were rejected because no permit was available.
+	 * @return the number of rejected sends
+	 */
+	public long getRejectedCount() {
+		return this.rejectedCount.sum();
+	}
+
+	/**
+	 * Acquire permits to send messages to a topic.
+	 * <p>
+	 * The number of permits is capped at the maximum so that a batch larger than the
+	 * window can still be sent, once the window is empty.
+	 * @param topic the fully qualified topic name
+	 * @param permits the number of permits to acquire
+	 * @return the number of permits that must be passed to {@link #release} once the
+	 * sends complete, wrapped in a future that completes when they have been acquired
+	 * @throws PulsarClientException if the permits could not be acquired
+	 */
+	CompletableFuture<Integer> acquire(String topic, int permits) throws PulsarClientException {
+		int permitsToAcquire = Math.min(permits, this.maxInFlight);
+		Window window;
+		Waiter waiter;
+		// Retry with the new window of the topic if the window was removed as idle
+		do {
+			window = windowFor(topic);
+			waiter = window.tryAcquire(permitsToAcquire, this.overflowStrategy != OverflowStrategy.FAIL);
+		}
+		while (waiter == Waiter.REMOVED_WINDOW);
+		if (waiter == null) {
+			return CompletableFuture.completedFuture(permitsToAcquire);
+		}
+		if (this.overflowStrategy == OverflowStrategy.FAIL) {
+			this.rejectedCount.increment();
+			throw new PulsarClientException.ProducerQueueIsFullError(
+					String.format("Send window for topic '%s' is full (max in flight %d)", topic, this.maxInFlight));
+		}
+		if (this.overflowStrategy == OverflowStrategy.DELAY) {
+			return waiter.future.thenApply((ignored) -> permitsToAcquire);
+		}
+		try {
+			waiter.future.get(this.maxBlockTime.toNanos(), TimeUnit.NANOSECONDS);
+			return CompletableFuture.completedFuture(permitsToAcquire);
+		}
+		catch (TimeoutException ex) {
+			if (window.cancel(waiter)) {
+				this.rejectedCount.increment();
+				throw new PulsarClientException.ProducerQueueIsFullError(String
+						.format("Timed out after %s waiting for send window for topic '%s'", this.maxBlockTime, topic));
+			}
+			// Granted concurrently with the timeout
+			return CompletableFuture.completedFuture(permitsToAcquire);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			if (!window.cancel(waiter)) {
+				window.release(permitsToAcquire);
+			}
+			throw new PulsarClientException(ex);
+		}
+		catch (ExecutionException ex) {
+			throw PulsarClientException.unwrap(ex);
+		}
+	}
+
+	/**
+	 * Release permits previously acquired for a topic.
+	 * @param topic the fully qualified topic name
+	 * @param permits the number of permits to release
+	 */
+	void release(String topic, int permits) {
+		windowFor(topic).release(permits);
+	}
+
+	private static Executor defaultDelayedSendExecutor() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("pulsar-delayed-send-");
+		threadFactory.setDaemon(true);
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+				threadFactory);
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	private Window windowFor(String topic) {
+		if (!this.perTopic) {
+			return this.templateWindow;
+		}
+		return this.topicWindows.computeIfAbsent(topic, Window::new);
+	}
+
+	/**
+	 * What to do when a send is attempted while all permits are in use.
+	 */
+	public enum OverflowStrategy {
+
+		/**
+		 * Block the sending thread until a permit is available or the max block time
+		 * elapses.
+		 */
+		BLOCK,
+
+		/**
+		 * Fail the send immediately with a
+		 * {@link PulsarClientException.ProducerQueueIsFullError}.
+		 */
+		FAIL,
+
+		/**
+		 * Return to the caller immediately and send the message once a permit is
+		 * available.
+		 */
+		DELAY
+
+	}
+
+	private static final class Waiter {
+
+		private static final Waiter REMOVED_WINDOW = new Waiter(0);
+
+		private final int permits;
+
+		private final long enqueuedNanos = System.nanoTime();
+
+		private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+		private Waiter(int permits) {
+			this.permits = permits;
+		}
+
+	}
+
+	/**
+	 * A pool of permits with a FIFO queue of waiters.
+	 * <p>
+	 * A topic window is removed from the topic windows once idle, that is with no permits
+	 * in use and no waiters, so that the windows of topics that are no longer sent to do
+	 * not pile up. Its permits are always released to the same window as they keep it
+	 * from being removed.
+	 */
+	private final class Window {
+
+		@Nullable
+		private final String topic;
+
+		private final ReentrantLock lock = new ReentrantLock();
+
+		private final Deque<Waiter> waiters = new ArrayDeque<>();
+
+		private int inUse;
+
+		private boolean removed;
+
+		Window(@Nullable String topic) {
+			this.topic = topic;
+		}
+
+		int inUse() {
+			this.lock.lock();
+			try {
+				return this.inUse;
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		/**
+		 * Acquire the permits or, when they are not available, optionally enqueue a
+		 * waiter for them.
+		 * @param permits the number of permits
+		 * @param enqueue whether to enqueue a waiter when the permits are not available
+		 * @return {@code null} if the permits were acquired, otherwise the waiter (not
+		 * enqueued when {@code enqueue} is {@code false}) or
+		 * {@link Waiter#REMOVED_WINDOW} if the window was removed and the permits must be
+		 * acquired from the current window of the topic
+		 */
+		Waiter tryAcquire(int permits, boolean enqueue) {
+			this.lock.lock();
+			try {
+				if (this.removed) {
+					return Waiter.REMOVED_WINDOW;
+				}
+				if (this.waiters.isEmpty() && this.inUse + permits <= InFlightSendLimiter.this.maxInFlight) {
+					this.inUse += permits;
+					return null;
+				}
+				Waiter waiter = new Waiter(permits);
+				if (enqueue) {
+					this.waiters.addLast(waiter);
+				}
+				return waiter;
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		/**
+		 * Remove a waiter that gave up waiting.
+		 * @param waiter the waiter
+		 * @return {@code true} if the waiter was removed, {@code false} if its permits
+		 * had already been granted
+		 */
+		boolean cancel(Waiter waiter) {
+			List<Waiter> granted;
+			this.lock.lock();
+			try {
+				if (!this.waiters.remove(waiter)) {
+					return false;
+				}
+				// The waiters queued behind may fit now
+				granted = grantWaiters();
+				removeIfIdle();
+			}
+			finally {
+				this.lock.unlock();
+			}
+			complete(granted);
+			return true;
+		}
+
+		void release(int permits) {
+			List<Waiter> granted;
+			this.lock.lock();
+			try {
+				this.inUse -= permits;
+				granted = grantWaiters();
+				removeIfIdle();
+			}
+			finally {
+				this.lock.unlock();
+			}
+			complete(granted);
+		}
+
+		// Under the lock so that no permit is acquired from the window once removed
+		private void removeIfIdle() {
+			if (this.topic != null && this.inUse == 0 && this.waiters.isEmpty()) {
+				this.removed = true;
+				InFlightSendLimiter.this.topicWindows.remove(this.topic, this);
+			}
+		}
+
+		private List<Waiter> grantWaiters() {
+			List<Waiter> granted = new ArrayList<>();
+			Waiter next;
+			while ((next = this.waiters.peekFirst()) != null
+					&& this.inUse + next.permits <= InFlightSendLimiter.this.maxInFlight) {
+				this.waiters.removeFirst();
+				this.inUse += next.permits;
+				granted.add(next);
+			}
+			return granted;
+		}
+
+		// Complete outside the lock as the waiters may send (and release) inline
+		private void complete(List<Waiter> granted) {
+			for (Waiter waiter : granted) {
+				InFlightSendLimiter.this.waitCount.increment();
+				InFlightSendLimiter.this.waitTimeNanos.add(System.nanoTime() - waiter.enqueuedNanos);
+				waiter.future.complete(null);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.core;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Binds the permits in use, the time spent waiting for permits and the rejected sends of
+ * an {@link InFlightSendLimiter} to a {@link MeterRegistry}.
+ */
+public class InFlightSendLimiterMeterBinder implements MeterBinder {
+
+	private final InFlightSendLimiter sendLimiter;
+
+	private final Iterable<Tag> tags;
+
+	/**
+	 * Construct a binder for the given limiter.
+	 * @param sendLimiter the limiter to bind
+	 */
+	public InFlightSendLimiterMeterBinder(InFlightSendLimiter sendLimiter) {
+		this(sendLimiter, Collections.emptyList());
+	}
+
+	/**
+	 * Construct a binder for the given limiter.
+	 * @param sendLimiter the limiter to bind
+	 * @param tags the tags to add to each meter
+	 */
+	public InFlightSendLimiterMeterBinder(InFlightSendLimiter sendLimiter, Iterable<Tag> tags) {
+		this.sendLimiter = sendLimiter;
+		this.tags = tags;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("spring.pulsar.template.in.flight.permits", this.sendLimiter,
+				InFlightSendLimiter::getPermitsInUse).description("Permits in use by messages in flight")
+				.tags(this.tags).register(registry);
+		Gauge.builder("spring.pulsar.template.in.flight.permits.max", this.sendLimiter,
+				InFlightSendLimiter::getMaxInFlight).description("Maximum number of messages in flight").tags(this.tags)
+				.register(registry);
+		FunctionTimer
+				.builder("spring.pulsar.template.in.flight.wait", this.sendLimiter, InFlightSendLimiter::getWaitCount,
+						(limiter) -> limiter.getTotalWaitTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS)
+				.description("Time sends spent waiting for a permit").tags(this.tags).register(registry);
+		FunctionCounter
+				.builder("spring.pulsar.template.in.flight.rejected", this.sendLimiter,
+						InFlightSendLimiter::getRejectedCount)
+				.description("Sends rejected because no permit was available").tags(this.tags).register(registry);
+	}
+
+}
@@ -17,6 +17,7 @@
 package org.springframework.pulsar.core;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import org.apache.pulsar.client.api.MessageId;
@@ -115,6 +116,39 @@ public interface PulsarOperations<T> {
 	CompletableFuture<MessageId> sendAsync(@Nullable String topic, T message, @Nullable Schema<T> schema)
 			throws PulsarClientException;
 
+	/**
+	 * Sends a batch of messages to the specified topic in a non-blocking manner.
+	 * <p>
+	 * The topic and schema are resolved once and a single producer is used to send all of
+	 * the messages. When no schema is specified, it is resolved from the first message in
+	 * the batch.
+	 * @param topic the topic to send the messages to or {@code null} to send to the
+	 * default topic
+	 * @param messages the messages to send
+	 * @return a future that holds the ids assigned by the broker to the published
+	 * messages, in the iteration order of the messages
+	 * @throws PulsarClientException if an error occurs
+	 */
+	CompletableFuture<List<MessageId>> sendBatchAsync(@Nullable String topic, Collection<T> messages)
+			throws PulsarClientException;
+
+	/**
+	 * Sends a batch of messages to the specified topic in a non-blocking manner.
+	 * <p>
+	 * The topic and schema are resolved once and a single producer is used to send all of
+	 * the messages.
+	 * @param topic the topic to send the messages to or {@code null} to send to the
+	 * default topic
+	 * @param messages the messages to send
+	 * @param schema the schema to use or {@code null} to resolve the schema from the
+	 * first message in the batch
+	 * @return a future that holds the ids assigned by the broker to the published
+	 * messages, in the iteration order of the messages
+	 * @throws PulsarClientException if an error occurs
+	 */
+	CompletableFuture<List<MessageId>> sendBatchAsync(@Nullable String topic, Collection<T> messages,
+			@Nullable Schema<T> schema) throws PulsarClientException;
+
 	/**
 	 * Create a {@link SendMessageBuilder builder} for configuring and sending a message.
 	 * @param message the payload of the message
@@ -122,6 +156,14 @@ public interface PulsarOperations<T> {
 	 */
 	SendMessageBuilder<T> newMessage(T message);
 
+	/**
+	 * Create a {@link SendMessagesBuilder builder} for configuring and sending a batch of
+	 * messages.
+	 * @param messages the payloads of the messages
+	 * @return the builder to configure and send the messages
+	 */
+	SendMessagesBuilder<T> newMessages(Collection<T> messages);
+
 	/**
 	 * Builder that can be used to configure and send a message. Provides more options
 	 * than the basic send/sendAsync methods provided by {@link PulsarOperations}.
@@ -182,4 +224,59 @@ public interface PulsarOperations<T> {
 
 	}
 
+	/**
+	 * Builder that can be used to configure and send a batch of messages with a single
+	 * producer. Provides more options than the basic sendBatchAsync methods provided by
+	 * {@link PulsarOperations}.
+	 *
+	 * @param <T> the message payload type
+	 */
+	interface SendMessagesBuilder<T> {
+
+		/**
+		 * Specify the topic to send the messages to.
+		 * @param topic the destination topic
+		 * @return the current builder with the destination topic specified
+		 */
+		SendMessagesBuilder<T> withTopic(String topic);
+
+		/**
+		 * Specify the schema to use when sending the messages.
+		 * @param schema the schema to use
+		 * @return the current builder with the schema specified
+		 */
+		SendMessagesBuilder<T> withSchema(Schema<T> schema);
+
+		/**
+		 * Specify the encryption keys to use.
+		 * @param encryptionKeys the encryption keys
+		 * @return the current builder with the encryption keys specified
+		 */
+		SendMessagesBuilder<T> withEncryptionKeys(Collection<String> encryptionKeys);
+
+		/**
+		 * Specifies the message customizer to use to further configure each message.
+		 * @param messageCustomizer the message customizer
+		 * @return the current builder with the message customizer specified
+		 */
+		SendMessagesBuilder<T> withMessageCustomizer(TypedMessageBuilderCustomizer<T> messageCustomizer);
+
+		/**
+		 * Specifies the customizer to use to further configure the producer builder.
+		 * @param producerCustomizer the producer builder customizer
+		 * @return the current builder with the producer builder customizer specified
+		 */
+		SendMessagesBuilder<T> withProducerCustomizer(ProducerBuilderCustomizer<T> producerCustomizer);
+
+		/**
+		 * Uses the configured specification to send the messages in a non-blocking
+		 * manner.
+		 * @return a future that holds the ids assigned by the broker to the published
+		 * messages, in the iteration order of the messages
+		 * @throws PulsarClientException if an error occurs
+		 */
+		CompletableFuture<List<MessageId>> sendAsync() throws PulsarClientException;
+
+	}
+
 }
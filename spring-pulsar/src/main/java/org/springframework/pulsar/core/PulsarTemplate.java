@@ -22,9 +22,11 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.apache.pulsar.client.api.MessageId;
 import org.apache.pulsar.client.api.Producer;
+import org.apache.pulsar.client.api.ProducerBuilder;
 import org.apache.pulsar.client.api.PulsarClientException;
 import org.apache.pulsar.client.api.Schema;
 import org.apache.pulsar.client.api.TypedMessageBuilder;
@@ -37,6 +39,7 @@ import org.springframework.pulsar.observation.DefaultPulsarTemplateObservationCo
 import org.springframework.pulsar.observation.PulsarMessageSenderContext;
 import org.springframework.pulsar.observation.PulsarTemplateObservation;
 import org.springframework.pulsar.observation.PulsarTemplateObservationConvention;
+import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 
 import io.micrometer.observation.Observation;
@@ -59,6 +62,9 @@ public class PulsarTemplate<T> implements PulsarOperations<T>, BeanNameAware {
 
 	private final List<ProducerInterceptor> interceptors;
 
+	@Nullable
+	private final ProducerBuilderCustomizer<T> interceptorsCustomizer;
+
 	private final SchemaResolver schemaResolver;
 
 	@Nullable
@@ -69,6 +75,9 @@ public class PulsarTemplate<T> implements PulsarOperations<T>, BeanNameAware {
 
 	private String beanName = "";
 
+	@Nullable
+	private InFlightSendLimiter sendLimiter;
+
 	/**
 	 * Construct a template instance without interceptors that uses the default schema
 	 * resolver.
@@ -103,6 +112,8 @@ public class PulsarTemplate<T> implements PulsarOperations<T>, BeanNameAware {
 			@Nullable PulsarTemplateObservationConvention observationConvention) {
 		this.producerFactory = producerFactory;
 		this.interceptors = interceptors;
+		this.interceptorsCustomizer = CollectionUtils.isEmpty(interceptors) ? null
+				: new InterceptorsCustomizer<>(interceptors);
 		this.schemaResolver = schemaResolver;
 		this.observationRegistry = observationRegistry;
 		this.observationConvention = observationConvention;
@@ -154,11 +165,37 @@ public class PulsarTemplate<T> implements PulsarOperations<T>, BeanNameAware {
 		return new SendMessageBuilderImpl<>(this, message);
 	}
 
+	@Override
+	public CompletableFuture<List<MessageId>> sendBatchAsync(@Nullable String topic, Collection<T> messages)
+			throws PulsarClientException {
+		return doSendBatchAsync(topic, messages, null, null, null, null);
+	}
+
+	@Override
+	public CompletableFuture<List<MessageId>> sendBatchAsync(@Nullable String topic, Collection<T> messages,
+			@Nullable Schema<T> schema) throws PulsarClientException {
+		return doSendBatchAsync(topic, messages, schema, null, null, null);
+	}
+
+	@Override
+	public SendMessagesBuilder<T> newMessages(Collection<T> messages) {
+		return new SendMessagesBuilderImpl<>(this, messages);
+	}
+
 	@Override
 	public void setBeanName(String beanName) {
 		this.beanName = beanName;
 	}
 
+	/**
+	 * Set the limiter used to bound the number of messages in flight. By default, the
+	 * number of messages in flight is not limited by the template.
+	 * @param sendLimiter the limiter or {@code null} to not limit the messages in flight
+	 */
+	public void setSendLimiter(@Nullable InFlightSendLimiter sendLimiter) {
+		this.sendLimiter = sendLimiter;
+	}
+
 	private MessageId doSend(@Nullable String topic, T message, @Nullable Schema<T> schema,
 			@Nullable Collection<String> encryptionKeys,
 			@Nullable TypedMessageBuilderCustomizer<T> typedMessageBuilderCustomizer,
@@ -177,6 +214,14 @@ public class PulsarTemplate<T> implements PulsarOperations<T>, BeanNameAware {
 			@Nullable TypedMessageBuilderCustomizer<T> typedMessageBuilderCustomizer,
 			@Nullable ProducerBuilderCustomizer<T> producerCustomizer) throws PulsarClientException {
 		String topicName = ProducerUtils.resolveTopicName(topic, this.producerFactory);
+		return sendWithPermits(topicName, 1, () -> sendMessageAsync(topicName, topic, message, schema, encryptionKeys,
+				typedMessageBuilderCustomizer, producerCustomizer));
+	}
+
+	private CompletableFuture<MessageId> sendMessageAsync(String topicName, @Nullable String topic, T message,
+			@Nullable Schema<T> schema, @Nullable Collection<String> encryptionKeys,
+			@Nullable TypedMessageBuilderCustomizer<T> typedMessageBuilderCustomizer,
+			@Nullable ProducerBuilderCustomizer<T> producerCustomizer) throws PulsarClientException {
 		this.logger.trace(() -> String.format("Sending msg to '%s' topic", topicName));
 
 		PulsarMessageSenderContext senderContext = PulsarMessageSenderContext.newContext(topicName, this.beanName);
@@ -184,14 +229,21 @@ public class PulsarTemplate<T> implements PulsarOperations<T>, BeanNameAware {
 		try {
 			observation.start();
 			Producer<T> producer = prepareProducerForSend(topic, message, schema, encryptionKeys, producerCustomizer);
-			TypedMessageBuilder<T> messageBuilder = producer.newMessage().value(message);
-			if (typedMessageBuilderCustomizer != null) {
-				typedMessageBuilderCustomizer.customize(messageBuilder);
+			CompletableFuture<MessageId> sendFuture;
+			try {
+				TypedMessageBuilder<T> messageBuilder = producer.newMessage().value(message);
+				if (typedMessageBuilderCustomizer != null) {
+					typedMessageBuilderCustomizer.customize(messageBuilder);
+				}
+				// propagate props to message
+				senderContext.properties().forEach(messageBuilder::property);
+				sendFuture = messageBuilder.sendAsync();
 			}
-			// propagate props to message
-			senderContext.properties().forEach(messageBuilder::property);
-
-			return messageBuilder.sendAsync().whenComplete((msgId, ex) -> {
+			catch (RuntimeException ex) {
+				ProducerUtils.closeProducerAsync(producer, this.logger);
+				throw ex;
+			}
+			return sendFuture.whenComplete((msgId, ex) -> {
 				if (ex == null) {
 					this.logger.trace(() -> String.format("Sent msg to '%s' topic", topicName));
 					observation.stop();
@@ -211,6 +263,104 @@ public class PulsarTemplate<T> implements PulsarOperations<T>, BeanNameAware {
 		}
 	}
 
+	private CompletableFuture<List<MessageId>> doSendBatchAsync(@Nullable String topic, Collection<T> messages,
+			@Nullable Schema<T> schema, @Nullable Collection<String> encryptionKeys,
+			@Nullable TypedMessageBuilderCustomizer<T> typedMessageBuilderCustomizer,
+			@Nullable ProducerBuilderCustomizer<T> producerCustomizer) throws PulsarClientException {
+		Assert.notNull(messages, "messages must not be null");
+		if (messages.isEmpty()) {
+			return CompletableFuture.completedFuture(Collections.emptyList());
+		}
+		String topicName = ProducerUtils.resolveTopicName(topic, this.producerFactory);
+		return sendWithPermits(topicName, messages.size(), () -> sendMessagesAsync(topicName, topic, messages, schema,
+				encryptionKeys, typedMessageBuilderCustomizer, producerCustomizer));
+	}
+
+	private CompletableFuture<List<MessageId>> sendMessagesAsync(String topicName, @Nullable String topic,
+			Collection<T> messages, @Nullable Schema<T> schema, @Nullable Collection<String> encryptionKeys,
+			@Nullable TypedMessageBuilderCustomizer<T> typedMessageBuilderCustomizer,
+			@Nullable ProducerBuilderCustomizer<T> producerCustomizer) throws PulsarClientException {
+		this.logger.trace(() -> String.format("Sending %d msgs to '%s' topic", messages.size(), topicName));
+
+		PulsarMessageSenderContext senderContext = PulsarMessageSenderContext.newContext(topicName, this.beanName);
+		Observation observation = newObservation(senderContext);
+		try {
+			observation.start();
+			Producer<T> producer = prepareProducerForSend(topic, messages.iterator().next(), schema, encryptionKeys,
+					producerCustomizer);
+			List<CompletableFuture<MessageId>> sendFutures = new ArrayList<>(messages.size());
+			try {
+				for (T message : messages) {
+					TypedMessageBuilder<T> messageBuilder = producer.newMessage().value(message);
+					if (typedMessageBuilderCustomizer != null) {
+						typedMessageBuilderCustomizer.customize(messageBuilder);
+					}
+					// propagate props to message
+					senderContext.properties().forEach(messageBuilder::property);
+					sendFutures.add(messageBuilder.sendAsync());
+				}
+			}
+			catch (RuntimeException ex) {
+				ProducerUtils.closeProducerAsync(producer, this.logger);
+				throw ex;
+			}
+			return CompletableFuture.allOf(sendFutures.toArray(new CompletableFuture<?>[0]))
+					.thenApply((ignored) -> sendFutures.stream().map(CompletableFuture::join).toList())
+					.whenComplete((msgIds, ex) -> {
+						if (ex == null) {
+							this.logger
+									.trace(() -> String.format("Sent %d msgs to '%s' topic", msgIds.size(), topicName));
+							observation.stop();
+						}
+						else {
+							this.logger.error(ex, () -> String.format("Failed to send msgs to '%s' topic", topicName));
+							observation.error(ex);
+							observation.stop();
+						}
+						ProducerUtils.closeProducerAsync(producer, this.logger);
+					});
+		}
+		catch (RuntimeException ex) {
+			observation.error(ex);
+			observation.stop();
+			throw ex;
+		}
+	}
+
+	private <R> CompletableFuture<R> sendWithPermits(String topicName, int permits, SendOperation<R> sendOperation)
+			throws PulsarClientException {
+		InFlightSendLimiter limiter = this.sendLimiter;
+		if (limiter == null) {
+			return sendOperation.send();
+		}
+		CompletableFuture<Integer> acquiredPermits = limiter.acquire(topicName, permits);
+		if (acquiredPermits.isDone()) {
+			return sendAndReleasePermits(limiter, topicName, acquiredPermits.join(), sendOperation);
+		}
+		// Not on the thread that released the permits, the send may create a producer
+		return acquiredPermits.thenComposeAsync((acquired) -> {
+			try {
+				return sendAndReleasePermits(limiter, topicName, acquired, sendOperation);
+			}
+			catch (PulsarClientException ex) {
+				throw new CompletionException(ex);
+			}
+		}, limiter.getDelayedSendExecutor());
+	}
+
+	private <R> CompletableFuture<R> sendAndReleasePermits(InFlightSendLimiter limiter, String topicName, int permits,
+			SendOperation<R> sendOperation) throws PulsarClientException {
+		CompletableFuture<R> sendFuture;
+		try {
+			sendFuture = sendOperation.send();
+		}
+		catch (PulsarClientException | RuntimeException ex) {
+			limiter.release(topicName, permits);
+			throw ex;
+		}
+		return sendFuture.whenComplete((result, ex) -> limiter.release(topicName, permits));
+	}
+
 	private Observation newObservation(PulsarMessageSenderContext senderContext) {
 		if (this.observationRegistry == null) {
 			return Observation.NOOP;
@@ -226,16 +376,71 @@ public class PulsarTemplate<T> implements PulsarOperations<T>, BeanNameAware {
 			schema = Objects.requireNonNull(this.schemaResolver.getSchema(message),
 					"Schema must not be null - expecting at least a default schema");
 		}
-		List<ProducerBuilderCustomizer<T>> customizers = new ArrayList<>();
-		if (!CollectionUtils.isEmpty(this.interceptors)) {
-			customizers.add(builder -> this.interceptors.forEach(builder::intercept));
+		// Use the template scoped interceptors customizer so that the list of customizers
+		// is equal across sends and caching producer factories can reuse their producers
+		List<ProducerBuilderCustomizer<T>> customizers;
+		if (this.interceptorsCustomizer == null) {
+			customizers = producerCustomizer == null ? Collections.emptyList() : List.of(producerCustomizer);
 		}
-		if (producerCustomizer != null) {
-			customizers.add(producerCustomizer);
+		else {
+			customizers = producerCustomizer == null ? List.of(this.interceptorsCustomizer)
+					: List.of(this.interceptorsCustomizer, producerCustomizer);
 		}
 		return this.producerFactory.createProducer(schema, topic, encryptionKeys, customizers);
 	}
 
+	/**
+	 * A send that may throw a checked {@link PulsarClientException}.
+	 *
+	 * @param <R> the type of the send result
+	 */
+	@FunctionalInterface
+	private interface SendOperation<R> {
+
+		CompletableFuture<R> send() throws PulsarClientException;
+
+	}
+
+	/**
+	 * Producer builder customizer that adds the template interceptors to the builder.
+	 * <p>
+	 * Equality is based on the interceptors so that equivalent customizers result in the
+	 * same producer cache key.
+	 *
+	 * @param <T> the message payload type
+	 */
+	static final class InterceptorsCustomizer<T> implements ProducerBuilderCustomizer<T> {
+
+		private final List<ProducerInterceptor> interceptors;
+
+		InterceptorsCustomizer(List<ProducerInterceptor> interceptors) {
+			this.interceptors = List.copyOf(interceptors);
+		}
+
+		@Override
+		public void customize(ProducerBuilder<T> producerBuilder) {
+			this.interceptors.forEach(producerBuilder::intercept);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			InterceptorsCustomizer<?> that = (InterceptorsCustomizer<?>) o;
+			return this.interceptors.equals(that.interceptors);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.interceptors.hashCode();
+		}
+
+	}
+
 	public static class SendMessageBuilderImpl<T> implements SendMessageBuilder<T> {
 
 		private final PulsarTemplate<T> template;
@@ -306,4 +511,68 @@ public class PulsarTemplate<T> implements PulsarOperations<T>, BeanNameAware {
 
 	}
 
+	public static class SendMessagesBuilderImpl<T> implements SendMessagesBuilder<T> {
+
+		private final PulsarTemplate<T> template;
+
+		private final Collection<T> messages;
+
+		@Nullable
+		private String topic;
+
+		@Nullable
+		private Schema<T> schema;
+
+		@Nullable
+		private Collection<String> encryptionKeys;
+
+		@Nullable
+		private TypedMessageBuilderCustomizer<T> messageCustomizer;
+
+		@Nullable
+		private ProducerBuilderCustomizer<T> producerCustomizer;
+
+		SendMessagesBuilderImpl(PulsarTemplate<T> template, Collection<T> messages) {
+			this.template = template;
+			this.messages = messages;
+		}
+
+		@Override
+		public SendMessagesBuilder<T> withTopic(String topic) {
+			this.topic = topic;
+			return this;
+		}
+
+		@Override
+		public SendMessagesBuilder<T> withSchema(Schema<T> schema) {
+			this.schema = schema;
+			return this;
+		}
+
+		@Override
+		public SendMessagesBuilder<T> withEncryptionKeys(Collection<String> encryptionKeys) {
+			this.encryptionKeys = encryptionKeys;
+			return this;
+		}
+
+		@Override
+		public SendMessagesBuilder<T> withMessageCustomizer(TypedMessageBuilderCustomizer<T> messageCustomizer) {
+			this.messageCustomizer = messageCustomizer;
+			return this;
+		}
+
+		@Override
+		public SendMessagesBuilder<T> withProducerCustomizer(ProducerBuilderCustomizer<T> producerCustomizer) {
+			this.producerCustomizer = producerCustomizer;
+			return this;
+		}
+
+		@Override
+		public CompletableFuture<List<MessageId>> sendAsync() throws PulsarClientException {
+			return this.template.doSendBatchAsync(this.topic, this.messages, this.schema, this.encryptionKeys,
+					this.messageCustomizer, this.producerCustomizer);
+		}
+
+	}
+
 }
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.Producer;
+import org.apache.pulsar.client.api.ProducerStats;
+import org.apache.pulsar.client.api.PulsarClientException;
+import org.apache.pulsar.client.api.Schema;
+import org.apache.pulsar.client.api.TypedMessageBuilder;
+import org.apache.pulsar.client.api.transaction.Transaction;
+
+import org.springframework.lang.Nullable;
+import org.springframework.pulsar.core.CachingPulsarProducerFactory.StripingStrategy;
+import org.springframework.util.Assert;
+
+/**
+ * A producer that stripes the messages across several producers for the same topic, so
+ * that concurrent senders do not contend on the lock of a single producer.
+ * <p>
+ * The producer used for a message is selected when the message is sent. With the
+ * {@link StripingStrategy#MESSAGE_KEY message key strategy}, messages with the same
+ * ordering key or key always use the same producer, which preserves their ordering.
+ * Messages without a key, and all messages with the {@link StripingStrategy#THREAD thread
+ * strategy}, use the producer selected by the sending thread.
+ *
+ * @param <T> producer type.
+ */
+class StripedProducer<T> implements Producer<T> {
+
+	private final List<Producer<T>> producers;
+
+	private final StripingStrategy stripingStrategy;
+
+	StripedProducer(List<Producer<T>> producers, StripingStrategy stripingStrategy) {
+		Assert.notEmpty(producers, "producers must not be empty");
+		this.producers = List.copyOf(producers);
+		this.stripingStrategy = stripingStrategy;
+	}
+
+	List<Producer<T>> getProducers() {
+		return this.producers;
+	}
+
+	private Producer<T> threadProducer() {
+		return this.producers.get((int) (Thread.currentThread().getId() % this.producers.size()));
+	}
+
+	private Producer<T> keyProducer(@Nullable Object key) {
+		if (key == null || this.stripingStrategy != StripingStrategy.MESSAGE_KEY) {
+			return threadProducer();
+		}
+		int hash = (key instanceof byte[] bytes) ? Arrays.hashCode(bytes) : key.hashCode();
+		return this.producers.get(Math.floorMod(hash, this.producers.size()));
+	}
+
+	@Override
+	public String getTopic() {
+		return this.producers.get(0).getTopic();
+	}
+
+	@Override
+	public String getProducerName() {
+		return this.producers.get(0).getProducerName();
+	}
+
+	@Override
+	public MessageId send(T message) throws PulsarClientException {
+		return threadProducer().send(message);
+	}
+
+	@Override
+	public CompletableFuture<MessageId> sendAsync(T message) {
+		return threadProducer().sendAsync(message);
+	}
+
+	@Override
+	public void flush() throws PulsarClientException {
+		for (Producer<T> producer : this.producers) {
+			producer.flush();
+		}
+	}
+
+	@Override
+	public CompletableFuture<Void> flushAsync() {
+		return CompletableFuture
+				.allOf(this.producers.stream().map(Producer::flushAsync).toArray(CompletableFuture[]::new));
+	}
+
+	@Override
+	public TypedMessageBuilder<T> newMessage() {
+		return new StripedMessageBuilder<>(Producer::newMessage);
+	}
+
+	@Override
+	public <V> TypedMessageBuilder<V> newMessage(Schema<V> schema) {
+		return new StripedMessageBuilder<>((producer) -> producer.newMessage(schema));
+	}
+
+	@Override
+	public TypedMessageBuilder<T> newMessage(Transaction txn) {
+		return new StripedMessageBuilder<>((producer) -> producer.newMessage(txn));
+	}
+
+	@Override
+	public long getLastSequenceId() {
+		return this.producers.stream().mapToLong(Producer::getLastSequenceId).max().orElse(-1L);
+	}
+
+	@Override
+	public ProducerStats getStats() {
+		return this.producers.get(0).getStats();
+	}
+
+	@Override
+	public void close() throws PulsarClientException {
+		PulsarClientException closeException = null;
+		for (Producer<T> producer : this.producers) {
+			try {
+				producer.close();
+			}
+			catch (PulsarClientException ex) {
+				closeException = ex;
+			}
+		}
+		if (closeException != null) {
+			throw closeException;
+		}
+	}
+
+	@Override
+	public CompletableFuture<Void> closeAsync() {
+		return CompletableFuture
+				.allOf(this.producers.stream().map(Producer::closeAsync).toArray(CompletableFuture[]::new));
+	}
+
+	@Override
+	public boolean isConnected() {
+		return this.producers.stream().allMatch(Producer::isConnected);
+	}
+
+	@Override
+	public long getLastDisconnectedTimestamp() {
+		return this.producers.stream().mapToLong(Producer::getLastDisconnectedTimestamp).max().orElse(0L);
+	}
+
+	@Override
+	public int getNumOfPartitions() {
+		return this.producers.get(0).getNumOfPartitions();
+	}
+
+	/**
+	 * A message builder that records the calls made to it and replays them on the builder
+	 * of the selected producer when the message is sent.
+	 *
+	 * @param <V> message type.
+	 */
+	@SuppressWarnings("serial")
+	private final class StripedMessageBuilder<V> implements TypedMessageBuilder<V> {
+
+		private final Function<Producer<T>, TypedMessageBuilder<V>> builderFactory;
+
+		private final List<Consumer<TypedMessageBuilder<V>>> calls = new ArrayList<>();
+
+		@Nullable
+		private Object key;
+
+		@Nullable
+		private byte[] orderingKey;
+
+		StripedMessageBuilder(Function<Producer<T>, TypedMessageBuilder<V>> builderFactory) {
+			this.builderFactory = builderFactory;
+		}
+
+		private TypedMessageBuilder<V> selectedBuilder() {
+			Producer<T> producer = keyProducer((this.orderingKey != null) ? this.orderingKey : this.key);
+			TypedMessageBuilder<V> builder = this.builderFactory.apply(producer);
+			this.calls.forEach((call) -> call.accept(builder));
+			return builder;
+		}
+
+		private TypedMessageBuilder<V> record(Consumer<TypedMessageBuilder<V>> call) {
+			this.calls.add(call);
+			return this;
+		}
+
+		@Override
+		public MessageId send() throws PulsarClientException {
+			return selectedBuilder().send();
+		}
+
+		@Override
+		public CompletableFuture<MessageId> sendAsync() {
+			return selectedBuilder().sendAsync();
+		}
+
+		@Override
+		public TypedMessageBuilder<V> key(String key) {
+			this.key = key;
+			return record((builder) -> builder.key(key));
+		}
+
+		@Override
+		public TypedMessageBuilder<V> keyBytes(byte[] key) {
+			this.key = key;
+			return record((builder) -> builder.keyBytes(key));
+		}
+
+		@Override
+		public TypedMessageBuilder<V> orderingKey(byte[] orderingKey) {
+			this.orderingKey = orderingKey;
+			return record((builder) -> builder.orderingKey(orderingKey));
+		}
+
+		@Override
+		public TypedMessageBuilder<V> value(V value) {
+			return record((builder) -> builder.value(value));
+		}
+
+		@Override
+		public TypedMessageBuilder<V> property(String name, String value) {
+			return record((builder) -> builder.property(name, value));
+		}
+
+		@Override
+		public TypedMessageBuilder<V> properties(Map<String, String> properties) {
+			return record((builder) -> builder.properties(properties));
+		}
+
+		@Override
+		public TypedMessageBuilder<V> eventTime(long timestamp) {
+			return record((builder) -> builder.eventTime(timestamp));
+		}
+
+		@Override
+		public TypedMessageBuilder<V> sequenceId(long sequenceId) {
+			return record((builder) -> builder.sequenceId(sequenceId));
+		}
+
+		@Override
+		public TypedMessageBuilder<V> replicationClusters(List<String> clusters) {
+			return record((builder) -> builder.replicationClusters(clusters));
+		}
+
+		@Override
+		public TypedMessageBuilder<V> disableReplication() {
+			return record(TypedMessageBuilder::disableReplication);
+		}
+
+		@Override
+		public TypedMessageBuilder<V> deliverAt(long timestamp) {
+			return record((builder) -> builder.deliverAt(timestamp));
+		}
+
+		@Override
+		public TypedMessageBuilder<V> deliverAfter(long delay, TimeUnit unit) {
+			return record((builder) -> builder.deliverAfter(delay, unit));
+		}
+
+		@Override
+		public TypedMessageBuilder<V> loadConf(Map<String, Object> config) {
+			if (config.get(CONF_KEY) instanceof String configKey) {
+				this.key = configKey;
+			}
+			return record((builder) -> builder.loadConf(config));
+		}
+
+	}
+
+}
@@ -16,6 +16,8 @@
 
 package org.springframework.pulsar.listener;
 
+import java.util.Map;
+
 import org.apache.pulsar.client.api.DeadLetterPolicy;
 import org.apache.pulsar.client.api.RedeliveryBackoff;
 
@@ -64,6 +66,8 @@ public non-sealed abstract class AbstractPulsarMessageListenerContainer<T> imple
 
 	private volatile boolean running = false;
 
+	private volatile boolean paused;
+
 	protected RedeliveryBackoff negativeAckRedeliveryBackoff;
 
 	protected RedeliveryBackoff ackTimeoutRedeliveryBackoff;
@@ -88,6 +92,24 @@ public non-sealed abstract class AbstractPulsarMessageListenerContainer<T> imple
 		return this.pulsarContainerProperties;
 	}
 
+	/**
+	 * Determine whether pooled messages are requested, through the {@code poolMessages}
+	 * container property or consumer property. The container may still turn pooling off
+	 * for listeners that do not support it.
+	 * @return whether pooled messages are requested
+	 */
+	public boolean isPoolMessagesRequested() {
+		if (this.pulsarContainerProperties.isPoolMessages()) {
+			return true;
+		}
+		Object poolMessages = this.pulsarContainerProperties.getPulsarConsumerProperties().get("poolMessages");
+		if (poolMessages == null) {
+			Map<String, Object> consumerConfig = this.pulsarConsumerFactory.getConsumerConfig();
+			poolMessages = (consumerConfig != null ? consumerConfig.get("poolMessages") : null);
+		}
+		return poolMessages != null && Boolean.parseBoolean(poolMessages.toString());
+	}
+
 	public ObservationRegistry getObservationRegistry() {
 		return this.observationRegistry;
 	}
@@ -187,6 +209,35 @@ public non-sealed abstract class AbstractPulsarMessageListenerContainer<T> imple
 		}
 	}
 
+	@Override
+	public void pause() {
+		synchronized (this.lifecycleMonitor) {
+			if (!this.paused) {
+				this.paused = true;
+				doPause();
+			}
+		}
+	}
+
+	@Override
+	public void resume() {
+		synchronized (this.lifecycleMonitor) {
+			if (this.paused) {
+				this.paused = false;
+				doResume();
+			}
+		}
+	}
+
+	@Override
+	public boolean isPaused() {
+		return this.paused;
+	}
+
+	protected abstract void doPause();
+
+	protected abstract void doResume();
+
 	@Override
 	public void setNegativeAckRedeliveryBackoff(RedeliveryBackoff redeliveryBackoff) {
 		this.negativeAckRedeliveryBackoff = redeliveryBackoff;
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.listener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.apache.commons.logging.LogFactory;
+import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.Messages;
+import org.apache.pulsar.client.api.PulsarClientException;
+
+import org.springframework.core.log.LogAccessor;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Buffers the acknowledgements of a consumer and sends them to the broker in as few
+ * requests as possible.
+ * <p>
+ * Pending acknowledgements are sent once a number of them are pending or once the oldest
+ * of them has been pending for some time. They are sent as a single cumulative
+ * acknowledgement per topic when cumulative acknowledgements are enabled, and as a single
+ * acknowledgement of all the pending message ids otherwise. A message that is negatively
+ * acknowledged disables cumulative acknowledgements until the next flush, and a message
+ * that is held for a later retry disables them until it is released, so that neither is
+ * acknowledged along with the messages around it. Pooled messages are released once
+ * acknowledged or negatively acknowledged.
+ *
+ * @param <T> the message payload type
+ */
+final class AckAccumulator<T> {
+
+	private static final LogAccessor logger = new LogAccessor(LogFactory.getLog(AckAccumulator.class));
+
+	private final Consumer<T> consumer;
+
+	private final boolean cumulative;
+
+	private final int ackCount;
+
+	private final long ackTimeNanos;
+
+	private final List<Message<T>> pendingAcks = new ArrayList<>();
+
+	private final Set<MessageId> nackedIds = new HashSet<>();
+
+	private final Set<MessageId> heldIds = new HashSet<>();
+
+	private long firstPendingAckNanos;
+
+	@Nullable
+	private final ListenerMetrics metrics;
+
+	private final boolean releaseMessages;
+
+	private long[] pendingAckNanos = new long[0];
+
+	/**
+	 * Construct an accumulator.
+	 * @param consumer the consumer to acknowledge the messages with
+	 * @param cumulative whether to acknowledge the messages cumulatively when possible
+	 * @param ackCount the number of pending acknowledgements that triggers a flush
+	 * @param ackTime the time after which pending acknowledgements are flushed whatever
+	 * their number or {@code null} to only flush on count
+	 */
+	AckAccumulator(Consumer<T> consumer, boolean cumulative, int ackCount, @Nullable Duration ackTime) {
+		this(consumer, cumulative, ackCount, ackTime, null, false);
+	}
+
+	/**
+	 * Construct an accumulator.
+	 * @param consumer the consumer to acknowledge the messages with
+	 * @param cumulative whether to acknowledge the messages cumulatively when possible
+	 * @param ackCount the number of pending acknowledgements that triggers a flush
+	 * @param ackTime the time after which pending acknowledgements are flushed whatever
+	 * their number or {@code null} to only flush on count
+	 * @param metrics the metrics to record the acknowledgements with or {@code null}
+	 * @param releaseMessages whether to {@link Message#release() release} the messages
+	 * once acknowledged or negatively acknowledged
+	 */
+	AckAccumulator(Consumer<T> consumer, boolean cumulative, int ackCount, @Nullable Duration ackTime,
+			@Nullable ListenerMetrics metrics, boolean releaseMessages) {
+		Assert.notNull(consumer, "consumer must not be null");
+		Assert.isTrue(ackCount > 0, "ackCount must be greater than 0");
+		this.consumer = consumer;
+		this.cumulative = cumulative;
+		this.ackCount = ackCount;
+		this.ackTimeNanos = (ackTime != null ? ackTime.toNanos() : 0);
+		this.metrics = metrics;
+		this.releaseMessages = releaseMessages;
+	}
+
+	/**
+	 * Add the acknowledgement of a message.
+	 * @param message the message to acknowledge
+	 */
+	synchronized void ack(Message<T> message) {
+		if (this.pendingAcks.isEmpty()) {
+			this.firstPendingAckNanos = System.nanoTime();
+		}
+		if (this.metrics != null) {
+			int index = this.pendingAcks.size();
+			if (index == this.pendingAckNanos.length) {
+				this.pendingAckNanos = Arrays.copyOf(this.pendingAckNanos, Math.max(16, index * 2));
+			}
+			this.pendingAckNanos[index] = System.nanoTime();
+		}
+		this.pendingAcks.add(message);
+	}
+
+	/**
+	 * Add the acknowledgement of several messages.
+	 * @param messages the messages to acknowledge
+	 */
+	synchronized void ackAll(Iterable<Message<T>> messages) {
+		for (Message<T> message : messages) {
+			ack(message);
+		}
+	}
+
+	/**
+	 * Negatively acknowledge a message right away.
+	 * @param message the message to negatively acknowledge
+	 */
+	synchronized void nack(Message<T> message) {
+		this.nackedIds.add(message.getMessageId());
+		this.consumer.negativeAcknowledge(message);
+		if (this.metrics != null) {
+			this.metrics.nacked(message);
+		}
+		if (this.releaseMessages) {
+			message.release();
+		}
+	}
+
+	/**
+	 * Negatively acknowledge several messages right away.
+	 * @param messages the messages to negatively acknowledge
+	 */
+	synchronized void nackAll(Messages<T> messages) {
+		for (Message<T> message : messages) {
+			this.nackedIds.add(message.getMessageId());
+			if (this.metrics != null) {
+				this.metrics.nacked(message);
+			}
+		}
+		this.consumer.negativeAcknowledge(messages);
+		if (this.releaseMessages) {
+			messages.forEach(Message::release);
+		}
+	}
+
+	/**
+	 * Hold a message that is not acknowledged yet as it will be retried later.
+	 * @param message the message to hold
+	 */
+	synchronized void hold(Message<T> message) {
+		this.heldIds.add(message.getMessageId());
+	}
+
+	/**
+	 * Release a message previously {@link #hold(Message) held}.
+	 * @param message the message to release
+	 */
+	synchronized void release(Message<T> message) {
+		this.heldIds.remove(message.getMessageId());
+	}
+
+	/**
+	 * Flush the pending acknowledgements if enough of them are pending or if the oldest
+	 * has been pending long enough.
+	 * @return whether the pending acknowledgements were flushed
+	 */
+	synchronized boolean flushIfDue() {
+		if (this.pendingAcks.isEmpty()) {
+			return false;
+		}
+		if (this.pendingAcks.size() >= this.ackCount
+				|| (this.ackTimeNanos > 0 && System.nanoTime() - this.firstPendingAckNanos >= this.ackTimeNanos)) {
+			flush();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Flush the pending acknowledgements.
+	 */
+	synchronized void flush() {
+		try {
+			if (this.pendingAcks.isEmpty()) {
+				return;
+			}
+			if (this.cumulative && this.nackedIds.isEmpty() && this.heldIds.isEmpty()) {
+				acknowledgeCumulatively();
+			}
+			else {
+				acknowledgeIndividually();
+			}
+		}
+		finally {
+			if (this.releaseMessages) {
+				// pooled messages are no longer used once acknowledged
+				this.pendingAcks.forEach(Message::release);
+			}
+			this.pendingAcks.clear();
+			this.nackedIds.clear();
+		}
+	}
+
+	/**
+	 * Get the number of pending acknowledgements.
+	 * @return the number of pending acknowledgements
+	 */
+	synchronized int getPendingAckCount() {
+		return this.pendingAcks.size();
+	}
+
+	private void acknowledgeCumulatively() {
+		// messages may have been acknowledged out of order and a multi-topics consumer
+		// acknowledges cumulatively per topic, so find the latest message of each topic
+		Map<String, Message<T>> latestPerTopic = new LinkedHashMap<>();
+		for (Message<T> message : this.pendingAcks) {
+			Message<T> latest = latestPerTopic.get(message.getTopicName());
+			if (latest == null || message.getMessageId().compareTo(latest.getMessageId()) >= 0) {
+				latestPerTopic.put(message.getTopicName(), message);
+			}
+		}
+		latestPerTopic.forEach((topic, latest) -> {
+			try {
+				this.consumer.acknowledgeCumulative(latest);
+				recordAcks((message) -> Objects.equals(topic, message.getTopicName()));
+			}
+			catch (PulsarClientException ex) {
+				logger.warn(ex, () -> String.format("Cumulative acknowledgment failed for message: [%s]",
+						latest.getMessageId()));
+				this.pendingAcks.stream().filter((message) -> Objects.equals(topic, message.getTopicName()))
+						.forEach(this::nackFailedAck);
+			}
+		});
+	}
+
+	private void acknowledgeIndividually() {
+		try {
+			if (this.pendingAcks.size() == 1) {
+				this.consumer.acknowledge(this.pendingAcks.get(0).getMessageId());
+			}
+			else {
+				List<MessageId> messageIds = new ArrayList<>(this.pendingAcks.size());
+				for (Message<T> message : this.pendingAcks) {
+					messageIds.add(message.getMessageId());
+				}
+				this.consumer.acknowledge(messageIds);
+			}
+			recordAcks((message) -> true);
+		}
+		catch (PulsarClientException ex) {
+			logger.warn(ex, () -> String.format("Acknowledgment failed for %d messages", this.pendingAcks.size()));
+			this.pendingAcks.forEach(this::nackFailedAck);
+		}
+	}
+
+	private void nackFailedAck(Message<T> message) {
+		this.consumer.negativeAcknowledge(message);
+		if (this.metrics != null) {
+			this.metrics.nacked(message);
+		}
+	}
+
+	private void recordAcks(Predicate<Message<T>> filter) {
+		if (this.metrics == null) {
+			return;
+		}
+		long now = System.nanoTime();
+		for (int i = 0; i < this.pendingAcks.size(); i++) {
+			Message<T> message = this.pendingAcks.get(i);
+			if (filter.test(message)) {
+				this.metrics.acknowledged(message, now - this.pendingAckNanos[i]);
+			}
+		}
+	}
+
+}
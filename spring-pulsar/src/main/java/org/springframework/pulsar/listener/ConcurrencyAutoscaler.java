@@ -0,0 +1,115 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.listener;
+
+import java.time.Duration;
+
+import org.springframework.util.Assert;
+
+/**
+ * Decides the number of consumers of a {@link ConcurrentPulsarMessageListenerContainer}
+ * from how busy they are.
+ * <p>
+ * The load is the sum of the utilization of the consumers, where the utilization of a
+ * consumer is the fraction of time it spent handling messages rather than waiting for
+ * them. A consumer that does not wait for messages is lagging behind, so a consumer is
+ * added once the average utilization stays above {@value #SCALE_UP_UTILIZATION} for
+ * {@value #SCALE_UP_SAMPLES} consecutive samples. A consumer is removed once the load
+ * would keep one fewer consumers below {@value #SCALE_DOWN_UTILIZATION} for
+ * {@value #SCALE_DOWN_SAMPLES} consecutive samples. The gap between both thresholds and a
+ * cooldown after each change keep the concurrency from flapping.
+ */
+final class ConcurrencyAutoscaler {
+
+	static final double SCALE_UP_UTILIZATION = 0.8;
+
+	static final double SCALE_DOWN_UTILIZATION = 0.5;
+
+	static final int SCALE_UP_SAMPLES = 2;
+
+	static final int SCALE_DOWN_SAMPLES = 5;
+
+	private final int minConcurrency;
+
+	private final int maxConcurrency;
+
+	private final long cooldownNanos;
+
+	private int highLoadSamples;
+
+	private int lowLoadSamples;
+
+	private long lastChangeNanos;
+
+	/**
+	 * Construct an autoscaler.
+	 * @param minConcurrency the minimum number of consumers
+	 * @param maxConcurrency the maximum number of consumers
+	 * @param cooldown the minimum time between two changes, which also applies after the
+	 * consumers are started
+	 * @param startNanos the time the consumers were started
+	 */
+	ConcurrencyAutoscaler(int minConcurrency, int maxConcurrency, Duration cooldown, long startNanos) {
+		Assert.isTrue(minConcurrency > 0, "minConcurrency must be greater than 0");
+		Assert.isTrue(maxConcurrency > minConcurrency, "maxConcurrency must be greater than minConcurrency");
+		Assert.notNull(cooldown, "cooldown must not be null");
+		this.minConcurrency = minConcurrency;
+		this.maxConcurrency = maxConcurrency;
+		this.cooldownNanos = cooldown.toNanos();
+		this.lastChangeNanos = startNanos;
+	}
+
+	/**
+	 * Record a load sample and decide the number of consumers.
+	 * @param concurrency the current number of consumers
+	 * @param load the sum of the utilization of the consumers since the previous sample
+	 * @param nowNanos the time of the sample
+	 * @return the number of consumers to run, which differs from the current number by at
+	 * most one
+	 */
+	int evaluate(int concurrency, double load, long nowNanos) {
+		if (load / concurrency >= SCALE_UP_UTILIZATION) {
+			this.highLoadSamples++;
+			this.lowLoadSamples = 0;
+		}
+		else if (concurrency > 1 && load / (concurrency - 1) <= SCALE_DOWN_UTILIZATION) {
+			this.lowLoadSamples++;
+			this.highLoadSamples = 0;
+		}
+		else {
+			this.highLoadSamples = 0;
+			this.lowLoadSamples = 0;
+		}
+		if (nowNanos - this.lastChangeNanos < this.cooldownNanos) {
+			return concurrency;
+		}
+		int newConcurrency = concurrency;
+		if (this.highLoadSamples >= SCALE_UP_SAMPLES && concurrency < this.maxConcurrency) {
+			newConcurrency = concurrency + 1;
+		}
+		else if (this.lowLoadSamples >= SCALE_DOWN_SAMPLES && concurrency > this.minConcurrency) {
+			newConcurrency = concurrency - 1;
+		}
+		if (newConcurrency != concurrency) {
+			this.highLoadSamples = 0;
+			this.lowLoadSamples = 0;
+			this.lastChangeNanos = nowNanos;
+		}
+		return newConcurrency;
+	}
+
+}
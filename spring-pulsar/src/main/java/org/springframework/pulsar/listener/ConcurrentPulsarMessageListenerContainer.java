@@ -1,5 +1,5 @@
 /*
- * Copyright 2022 the original author or authors.
+ * Copyright 2022-2023 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,17 +16,25 @@
 
 package org.springframework.pulsar.listener;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.pulsar.client.api.SubscriptionType;
 
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.task.AsyncTaskExecutor;
-import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.lang.Nullable;
 import org.springframework.pulsar.core.PulsarConsumerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.Assert;
 
 import io.micrometer.observation.ObservationRegistry;
@@ -35,6 +43,11 @@ import io.micrometer.observation.ObservationRegistry;
  * Creates a concurrent execution context of {@link DefaultPulsarMessageListenerContainer}
  * instances based on the {@link #setConcurrency(int) concurrency}. Concurrency > 1 is not
  * allowed for exclusive subscriptions.
+ * <p>
+ * When a {@link #setMaxConcurrency(int) maximum concurrency} greater than the concurrency
+ * is set, the number of containers is adjusted at runtime between both bounds according
+ * to how busy the containers are: a container is added while they hardly ever wait for
+ * messages and one is removed while the others could handle the load on their own.
  *
  * @param <T> the payload type.
  * @author Soby Chacko
@@ -43,12 +56,31 @@ import io.micrometer.observation.ObservationRegistry;
  */
 public class ConcurrentPulsarMessageListenerContainer<T> extends AbstractPulsarMessageListenerContainer<T> {
 
-	private final List<DefaultPulsarMessageListenerContainer<T>> containers = new ArrayList<>();
+	private final List<DefaultPulsarMessageListenerContainer<T>> containers = new CopyOnWriteArrayList<>();
 
 	private int concurrency = 1;
 
+	private int maxConcurrency;
+
+	private Duration autoscaleInterval = Duration.ofSeconds(10);
+
+	private Duration autoscaleCooldown = Duration.ofMinutes(1);
+
 	private final List<AsyncTaskExecutor> executors = new ArrayList<>();
 
+	private final Map<DefaultPulsarMessageListenerContainer<T>, Long> receiveWaitSamples = new HashMap<>();
+
+	@Nullable
+	private ReceiveRateLimiter receiveRateLimiter;
+
+	@Nullable
+	private ScheduledExecutorService autoscaleExecutor;
+
+	@Nullable
+	private ConcurrencyAutoscaler autoscaler;
+
+	private long lastSampleNanos;
+
 	public ConcurrentPulsarMessageListenerContainer(PulsarConsumerFactory<? super T> pulsarConsumerFactory,
 			PulsarContainerProperties pulsarContainerProperties, @Nullable ObservationRegistry observationRegistry) {
 		super(pulsarConsumerFactory, pulsarContainerProperties, observationRegistry);
@@ -69,26 +101,158 @@ public class ConcurrentPulsarMessageListenerContainer<T> extends AbstractPulsarM
 		this.concurrency = concurrency;
 	}
 
+	public int getMaxConcurrency() {
+		return this.maxConcurrency;
+	}
+
+	/**
+	 * The maximum number of concurrent {@link DefaultPulsarMessageListenerContainer}s
+	 * running when the concurrency is adjusted at runtime, in which case the
+	 * {@link #setConcurrency(int) concurrency} is the minimum number of containers. The
+	 * concurrency is fixed when the maximum concurrency is not greater than the
+	 * concurrency, which is the default, and on exclusive subscriptions.
+	 * @param maxConcurrency the maximum concurrency.
+	 */
+	public void setMaxConcurrency(int maxConcurrency) {
+		Assert.isTrue(maxConcurrency > 0, "maxConcurrency must be greater than 0");
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	public Duration getAutoscaleInterval() {
+		return this.autoscaleInterval;
+	}
+
+	/**
+	 * How often the load of the containers is sampled when the concurrency is adjusted at
+	 * runtime. Default 10 seconds.
+	 * @param autoscaleInterval the sampling interval.
+	 */
+	public void setAutoscaleInterval(Duration autoscaleInterval) {
+		Assert.notNull(autoscaleInterval, "autoscaleInterval must not be null");
+		Assert.isTrue(!autoscaleInterval.isNegative() && !autoscaleInterval.isZero(),
+				"autoscaleInterval must be positive");
+		this.autoscaleInterval = autoscaleInterval;
+	}
+
+	public Duration getAutoscaleCooldown() {
+		return this.autoscaleCooldown;
+	}
+
+	/**
+	 * The minimum time between two adjustments of the concurrency, which also applies
+	 * after the container is started. Default 1 minute.
+	 * @param autoscaleCooldown the cooldown.
+	 */
+	public void setAutoscaleCooldown(Duration autoscaleCooldown) {
+		Assert.notNull(autoscaleCooldown, "autoscaleCooldown must not be null");
+		this.autoscaleCooldown = autoscaleCooldown;
+	}
+
 	@Override
 	public void doStart() {
 		if (!isRunning()) {
 
 			PulsarContainerProperties containerProperties = getContainerProperties();
-			if (containerProperties.getSubscriptionType() == SubscriptionType.Exclusive && this.concurrency > 1) {
+			boolean exclusive = containerProperties.getSubscriptionType() == SubscriptionType.Exclusive;
+			if (exclusive && this.concurrency > 1) {
 				throw new IllegalStateException("concurrency > 1 is not allowed on Exclusive subscription type");
 			}
 
 			setRunning(true);
 
+			// the consumers share the rate limit of the container
+			this.receiveRateLimiter = ReceiveRateLimiter.of(containerProperties);
 			for (int i = 0; i < this.concurrency; i++) {
-				DefaultPulsarMessageListenerContainer<T> container = constructContainer(containerProperties);
-				configureChildContainer(i, container);
-				container.start();
-				this.containers.add(container);
+				addContainer(containerProperties);
+			}
+			if (this.maxConcurrency > this.concurrency) {
+				if (exclusive) {
+					this.logger.warn(
+							"Ignoring maxConcurrency as concurrency cannot be adjusted on Exclusive subscription type");
+				}
+				else {
+					startAutoscaling();
+				}
+			}
+		}
+	}
+
+	private void addContainer(PulsarContainerProperties containerProperties) {
+		DefaultPulsarMessageListenerContainer<T> container = constructContainer(containerProperties);
+		configureChildContainer(this.containers.size(), container);
+		container.start();
+		this.containers.add(container);
+		this.receiveWaitSamples.put(container, container.getReceiveWaitNanos());
+	}
+
+	private void startAutoscaling() {
+		long now = System.nanoTime();
+		this.autoscaler = new ConcurrencyAutoscaler(this.concurrency, this.maxConcurrency, this.autoscaleCooldown, now);
+		this.lastSampleNanos = now;
+		String beanName = getBeanName();
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(
+				(beanName == null ? "consumer" : beanName) + "-autoscale-");
+		threadFactory.setDaemon(true);
+		this.autoscaleExecutor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+		long intervalNanos = this.autoscaleInterval.toNanos();
+		this.autoscaleExecutor.scheduleWithFixedDelay(this::autoscale, intervalNanos, intervalNanos,
+				TimeUnit.NANOSECONDS);
+	}
+
+	private void autoscale() {
+		DefaultPulsarMessageListenerContainer<T> removedContainer = null;
+		synchronized (this.lifecycleMonitor) {
+			if (!isRunning() || this.autoscaler == null) {
+				return;
+			}
+			try {
+				long now = System.nanoTime();
+				double load = sampleLoad(now);
+				int current = this.containers.size();
+				int desired = this.autoscaler.evaluate(current, load, now);
+				if (desired > current) {
+					this.logger
+							.info(() -> String.format("Increasing concurrency to %d as load is %.2f", desired, load));
+					addContainer(getContainerProperties());
+				}
+				else if (desired < current) {
+					this.logger
+							.info(() -> String.format("Decreasing concurrency to %d as load is %.2f", desired, load));
+					removedContainer = this.containers.remove(current - 1);
+					this.receiveWaitSamples.remove(removedContainer);
+				}
+			}
+			catch (RuntimeException ex) {
+				this.logger.error(ex, () -> "Failed to adjust the concurrency");
+			}
+		}
+		if (removedContainer != null) {
+			// outside the monitor as the consumer may take up to the shutdown timeout to
+			// drain, which must not hold back stopping, pausing or resuming the container
+			try {
+				removedContainer.stop();
+			}
+			catch (RuntimeException ex) {
+				this.logger.error(ex, () -> "Failed to stop the container removed to decrease the concurrency");
 			}
 		}
 	}
 
+	private double sampleLoad(long now) {
+		// the utilization of a container is the fraction of time since the previous
+		// sample it did not spend waiting for messages
+		long elapsedNanos = now - this.lastSampleNanos;
+		this.lastSampleNanos = now;
+		double load = 0;
+		for (DefaultPulsarMessageListenerContainer<T> container : this.containers) {
+			long receiveWaitNanos = container.getReceiveWaitNanos();
+			Long previous = this.receiveWaitSamples.put(container, receiveWaitNanos);
+			long waitedNanos = receiveWaitNanos - (previous != null ? previous : receiveWaitNanos);
+			load += Math.min(1, Math.max(0, 1 - (double) waitedNanos / elapsedNanos));
+		}
+		return load;
+	}
+
 	private DefaultPulsarMessageListenerContainer<T> constructContainer(PulsarContainerProperties containerProperties) {
 		return new DefaultPulsarMessageListenerContainer<>(this.getPulsarConsumerFactory(), containerProperties,
 				this.getObservationRegistry());
@@ -107,9 +271,12 @@ public class ConcurrentPulsarMessageListenerContainer<T> extends AbstractPulsarM
 			container.setApplicationEventPublisher(publisher);
 		}
 
+		// the child containers share the container properties and so the executor,
+		// which is only created once rather than on each increase of the concurrency
 		AsyncTaskExecutor exec = container.getContainerProperties().getConsumerTaskExecutor();
 		if (exec == null) {
-			exec = new SimpleAsyncTaskExecutor(beanName + "-C-");
+			exec = ConsumerTaskExecutors.create(beanName + "-C-",
+					container.getContainerProperties().isVirtualThreads());
 			this.executors.add(exec);
 			container.getContainerProperties().setConsumerTaskExecutor(exec);
 		}
@@ -117,16 +284,42 @@ public class ConcurrentPulsarMessageListenerContainer<T> extends AbstractPulsarM
 		container.setAckTimeoutRedeliveryBackoff(this.ackTimeoutRedeliveryBackoff);
 		container.setDeadLetterPolicy(this.deadLetterPolicy);
 		container.setPulsarConsumerErrorHandler(this.pulsarConsumerErrorHandler);
+		container.setReceiveRateLimiter(this.receiveRateLimiter);
+		if (isPaused()) {
+			container.pause();
+		}
+	}
+
+	@Override
+	protected void doPause() {
+		this.containers.forEach(DefaultPulsarMessageListenerContainer::pause);
+	}
+
+	@Override
+	protected void doResume() {
+		this.containers.forEach(DefaultPulsarMessageListenerContainer::resume);
 	}
 
 	@Override
 	public void doStop() {
 		if (isRunning()) {
 			setRunning(false);
-			for (DefaultPulsarMessageListenerContainer<T> pulsarMessageListenerContainer : this.containers) {
-				pulsarMessageListenerContainer.stop();
+			if (this.autoscaleExecutor != null) {
+				this.autoscaleExecutor.shutdown();
+				this.autoscaleExecutor = null;
+				this.autoscaler = null;
 			}
+			// the consumers drain concurrently within the same shutdown timeout
+			long deadlineNanos = System.nanoTime() + getContainerProperties().getShutdownTimeout().toNanos();
+			List<DefaultPulsarMessageListenerContainer<T>> containersToStop = this.containers.stream()
+					.filter(DefaultPulsarMessageListenerContainer::isRunning).toList();
+			containersToStop.forEach((container) -> container.stopReceiving(deadlineNanos));
+			containersToStop.forEach(DefaultPulsarMessageListenerContainer::awaitStopped);
+			CompletableFuture.allOf(containersToStop.stream()
+					.map(DefaultPulsarMessageListenerContainer::closeConsumerAsync).toArray(CompletableFuture[]::new))
+					.join();
 			this.containers.clear();
+			this.receiveWaitSamples.clear();
 		}
 	}
 
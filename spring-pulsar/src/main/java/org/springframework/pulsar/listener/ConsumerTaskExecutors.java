@@ -0,0 +1,130 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.listener;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Creates the default task executors used to run the consumers of a listener container,
+ * to decode the messages they receive ahead and to dispatch their messages.
+ * <p>
+ * Virtual threads are created reflectively so that the library can still be compiled
+ * against and run on Java 17, where requesting them fails fast with an
+ * {@link IllegalStateException}.
+ */
+final class ConsumerTaskExecutors {
+
+	@Nullable
+	private static final Method OF_VIRTUAL_METHOD = ClassUtils.getMethodIfAvailable(Thread.class, "ofVirtual");
+
+	private ConsumerTaskExecutors() {
+	}
+
+	/**
+	 * Determine whether the current Java runtime supports virtual threads.
+	 * @return whether virtual threads are available
+	 */
+	static boolean virtualThreadsAvailable() {
+		return OF_VIRTUAL_METHOD != null;
+	}
+
+	/**
+	 * Create a task executor that starts a new thread per consumer.
+	 * @param threadNamePrefix the prefix for the consumer thread names
+	 * @param virtualThreads whether to start virtual threads rather than platform threads
+	 * @return the task executor
+	 * @throws IllegalStateException if virtual threads are requested but not supported by
+	 * the current Java runtime
+	 */
+	static SimpleAsyncTaskExecutor create(String threadNamePrefix, boolean virtualThreads) {
+		if (!virtualThreads) {
+			return new SimpleAsyncTaskExecutor(threadNamePrefix);
+		}
+		assertVirtualThreadsAvailable();
+		return new SimpleAsyncTaskExecutor(virtualThreadFactory(threadNamePrefix));
+	}
+
+	/**
+	 * Create a fixed size executor used to dispatch the messages received by a consumer.
+	 * @param threadNamePrefix the prefix for the dispatch thread names
+	 * @param threads the number of dispatch threads
+	 * @param virtualThreads whether to start virtual threads rather than platform threads
+	 * @return the executor service
+	 * @throws IllegalStateException if virtual threads are requested but not supported by
+	 * the current Java runtime
+	 */
+	static ExecutorService createDispatchExecutor(String threadNamePrefix, int threads, boolean virtualThreads) {
+		if (!virtualThreads) {
+			return Executors.newFixedThreadPool(threads, new CustomizableThreadFactory(threadNamePrefix));
+		}
+		assertVirtualThreadsAvailable();
+		return Executors.newFixedThreadPool(threads, virtualThreadFactory(threadNamePrefix));
+	}
+
+	/**
+	 * Create a single thread executor used to decode the batches received ahead by a
+	 * consumer.
+	 * @param threadNamePrefix the prefix for the decode thread name
+	 * @param capacity the max number of batches waiting to be decoded, beyond which
+	 * further batches are rejected
+	 * @param virtualThreads whether to start a virtual thread rather than a platform
+	 * thread
+	 * @return the executor service
+	 * @throws IllegalStateException if virtual threads are requested but not supported by
+	 * the current Java runtime
+	 */
+	static ExecutorService createDecodeExecutor(String threadNamePrefix, int capacity, boolean virtualThreads) {
+		ThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+		if (virtualThreads) {
+			assertVirtualThreadsAvailable();
+			threadFactory = virtualThreadFactory(threadNamePrefix);
+		}
+		return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(capacity),
+				threadFactory);
+	}
+
+	private static void assertVirtualThreadsAvailable() {
+		if (!virtualThreadsAvailable()) {
+			throw new IllegalStateException("Virtual threads were requested for the listener container consumers "
+					+ "but are not supported by Java " + Runtime.version().feature());
+		}
+	}
+
+	private static ThreadFactory virtualThreadFactory(String threadNamePrefix) {
+		try {
+			Object builder = OF_VIRTUAL_METHOD.invoke(null);
+			Class<?> ofVirtualType = ClassUtils.forName("java.lang.Thread$Builder$OfVirtual", null);
+			builder = ofVirtualType.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix, 1L);
+			return (ThreadFactory) ofVirtualType.getMethod("factory").invoke(builder);
+		}
+		catch (ReflectiveOperationException ex) {
+			throw new IllegalStateException("Could not create virtual thread factory", ex);
+		}
+	}
+
+}
@@ -16,8 +16,12 @@
 
 package org.springframework.pulsar.listener;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.apache.pulsar.client.api.Consumer;
 import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
 
 import org.springframework.util.backoff.BackOff;
 import org.springframework.util.backoff.BackOffExecution;
@@ -30,7 +34,19 @@ import org.springframework.util.backoff.BackOffExecution;
  * the record(s) using a {@link PulsarMessageRecoverer}
  *
  * Note: This implementation uses a ThreadLocal to manage the current message in error and
- * it's associated BackOffExecution.
+ * it's associated BackOffExecution. The state is accessed from the thread that invokes
+ * the listener, that is the consumer thread of the listener container or, when messages
+ * are dispatched concurrently while keeping per-key order, the dispatch worker thread
+ * handling the message. Either thread retries a message to completion before handling the
+ * next one, so the state of a thread only ever belongs to the message it is handling. The
+ * container clears the state of a dispatch worker thread after each message, since the
+ * worker goes on to handle other messages, and the state of the consumer thread when the
+ * consumer stops. This keeps the handler safe to share across concurrent consumers and
+ * dispatch workers, including when they run on virtual threads.
+ * <p>
+ * When {@link #setNonBlockingRetries(boolean) non-blocking retries} are enabled, the
+ * consumer thread does not sleep between retries. The retry state is then kept per
+ * message id, so that several messages can be awaiting a retry at the same time.
  *
  * @param <T> payload type managed by the Pulsar consumer
  * @author Soby Chacko
@@ -43,6 +59,10 @@ public class DefaultPulsarConsumerErrorHandler<T> implements PulsarConsumerError
 
 	private final ThreadLocal<Pair> backOffExecutionThreadLocal = new ThreadLocal<>();
 
+	private final Map<MessageId, BackOffExecution> retryBackOffExecutions = new ConcurrentHashMap<>();
+
+	private boolean nonBlockingRetries;
+
 	public DefaultPulsarConsumerErrorHandler(PulsarMessageRecovererFactory<T> pulsarMessageRecovererFactory,
 			BackOff backOff) {
 		this.pulsarMessageRecovererFactory = pulsarMessageRecovererFactory;
@@ -77,6 +97,39 @@ public class DefaultPulsarConsumerErrorHandler<T> implements PulsarConsumerError
 		}
 	}
 
+	/**
+	 * Set whether failed messages of record listeners are retried without blocking the
+	 * consumer thread. When enabled, a failed message is set aside until its next back
+	 * off elapses while the container keeps handling the other messages, which means the
+	 * message is retried out of order. Batch listeners always retry on the consumer
+	 * thread. Default false.
+	 * @param nonBlockingRetries whether retries are non-blocking
+	 */
+	public void setNonBlockingRetries(boolean nonBlockingRetries) {
+		this.nonBlockingRetries = nonBlockingRetries;
+	}
+
+	@Override
+	public boolean isNonBlockingRetries() {
+		return this.nonBlockingRetries;
+	}
+
+	@Override
+	public long nextRetryDelay(Exception exception, Message<T> message) {
+		BackOffExecution backOffExecution = this.retryBackOffExecutions.computeIfAbsent(message.getMessageId(),
+				(messageId) -> this.backOff.start());
+		long nextBackOff = backOffExecution.nextBackOff();
+		if (nextBackOff == BackOffExecution.STOP) {
+			this.retryBackOffExecutions.remove(message.getMessageId());
+		}
+		return nextBackOff;
+	}
+
+	@Override
+	public void clearMessage(Message<T> message) {
+		this.retryBackOffExecutions.remove(message.getMessageId());
+	}
+
 	@Override
 	public void recoverMessage(Consumer<T> consumer, Message<T> message, Exception exception) {
 		this.pulsarMessageRecovererFactory.recovererForConsumer(consumer).recoverMessage(message, exception);
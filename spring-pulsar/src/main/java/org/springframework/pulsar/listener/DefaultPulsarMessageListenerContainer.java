@@ -26,13 +26,16 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 import org.apache.commons.logging.LogFactory;
 import org.apache.pulsar.client.api.BatchReceivePolicy;
@@ -47,10 +50,10 @@ import org.apache.pulsar.client.api.RedeliveryBackoff;
 import org.apache.pulsar.client.api.Schema;
 import org.apache.pulsar.client.api.SubscriptionType;
 
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.log.LogAccessor;
 import org.springframework.core.task.AsyncTaskExecutor;
-import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.lang.Nullable;
 import org.springframework.pulsar.core.ConsumerBuilderConfigurationUtil;
 import org.springframework.pulsar.core.ConsumerBuilderCustomizer;
@@ -63,7 +66,9 @@ import org.springframework.pulsar.observation.PulsarListenerObservation;
 import org.springframework.pulsar.observation.PulsarMessageReceiverContext;
 import org.springframework.scheduling.SchedulingAwareRunnable;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
+import org.springframework.util.backoff.BackOffExecution;
 
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
@@ -79,6 +84,12 @@ import io.micrometer.observation.ObservationRegistry;
  */
 public class DefaultPulsarMessageListenerContainer<T> extends AbstractPulsarMessageListenerContainer<T> {
 
+	private static final long IDLE_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private static final boolean MICROMETER_PRESENT = ClassUtils.isPresent(
+			"io.micrometer.core.instrument.MeterRegistry",
+			DefaultPulsarMessageListenerContainer.class.getClassLoader());
+
 	private volatile CompletableFuture<?> listenerConsumerFuture;
 
 	private volatile Listener listenerConsumer;
@@ -91,6 +102,15 @@ public class DefaultPulsarMessageListenerContainer<T> extends AbstractPulsarMess
 
 	private final AtomicBoolean receiveInProgress = new AtomicBoolean();
 
+	private final AtomicLong receiveWaitNanos = new AtomicLong();
+
+	private volatile long receiveStartNanos;
+
+	@Nullable
+	private ReceiveRateLimiter receiveRateLimiter;
+
+	private volatile long stopDeadlineNanos;
+
 	public DefaultPulsarMessageListenerContainer(PulsarConsumerFactory<? super T> pulsarConsumerFactory,
 			PulsarContainerProperties pulsarContainerProperties) {
 		this(pulsarConsumerFactory, pulsarContainerProperties, null);
@@ -114,10 +134,14 @@ public class DefaultPulsarMessageListenerContainer<T> extends AbstractPulsarMess
 		MessageListener<T> messageListener = (MessageListener<T>) messageListenerObject;
 
 		if (consumerExecutor == null) {
-			consumerExecutor = new SimpleAsyncTaskExecutor((getBeanName() == null ? "" : getBeanName()) + "-C-");
+			consumerExecutor = ConsumerTaskExecutors.create((getBeanName() == null ? "" : getBeanName()) + "-C-",
+					containerProperties.isVirtualThreads());
 			containerProperties.setConsumerTaskExecutor(consumerExecutor);
 		}
 
+		if (this.receiveRateLimiter == null) {
+			this.receiveRateLimiter = ReceiveRateLimiter.of(containerProperties);
+		}
 		this.listenerConsumer = new Listener(messageListener, this.getContainerProperties(),
 				this.getObservationRegistry());
 		setRunning(true);
@@ -139,27 +163,8 @@ public class DefaultPulsarMessageListenerContainer<T> extends AbstractPulsarMess
 
 	@Override
 	public void doStop() {
-		setRunning(false);
-		this.logger.info("Pausing this consumer.");
-		this.listenerConsumer.consumer.pause();
-		if (this.listenerConsumerThread.get() != null) {
-			// if there is a receive operation already in progress, we want to interrupt
-			// the listener thread.
-			if (this.receiveInProgress.get()) {
-				// All the records received so far in the current batch receive will be
-				// re-delivered.
-				this.listenerConsumerThread.get().interrupt();
-			}
-			// if there is something other than receive operations are in progress,
-			// such as ack operations, wait for the listener thread to complete them.
-			try {
-				this.listenerConsumerThread.get().join();
-			}
-			catch (InterruptedException e) {
-				this.logger.error(e, () -> "Interrupting the main thread");
-				Thread.currentThread().interrupt();
-			}
-		}
+		stopReceiving(System.nanoTime() + getContainerProperties().getShutdownTimeout().toNanos());
+		awaitStopped();
 		try {
 			this.logger.info("Closing this consumer.");
 			this.listenerConsumer.consumer.close();
@@ -169,6 +174,125 @@ public class DefaultPulsarMessageListenerContainer<T> extends AbstractPulsarMess
 		}
 	}
 
+	/**
+	 * Stop receiving messages, letting the consumer thread handle the messages already
+	 * received and flush their acknowledgements until the given deadline.
+	 * @param deadlineNanos the {@link System#nanoTime()} by which the consumer thread
+	 * should be done
+	 */
+	void stopReceiving(long deadlineNanos) {
+		this.stopDeadlineNanos = deadlineNanos;
+		setRunning(false);
+		this.logger.info("Pausing this consumer.");
+		this.listenerConsumer.consumer.pause();
+		Thread thread = this.listenerConsumerThread.get();
+		// a receive operation in progress returns the messages received so far once
+		// the batch timeout elapses, so that they are handled rather than redelivered,
+		// unless the batch timeout exceeds the time left to stop
+		if (thread != null && this.receiveInProgress.get() && TimeUnit.MILLISECONDS
+				.toNanos(getContainerProperties().getBatchTimeoutMillis()) >= getStopRemainingNanos()) {
+			// All the records received so far in the current batch receive will be
+			// re-delivered.
+			thread.interrupt();
+		}
+	}
+
+	/**
+	 * Wait for the consumer thread to complete the operations in progress, such as
+	 * handling the messages already received and acknowledging them, until the deadline
+	 * given to {@link #stopReceiving(long)}.
+	 * @return whether the consumer thread completed in time
+	 */
+	boolean awaitStopped() {
+		Thread thread = this.listenerConsumerThread.get();
+		if (thread == null) {
+			return true;
+		}
+		try {
+			long remainingMillis = TimeUnit.NANOSECONDS.toMillis(this.stopDeadlineNanos - System.nanoTime());
+			if (remainingMillis > 0) {
+				thread.join(remainingMillis);
+			}
+		}
+		catch (InterruptedException e) {
+			this.logger.error(e, () -> "Interrupting the main thread");
+			Thread.currentThread().interrupt();
+		}
+		if (thread.isAlive()) {
+			this.logger.warn(() -> String.format("Consumer thread did not complete within the shutdown timeout of %s, "
+					+ "closing the consumer anyway", getContainerProperties().getShutdownTimeout()));
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Close the consumer once stopped.
+	 * @return a future completed once the consumer is closed, whether it succeeded or not
+	 */
+	CompletableFuture<Void> closeConsumerAsync() {
+		this.logger.info("Closing this consumer.");
+		return this.listenerConsumer.consumer.closeAsync().exceptionally((ex) -> {
+			this.logger.error(ex, () -> "Error closing Pulsar Client.");
+			return null;
+		});
+	}
+
+	/**
+	 * Get the time left until the deadline given to {@link #stopReceiving(long)}.
+	 * @return the time left in nanoseconds, which is negative once the deadline passed
+	 */
+	private long getStopRemainingNanos() {
+		return this.stopDeadlineNanos - System.nanoTime();
+	}
+
+	@Override
+	protected void doPause() {
+		if (isRunning()) {
+			this.logger.info("Pausing this consumer.");
+			this.listenerConsumer.consumer.pause();
+		}
+	}
+
+	@Override
+	protected void doResume() {
+		if (isRunning()) {
+			this.logger.info("Resuming this consumer.");
+			this.listenerConsumer.consumer.resume();
+		}
+	}
+
+	/**
+	 * Set the rate limiter to share with other containers, which otherwise is created
+	 * from the container properties on start.
+	 * @param receiveRateLimiter the rate limiter
+	 */
+	void setReceiveRateLimiter(@Nullable ReceiveRateLimiter receiveRateLimiter) {
+		this.receiveRateLimiter = receiveRateLimiter;
+	}
+
+	/**
+	 * Get the total time the consumer spent waiting for messages, including the current
+	 * wait if any.
+	 * @return the time in nanoseconds
+	 */
+	long getReceiveWaitNanos() {
+		long startNanos = this.receiveStartNanos;
+		long waitNanos = this.receiveWaitNanos.get();
+		return (startNanos != 0 ? waitNanos + System.nanoTime() - startNanos : waitNanos);
+	}
+
+	private long recordReceiveWait() {
+		long startNanos = this.receiveStartNanos;
+		if (startNanos == 0) {
+			return 0;
+		}
+		this.receiveStartNanos = 0;
+		long waitNanos = System.nanoTime() - startNanos;
+		this.receiveWaitNanos.addAndGet(waitNanos);
+		return waitNanos;
+	}
+
 	private void publishConsumerStartingEvent() {
 		this.startLatch.countDown();
 		ApplicationEventPublisher publisher = getApplicationEventPublisher();
@@ -197,13 +321,22 @@ public class DefaultPulsarMessageListenerContainer<T> extends AbstractPulsarMess
 
 		private final PulsarBatchMessageListener<T> batchMessageListener;
 
+		@Nullable
+		private final PulsarAsyncRecordMessageListener<T> asyncListener;
+
+		@Nullable
+		private final InFlightMessageTracker<T> inFlightMessageTracker;
+
+		private final Set<MessageId> pendingRedeliveries = ConcurrentHashMap.newKeySet();
+
 		private final PulsarContainerProperties containerProperties;
 
 		private final ObservationRegistry observationRegistry;
 
 		private Consumer<T> consumer;
 
-		private final Set<MessageId> nackableMessages = new HashSet<>();
+		@Nullable
+		private final AckAccumulator<T> ackAccumulator;
 
 		private final PulsarConsumerErrorHandler<T> pulsarConsumerErrorHandler;
 
@@ -213,6 +346,26 @@ public class DefaultPulsarMessageListenerContainer<T> extends AbstractPulsarMess
 
 		private final SubscriptionType subscriptionType;
 
+		@Nullable
+		private final KeyOrderedDispatcher keyOrderedDispatcher;
+
+		@Nullable
+		private final DelayQueue<RetryingMessage<T>> retryQueue;
+
+		@Nullable
+		private final ListenerMetrics metrics;
+
+		private final boolean poolMessages;
+
+		@Nullable
+		private final ReceivePipeline<T> receivePipeline;
+
+		@Nullable
+		private final ExecutorService decodeExecutor;
+
+		@Nullable
+		private final RecordFilterStrategy<T> recordFilterStrategy;
+
 		@SuppressWarnings({ "unchecked", "rawtypes" })
 		Listener(MessageListener<?> messageListener, PulsarContainerProperties containerProperties,
 				@Nullable ObservationRegistry observationRegistry) {
@@ -234,8 +387,46 @@ public class DefaultPulsarMessageListenerContainer<T> extends AbstractPulsarMess
 				this.listener = null;
 				this.batchMessageListener = null;
 			}
+			if (messageListener instanceof PulsarAsyncRecordMessageListener) {
+				this.asyncListener = (PulsarAsyncRecordMessageListener<T>) messageListener;
+				this.inFlightMessageTracker = new InFlightMessageTracker<>(
+						containerProperties.getMaxInFlightMessages());
+			}
+			else {
+				this.asyncListener = null;
+				this.inFlightMessageTracker = null;
+			}
 			this.observationRegistry = observationRegistry;
+			this.recordFilterStrategy = (RecordFilterStrategy<T>) containerProperties.getRecordFilterStrategy();
 			this.pulsarConsumerErrorHandler = getPulsarConsumerErrorHandler();
+			if (this.listener != null && this.asyncListener == null && this.pulsarConsumerErrorHandler != null
+					&& this.pulsarConsumerErrorHandler.isNonBlockingRetries()) {
+				this.retryQueue = new DelayQueue<>();
+			}
+			else {
+				this.retryQueue = null;
+			}
+			this.metrics = createMetrics();
+			boolean poolMessagesRequested = isPoolMessagesRequested();
+			boolean poolMessages = poolMessagesRequested && !this.isBatchListener && this.listener != null
+					&& this.asyncListener == null && !this.ackMode.equals(AckMode.MANUAL);
+			if (poolMessagesRequested && !poolMessages) {
+				DefaultPulsarMessageListenerContainer.this.logger.info(() -> "Pooled messages are not supported by "
+						+ "batch, asynchronous or manually acknowledging listeners which keep messages beyond the "
+						+ "container's control, message payloads are copied instead");
+			}
+			this.poolMessages = poolMessages;
+			int dispatchConcurrency = containerProperties.getDispatchConcurrency();
+			if (this.listener != null && this.asyncListener == null && dispatchConcurrency > 1) {
+				// the consumer thread handles one of the lanes itself
+				this.keyOrderedDispatcher = new KeyOrderedDispatcher(dispatchConcurrency,
+						ConsumerTaskExecutors.createDispatchExecutor(
+								(getBeanName() == null ? "" : getBeanName()) + "-D-", dispatchConcurrency - 1,
+								containerProperties.isVirtualThreads()));
+			}
+			else {
+				this.keyOrderedDispatcher = null;
+			}
 			try {
 				Map<String, Object> propertiesToConsumer = extractDirectConsumerProperties();
 				populateAllNecessaryPropertiesIfNeedBe(propertiesToConsumer);
@@ -256,6 +447,12 @@ public class DefaultPulsarMessageListenerContainer<T> extends AbstractPulsarMess
 				ConsumerBuilderCustomizer<T> customizer = builder -> {
 					ConsumerBuilderConfigurationUtil.loadConf(builder, propertiesToConsumer);
 					builder.batchReceivePolicy(batchReceivePolicy);
+					if (poolMessagesRequested) {
+						builder.poolMessages(poolMessages);
+					}
+					if (isPaused()) {
+						builder.startPaused(true);
+					}
 				};
 				this.consumer = getPulsarConsumerFactory().createConsumer((Schema) containerProperties.getSchema(),
 						topicNames, properties, Collections.singletonList(customizer));
@@ -264,6 +461,39 @@ public class DefaultPulsarMessageListenerContainer<T> extends AbstractPulsarMess
 			catch (PulsarClientException e) {
 				DefaultPulsarMessageListenerContainer.this.logger.error(e, () -> "Pulsar client exceptions.");
 			}
+			if (this.consumer != null && !this.ackMode.equals(AckMode.MANUAL)) {
+				this.ackAccumulator = new AckAccumulator<>(this.consumer,
+						this.ackMode.equals(AckMode.BATCH) && !isSharedSubscriptionType(),
+						containerProperties.getAckCount(), containerProperties.getAckTime(), this.metrics,
+						this.poolMessages);
+			}
+			else {
+				this.ackAccumulator = null;
+			}
+			if (this.consumer != null && containerProperties.getReceivePipelineDepth() > 0) {
+				int depth = containerProperties.getReceivePipelineDepth();
+				// the batch being awaited is outstanding on top of the depth
+				this.decodeExecutor = ConsumerTaskExecutors.createDecodeExecutor(
+						(getBeanName() == null ? "" : getBeanName()) + "-R-", depth + 1,
+						containerProperties.isVirtualThreads());
+				// filtering ahead keeps the discarded messages from being decoded
+				this.receivePipeline = new ReceivePipeline<>(this.consumer, depth, this.decodeExecutor,
+						(this.recordFilterStrategy != null ? this::applyRecordFilterStrategy : null));
+			}
+			else {
+				this.decodeExecutor = null;
+				this.receivePipeline = null;
+			}
+		}
+
+		@Nullable
+		private ListenerMetrics createMetrics() {
+			ApplicationContext applicationContext = getApplicationContext();
+			if (!MICROMETER_PRESENT || applicationContext == null || !this.containerProperties.isMicrometerEnabled()) {
+				return null;
+			}
+			return MicrometerListenerMetrics.create(applicationContext,
+					(getBeanName() != null ? getBeanName() : "pulsar-listener"), this.containerProperties);
 		}
 
 		private Map<String, Object> extractDirectConsumerProperties() {
@@ -333,92 +563,344 @@ public class DefaultPulsarMessageListenerContainer<T> extends AbstractPulsarMess
 			AtomicBoolean messagesPendingInBatch = new AtomicBoolean(false);
 			Messages<T> messages = null;
 			List<Message<T>> messageList = null;
-			while (isRunning()) {
-				// Always receive messages in batch mode.
-				try {
+			List<Messages<T>> receivedBatches = null;
+			long receiveWaitNanos = 0;
+			try {
+				while (isRunning()) {
 					if (!inRetryMode.get() && !messagesPendingInBatch.get()) {
-						DefaultPulsarMessageListenerContainer.this.receiveInProgress.set(true);
-						messages = this.consumer.batchReceive();
+						long receiveDelayNanos = getReceiveDelayNanos();
+						if (receiveDelayNanos > 0) {
+							idle(receiveDelayNanos);
+							if (this.retryQueue != null && !isPaused()) {
+								dispatchDueRetries();
+							}
+							if (this.ackAccumulator != null) {
+								this.ackAccumulator.flushIfDue();
+							}
+							continue;
+						}
 					}
-				}
-				catch (PulsarClientException e) {
-					if (e.getCause() instanceof InterruptedException) {
-						DefaultPulsarMessageListenerContainer.this.logger.debug(e,
-								() -> "Error receiving messages due to a thread interrupt call from upstream.");
+					// Always receive messages in batch mode.
+					try {
+						if (!inRetryMode.get() && !messagesPendingInBatch.get()) {
+							DefaultPulsarMessageListenerContainer.this.receiveInProgress.set(true);
+							DefaultPulsarMessageListenerContainer.this.receiveStartNanos = System.nanoTime();
+							messages = batchReceive();
+						}
 					}
-					else {
-						DefaultPulsarMessageListenerContainer.this.logger.error(e, () -> "Error receiving messages.");
+					catch (PulsarClientException e) {
+						if (e.getCause() instanceof InterruptedException) {
+							DefaultPulsarMessageListenerContainer.this.logger.debug(e,
+									() -> "Error receiving messages due to a thread interrupt call from upstream.");
+						}
+						else {
+							DefaultPulsarMessageListenerContainer.this.logger.error(e,
+									() -> "Error receiving messages.");
+						}
+						messages = null;
+					}
+					finally {
+						DefaultPulsarMessageListenerContainer.this.receiveInProgress.set(false);
+						receiveWaitNanos = recordReceiveWait();
 					}
-					messages = null;
-				}
-				finally {
-					DefaultPulsarMessageListenerContainer.this.receiveInProgress.set(false);
-				}
-
-				if (messages == null) {
-					continue;
-				}
 
-				if (this.isBatchListener) {
+					if (messages == null) {
+						continue;
+					}
 					if (!inRetryMode.get() && !messagesPendingInBatch.get()) {
-						messageList = new ArrayList<>();
-						messages.forEach(messageList::add);
+						ReceiveRateLimiter rateLimiter = DefaultPulsarMessageListenerContainer.this.receiveRateLimiter;
+						if (rateLimiter != null) {
+							rateLimiter.record(messages, System.nanoTime());
+						}
+						if (this.metrics != null) {
+							this.metrics.received(messages, receiveWaitNanos);
+						}
+						messages = filter(messages);
 					}
-					try {
-						if (messageList != null && messageList.size() > 0) {
-							if (this.batchMessageListener instanceof PulsarBatchAcknowledgingMessageListener) {
-								this.batchMessageListener.received(this.consumer, messageList,
-										this.ackMode.equals(AckMode.MANUAL)
-												? new ConsumerBatchAcknowledgment(this.consumer) : null);
-							}
-							else {
-								this.batchMessageListener.received(this.consumer, messageList);
-							}
-							if (this.ackMode.equals(AckMode.BATCH)) {
-								try {
-									if (isSharedSubscriptionType()) {
-										this.consumer.acknowledge(messages);
-									}
-									else {
-										Stream<Message<T>> stream = StreamSupport.stream(messages.spliterator(), true);
-										Message<T> last = stream.reduce((a, b) -> b).orElse(null);
-										this.consumer.acknowledgeCumulative(last);
-									}
+
+					if (this.isBatchListener) {
+						if (!inRetryMode.get() && !messagesPendingInBatch.get()) {
+							messageList = new ArrayList<>();
+							messages.forEach(messageList::add);
+							receivedBatches = (this.containerProperties.getBatchWindowMaxWait() != null
+									&& !messageList.isEmpty() ? receiveBatchWindow(messages, messageList)
+											: List.of(messages));
+						}
+						long processStartNanos = System.nanoTime();
+						try {
+							if (messageList != null && messageList.size() > 0) {
+								if (this.batchMessageListener instanceof PulsarBatchAcknowledgingMessageListener) {
+									this.batchMessageListener.received(this.consumer, messageList,
+											this.ackMode.equals(AckMode.MANUAL)
+													? new ConsumerBatchAcknowledgment(this.consumer) : null);
+								}
+								else {
+									this.batchMessageListener.received(this.consumer, messageList);
 								}
-								catch (PulsarClientException pce) {
-									this.consumer.negativeAcknowledge(messages);
+								if (this.metrics != null) {
+									this.metrics.processedBatch(messageList, System.nanoTime() - processStartNanos,
+											null);
+								}
+								if (this.ackMode.equals(AckMode.BATCH)) {
+									receivedBatches.forEach(this.ackAccumulator::ackAll);
+								}
+								if (this.pulsarConsumerErrorHandler != null) {
+									pendingMessagesHandledSuccessfully(inRetryMode, messagesPendingInBatch);
 								}
 							}
+						}
+						catch (Exception e) {
+							if (this.metrics != null) {
+								this.metrics.processedBatch(messageList, System.nanoTime() - processStartNanos, e);
+							}
 							if (this.pulsarConsumerErrorHandler != null) {
-								pendingMessagesHandledSuccessfully(inRetryMode, messagesPendingInBatch);
+								messageList = invokeBatchListenerErrorHandler(inRetryMode, messagesPendingInBatch,
+										messageList, e);
+							}
+							else {
+								// the whole batch is negatively acknowledged in the event
+								// of
+								// an exception from the handler method.
+								if (this.ackAccumulator != null) {
+									receivedBatches.forEach(this.ackAccumulator::nackAll);
+								}
+								else {
+									receivedBatches.forEach(this.consumer::negativeAcknowledge);
+								}
 							}
 						}
 					}
-					catch (Exception e) {
-						if (this.pulsarConsumerErrorHandler != null) {
-							messageList = invokeBatchListenerErrorHandler(inRetryMode, messagesPendingInBatch,
-									messageList, e);
-						}
-						else {
-							// the whole batch is negatively acknowledged in the event
-							// of
-							// an exception from the handler method.
-							this.consumer.negativeAcknowledge(messages);
+					else if (this.asyncListener != null) {
+						dispatchMessagesToAsyncListener(messages);
+					}
+					else if (this.keyOrderedDispatcher != null) {
+						// each message tracks its own retries as they run concurrently
+						this.keyOrderedDispatcher.dispatch(messages, (message) -> {
+							try {
+								dispatchMessageToListenerWithRetries(message, new AtomicBoolean(false));
+							}
+							finally {
+								if (this.pulsarConsumerErrorHandler != null) {
+									this.pulsarConsumerErrorHandler.clearMessage();
+								}
+							}
+						}, (message, ex) -> DefaultPulsarMessageListenerContainer.this.logger.error(ex,
+								() -> String.format("Failed to handle message %s", message.getMessageId())));
+					}
+					else {
+						for (Message<T> message : messages) {
+							dispatchMessageToListenerWithRetries(message, inRetryMode);
 						}
 					}
+					if (this.retryQueue != null) {
+						dispatchDueRetries();
+					}
+					// acks of handled records may be held back across batches
+					if (this.ackAccumulator != null) {
+						this.ackAccumulator.flushIfDue();
+					}
 				}
-				else {
-					for (Message<T> message : messages) {
-						do {
-							newObservation(message).observe(() -> this.dispatchMessageToListener(message, inRetryMode));
-						}
-						while (inRetryMode.get());
+			}
+			finally {
+				// also when the loop fails so that the consumer resources are not leaked
+				releaseResources();
+			}
+		}
+
+		private void releaseResources() {
+			// an interrupted receive must not fail the acknowledgements still to send
+			Thread.interrupted();
+			if (this.receivePipeline != null) {
+				int dropped = this.receivePipeline.close(this.poolMessages);
+				if (dropped > 0) {
+					DefaultPulsarMessageListenerContainer.this.logger
+							.debug(() -> dropped + " messages received ahead will be redelivered");
+				}
+				this.decodeExecutor.shutdown();
+			}
+			if (this.inFlightMessageTracker != null) {
+				awaitInFlightMessages();
+			}
+			if (this.ackAccumulator != null) {
+				this.ackAccumulator.flush();
+			}
+			if (this.retryQueue != null) {
+				// messages awaiting a retry are left unacknowledged to be redelivered
+				this.retryQueue.forEach((retry) -> {
+					this.pulsarConsumerErrorHandler.clearMessage(retry.getMessage());
+					if (this.poolMessages) {
+						retry.getMessage().release();
 					}
-					// All the records are processed at this point. Handle acks.
-					if (this.ackMode.equals(AckMode.BATCH)) {
-						handleAcks(messages);
+				});
+				this.retryQueue.clear();
+			}
+			// the error handler keeps its retry state per consumer thread
+			if (this.pulsarConsumerErrorHandler != null) {
+				this.pulsarConsumerErrorHandler.clearMessage();
+			}
+			if (this.keyOrderedDispatcher != null) {
+				this.keyOrderedDispatcher.close();
+			}
+			if (this.metrics != null) {
+				this.metrics.close();
+			}
+		}
+
+		private void awaitInFlightMessages() {
+			// let the asynchronous results complete so that their messages are
+			// acknowledged rather than redelivered
+			try {
+				if (!this.inFlightMessageTracker.awaitCompletion(Math.max(0, getStopRemainingNanos()),
+						TimeUnit.NANOSECONDS)) {
+					DefaultPulsarMessageListenerContainer.this.logger.warn(() -> String.format(
+							"%d asynchronous results did not complete within the shutdown timeout, their messages "
+									+ "will be redelivered",
+							this.inFlightMessageTracker.size()));
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		/**
+		 * Keep receiving messages until the batch window is full or its max wait elapsed.
+		 * @param first the messages that start the window
+		 * @param messageList the list to add the messages of the window to
+		 * @return the results of all the batch receives of the window
+		 */
+		private List<Messages<T>> receiveBatchWindow(Messages<T> first, List<Message<T>> messageList) {
+			List<Messages<T>> receivedBatches = new ArrayList<>();
+			receivedBatches.add(first);
+			int maxMessages = this.containerProperties.getBatchWindowMaxMessages();
+			long maxBytes = this.containerProperties.getBatchWindowMaxBytes();
+			long deadlineNanos = System.nanoTime() + this.containerProperties.getBatchWindowMaxWait().toNanos();
+			long bytes = 0;
+			for (Message<T> message : messageList) {
+				bytes += message.size();
+			}
+			while (isRunning() && !isPaused() && (maxMessages <= 0 || messageList.size() < maxMessages)
+					&& (maxBytes <= 0 || bytes < maxBytes) && System.nanoTime() - deadlineNanos < 0) {
+				Messages<T> messages;
+				long receiveWaitNanos;
+				try {
+					DefaultPulsarMessageListenerContainer.this.receiveInProgress.set(true);
+					DefaultPulsarMessageListenerContainer.this.receiveStartNanos = System.nanoTime();
+					messages = batchReceive();
+				}
+				catch (PulsarClientException e) {
+					// hand over the messages received so far
+					DefaultPulsarMessageListenerContainer.this.logger.debug(e,
+							() -> "Error receiving messages, closing the batch window.");
+					break;
+				}
+				finally {
+					DefaultPulsarMessageListenerContainer.this.receiveInProgress.set(false);
+					receiveWaitNanos = recordReceiveWait();
+				}
+				if (messages == null) {
+					continue;
+				}
+				ReceiveRateLimiter rateLimiter = DefaultPulsarMessageListenerContainer.this.receiveRateLimiter;
+				if (rateLimiter != null) {
+					rateLimiter.record(messages, System.nanoTime());
+				}
+				if (this.metrics != null) {
+					this.metrics.received(messages, receiveWaitNanos);
+				}
+				messages = filter(messages);
+				if (messages.size() == 0) {
+					continue;
+				}
+				receivedBatches.add(messages);
+				for (Message<T> message : messages) {
+					messageList.add(message);
+					bytes += message.size();
+				}
+			}
+			return receivedBatches;
+		}
+
+		/**
+		 * Discard the messages that the record filter strategy filters out, if any, and
+		 * acknowledge them.
+		 * @param messages the received messages
+		 * @return the messages to hand to the listener
+		 */
+		private Messages<T> filter(Messages<T> messages) {
+			if (this.recordFilterStrategy == null) {
+				return messages;
+			}
+			List<Message<T>> accepted = new ArrayList<>();
+			List<MessageId> discarded = new ArrayList<>();
+			for (Message<T> message : messages) {
+				if (isFilteredOut(message)) {
+					discarded.add(message.getMessageId());
+					if (this.poolMessages) {
+						message.release();
 					}
 				}
+				else {
+					accepted.add(message);
+				}
+			}
+			if (discarded.isEmpty()) {
+				return messages;
+			}
+			// acknowledged individually as the messages received before them may not be
+			// handled yet
+			try {
+				this.consumer.acknowledge(discarded);
+			}
+			catch (PulsarClientException e) {
+				DefaultPulsarMessageListenerContainer.this.logger.warn(e,
+						() -> String.format("Acknowledgment failed for %d filtered messages", discarded.size()));
+			}
+			return new ListMessages<>(accepted);
+		}
+
+		private boolean isFilteredOut(Message<T> message) {
+			if (this.receivePipeline != null) {
+				return ReceivePipeline.isFiltered(message);
+			}
+			return applyRecordFilterStrategy(message);
+		}
+
+		private boolean applyRecordFilterStrategy(Message<T> message) {
+			try {
+				return this.recordFilterStrategy.filter(message);
+			}
+			catch (RuntimeException e) {
+				// let the listener and its error handling deal with the message
+				DefaultPulsarMessageListenerContainer.this.logger.error(e,
+						() -> "Record filter strategy failed, message is handed to the listener");
+				return false;
+			}
+		}
+
+		private Messages<T> batchReceive() throws PulsarClientException {
+			return (this.receivePipeline != null ? this.receivePipeline.receive() : this.consumer.batchReceive());
+		}
+
+		private long getReceiveDelayNanos() {
+			if (isPaused()) {
+				return IDLE_CHECK_NANOS;
+			}
+			ReceiveRateLimiter rateLimiter = DefaultPulsarMessageListenerContainer.this.receiveRateLimiter;
+			return (rateLimiter != null ? rateLimiter.getDelayNanos(System.nanoTime()) : 0);
+		}
+
+		private void idle(long nanos) {
+			// idling counts as waiting for messages as far as the load is concerned
+			DefaultPulsarMessageListenerContainer.this.receiveStartNanos = System.nanoTime();
+			try {
+				TimeUnit.NANOSECONDS.sleep(Math.min(nanos, IDLE_CHECK_NANOS));
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			finally {
+				recordReceiveWait();
 			}
 		}
 
@@ -432,7 +914,167 @@ public class DefaultPulsarMessageListenerContainer<T> extends AbstractPulsarMess
 					() -> new PulsarMessageReceiverContext(message, getBeanName()), this.observationRegistry);
 		}
 
+		private void dispatchMessagesToAsyncListener(Messages<T> messages) {
+			for (Message<T> message : messages) {
+				InFlightMessageTracker.Entry<T> entry = null;
+				try {
+					while (entry == null && isRunning()) {
+						entry = this.inFlightMessageTracker.track(message, 100, TimeUnit.MILLISECONDS);
+					}
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				if (entry == null) {
+					// stopped while waiting for room in the window, the remaining
+					// messages will be redelivered
+					return;
+				}
+				dispatchMessageToAsyncListener(entry);
+			}
+		}
+
+		private void dispatchMessageToAsyncListener(InFlightMessageTracker.Entry<T> entry) {
+			Message<T> message = entry.getMessage();
+			long processStartNanos = System.nanoTime();
+			Observation observation = newObservation(message).start();
+			Acknowledgement acknowledgement = this.ackMode.equals(AckMode.MANUAL)
+					? new ConsumerAcknowledgment(this.consumer, message) : null;
+			CompletableFuture<?> future;
+			try {
+				// the observation is stopped once the returned future completes
+				future = observation
+						.scoped(() -> this.asyncListener.receivedAsync(this.consumer, message, acknowledgement));
+			}
+			catch (RuntimeException e) {
+				future = CompletableFuture.failedFuture(e);
+			}
+			if (future == null) {
+				future = CompletableFuture.completedFuture(null);
+			}
+			future.whenComplete((result, ex) -> {
+				// already recorded by the scope when the listener threw the error
+				if (ex != null && ex != observation.getContext().getError()) {
+					observation.error(ex);
+				}
+				observation.stop();
+				if (this.metrics != null) {
+					this.metrics.processed(message, System.nanoTime() - processStartNanos, ex);
+				}
+				asyncMessageCompleted(entry, ex);
+			});
+		}
+
+		private void asyncMessageCompleted(InFlightMessageTracker.Entry<T> entry, @Nullable Throwable ex) {
+			Message<T> message = entry.getMessage();
+			try {
+				if (ex != null) {
+					DefaultPulsarMessageListenerContainer.this.logger.error(ex,
+							() -> String.format("Async listener failed for message %s", message.getMessageId()));
+					if (!this.ackMode.equals(AckMode.MANUAL)) {
+						// must be recorded before the message completes so that no
+						// cumulative ack covers it
+						recordPendingRedelivery(message);
+						this.consumer.negativeAcknowledge(message);
+						if (this.metrics != null) {
+							this.metrics.nacked(message);
+						}
+					}
+				}
+				else if (this.ackMode.equals(AckMode.RECORD)) {
+					handleAck(message);
+				}
+			}
+			catch (RuntimeException e) {
+				DefaultPulsarMessageListenerContainer.this.logger.error(e,
+						() -> String.format("Error acknowledging message %s", message.getMessageId()));
+			}
+			List<InFlightMessageTracker.Entry<T>> completed = this.inFlightMessageTracker.complete(entry, ex == null);
+			if (this.ackMode.equals(AckMode.BATCH) && !completed.isEmpty()) {
+				try {
+					handleAsyncAcks(completed);
+				}
+				catch (RuntimeException e) {
+					DefaultPulsarMessageListenerContainer.this.logger.error(e, () -> "Error acknowledging messages");
+				}
+			}
+		}
+
+		/**
+		 * Record a failed message until its redelivery succeeds so that the completed
+		 * messages are not acknowledged cumulatively in the meantime. Only messages of
+		 * subscriptions that are not shared are recorded: they are always redelivered as
+		 * Pulsar redelivers all their unacknowledged messages when one is negatively
+		 * acknowledged, whereas the messages of shared subscriptions are acknowledged
+		 * individually anyway and may never come back once sent to the dead letter topic.
+		 * @param message the failed message
+		 */
+		private void recordPendingRedelivery(Message<T> message) {
+			if (!isSharedSubscriptionType()) {
+				this.pendingRedeliveries.add(message.getMessageId());
+			}
+		}
+
+		/**
+		 * Acknowledge a contiguous range of completed messages. The range is acknowledged
+		 * cumulatively when possible, that is when the subscription is not shared and no
+		 * failed message is waiting to be redelivered, otherwise the successful messages
+		 * are acknowledged individually.
+		 * @param completed the completed messages in receive order
+		 */
+		private void handleAsyncAcks(List<InFlightMessageTracker.Entry<T>> completed) {
+			if (!this.pendingRedeliveries.isEmpty()) {
+				completed.stream().filter(InFlightMessageTracker.Entry::isSuccess)
+						.forEach((entry) -> this.pendingRedeliveries.remove(entry.getMessage().getMessageId()));
+			}
+			if (isSharedSubscriptionType() || !this.pendingRedeliveries.isEmpty()) {
+				List<Message<T>> acked = completed.stream().filter(InFlightMessageTracker.Entry::isSuccess)
+						.map(InFlightMessageTracker.Entry::getMessage).toList();
+				if (!acked.isEmpty()) {
+					try {
+						this.consumer.acknowledge(acked.stream().map(Message::getMessageId).toList());
+						recordAsyncAcks(acked);
+					}
+					catch (PulsarClientException pce) {
+						acked.forEach(this::nackAsync);
+					}
+				}
+			}
+			else {
+				Message<T> last = completed.get(completed.size() - 1).getMessage();
+				try {
+					this.consumer.acknowledgeCumulative(last);
+					recordAsyncAcks(completed.stream().map(InFlightMessageTracker.Entry::getMessage).toList());
+				}
+				catch (PulsarClientException pce) {
+					completed.forEach((entry) -> nackAsync(entry.getMessage()));
+				}
+			}
+		}
+
+		private void recordAsyncAcks(List<Message<T>> acked) {
+			// the range is acknowledged as soon as it completes
+			if (this.metrics != null) {
+				acked.forEach((message) -> this.metrics.acknowledged(message, 0));
+			}
+		}
+
+		private void nackAsync(Message<T> message) {
+			this.consumer.negativeAcknowledge(message);
+			if (this.metrics != null) {
+				this.metrics.nacked(message);
+			}
+		}
+
+		private void dispatchMessageToListenerWithRetries(Message<T> message, AtomicBoolean inRetryMode) {
+			do {
+				newObservation(message).observe(() -> this.dispatchMessageToListener(message, inRetryMode));
+			}
+			while (inRetryMode.get());
+		}
+
 		private void dispatchMessageToListener(Message<T> message, AtomicBoolean inRetryMode) {
+			long processStartNanos = System.nanoTime();
 			try {
 				if (this.listener instanceof PulsarAcknowledgingMessageListener) {
 					this.listener.received(this.consumer, message, this.ackMode.equals(AckMode.MANUAL)
@@ -441,21 +1083,30 @@ public class DefaultPulsarMessageListenerContainer<T> extends AbstractPulsarMess
 				else if (this.listener != null) {
 					this.listener.received(this.consumer, message);
 				}
-				if (this.ackMode.equals(AckMode.RECORD)) {
+				if (this.metrics != null) {
+					this.metrics.processed(message, System.nanoTime() - processStartNanos, null);
+				}
+				if (!this.ackMode.equals(AckMode.MANUAL)) {
 					handleAck(message);
 				}
+				if (this.retryQueue != null) {
+					this.pulsarConsumerErrorHandler.clearMessage(message);
+				}
 				inRetryMode.compareAndSet(true, false);
 			}
 			catch (Exception e) {
-				if (this.pulsarConsumerErrorHandler != null) {
+				if (this.metrics != null) {
+					this.metrics.processed(message, System.nanoTime() - processStartNanos, e);
+				}
+				if (this.retryQueue != null) {
+					retryLaterOrRecover(message, e);
+				}
+				else if (this.pulsarConsumerErrorHandler != null) {
 					invokeRecordListenerErrorHandler(inRetryMode, message, e);
 				}
 				else {
-					if (this.ackMode.equals(AckMode.RECORD)) {
-						this.consumer.negativeAcknowledge(message);
-					}
-					else if (this.ackMode.equals(AckMode.BATCH)) {
-						this.nackableMessages.add(message.getMessageId());
+					if (this.ackAccumulator != null) {
+						this.ackAccumulator.nack(message);
 					}
 					else {
 						throw new IllegalStateException(String.format(
@@ -512,6 +1163,9 @@ public class DefaultPulsarMessageListenerContainer<T> extends AbstractPulsarMess
 					pulsarMessage);
 			if (toBeRetried) {
 				inRetryMode.set(true);
+				if (this.metrics != null) {
+					this.metrics.retried(pulsarMessage);
+				}
 			}
 			else {
 				inRetryMode.compareAndSet(true, false);
@@ -537,19 +1191,52 @@ public class DefaultPulsarMessageListenerContainer<T> extends AbstractPulsarMess
 			boolean toBeRetried = this.pulsarConsumerErrorHandler.shouldRetryMessage(e, message);
 			if (toBeRetried) {
 				inRetryMode.set(true);
+				if (this.metrics != null) {
+					this.metrics.retried(message);
+				}
 			}
 			else {
 				inRetryMode.compareAndSet(true, false);
 				// retries exhausted - recover the message
 				this.pulsarConsumerErrorHandler.recoverMessage(this.consumer, message, e);
-				// retries exhausted - if record ackmode, acknowledge, otherwise normal
-				// batch ack at the end
-				if (this.ackMode.equals(AckMode.RECORD)) {
+				// retries exhausted - acknowledge unless manual ackmode
+				if (!this.ackMode.equals(AckMode.MANUAL)) {
+					handleAck(message);
+				}
+			}
+		}
+
+		private void retryLaterOrRecover(Message<T> message, Exception e) {
+			long retryDelay = this.pulsarConsumerErrorHandler.nextRetryDelay(e, message);
+			if (retryDelay != BackOffExecution.STOP) {
+				// keep handling other messages, the message is not acknowledged meanwhile
+				if (this.ackAccumulator != null) {
+					this.ackAccumulator.hold(message);
+				}
+				this.retryQueue.add(new RetryingMessage<>(message, retryDelay));
+				if (this.metrics != null) {
+					this.metrics.retried(message);
+				}
+			}
+			else {
+				// retries exhausted - recover the message
+				this.pulsarConsumerErrorHandler.recoverMessage(this.consumer, message, e);
+				if (!this.ackMode.equals(AckMode.MANUAL)) {
 					handleAck(message);
 				}
 			}
 		}
 
+		private void dispatchDueRetries() {
+			RetryingMessage<T> retry;
+			while (isRunning() && (retry = this.retryQueue.poll()) != null) {
+				if (this.ackAccumulator != null) {
+					this.ackAccumulator.release(retry.getMessage());
+				}
+				dispatchMessageToListenerWithRetries(retry.getMessage(), new AtomicBoolean(false));
+			}
+		}
+
 		private void pendingMessagesHandledSuccessfully(AtomicBoolean inRetryMode,
 				AtomicBoolean messagesPendingInBatch) {
 			inRetryMode.compareAndSet(true, false);
@@ -567,41 +1254,18 @@ public class DefaultPulsarMessageListenerContainer<T> extends AbstractPulsarMess
 					|| this.subscriptionType.equals(SubscriptionType.Key_Shared);
 		}
 
-		private void handleAcks(Messages<T> messages) {
-			if (this.nackableMessages.isEmpty()) {
-				try {
-					if (messages.size() > 0) {
-						if (isSharedSubscriptionType()) {
-							this.consumer.acknowledge(messages);
-						}
-						else {
-							Stream<Message<T>> stream = StreamSupport.stream(messages.spliterator(), true);
-							Message<T> last = stream.reduce((a, b) -> b).orElse(null);
-							this.consumer.acknowledgeCumulative(last);
-						}
-					}
-				}
-				catch (PulsarClientException pce) {
-					this.consumer.negativeAcknowledge(messages);
+		private void handleAck(Message<T> message) {
+			if (this.ackAccumulator != null) {
+				this.ackAccumulator.ack(message);
+				if (this.ackMode.equals(AckMode.RECORD)) {
+					this.ackAccumulator.flushIfDue();
 				}
 			}
 			else {
-				for (Message<T> message : messages) {
-					if (this.nackableMessages.contains(message.getMessageId())) {
-						this.consumer.negativeAcknowledge(message);
-						this.nackableMessages.remove(message.getMessageId());
-					}
-					else {
-						handleAck(message);
-					}
-				}
+				AbstractAcknowledgement.handleAckByMessageId(this.consumer, message.getMessageId());
 			}
 		}
 
-		private void handleAck(Message<T> message) {
-			AbstractAcknowledgement.handleAckByMessageId(this.consumer, message.getMessageId());
-		}
-
 	}
 
 	private static abstract class AbstractAcknowledgement implements Acknowledgement {
@@ -670,6 +1334,33 @@ public class DefaultPulsarMessageListenerContainer<T> extends AbstractPulsarMess
 
 	}
 
+	private static final class RetryingMessage<T> implements Delayed {
+
+		private final Message<T> message;
+
+		private final long retryAtNanos;
+
+		RetryingMessage(Message<T> message, long retryDelayMillis) {
+			this.message = message;
+			this.retryAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryDelayMillis);
+		}
+
+		Message<T> getMessage() {
+			return this.message;
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(this.retryAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+		}
+
+	}
+
 	private static final class ConsumerBatchAcknowledgment extends AbstractAcknowledgement {
 
 		ConsumerBatchAcknowledgment(Consumer<?> consumer) {
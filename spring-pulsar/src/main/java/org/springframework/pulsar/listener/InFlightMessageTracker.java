@@ -0,0 +1,164 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.listener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pulsar.client.api.Message;
+
+import org.springframework.util.Assert;
+
+/**
+ * Tracks the messages handed to an asynchronous listener in the order they were received
+ * and completes them in that order, whatever order the listener completes them in.
+ * <p>
+ * A message stays tracked until it and all the messages received before it have
+ * completed, which lets the caller advance cumulative acknowledgements over contiguous
+ * ranges of completed messages only. The number of tracked messages is bounded so that a
+ * slow message can not make the window grow indefinitely.
+ *
+ * @param <T> the message payload type
+ */
+final class InFlightMessageTracker<T> {
+
+	private final int maxInFlight;
+
+	private final Semaphore permits;
+
+	private final Deque<Entry<T>> entries = new ArrayDeque<>();
+
+	/**
+	 * Construct a tracker.
+	 * @param maxInFlight the maximum number of tracked messages
+	 */
+	InFlightMessageTracker(int maxInFlight) {
+		Assert.isTrue(maxInFlight > 0, "maxInFlight must be greater than 0");
+		this.maxInFlight = maxInFlight;
+		this.permits = new Semaphore(maxInFlight);
+	}
+
+	/**
+	 * Start tracking a message, waiting for the window to have room for it.
+	 * @param message the message
+	 * @param timeout the maximum time to wait for room in the window
+	 * @param unit the unit of the timeout
+	 * @return the tracked entry or {@code null} if the window is still full after the
+	 * timeout
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	Entry<T> track(Message<T> message, long timeout, TimeUnit unit) throws InterruptedException {
+		if (!this.permits.tryAcquire(timeout, unit)) {
+			return null;
+		}
+		Entry<T> entry = new Entry<>(message);
+		synchronized (this.entries) {
+			this.entries.addLast(entry);
+		}
+		return entry;
+	}
+
+	/**
+	 * Mark an entry as completed.
+	 * @param entry the completed entry
+	 * @param success whether the message was handled successfully
+	 * @return the entries that are no longer tracked, in receive order, which is empty
+	 * unless the given entry was the oldest one
+	 */
+	List<Entry<T>> complete(Entry<T> entry, boolean success) {
+		List<Entry<T>> completed;
+		synchronized (this.entries) {
+			entry.completed = true;
+			entry.success = success;
+			Entry<T> oldest = this.entries.peekFirst();
+			if (oldest == null || !oldest.completed) {
+				return Collections.emptyList();
+			}
+			completed = new ArrayList<>();
+			while (oldest != null && oldest.completed) {
+				completed.add(this.entries.removeFirst());
+				oldest = this.entries.peekFirst();
+			}
+		}
+		this.permits.release(completed.size());
+		return completed;
+	}
+
+	/**
+	 * Wait for all the tracked messages to complete. No message must be tracked
+	 * meanwhile.
+	 * @param timeout the maximum time to wait
+	 * @param unit the unit of the timeout
+	 * @return whether all the tracked messages completed before the timeout
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+		if (!this.permits.tryAcquire(this.maxInFlight, timeout, unit)) {
+			return false;
+		}
+		this.permits.release(this.maxInFlight);
+		return true;
+	}
+
+	/**
+	 * Get the number of tracked messages.
+	 * @return the number of tracked messages
+	 */
+	int size() {
+		synchronized (this.entries) {
+			return this.entries.size();
+		}
+	}
+
+	/**
+	 * A tracked message.
+	 *
+	 * @param <T> the message payload type
+	 */
+	static final class Entry<T> {
+
+		private final Message<T> message;
+
+		private boolean completed;
+
+		private boolean success;
+
+		private Entry(Message<T> message) {
+			this.message = message;
+		}
+
+		Message<T> getMessage() {
+			return this.message;
+		}
+
+		/**
+		 * Return whether the message was handled successfully. Only meaningful once the
+		 * entry is no longer tracked.
+		 * @return whether the message was handled successfully
+		 */
+		boolean isSuccess() {
+			return this.success;
+		}
+
+	}
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.listener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.apache.pulsar.client.api.Message;
+
+import org.springframework.util.Assert;
+
+/**
+ * Dispatches the messages of a received batch across the calling thread and a bounded
+ * pool of worker threads while keeping the order of the messages that share a key.
+ * <p>
+ * Each message is assigned to one of a fixed number of lanes based on its ordering key,
+ * or its key when no ordering key is set. The messages of a lane are handled one after
+ * the other on a single thread, so messages with the same key are never handled
+ * concurrently nor out of order. Messages without any key are spread evenly across the
+ * lanes and are therefore not ordered relative to each other.
+ */
+final class KeyOrderedDispatcher implements AutoCloseable {
+
+	private final int lanes;
+
+	private final ExecutorService executor;
+
+	/**
+	 * Construct a dispatcher.
+	 * @param lanes the maximum number of messages handled concurrently
+	 * @param executor the executor running the lanes, which should provide at least
+	 * {@code lanes - 1} threads as the calling thread handles one of the lanes
+	 */
+	KeyOrderedDispatcher(int lanes, ExecutorService executor) {
+		Assert.isTrue(lanes > 1, "lanes must be greater than 1");
+		Assert.notNull(executor, "executor must not be null");
+		this.lanes = lanes;
+		this.executor = executor;
+	}
+
+	/**
+	 * Dispatch the given messages to the handler and wait for all of them to be handled.
+	 * <p>
+	 * If the handler throws an unchecked exception for a message, the failure handler is
+	 * invoked with it and the lane carries on with its next message. If the failure
+	 * handler throws in turn, the remaining messages of the same lane are skipped and the
+	 * exception is rethrown once all other lanes have completed.
+	 * @param messages the messages to dispatch
+	 * @param handler the handler to invoke for each message
+	 * @param failureHandler the handler to invoke for each message the handler failed on
+	 * @param <T> the message payload type
+	 */
+	<T> void dispatch(Iterable<Message<T>> messages, Consumer<Message<T>> handler,
+			BiConsumer<Message<T>, RuntimeException> failureHandler) {
+		List<List<Message<T>>> lanedMessages = assignLanes(messages);
+		Consumer<Message<T>> laneHandler = (message) -> {
+			try {
+				handler.accept(message);
+			}
+			catch (RuntimeException ex) {
+				failureHandler.accept(message, ex);
+			}
+		};
+		List<CompletableFuture<Void>> futures = new ArrayList<>(this.lanes);
+		List<Message<T>> inlineLane = null;
+		for (List<Message<T>> lane : lanedMessages) {
+			if (lane.isEmpty()) {
+				continue;
+			}
+			// keep the first non-empty lane for the calling thread
+			if (inlineLane == null) {
+				inlineLane = lane;
+			}
+			else {
+				futures.add(CompletableFuture.runAsync(() -> lane.forEach(laneHandler), this.executor));
+			}
+		}
+		RuntimeException failure = null;
+		if (inlineLane != null) {
+			try {
+				inlineLane.forEach(laneHandler);
+			}
+			catch (RuntimeException ex) {
+				failure = ex;
+			}
+		}
+		for (CompletableFuture<Void> future : futures) {
+			try {
+				future.join();
+			}
+			catch (CompletionException ex) {
+				if (failure == null) {
+					failure = unwrap(ex);
+				}
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	private <T> List<List<Message<T>>> assignLanes(Iterable<Message<T>> messages) {
+		List<List<Message<T>>> lanedMessages = new ArrayList<>(this.lanes);
+		for (int i = 0; i < this.lanes; i++) {
+			lanedMessages.add(new ArrayList<>());
+		}
+		int keylessIndex = 0;
+		for (Message<T> message : messages) {
+			int lane;
+			if (message.hasOrderingKey()) {
+				lane = Math.floorMod(Arrays.hashCode(message.getOrderingKey()), this.lanes);
+			}
+			else if (message.hasKey()) {
+				lane = Math.floorMod(message.getKey().hashCode(), this.lanes);
+			}
+			else {
+				lane = keylessIndex++ % this.lanes;
+			}
+			lanedMessages.get(lane).add(message);
+		}
+		return lanedMessages;
+	}
+
+	private static RuntimeException unwrap(CompletionException ex) {
+		Throwable cause = ex.getCause();
+		if (cause instanceof RuntimeException runtimeException) {
+			return runtimeException;
+		}
+		if (cause instanceof Error error) {
+			throw error;
+		}
+		return ex;
+	}
+
+	@Override
+	public void close() {
+		this.executor.shutdown();
+	}
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.listener;
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.Messages;
+
+/**
+ * {@link Messages} backed by a list, for the container to hand over other messages than
+ * the ones returned by a batch receive, such as the decoded or the remaining ones.
+ *
+ * @param <T> the message payload type
+ */
+final class ListMessages<T> implements Messages<T> {
+
+	private final List<Message<T>> messages;
+
+	/**
+	 * Construct the messages.
+	 * @param messages the messages
+	 */
+	ListMessages(List<Message<T>> messages) {
+		this.messages = messages;
+	}
+
+	@Override
+	public int size() {
+		return this.messages.size();
+	}
+
+	@Override
+	public Iterator<Message<T>> iterator() {
+		return this.messages.iterator();
+	}
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.listener;
+
+import java.util.List;
+
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.Messages;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Records the activity of the consumer of a listener container. Keeps the container free
+ * of any dependency on the metrics library, which is optional.
+ *
+ * @see MicrometerListenerMetrics
+ */
+interface ListenerMetrics {
+
+	/**
+	 * Record a batch receive.
+	 * @param messages the received messages
+	 * @param waitNanos the time spent waiting for the messages
+	 */
+	void received(Messages<?> messages, long waitNanos);
+
+	/**
+	 * Record the handling of a message by a record listener.
+	 * @param message the message
+	 * @param nanos the time the listener took
+	 * @param failure the exception thrown by the listener if any
+	 */
+	void processed(Message<?> message, long nanos, @Nullable Throwable failure);
+
+	/**
+	 * Record the handling of messages by a batch listener.
+	 * @param messages the messages
+	 * @param nanos the time the listener took
+	 * @param failure the exception thrown by the listener if any
+	 */
+	void processedBatch(List<? extends Message<?>> messages, long nanos, @Nullable Throwable failure);
+
+	/**
+	 * Record the acknowledgement of a message.
+	 * @param message the message
+	 * @param latencyNanos the time the acknowledgement was held back before being sent
+	 */
+	void acknowledged(Message<?> message, long latencyNanos);
+
+	/**
+	 * Record the negative acknowledgement of a message.
+	 * @param message the message
+	 */
+	void nacked(Message<?> message);
+
+	/**
+	 * Record the retry of a message by the error handler.
+	 * @param message the message
+	 */
+	void retried(Message<?> message);
+
+	/**
+	 * Release the resources of the metrics once the consumer is stopped.
+	 */
+	void close();
+
+}
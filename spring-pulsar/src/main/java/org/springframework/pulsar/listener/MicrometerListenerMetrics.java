@@ -0,0 +1,237 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.listener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.Messages;
+import org.apache.pulsar.common.naming.TopicName;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ObjectUtils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * {@link ListenerMetrics} that publishes Micrometer meters tagged with the listener id,
+ * the topic and the subscription.
+ * <p>
+ * Meters about a single message are tagged with the topic of the message, without the
+ * partition suffix. Meters about a whole receive or batch are tagged with the topics the
+ * consumer subscribed to. The meters are removed from the registry on {@link #close()},
+ * unless they are still used by other metrics with the same tags, such as the metrics of
+ * a child container that replaced a stopped one with the same name.
+ */
+final class MicrometerListenerMetrics implements ListenerMetrics {
+
+	private static final String UNKNOWN_TOPIC = "none";
+
+	// The number of metrics using each meter, per registry
+	private static final Map<MeterRegistry, Map<Meter.Id, Integer>> METER_USAGES = new WeakHashMap<>();
+
+	private final MeterRegistry registry;
+
+	private final Map<Meter.Id, Integer> meterUsages;
+
+	private final Tags tags;
+
+	private final Timer receive;
+
+	private final DistributionSummary batchSize;
+
+	private final Timer batchSuccess;
+
+	private final Timer batchFailure;
+
+	private final Map<String, TopicMeters> topicMeters = new ConcurrentHashMap<>();
+
+	private final List<Meter> meters = new CopyOnWriteArrayList<>();
+
+	MicrometerListenerMetrics(MeterRegistry registry, String listenerId, String subscription, String consumerTopics,
+			Map<String, String> extraTags) {
+		this.registry = registry;
+		synchronized (METER_USAGES) {
+			this.meterUsages = METER_USAGES.computeIfAbsent(registry, (r) -> new HashMap<>());
+		}
+		Tags tags = Tags.of("name", listenerId, "subscription", subscription);
+		for (Map.Entry<String, String> tag : extraTags.entrySet()) {
+			tags = tags.and(tag.getKey(), tag.getValue());
+		}
+		this.tags = tags;
+		Tags consumerTags = this.tags.and("topic", consumerTopics);
+		this.receive = register(Timer.builder("spring.pulsar.listener.receive")
+				.description("Time spent waiting for a batch receive to return").tags(consumerTags));
+		this.batchSize = register(DistributionSummary.builder("spring.pulsar.listener.receive.batch.size")
+				.description("Number of messages per batch receive").baseUnit("messages").tags(consumerTags));
+		this.batchSuccess = register(processTimer(consumerTags, "batch", "success"));
+		this.batchFailure = register(processTimer(consumerTags, "batch", "failure"));
+	}
+
+	/**
+	 * Create the metrics for a listener container using the meter registry of the
+	 * application context.
+	 * @param applicationContext the application context
+	 * @param listenerId the id of the listener
+	 * @param containerProperties the properties of the container
+	 * @return the metrics or {@code null} if the application context has no unique meter
+	 * registry
+	 */
+	@Nullable
+	static MicrometerListenerMetrics create(ApplicationContext applicationContext, String listenerId,
+			PulsarContainerProperties containerProperties) {
+		MeterRegistry registry = applicationContext.getBeanProvider(MeterRegistry.class).getIfUnique();
+		if (registry == null) {
+			return null;
+		}
+		String consumerTopics = UNKNOWN_TOPIC;
+		if (containerProperties.getTopicsPattern() != null) {
+			consumerTopics = containerProperties.getTopicsPattern();
+		}
+		else if (!ObjectUtils.isEmpty(containerProperties.getTopics())) {
+			consumerTopics = String.join(",", containerProperties.getTopics());
+		}
+		String subscription = containerProperties.getSubscriptionName();
+		return new MicrometerListenerMetrics(registry, listenerId, (subscription != null ? subscription : "none"),
+				consumerTopics, containerProperties.getMicrometerTags());
+	}
+
+	@Override
+	public void received(Messages<?> messages, long waitNanos) {
+		this.receive.record(waitNanos, TimeUnit.NANOSECONDS);
+		this.batchSize.record(messages.size());
+		long now = System.currentTimeMillis();
+		for (Message<?> message : messages) {
+			long publishTime = message.getPublishTime();
+			if (publishTime > 0) {
+				topicMeters(message).lag.record(Math.max(0, now - publishTime), TimeUnit.MILLISECONDS);
+			}
+		}
+	}
+
+	@Override
+	public void processed(Message<?> message, long nanos, @Nullable Throwable failure) {
+		TopicMeters meters = topicMeters(message);
+		(failure == null ? meters.processSuccess : meters.processFailure).record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void processedBatch(List<? extends Message<?>> messages, long nanos, @Nullable Throwable failure) {
+		(failure == null ? this.batchSuccess : this.batchFailure).record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void acknowledged(Message<?> message, long latencyNanos) {
+		TopicMeters meters = topicMeters(message);
+		meters.acks.increment();
+		meters.ackLatency.record(latencyNanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void nacked(Message<?> message) {
+		topicMeters(message).nacks.increment();
+	}
+
+	@Override
+	public void retried(Message<?> message) {
+		topicMeters(message).retries.increment();
+	}
+
+	@Override
+	public void close() {
+		synchronized (this.meterUsages) {
+			for (Meter meter : this.meters) {
+				Integer usages = this.meterUsages.computeIfPresent(meter.getId(),
+						(id, count) -> (count > 1) ? count - 1 : null);
+				if (usages == null) {
+					this.registry.remove(meter);
+				}
+			}
+		}
+		this.meters.clear();
+		this.topicMeters.clear();
+	}
+
+	private TopicMeters topicMeters(Message<?> message) {
+		String topic = message.getTopicName();
+		return this.topicMeters.computeIfAbsent(topic != null ? topic : UNKNOWN_TOPIC, this::createTopicMeters);
+	}
+
+	private TopicMeters createTopicMeters(String topic) {
+		// all the partitions of a topic share its meters
+		Tags tags = this.tags.and("topic",
+				UNKNOWN_TOPIC.equals(topic) ? topic : TopicName.get(topic).getPartitionedTopicName());
+		return new TopicMeters(register(processTimer(tags, "record", "success")),
+				register(processTimer(tags, "record", "failure")),
+				register(Counter.builder("spring.pulsar.listener.acks")
+						.description("Messages acknowledged by the container").tags(tags)),
+				register(Timer.builder("spring.pulsar.listener.ack.latency")
+						.description("Time acknowledgements were held back before being sent").tags(tags)),
+				register(Counter.builder("spring.pulsar.listener.nacks")
+						.description("Messages negatively acknowledged by the container").tags(tags)),
+				register(Counter.builder("spring.pulsar.listener.retries")
+						.description("Messages retried by the error handler").tags(tags)),
+				register(Timer.builder("spring.pulsar.listener.lag")
+						.description("Time between the publication of messages and their receipt").tags(tags)));
+	}
+
+	private static Timer.Builder processTimer(Tags tags, String type, String result) {
+		return Timer.builder("spring.pulsar.listener.process").description("Time the listener took to handle messages")
+				.tags(tags).tag("type", type).tag("result", result);
+	}
+
+	private Timer register(Timer.Builder builder) {
+		return register(() -> builder.register(this.registry));
+	}
+
+	private Counter register(Counter.Builder builder) {
+		return register(() -> builder.register(this.registry));
+	}
+
+	private DistributionSummary register(DistributionSummary.Builder builder) {
+		return register(() -> builder.register(this.registry));
+	}
+
+	private <M extends Meter> M register(Supplier<M> registration) {
+		// Metrics with the same tags share the meters, which are counted so that they
+		// are only removed once no longer used
+		synchronized (this.meterUsages) {
+			M meter = registration.get();
+			this.meterUsages.merge(meter.getId(), 1, Integer::sum);
+			this.meters.add(meter);
+			return meter;
+		}
+	}
+
+	private record TopicMeters(Timer processSuccess, Timer processFailure, Counter acks, Timer ackLatency,
+			Counter nacks, Counter retries, Timer lag) {
+	}
+
+}
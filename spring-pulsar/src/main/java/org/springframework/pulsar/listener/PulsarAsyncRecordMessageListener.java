@@ -0,0 +1,53 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.listener;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.Message;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Record message listener that handles messages asynchronously.
+ * <p>
+ * The listener container keeps receiving messages while the returned futures are pending
+ * and acknowledges each message once its future completes, according to the container
+ * {@link AckMode}. A future that completes exceptionally causes the message to be
+ * negatively acknowledged.
+ *
+ * @param <T> payload type
+ */
+public interface PulsarAsyncRecordMessageListener<T> extends PulsarRecordMessageListener<T> {
+
+	@Override
+	default void received(Consumer<T> consumer, Message<T> msg) {
+		throw new UnsupportedOperationException("Not supported.");
+	}
+
+	/**
+	 * Handle the given message asynchronously.
+	 * @param consumer the consumer that received the message
+	 * @param msg the message
+	 * @param acknowledgement the acknowledgement to use in the {@link AckMode#MANUAL} ack
+	 * mode or {@code null} otherwise
+	 * @return a future that completes once the message has been handled
+	 */
+	CompletableFuture<?> receivedAsync(Consumer<T> consumer, Message<T> msg, @Nullable Acknowledgement acknowledgement);
+
+}
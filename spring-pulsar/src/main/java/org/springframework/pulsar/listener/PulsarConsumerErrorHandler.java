@@ -60,4 +60,36 @@ public interface PulsarConsumerErrorHandler<T> {
 	 */
 	void clearMessage();
 
+	/**
+	 * Whether failed messages of record listeners are retried without blocking the
+	 * consumer. When {@code true}, the container asks {@link #nextRetryDelay} when to
+	 * retry a failed message and keeps handling the other messages in the meantime.
+	 * @return whether retries are non-blocking
+	 */
+	default boolean isNonBlockingRetries() {
+		return false;
+	}
+
+	/**
+	 * Decide when the failed message should be retried when retries are
+	 * {@link #isNonBlockingRetries() non-blocking}. Implementations keep the retry state
+	 * of each message until it is {@link #clearMessage(Message) cleared}.
+	 * @param exception thrown exception
+	 * @param message Pulsar message
+	 * @return the time in milliseconds to wait before retrying the message or
+	 * {@link org.springframework.util.backoff.BackOffExecution#STOP} if it should not be
+	 * retried
+	 */
+	default long nextRetryDelay(Exception exception, Message<T> message) {
+		throw new UnsupportedOperationException("Non-blocking retries are not supported");
+	}
+
+	/**
+	 * Clear the retry state of a message that is no longer retried without blocking the
+	 * consumer.
+	 * @param message Pulsar message
+	 */
+	default void clearMessage(Message<T> message) {
+	}
+
 }
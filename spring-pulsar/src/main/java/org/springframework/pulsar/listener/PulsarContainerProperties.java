@@ -17,6 +17,8 @@
 package org.springframework.pulsar.listener;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 
 import org.apache.pulsar.client.api.Schema;
@@ -40,8 +42,12 @@ public class PulsarContainerProperties {
 
 	private static final Duration DEFAULT_CONSUMER_START_TIMEOUT = Duration.ofSeconds(30);
 
+	private static final Duration DEFAULT_SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
 	private Duration consumerStartTimeout = DEFAULT_CONSUMER_START_TIMEOUT;
 
+	private Duration shutdownTimeout = DEFAULT_SHUTDOWN_TIMEOUT;
+
 	private String[] topics;
 
 	private String topicsPattern;
@@ -58,18 +64,48 @@ public class PulsarContainerProperties {
 
 	private Object messageListener;
 
+	private RecordFilterStrategy<?> recordFilterStrategy;
+
 	private AsyncTaskExecutor consumerTaskExecutor;
 
+	private boolean virtualThreads;
+
+	private int dispatchConcurrency = 1;
+
+	private int maxInFlightMessages = 1000;
+
 	private int maxNumMessages = -1;
 
 	private int maxNumBytes = 10 * 1024 * 1024;
 
 	private int batchTimeoutMillis = 100;
 
+	private int batchWindowMaxMessages;
+
+	private long batchWindowMaxBytes;
+
+	private Duration batchWindowMaxWait;
+
+	private int receivePipelineDepth;
+
 	private boolean batchListener;
 
 	private AckMode ackMode = AckMode.BATCH;
 
+	private int ackCount = 1;
+
+	private Duration ackTime;
+
+	private long maxMessagesPerSecond;
+
+	private long maxBytesPerSecond;
+
+	private boolean poolMessages;
+
+	private boolean micrometerEnabled;
+
+	private Map<String, String> micrometerTags = new HashMap<>();
+
 	private PulsarListenerObservationConvention observationConvention;
 
 	private Properties pulsarConsumerProperties = new Properties();
@@ -94,6 +130,22 @@ public class PulsarContainerProperties {
 		this.messageListener = messageListener;
 	}
 
+	public RecordFilterStrategy<?> getRecordFilterStrategy() {
+		return this.recordFilterStrategy;
+	}
+
+	/**
+	 * Set the strategy that discards received messages before they are handed to the
+	 * listener, and before their value is deserialized and converted. Discarded messages
+	 * are acknowledged by the container, in bulk with the other acknowledgements,
+	 * whatever the ack mode. Default {@code null}, which hands all the messages to the
+	 * listener.
+	 * @param recordFilterStrategy the strategy to discard messages with
+	 */
+	public void setRecordFilterStrategy(RecordFilterStrategy<?> recordFilterStrategy) {
+		this.recordFilterStrategy = recordFilterStrategy;
+	}
+
 	public AsyncTaskExecutor getConsumerTaskExecutor() {
 		return this.consumerTaskExecutor;
 	}
@@ -102,6 +154,55 @@ public class PulsarContainerProperties {
 		this.consumerTaskExecutor = consumerExecutor;
 	}
 
+	public boolean isVirtualThreads() {
+		return this.virtualThreads;
+	}
+
+	/**
+	 * Set whether the container should run its consumers on virtual threads rather than
+	 * platform threads. Only applies when no {@link #setConsumerTaskExecutor consumer
+	 * task executor} is set and requires a Java runtime that supports virtual threads.
+	 * Default false.
+	 * @param virtualThreads whether to use virtual threads for the consumers
+	 */
+	public void setVirtualThreads(boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+	}
+
+	public int getDispatchConcurrency() {
+		return this.dispatchConcurrency;
+	}
+
+	/**
+	 * Set the maximum number of messages of a received batch that a record listener
+	 * handles concurrently for each consumer. Messages are partitioned by their ordering
+	 * key or key, so that messages with the same key are still handled in order. Messages
+	 * without a key are not ordered relative to each other when greater than 1. Does not
+	 * apply to batch listeners. Default 1, which handles the messages one by one on the
+	 * consumer thread.
+	 * @param dispatchConcurrency the number of messages to handle concurrently
+	 */
+	public void setDispatchConcurrency(int dispatchConcurrency) {
+		Assert.isTrue(dispatchConcurrency > 0, "'dispatchConcurrency' must be greater than 0");
+		this.dispatchConcurrency = dispatchConcurrency;
+	}
+
+	public int getMaxInFlightMessages() {
+		return this.maxInFlightMessages;
+	}
+
+	/**
+	 * Set the maximum number of messages an {@link PulsarAsyncRecordMessageListener
+	 * asynchronous listener} can have in flight for each consumer. A message is in flight
+	 * until it and all the messages received before it have completed. The consumer stops
+	 * dispatching messages while the window is full. Default 1000.
+	 * @param maxInFlightMessages the maximum number of messages in flight
+	 */
+	public void setMaxInFlightMessages(int maxInFlightMessages) {
+		Assert.isTrue(maxInFlightMessages > 0, "'maxInFlightMessages' must be greater than 0");
+		this.maxInFlightMessages = maxInFlightMessages;
+	}
+
 	public SubscriptionType getSubscriptionType() {
 		return this.subscriptionType;
 	}
@@ -134,6 +235,73 @@ public class PulsarContainerProperties {
 		this.batchTimeoutMillis = batchTimeoutMillis;
 	}
 
+	public int getBatchWindowMaxMessages() {
+		return this.batchWindowMaxMessages;
+	}
+
+	/**
+	 * Set the number of messages after which a batch listener is invoked with the
+	 * messages accumulated over several batch receives. Only applies when a
+	 * {@link #setBatchWindowMaxWait(Duration) batch window max wait} is set. Default 0,
+	 * which does not limit the number of messages.
+	 * @param batchWindowMaxMessages the max number of messages in a window
+	 */
+	public void setBatchWindowMaxMessages(int batchWindowMaxMessages) {
+		this.batchWindowMaxMessages = batchWindowMaxMessages;
+	}
+
+	public long getBatchWindowMaxBytes() {
+		return this.batchWindowMaxBytes;
+	}
+
+	/**
+	 * Set the size of the message payloads after which a batch listener is invoked with
+	 * the messages accumulated over several batch receives. Only applies when a
+	 * {@link #setBatchWindowMaxWait(Duration) batch window max wait} is set. Default 0,
+	 * which does not limit the size of the messages.
+	 * @param batchWindowMaxBytes the max number of bytes in a window
+	 */
+	public void setBatchWindowMaxBytes(long batchWindowMaxBytes) {
+		this.batchWindowMaxBytes = batchWindowMaxBytes;
+	}
+
+	public Duration getBatchWindowMaxWait() {
+		return this.batchWindowMaxWait;
+	}
+
+	/**
+	 * Set the max time a batch listener waits for messages to accumulate over several
+	 * batch receives before it is invoked with them, unless the
+	 * {@link #setBatchWindowMaxMessages(int) max messages} or
+	 * {@link #setBatchWindowMaxBytes(long) max bytes} of the window are reached first.
+	 * The window starts with the first batch receive that returns messages and can
+	 * overrun this time by up to the {@link #setBatchTimeoutMillis(int) batch timeout}.
+	 * Default {@code null}, which invokes the listener with the messages of each batch
+	 * receive.
+	 * @param batchWindowMaxWait the max time to wait for messages to accumulate
+	 */
+	public void setBatchWindowMaxWait(Duration batchWindowMaxWait) {
+		this.batchWindowMaxWait = batchWindowMaxWait;
+	}
+
+	public int getReceivePipelineDepth() {
+		return this.receivePipelineDepth;
+	}
+
+	/**
+	 * Set the number of batch receives that are issued ahead of the batch being handled
+	 * by the listener. The messages they return are decoded as soon as they are received,
+	 * so that the consumer thread neither waits for messages nor decodes them while they
+	 * are available. Messages received ahead of a stop are not handled and are
+	 * redelivered. Default 0, which receives the next batch once the current one has been
+	 * handled.
+	 * @param receivePipelineDepth the number of batch receives to issue ahead
+	 */
+	public void setReceivePipelineDepth(int receivePipelineDepth) {
+		Assert.isTrue(receivePipelineDepth >= 0, "'receivePipelineDepth' must be 0 or greater");
+		this.receivePipelineDepth = receivePipelineDepth;
+	}
+
 	public boolean isBatchListener() {
 		return this.batchListener;
 	}
@@ -150,6 +318,117 @@ public class PulsarContainerProperties {
 		this.ackMode = ackMode;
 	}
 
+	public int getAckCount() {
+		return this.ackCount;
+	}
+
+	/**
+	 * Set the number of pending acknowledgements that are sent to the broker together.
+	 * Pending acknowledgements are checked after each record in {@link AckMode#RECORD}
+	 * and after each batch in {@link AckMode#BATCH}, so raising the count holds
+	 * acknowledgements back across records or batches. Does not apply to
+	 * {@link AckMode#MANUAL}. Default 1, which sends them on every check.
+	 * @param ackCount the number of acknowledgements to send together
+	 * @see #setAckTime(Duration)
+	 */
+	public void setAckCount(int ackCount) {
+		Assert.isTrue(ackCount > 0, "'ackCount' must be greater than 0");
+		this.ackCount = ackCount;
+	}
+
+	public Duration getAckTime() {
+		return this.ackTime;
+	}
+
+	/**
+	 * Set the maximum time an acknowledgement is held back when fewer than
+	 * {@link #setAckCount(int) ackCount} acknowledgements are pending. When not set,
+	 * pending acknowledgements are only sent once enough of them are pending or when the
+	 * container stops.
+	 * @param ackTime the maximum time an acknowledgement is held back
+	 */
+	public void setAckTime(Duration ackTime) {
+		this.ackTime = ackTime;
+	}
+
+	public long getMaxMessagesPerSecond() {
+		return this.maxMessagesPerSecond;
+	}
+
+	/**
+	 * Set the maximum number of messages per second the container receives. The limit is
+	 * shared by all the consumers of a {@link ConcurrentPulsarMessageListenerContainer}.
+	 * It is enforced before each batch receive, so a single batch can exceed it, in which
+	 * case the next receive is delayed until the rate is back under the limit. Default 0,
+	 * which does not limit the rate.
+	 * @param maxMessagesPerSecond the maximum number of messages per second
+	 * @see #setMaxBytesPerSecond(long)
+	 */
+	public void setMaxMessagesPerSecond(long maxMessagesPerSecond) {
+		Assert.isTrue(maxMessagesPerSecond >= 0, "'maxMessagesPerSecond' must not be negative");
+		this.maxMessagesPerSecond = maxMessagesPerSecond;
+	}
+
+	public long getMaxBytesPerSecond() {
+		return this.maxBytesPerSecond;
+	}
+
+	/**
+	 * Set the maximum number of payload bytes per second the container receives. Works
+	 * like {@link #setMaxMessagesPerSecond(long) maxMessagesPerSecond}. Default 0, which
+	 * does not limit the rate.
+	 * @param maxBytesPerSecond the maximum number of payload bytes per second
+	 */
+	public void setMaxBytesPerSecond(long maxBytesPerSecond) {
+		Assert.isTrue(maxBytesPerSecond >= 0, "'maxBytesPerSecond' must not be negative");
+		this.maxBytesPerSecond = maxBytesPerSecond;
+	}
+
+	public boolean isPoolMessages() {
+		return this.poolMessages;
+	}
+
+	/**
+	 * Set whether the consumers receive messages into pooled buffers rather than copying
+	 * their payload, in which case the container releases each message once it is
+	 * acknowledged. The listener must then not use a message, or anything derived from it
+	 * such as its headers, after it returns. Only applies to record listeners that are
+	 * neither asynchronous nor in {@link AckMode#MANUAL} ack mode, as other listeners
+	 * keep messages beyond the container's control. Pooling is also enabled when
+	 * requested through the {@code poolMessages} consumer property. Default false.
+	 * @param poolMessages whether to pool messages
+	 */
+	public void setPoolMessages(boolean poolMessages) {
+		this.poolMessages = poolMessages;
+	}
+
+	public boolean isMicrometerEnabled() {
+		return this.micrometerEnabled;
+	}
+
+	/**
+	 * Set whether the container publishes Micrometer meters about its consumers when
+	 * Micrometer is on the classpath and the application context has a unique
+	 * {@code MeterRegistry}. Default false.
+	 * @param micrometerEnabled whether to publish meters
+	 */
+	public void setMicrometerEnabled(boolean micrometerEnabled) {
+		this.micrometerEnabled = micrometerEnabled;
+	}
+
+	public Map<String, String> getMicrometerTags() {
+		return this.micrometerTags;
+	}
+
+	/**
+	 * Set additional tags for the Micrometer meters of the container.
+	 * @param micrometerTags the tags
+	 */
+	public void setMicrometerTags(Map<String, String> micrometerTags) {
+		Assert.notNull(micrometerTags, "'micrometerTags' must not be null");
+		this.micrometerTags = new HashMap<>(micrometerTags);
+	}
+
 	public PulsarListenerObservationConvention getObservationConvention() {
 		return this.observationConvention;
 	}
@@ -176,6 +455,21 @@ public class PulsarContainerProperties {
 		this.consumerStartTimeout = consumerStartTimeout;
 	}
 
+	public Duration getShutdownTimeout() {
+		return this.shutdownTimeout;
+	}
+
+	/**
+	 * Set the maximum time to wait, when the container stops, for the messages already
+	 * received to be handled and acknowledged before the consumer is closed. Messages
+	 * that are not acknowledged by then are redelivered. Default 10 seconds.
+	 * @param shutdownTimeout the shutdown timeout
+	 */
+	public void setShutdownTimeout(Duration shutdownTimeout) {
+		Assert.notNull(shutdownTimeout, "'shutdownTimeout' cannot be null");
+		this.shutdownTimeout = shutdownTimeout;
+	}
+
 	public String[] getTopics() {
 		return this.topics;
 	}
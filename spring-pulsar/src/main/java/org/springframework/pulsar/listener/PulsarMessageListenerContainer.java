@@ -43,4 +43,24 @@ public sealed interface PulsarMessageListenerContainer
 	@SuppressWarnings("rawtypes")
 	void setPulsarConsumerErrorHandler(PulsarConsumerErrorHandler pulsarConsumerErrorHandler);
 
+	/**
+	 * Pause the container: its consumers stop receiving messages until {@link #resume()}
+	 * is called, without being closed. Unlike stopping the container, this keeps the
+	 * subscriptions, and therefore the assignment of keys of a {@code Key_Shared}
+	 * subscription, in place. Messages already received are handled before the consumers
+	 * idle. The container remains paused across restarts.
+	 */
+	void pause();
+
+	/**
+	 * Resume the container after it was {@link #pause() paused}.
+	 */
+	void resume();
+
+	/**
+	 * Whether the container is paused.
+	 * @return {@code true} if the container is paused
+	 */
+	boolean isPaused();
+
 }
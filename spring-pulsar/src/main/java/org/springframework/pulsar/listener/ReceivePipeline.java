@@ -0,0 +1,375 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.listener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
+
+import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.Messages;
+import org.apache.pulsar.client.api.PulsarClientException;
+import org.apache.pulsar.client.api.Schema;
+import org.apache.pulsar.common.api.EncryptionContext;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Receives the batches of a consumer ahead of the one being handled.
+ * <p>
+ * Keeps a bounded number of asynchronous batch receives outstanding and hands their
+ * results over in the order they were issued. The value of each message is decoded as
+ * soon as its batch is received, on the given decode executor rather than on the client
+ * thread that completes the receive, so that the thread handling the batches neither
+ * waits for the next batch nor decodes it while messages are available. A failure to
+ * decode a value is only thrown once the value is requested, so that it is handled like
+ * any other listener failure. The messages discarded by the optional filter are not
+ * decoded, and are only marked for the caller to {@link #isFiltered(Message) tell} them.
+ * <p>
+ * Not thread-safe, meant to be used by the consumer thread only.
+ *
+ * @param <T> the message payload type
+ */
+final class ReceivePipeline<T> {
+
+	private final Consumer<T> consumer;
+
+	private final int depth;
+
+	private final Executor decodeExecutor;
+
+	@Nullable
+	private final Predicate<Message<T>> filter;
+
+	private final Deque<Receive<T>> receives = new ArrayDeque<>();
+
+	/**
+	 * Construct a pipeline.
+	 * @param consumer the consumer to receive the batches from
+	 * @param depth the number of batch receives to keep outstanding while a batch is
+	 * handled
+	 * @param decodeExecutor the executor to decode the received batches on, which must
+	 * accept at least {@code depth + 1} batches
+	 * @param filter the filter telling the messages to discard before their value is
+	 * decoded, or {@code null} to decode all of them
+	 */
+	ReceivePipeline(Consumer<T> consumer, int depth, Executor decodeExecutor, @Nullable Predicate<Message<T>> filter) {
+		Assert.isTrue(depth > 0, "depth must be greater than 0");
+		Assert.notNull(decodeExecutor, "decodeExecutor must not be null");
+		this.consumer = consumer;
+		this.depth = depth;
+		this.decodeExecutor = decodeExecutor;
+		this.filter = filter;
+	}
+
+	/**
+	 * Determine whether a message handed over by a pipeline was discarded by its filter.
+	 * @param message the message handed over
+	 * @return whether the message was discarded
+	 */
+	static boolean isFiltered(Message<?> message) {
+		return message instanceof DecodedMessage<?> decodedMessage && decodedMessage.filtered;
+	}
+
+	/**
+	 * Wait for the next batch, issuing the receives of the following batches beforehand.
+	 * @return the messages of the next batch
+	 * @throws PulsarClientException if the batch receive failed or the calling thread was
+	 * interrupted, in which case the batch is left to the next call
+	 */
+	Messages<T> receive() throws PulsarClientException {
+		Receive<T> next = this.receives.poll();
+		if (next == null) {
+			next = receiveAsync();
+		}
+		while (this.receives.size() < this.depth) {
+			this.receives.add(receiveAsync());
+		}
+		try {
+			return next.decoded.get();
+		}
+		catch (InterruptedException e) {
+			this.receives.addFirst(next);
+			Thread.currentThread().interrupt();
+			throw new PulsarClientException(e);
+		}
+		catch (ExecutionException e) {
+			throw PulsarClientException.unwrap(e.getCause());
+		}
+	}
+
+	/**
+	 * Give up on the outstanding batch receives. The messages they already received are
+	 * not handed over and are left to be redelivered.
+	 * @param release whether to release the messages already received back to the pool
+	 * @return the number of messages already received that were not handed over
+	 */
+	int close(boolean release) {
+		int dropped = 0;
+		for (Receive<T> receive : this.receives) {
+			receive.decoded.cancel(false);
+			// the receive itself is cancelled for the client not to hand it more messages
+			if (receive.received.cancel(false) || receive.received.isCompletedExceptionally()) {
+				continue;
+			}
+			Messages<T> messages = receive.received.join();
+			for (Message<T> message : messages) {
+				if (release) {
+					message.release();
+				}
+				dropped++;
+			}
+		}
+		this.receives.clear();
+		return dropped;
+	}
+
+	private Receive<T> receiveAsync() {
+		CompletableFuture<Messages<T>> received = this.consumer.batchReceiveAsync();
+		return new Receive<>(received, received.thenApplyAsync(this::decode, this.decodeExecutor));
+	}
+
+	private Messages<T> decode(Messages<T> messages) {
+		List<Message<T>> decoded = new ArrayList<>(messages.size());
+		for (Message<T> message : messages) {
+			decoded.add(new DecodedMessage<>(message, this.filter != null && this.filter.test(message)));
+		}
+		return new ListMessages<>(decoded);
+	}
+
+	/**
+	 * An outstanding batch receive along with the decoding of its messages.
+	 *
+	 * @param <T> the message payload type
+	 */
+	private static final class Receive<T> {
+
+		private final CompletableFuture<Messages<T>> received;
+
+		private final CompletableFuture<Messages<T>> decoded;
+
+		Receive(CompletableFuture<Messages<T>> received, CompletableFuture<Messages<T>> decoded) {
+			this.received = received;
+			this.decoded = decoded;
+		}
+
+	}
+
+	/**
+	 * A {@link Message} whose value was decoded once, unless it was discarded by the
+	 * filter, and which delegates anything else to the received message.
+	 *
+	 * @param <T> the message payload type
+	 */
+	private static final class DecodedMessage<T> implements Message<T> {
+
+		private final Message<T> message;
+
+		@Nullable
+		private final T value;
+
+		@Nullable
+		private final RuntimeException decodeFailure;
+
+		private final boolean filtered;
+
+		DecodedMessage(Message<T> message, boolean filtered) {
+			this.message = message;
+			this.filtered = filtered;
+			T value = null;
+			RuntimeException decodeFailure = null;
+			if (!filtered) {
+				try {
+					value = message.getValue();
+				}
+				catch (RuntimeException e) {
+					decodeFailure = e;
+				}
+			}
+			this.value = value;
+			this.decodeFailure = decodeFailure;
+		}
+
+		@Override
+		public T getValue() {
+			if (this.filtered) {
+				return this.message.getValue();
+			}
+			if (this.decodeFailure != null) {
+				throw this.decodeFailure;
+			}
+			return this.value;
+		}
+
+		@Override
+		public Map<String, String> getProperties() {
+			return this.message.getProperties();
+		}
+
+		@Override
+		public boolean hasProperty(String name) {
+			return this.message.hasProperty(name);
+		}
+
+		@Override
+		public String getProperty(String name) {
+			return this.message.getProperty(name);
+		}
+
+		@Override
+		public byte[] getData() {
+			return this.message.getData();
+		}
+
+		@Override
+		public int size() {
+			return this.message.size();
+		}
+
+		@Override
+		public MessageId getMessageId() {
+			return this.message.getMessageId();
+		}
+
+		@Override
+		public long getPublishTime() {
+			return this.message.getPublishTime();
+		}
+
+		@Override
+		public long getEventTime() {
+			return this.message.getEventTime();
+		}
+
+		@Override
+		public long getSequenceId() {
+			return this.message.getSequenceId();
+		}
+
+		@Override
+		public String getProducerName() {
+			return this.message.getProducerName();
+		}
+
+		@Override
+		public boolean hasKey() {
+			return this.message.hasKey();
+		}
+
+		@Override
+		public String getKey() {
+			return this.message.getKey();
+		}
+
+		@Override
+		public boolean hasBase64EncodedKey() {
+			return this.message.hasBase64EncodedKey();
+		}
+
+		@Override
+		public byte[] getKeyBytes() {
+			return this.message.getKeyBytes();
+		}
+
+		@Override
+		public boolean hasOrderingKey() {
+			return this.message.hasOrderingKey();
+		}
+
+		@Override
+		public byte[] getOrderingKey() {
+			return this.message.getOrderingKey();
+		}
+
+		@Override
+		public String getTopicName() {
+			return this.message.getTopicName();
+		}
+
+		@Override
+		public Optional<EncryptionContext> getEncryptionCtx() {
+			return this.message.getEncryptionCtx();
+		}
+
+		@Override
+		public int getRedeliveryCount() {
+			return this.message.getRedeliveryCount();
+		}
+
+		@Override
+		public byte[] getSchemaVersion() {
+			return this.message.getSchemaVersion();
+		}
+
+		@Override
+		public Optional<Schema<?>> getReaderSchema() {
+			return this.message.getReaderSchema();
+		}
+
+		@Override
+		public boolean isReplicated() {
+			return this.message.isReplicated();
+		}
+
+		@Override
+		public String getReplicatedFrom() {
+			return this.message.getReplicatedFrom();
+		}
+
+		@Override
+		public void release() {
+			this.message.release();
+		}
+
+		@Override
+		public boolean hasBrokerPublishTime() {
+			return this.message.hasBrokerPublishTime();
+		}
+
+		@Override
+		public Optional<Long> getBrokerPublishTime() {
+			return this.message.getBrokerPublishTime();
+		}
+
+		@Override
+		public boolean hasIndex() {
+			return this.message.hasIndex();
+		}
+
+		@Override
+		public Optional<Long> getIndex() {
+			return this.message.getIndex();
+		}
+
+		@Override
+		public String toString() {
+			return this.message.toString();
+		}
+
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.listener;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.Messages;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Limits the rate at which the consumers of a listener container receive messages.
+ * <p>
+ * Each limit is a token bucket that holds up to one second worth of tokens. Received
+ * messages take their tokens from the buckets after the fact, as the size of a batch is
+ * only known once received, so a bucket can run into debt. A consumer receives again once
+ * every bucket holds at least one token.
+ */
+final class ReceiveRateLimiter {
+
+	@Nullable
+	private final TokenBucket messages;
+
+	@Nullable
+	private final TokenBucket bytes;
+
+	/**
+	 * Construct a rate limiter.
+	 * @param maxMessagesPerSecond the maximum number of messages per second or 0 for no
+	 * limit
+	 * @param maxBytesPerSecond the maximum number of payload bytes per second or 0 for no
+	 * limit
+	 * @param startNanos the time the limiter starts
+	 */
+	ReceiveRateLimiter(long maxMessagesPerSecond, long maxBytesPerSecond, long startNanos) {
+		this.messages = (maxMessagesPerSecond > 0 ? new TokenBucket(maxMessagesPerSecond, startNanos) : null);
+		this.bytes = (maxBytesPerSecond > 0 ? new TokenBucket(maxBytesPerSecond, startNanos) : null);
+	}
+
+	/**
+	 * Create a rate limiter for the limits of the given container properties.
+	 * @param containerProperties the container properties
+	 * @return the rate limiter or {@code null} if the properties set no limit
+	 */
+	@Nullable
+	static ReceiveRateLimiter of(PulsarContainerProperties containerProperties) {
+		if (containerProperties.getMaxMessagesPerSecond() <= 0 && containerProperties.getMaxBytesPerSecond() <= 0) {
+			return null;
+		}
+		return new ReceiveRateLimiter(containerProperties.getMaxMessagesPerSecond(),
+				containerProperties.getMaxBytesPerSecond(), System.nanoTime());
+	}
+
+	/**
+	 * Get the time to wait before receiving again.
+	 * @param nowNanos the current time
+	 * @return the time to wait in nanoseconds, 0 to receive right away
+	 */
+	synchronized long getDelayNanos(long nowNanos) {
+		long delayNanos = 0;
+		if (this.messages != null) {
+			delayNanos = this.messages.getDelayNanos(nowNanos);
+		}
+		if (this.bytes != null) {
+			delayNanos = Math.max(delayNanos, this.bytes.getDelayNanos(nowNanos));
+		}
+		return delayNanos;
+	}
+
+	/**
+	 * Take the tokens of received messages.
+	 * @param received the received messages
+	 * @param nowNanos the current time
+	 */
+	synchronized void record(Messages<?> received, long nowNanos) {
+		if (this.messages != null) {
+			this.messages.take(received.size(), nowNanos);
+		}
+		if (this.bytes != null) {
+			long size = 0;
+			for (Message<?> message : received) {
+				size += message.size();
+			}
+			this.bytes.take(size, nowNanos);
+		}
+	}
+
+	private static final class TokenBucket {
+
+		private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+		private final long ratePerSecond;
+
+		private double tokens;
+
+		private long refilledNanos;
+
+		TokenBucket(long ratePerSecond, long startNanos) {
+			this.ratePerSecond = ratePerSecond;
+			this.tokens = ratePerSecond;
+			this.refilledNanos = startNanos;
+		}
+
+		long getDelayNanos(long nowNanos) {
+			refill(nowNanos);
+			if (this.tokens >= 1) {
+				return 0;
+			}
+			return (long) Math.ceil((1 - this.tokens) * NANOS_PER_SECOND / this.ratePerSecond);
+		}
+
+		void take(long count, long nowNanos) {
+			refill(nowNanos);
+			this.tokens -= count;
+		}
+
+		private void refill(long nowNanos) {
+			long elapsedNanos = nowNanos - this.refilledNanos;
+			if (elapsedNanos > 0) {
+				this.tokens = Math.min(this.ratePerSecond,
+						this.tokens + elapsedNanos * this.ratePerSecond / NANOS_PER_SECOND);
+				this.refilledNanos = nowNanos;
+			}
+		}
+
+	}
+
+}
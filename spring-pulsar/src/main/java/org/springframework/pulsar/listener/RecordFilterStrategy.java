@@ -0,0 +1,45 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.listener;
+
+import org.apache.pulsar.client.api.Message;
+
+/**
+ * Strategy to discard received messages before they are handed to the listener.
+ * <p>
+ * The strategy is applied by the listener container to the Pulsar {@link Message} as
+ * received, so a discarded message is neither converted nor mapped to headers. Its value
+ * is only left undeserialized when the strategy does not call {@link Message#getValue()}
+ * and only looks at the metadata of the message, such as its properties, key or event
+ * time. When receiving ahead, the strategy is applied on the thread decoding the received
+ * messages, before their values are deserialized.
+ * <p>
+ * Discarded messages are acknowledged by the container, whatever the ack mode.
+ *
+ * @param <T> payload type of Pulsar message.
+ */
+@FunctionalInterface
+public interface RecordFilterStrategy<T> {
+
+	/**
+	 * Determine whether to discard a message.
+	 * @param message Pulsar message
+	 * @return true to discard the message, false to hand it to the listener
+	 */
+	boolean filter(Message<T> message);
+
+}
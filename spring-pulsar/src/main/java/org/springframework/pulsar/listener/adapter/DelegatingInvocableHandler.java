@@ -146,7 +146,7 @@ public class DelegatingInvocableHandler {
 			result = handler.invoke(message, providedArgs);
 		}
 		Expression replyTo = this.handlerSendTo.get(handler);
-		return new InvocationResult(result, replyTo, this.handlerReturnsMessage.get(handler));
+		return new InvocationResult(result, replyTo, this.handlerReturnsMessage.getOrDefault(handler, Boolean.FALSE));
 	}
 
 	/**
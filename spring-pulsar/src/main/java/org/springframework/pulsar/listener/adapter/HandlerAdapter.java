@@ -16,6 +16,7 @@
 
 package org.springframework.pulsar.listener.adapter;
 
+import org.springframework.lang.Nullable;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.handler.invocation.InvocableHandlerMethod;
 
@@ -31,13 +32,19 @@ public class HandlerAdapter {
 
 	private final DelegatingInvocableHandler delegatingHandler;
 
+	@Nullable
+	private final ProvidedArgumentsInvoker providedArgumentsInvoker;
+
 	/**
-	 * Construct an instance with the provided method.
+	 * Construct an instance with the provided method. When all the parameters of the
+	 * method are bound to the provided arguments, the method is invoked directly rather
+	 * than through its argument resolvers.
 	 * @param invokerHandlerMethod the method.
 	 */
 	public HandlerAdapter(InvocableHandlerMethod invokerHandlerMethod) {
 		this.invokerHandlerMethod = invokerHandlerMethod;
 		this.delegatingHandler = null;
+		this.providedArgumentsInvoker = ProvidedArgumentsInvoker.of(invokerHandlerMethod);
 	}
 
 	/**
@@ -47,9 +54,16 @@ public class HandlerAdapter {
 	public HandlerAdapter(DelegatingInvocableHandler delegatingHandler) {
 		this.invokerHandlerMethod = null;
 		this.delegatingHandler = delegatingHandler;
+		this.providedArgumentsInvoker = null;
 	}
 
 	public Object invoke(Message<?> message, Object... providedArgs) throws Exception { // NOSONAR
+		if (this.providedArgumentsInvoker != null) {
+			Object[] args = this.providedArgumentsInvoker.bindArguments(providedArgs);
+			if (args != null) {
+				return this.providedArgumentsInvoker.invoke(args);
+			}
+		}
 		if (this.invokerHandlerMethod != null) {
 			return this.invokerHandlerMethod.invoke(message, providedArgs); // NOSONAR
 		}
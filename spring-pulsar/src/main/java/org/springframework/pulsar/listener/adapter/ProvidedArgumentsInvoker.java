@@ -0,0 +1,140 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.listener.adapter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.KotlinDetector;
+import org.springframework.core.MethodParameter;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.handler.invocation.InvocableHandlerMethod;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Invokes a listener method through a {@link MethodHandle} with the arguments provided by
+ * the listener adapter, which bypasses the argument resolvers of the
+ * {@link InvocableHandlerMethod}.
+ * <p>
+ * Only applies to methods whose parameters are all unannotated, in which case the
+ * {@link InvocableHandlerMethod} binds each parameter to the first provided argument of a
+ * matching type without involving any argument resolver. The same binding happens here
+ * but against parameter types that are resolved once, and the arguments are passed to a
+ * method handle rather than through reflection. A parameter that none of the provided
+ * arguments match, such as a payload that needs to be converted, is left to the
+ * {@link InvocableHandlerMethod}.
+ */
+final class ProvidedArgumentsInvoker {
+
+	private final Class<?>[] parameterTypes;
+
+	private final MethodHandle methodHandle;
+
+	private ProvidedArgumentsInvoker(Class<?>[] parameterTypes, MethodHandle methodHandle) {
+		this.parameterTypes = parameterTypes;
+		this.methodHandle = methodHandle;
+	}
+
+	/**
+	 * Create an invoker for the given handler method if it applies.
+	 * @param handlerMethod the handler method
+	 * @return the invoker or {@code null} if the arguments of the method need to be
+	 * resolved by the handler method
+	 */
+	@Nullable
+	static ProvidedArgumentsInvoker of(InvocableHandlerMethod handlerMethod) {
+		// a subclass may customize the invocation
+		if (handlerMethod.getClass() != InvocableHandlerMethod.class) {
+			return null;
+		}
+		Method method = BridgeMethodResolver.findBridgedMethod(handlerMethod.getMethod());
+		if (Modifier.isStatic(method.getModifiers()) || KotlinDetector.isSuspendingFunction(method)) {
+			return null;
+		}
+		MethodParameter[] parameters = handlerMethod.getMethodParameters();
+		Class<?>[] parameterTypes = new Class<?>[parameters.length];
+		for (int i = 0; i < parameters.length; i++) {
+			if (parameters[i].hasParameterAnnotations()) {
+				return null;
+			}
+			parameterTypes[i] = parameters[i].getParameterType();
+		}
+		try {
+			ReflectionUtils.makeAccessible(method);
+			MethodHandle methodHandle = MethodHandles.lookup().unreflect(method).bindTo(handlerMethod.getBean())
+					.asType(MethodType.genericMethodType(parameters.length))
+					.asSpreader(Object[].class, parameters.length);
+			return new ProvidedArgumentsInvoker(parameterTypes, methodHandle);
+		}
+		catch (IllegalAccessException | RuntimeException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Bind the parameters of the method to the provided arguments.
+	 * @param providedArgs the provided arguments
+	 * @return the arguments or {@code null} if a parameter matches none of the provided
+	 * arguments
+	 */
+	@Nullable
+	Object[] bindArguments(Object... providedArgs) {
+		Object[] args = new Object[this.parameterTypes.length];
+		for (int i = 0; i < this.parameterTypes.length; i++) {
+			Object arg = findProvidedArgument(this.parameterTypes[i], providedArgs);
+			if (arg == null) {
+				return null;
+			}
+			args[i] = arg;
+		}
+		return args;
+	}
+
+	/**
+	 * Invoke the method.
+	 * @param args the arguments as bound by {@link #bindArguments(Object...)}
+	 * @return the value returned by the method
+	 * @throws Exception any exception thrown by the method
+	 */
+	@Nullable
+	Object invoke(Object[] args) throws Exception {
+		try {
+			return this.methodHandle.invokeExact(args);
+		}
+		catch (Exception | Error ex) {
+			throw ex;
+		}
+		catch (Throwable ex) {
+			throw new IllegalStateException("Invocation failure", ex);
+		}
+	}
+
+	@Nullable
+	private static Object findProvidedArgument(Class<?> parameterType, Object... providedArgs) {
+		for (Object providedArg : providedArgs) {
+			if (parameterType.isInstance(providedArg)) {
+				return providedArg;
+			}
+		}
+		return null;
+	}
+
+}
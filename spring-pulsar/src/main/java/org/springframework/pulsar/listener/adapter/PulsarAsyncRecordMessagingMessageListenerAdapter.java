@@ -0,0 +1,95 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.listener.adapter;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.Message;
+
+import org.springframework.lang.Nullable;
+import org.springframework.pulsar.listener.Acknowledgement;
+import org.springframework.pulsar.listener.PulsarAsyncRecordMessageListener;
+import org.springframework.util.ClassUtils;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * A {@link PulsarRecordMessagingMessageListenerAdapter} for handler methods that return a
+ * {@link CompletionStage} or, when Project Reactor is present, a {@link Mono}. The
+ * listener container acknowledges each message once the returned result completes.
+ *
+ * @param <V> payload type.
+ */
+public class PulsarAsyncRecordMessagingMessageListenerAdapter<V> extends PulsarRecordMessagingMessageListenerAdapter<V>
+		implements PulsarAsyncRecordMessageListener<V> {
+
+	private static final boolean MONO_PRESENT = ClassUtils.isPresent("reactor.core.publisher.Mono",
+			PulsarAsyncRecordMessagingMessageListenerAdapter.class.getClassLoader());
+
+	public PulsarAsyncRecordMessagingMessageListenerAdapter(Object bean, Method method) {
+		super(bean, method);
+	}
+
+	/**
+	 * Determine whether a handler method with the given return type should be invoked
+	 * asynchronously.
+	 * @param returnType the return type of the handler method
+	 * @return whether the return type is a {@link CompletionStage} or a {@link Mono}
+	 */
+	public static boolean isAsyncReturnType(Class<?> returnType) {
+		return CompletionStage.class.isAssignableFrom(returnType) || (MONO_PRESENT && MonoAdapter.isMono(returnType));
+	}
+
+	@Override
+	public void received(Consumer<V> consumer, Message<V> msg) {
+		throw new UnsupportedOperationException("Not supported.");
+	}
+
+	@Override
+	public void received(Consumer<V> consumer, Message<V> record, @Nullable Acknowledgement acknowledgement) {
+		receivedAsync(consumer, record, acknowledgement).join();
+	}
+
+	@Override
+	public CompletableFuture<?> receivedAsync(Consumer<V> consumer, Message<V> record,
+			@Nullable Acknowledgement acknowledgement) {
+		Object result = invokeRecordHandler(consumer, record, acknowledgement);
+		if (result instanceof CompletionStage<?> stage) {
+			return stage.toCompletableFuture();
+		}
+		if (result != null && MONO_PRESENT && MonoAdapter.isMono(result.getClass())) {
+			return MonoAdapter.toFuture(result);
+		}
+		return CompletableFuture.completedFuture(result);
+	}
+
+	private static final class MonoAdapter {
+
+		static boolean isMono(Class<?> type) {
+			return Mono.class.isAssignableFrom(type);
+		}
+
+		static CompletableFuture<?> toFuture(Object mono) {
+			return ((Mono<?>) mono).toFuture();
+		}
+
+	}
+
+}
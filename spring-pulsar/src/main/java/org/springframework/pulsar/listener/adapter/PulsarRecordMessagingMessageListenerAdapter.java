@@ -43,6 +43,19 @@ public class PulsarRecordMessagingMessageListenerAdapter<V> extends PulsarMessag
 
 	@Override
 	public void received(Consumer<V> consumer, Message<V> record, @Nullable Acknowledgement acknowledgement) {
+		invokeRecordHandler(consumer, record, acknowledgement);
+	}
+
+	/**
+	 * Invoke the handler method for the given record.
+	 * @param consumer the consumer that received the record
+	 * @param record the record
+	 * @param acknowledgement the acknowledgement or {@code null}
+	 * @return the result of the handler method
+	 */
+	@Nullable
+	protected Object invokeRecordHandler(Consumer<V> consumer, Message<V> record,
+			@Nullable Acknowledgement acknowledgement) {
 		org.springframework.messaging.Message<?> message = null;
 		Object theRecord = record;
 		if (isHeaderFound() || isSpringMessage()) {
@@ -55,12 +68,7 @@ public class PulsarRecordMessagingMessageListenerAdapter<V> extends PulsarMessag
 		if (logger.isDebugEnabled()) {
 			this.logger.debug("Processing [" + message + "]");
 		}
-		try {
-			invokeHandler(theRecord, message, consumer, acknowledgement);
-		}
-		catch (Exception e) {
-			throw e;
-		}
+		return invokeHandler(theRecord, message, consumer, acknowledgement);
 	}
 
 }
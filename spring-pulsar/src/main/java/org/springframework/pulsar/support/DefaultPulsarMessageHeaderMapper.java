@@ -20,6 +20,8 @@ import java.util.Map;
 
 import org.apache.pulsar.client.api.Message;
 
+import org.springframework.messaging.MessageHeaders;
+
 /**
  * Implementation of {@link PulsarMessageHeaderMapper}.
  *
@@ -27,6 +29,18 @@ import org.apache.pulsar.client.api.Message;
  */
 public class DefaultPulsarMessageHeaderMapper implements PulsarMessageHeaderMapper {
 
+	private boolean lazyHeaders = true;
+
+	/**
+	 * Set whether the headers returned by {@link #toHeaders(Message)} read the message
+	 * lazily. Set to false when the message may be released before its headers are read,
+	 * as is the case with pooled messages. Default true.
+	 * @param lazyHeaders whether to read the headers lazily
+	 */
+	public void setLazyHeaders(boolean lazyHeaders) {
+		this.lazyHeaders = lazyHeaders;
+	}
+
 	@Override
 	public void toHeaders(Message<?> source, Map<String, Object> target) {
 		target.putAll(source.getProperties());
@@ -54,4 +68,21 @@ public class DefaultPulsarMessageHeaderMapper implements PulsarMessageHeaderMapp
 		target.put(PulsarHeaders.TOPIC_NAME, source.getTopicName());
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Unless {@link #setLazyHeaders(boolean) turned off}, the returned headers read the
+	 * message lazily: each header is only read from the message when first accessed, so
+	 * that, in particular, the payload is not copied into the
+	 * {@link PulsarHeaders#RAW_DATA} header unless requested. Subclasses that override
+	 * {@link #toHeaders(Message, Map)} should also override this method.
+	 */
+	@Override
+	public MessageHeaders toHeaders(Message<?> source) {
+		if (!this.lazyHeaders) {
+			return PulsarMessageHeaderMapper.super.toHeaders(source);
+		}
+		return new PulsarMessageHeaders(source);
+	}
+
 }
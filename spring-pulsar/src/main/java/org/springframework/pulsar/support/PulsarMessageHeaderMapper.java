@@ -16,10 +16,13 @@
 
 package org.springframework.pulsar.support;
 
+import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.pulsar.client.api.Message;
 
+import org.springframework.messaging.MessageHeaders;
+
 /**
  * API for Pulsar message header mapper.
  *
@@ -35,4 +38,17 @@ public interface PulsarMessageHeaderMapper {
 	 */
 	void toHeaders(Message<?> source, Map<String, Object> target);
 
+	/**
+	 * Map from the given message metadata to the headers of the eventual
+	 * {@link org.springframework.messaging.Message}. By default, the headers are those
+	 * mapped by {@link #toHeaders(Message, Map)}.
+	 * @param source Pulsar message.
+	 * @return the message headers.
+	 */
+	default MessageHeaders toHeaders(Message<?> source) {
+		Map<String, Object> headers = new HashMap<>();
+		toHeaders(source, headers);
+		return new MessageHeaders(headers);
+	}
+
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.support;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.apache.pulsar.client.api.Message;
+
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.MessageHeaders;
+
+/**
+ * {@link MessageHeaders} backed by a Pulsar {@link Message} that only reads the headers
+ * that are actually requested.
+ * <p>
+ * The headers hold the same values as the ones mapped by
+ * {@link DefaultPulsarMessageHeaderMapper#toHeaders(Message, Map)}, but a Pulsar header
+ * is only read from the message, and cached, on its first access, so that the payload is
+ * only copied when {@link PulsarHeaders#RAW_DATA} is requested. Any operation that
+ * involves all the headers, such as {@link #entrySet()} or {@link #equals(Object)}, first
+ * reads all of them and releases the message.
+ */
+final class PulsarMessageHeaders extends MessageHeaders {
+
+	private static final Map<String, Header> HEADERS = new LinkedHashMap<>();
+
+	static {
+		HEADERS.put(PulsarHeaders.KEY, new Header(Message::hasKey, Message::getKey));
+		HEADERS.put(PulsarHeaders.KEY_BYTES, new Header(Message::hasKey, Message::getKeyBytes));
+		HEADERS.put(PulsarHeaders.ORDERING_KEY, new Header(Message::hasOrderingKey, Message::getOrderingKey));
+		HEADERS.put(PulsarHeaders.INDEX, new Header(Message::hasIndex, Message::getIndex));
+		HEADERS.put(PulsarHeaders.MESSAGE_ID, Header.of(Message::getMessageId));
+		HEADERS.put(PulsarHeaders.BROKER_PUBLISH_TIME, Header.of(Message::getBrokerPublishTime));
+		HEADERS.put(PulsarHeaders.EVENT_TIME, Header.of(Message::getEventTime));
+		HEADERS.put(PulsarHeaders.MESSAGE_SIZE, Header.of(Message::size));
+		HEADERS.put(PulsarHeaders.PRODUCER_NAME, Header.of(Message::getProducerName));
+		HEADERS.put(PulsarHeaders.RAW_DATA, Header.of(Message::getData));
+		HEADERS.put(PulsarHeaders.PUBLISH_TIME, Header.of(Message::getPublishTime));
+		HEADERS.put(PulsarHeaders.REDELIVERY_COUNT, Header.of(Message::getRedeliveryCount));
+		HEADERS.put(PulsarHeaders.REPLICATED_FROM, Header.of(Message::getReplicatedFrom));
+		HEADERS.put(PulsarHeaders.SCHEMA_VERSION, Header.of(Message::getSchemaVersion));
+		HEADERS.put(PulsarHeaders.SEQUENCE_ID, Header.of(Message::getSequenceId));
+		HEADERS.put(PulsarHeaders.TOPIC_NAME, Header.of(Message::getTopicName));
+	}
+
+	/**
+	 * The message to read the headers from, {@code null} once all the headers were read.
+	 */
+	@Nullable
+	private transient volatile Message<?> source;
+
+	/**
+	 * Construct the headers of a message.
+	 * @param source the Pulsar message
+	 */
+	PulsarMessageHeaders(Message<?> source) {
+		super(null);
+		this.source = source;
+	}
+
+	@Override
+	@Nullable
+	public Object get(Object key) {
+		if (this.source == null) {
+			return super.get(key);
+		}
+		synchronized (this) {
+			Message<?> message = this.source;
+			Map<String, Object> headers = getRawHeaders();
+			if (message == null || headers.containsKey(key)) {
+				return headers.get(key);
+			}
+			Header header = HEADERS.get(key);
+			if (header == null || !header.present().test(message)) {
+				return message.getProperties().get(key);
+			}
+			Object value = header.value().apply(message);
+			headers.put((String) key, value);
+			return value;
+		}
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		Message<?> message = this.source;
+		if (message == null || ID.equals(key) || TIMESTAMP.equals(key)) {
+			return super.containsKey(key);
+		}
+		Header header = HEADERS.get(key);
+		return (header != null && header.present().test(message)) || message.getProperties().containsKey(key);
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		readAll();
+		return super.containsValue(value);
+	}
+
+	@Override
+	public Set<String> keySet() {
+		readAll();
+		return super.keySet();
+	}
+
+	@Override
+	public Set<Map.Entry<String, Object>> entrySet() {
+		readAll();
+		return super.entrySet();
+	}
+
+	@Override
+	public Collection<Object> values() {
+		readAll();
+		return super.values();
+	}
+
+	@Override
+	public int size() {
+		readAll();
+		return super.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return false;
+	}
+
+	@Override
+	public boolean equals(@Nullable Object other) {
+		readAll();
+		return super.equals(other);
+	}
+
+	@Override
+	public int hashCode() {
+		readAll();
+		return super.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		readAll();
+		return super.toString();
+	}
+
+	private void readAll() {
+		if (this.source == null) {
+			return;
+		}
+		synchronized (this) {
+			Message<?> message = this.source;
+			if (message == null) {
+				return;
+			}
+			Map<String, Object> headers = getRawHeaders();
+			HEADERS.forEach((name, header) -> {
+				if (!headers.containsKey(name) && header.present().test(message)) {
+					headers.put(name, header.value().apply(message));
+				}
+			});
+			// the Pulsar headers and the id and timestamp take precedence over the
+			// message properties
+			message.getProperties().forEach(headers::putIfAbsent);
+			this.source = null;
+		}
+	}
+
+	private Object writeReplace() {
+		readAll();
+		return this;
+	}
+
+	private record Header(Predicate<Message<?>> present, Function<Message<?>, Object> value) {
+
+		static Header of(Function<Message<?>, Object> value) {
+			return new Header((message) -> true, value);
+		}
+
+	}
+
+}
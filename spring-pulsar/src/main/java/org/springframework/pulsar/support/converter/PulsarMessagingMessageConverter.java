@@ -17,8 +17,6 @@
 package org.springframework.pulsar.support.converter;
 
 import java.lang.reflect.Type;
-import java.util.HashMap;
-import java.util.Map;
 
 import org.apache.pulsar.client.api.Consumer;
 
@@ -49,12 +47,8 @@ public class PulsarMessagingMessageConverter<V> implements PulsarRecordMessageCo
 	@Override
 	public Message<?> toMessage(org.apache.pulsar.client.api.Message<V> record, Consumer<V> consumer, Type type) {
 
-		Map<String, Object> messageHeaders = new HashMap<>();
-		this.pulsarMessageHeaderMapper.toHeaders(record, messageHeaders);
-		Message<?> message = MessageBuilder.createMessage(extractAndConvertValue(record),
-				new MessageHeaders(messageHeaders));
-
-		return message;
+		MessageHeaders messageHeaders = this.pulsarMessageHeaderMapper.toHeaders(record);
+		return MessageBuilder.createMessage(extractAndConvertValue(record), messageHeaders);
 	}
 
 	protected org.springframework.messaging.converter.MessageConverter getMessagingConverter() {
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.pulsar.listener.MessageListenerContainer;
+
+/**
+ * Tests for {@link ListenerEndpointRegistry}.
+ */
+class ListenerEndpointRegistryTests {
+
+	private final ListenerEndpointRegistry<MessageListenerContainer, ListenerEndpoint<MessageListenerContainer>> registry = new ListenerEndpointRegistry<>(
+			MessageListenerContainer.class);
+
+	@Test
+	void containersAreStartedConcurrently() throws Exception {
+		// each container only starts once the other ones are starting as well
+		CyclicBarrier barrier = new CyclicBarrier(3);
+		List<MessageListenerContainer> containers = registerContainers(3);
+		for (MessageListenerContainer container : containers) {
+			doAnswer((invocation) -> barrier.await(10, TimeUnit.SECONDS)).when(container).start();
+		}
+		this.registry.setStartupParallelism(3);
+		this.registry.start();
+		assertThat(this.registry.isRunning()).isTrue();
+		containers.forEach((container) -> verify(container).start());
+	}
+
+	@Test
+	void allContainersAreStartedBeforeFailureIsThrown() throws Exception {
+		List<MessageListenerContainer> containers = registerContainers(4);
+		doThrow(new IllegalStateException("failed")).when(containers.get(1)).start();
+		this.registry.setStartupParallelism(2);
+		assertThatIllegalStateException().isThrownBy(this.registry::start).withMessage("failed");
+		containers.forEach((container) -> verify(container).start());
+	}
+
+	@Test
+	void containersAreStartedSequentiallyByDefault() throws Exception {
+		List<MessageListenerContainer> containers = registerContainers(2);
+		List<Thread> startThreads = new ArrayList<>();
+		for (MessageListenerContainer container : containers) {
+			doAnswer((invocation) -> startThreads.add(Thread.currentThread())).when(container).start();
+		}
+		this.registry.start();
+		assertThat(startThreads).containsOnly(Thread.currentThread()).hasSize(2);
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<MessageListenerContainer> registerContainers(int count) {
+		List<MessageListenerContainer> containers = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			ListenerEndpoint<MessageListenerContainer> endpoint = mock(ListenerEndpoint.class);
+			when(endpoint.getId()).thenReturn("endpoint-" + i);
+			when(endpoint.getSubscriptionName()).thenReturn("subscription-" + i);
+			MessageListenerContainer container = mock(MessageListenerContainer.class);
+			when(container.isAutoStartup()).thenReturn(true);
+			ListenerContainerFactory<MessageListenerContainer, ListenerEndpoint<MessageListenerContainer>> factory = mock(
+					ListenerContainerFactory.class);
+			when(factory.createListenerContainer(endpoint)).thenReturn(container);
+			this.registry.registerListenerContainer(endpoint, factory);
+			containers.add(container);
+		}
+		return containers;
+	}
+
+}
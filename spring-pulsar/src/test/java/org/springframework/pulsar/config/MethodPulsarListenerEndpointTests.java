@@ -0,0 +1,114 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.impl.MessageIdImpl;
+import org.apache.pulsar.common.schema.SchemaType;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+import org.springframework.pulsar.core.PulsarConsumerFactory;
+import org.springframework.pulsar.listener.ConcurrentPulsarMessageListenerContainer;
+import org.springframework.pulsar.listener.PulsarContainerProperties;
+import org.springframework.pulsar.listener.adapter.PulsarRecordMessagingMessageListenerAdapter;
+import org.springframework.pulsar.support.PulsarHeaders;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Tests for {@link MethodPulsarListenerEndpoint}.
+ */
+@SuppressWarnings("unchecked")
+class MethodPulsarListenerEndpointTests {
+
+	private final HeadersListener listener = new HeadersListener();
+
+	@Test
+	void headersOfPooledMessagesCanBeReadOnceMessageIsReleased() {
+		PulsarContainerProperties containerProperties = new PulsarContainerProperties("topic1");
+		containerProperties.setPoolMessages(true);
+		Message<String> message = message();
+		createMessageListener(containerProperties).received(mock(Consumer.class), message, null);
+		// the container releases the message once acknowledged and the pool recycles it
+		reset(message);
+		MessageHeaders headers = this.listener.messages.get(0).getHeaders();
+		assertThat(headers.get(PulsarHeaders.KEY)).isEqualTo("key1");
+		assertThat(headers.get(PulsarHeaders.RAW_DATA)).isEqualTo(new byte[] { 1, 2, 3 });
+		assertThat(headers.get("prop1")).isEqualTo("value1");
+	}
+
+	@Test
+	void headersOfMessagesThatAreNotPooledAreReadWhenRequested() {
+		PulsarContainerProperties containerProperties = new PulsarContainerProperties("topic1");
+		Message<String> message = message();
+		createMessageListener(containerProperties).received(mock(Consumer.class), message, null);
+		verify(message, never()).getData();
+		assertThat(this.listener.messages.get(0).getHeaders().get(PulsarHeaders.RAW_DATA))
+				.isEqualTo(new byte[] { 1, 2, 3 });
+	}
+
+	private PulsarRecordMessagingMessageListenerAdapter<String> createMessageListener(
+			PulsarContainerProperties containerProperties) {
+		containerProperties.setSchemaType(SchemaType.STRING);
+		DefaultMessageHandlerMethodFactory messageHandlerMethodFactory = new DefaultMessageHandlerMethodFactory();
+		messageHandlerMethodFactory.afterPropertiesSet();
+		MethodPulsarListenerEndpoint<String> endpoint = new MethodPulsarListenerEndpoint<>();
+		endpoint.setBean(this.listener);
+		endpoint.setMethod(ReflectionUtils.findMethod(HeadersListener.class, "listen",
+				org.springframework.messaging.Message.class));
+		endpoint.setMessageHandlerMethodFactory(messageHandlerMethodFactory);
+		ConcurrentPulsarMessageListenerContainer<String> container = new ConcurrentPulsarMessageListenerContainer<>(
+				mock(PulsarConsumerFactory.class), containerProperties, null);
+		return (PulsarRecordMessagingMessageListenerAdapter<String>) endpoint.createMessageListener(container, null);
+	}
+
+	private Message<String> message() {
+		Message<String> message = mock(Message.class);
+		when(message.getValue()).thenReturn("hello");
+		when(message.getProperties()).thenReturn(Map.of("prop1", "value1"));
+		when(message.hasKey()).thenReturn(true);
+		when(message.getKey()).thenReturn("key1");
+		when(message.getMessageId()).thenReturn(new MessageIdImpl(1, 2, -1));
+		when(message.getTopicName()).thenReturn("topic1");
+		when(message.getData()).thenAnswer((invocation) -> new byte[] { 1, 2, 3 });
+		return message;
+	}
+
+	static class HeadersListener {
+
+		private final List<org.springframework.messaging.Message<String>> messages = new CopyOnWriteArrayList<>();
+
+		void listen(org.springframework.messaging.Message<String> message) {
+			this.messages.add(message);
+		}
+
+	}
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.pulsar.client.api.Producer;
+import org.apache.pulsar.client.api.ProducerBuilder;
+import org.apache.pulsar.client.api.ProducerStats;
+import org.apache.pulsar.client.api.PulsarClient;
+import org.apache.pulsar.client.api.Schema;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tests for {@link CachingPulsarProducerFactoryMeterBinder}.
+ */
+class CachingPulsarProducerFactoryMeterBinderTests {
+
+	private final MeterRegistry registry = new SimpleMeterRegistry();
+
+	private CachingPulsarProducerFactory<String> producerFactory;
+
+	private CachingPulsarProducerFactoryMeterBinder meterBinder;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void createProducerFactory() throws Exception {
+		ProducerStats stats = mock(ProducerStats.class);
+		when(stats.getPendingQueueSize()).thenReturn(5);
+		when(stats.getSendLatencyMillis99pct()).thenReturn(12.5);
+		Producer<String> producer = mock(Producer.class);
+		when(producer.getTopic()).thenReturn("topic1");
+		when(producer.getProducerName()).thenReturn("producer1");
+		when(producer.getStats()).thenReturn(stats);
+		when(producer.closeAsync()).thenReturn(CompletableFuture.completedFuture(null));
+		ProducerBuilder<String> producerBuilder = mock(ProducerBuilder.class, Answers.RETURNS_SELF);
+		when(producerBuilder.create()).thenReturn(producer);
+		PulsarClient pulsarClient = mock(PulsarClient.class);
+		when(pulsarClient.newProducer(any(Schema.class))).thenReturn(producerBuilder);
+		this.producerFactory = new CachingPulsarProducerFactory<>(pulsarClient, Collections.emptyMap(),
+				Duration.ofMinutes(1), 10L, 2);
+		this.meterBinder = new CachingPulsarProducerFactoryMeterBinder(this.producerFactory, Collections.emptyList(),
+				Duration.ofMillis(50));
+		this.meterBinder.bindTo(this.registry);
+	}
+
+	@AfterEach
+	void closeMeterBinder() {
+		this.meterBinder.close();
+		this.producerFactory.destroy();
+	}
+
+	@Test
+	void cacheHitsMissesAndSizeAreBound() throws Exception {
+		this.producerFactory.createProducer(Schema.STRING, "topic1");
+		this.producerFactory.createProducer(Schema.STRING, "topic1");
+		assertThat(this.registry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+		assertThat(this.registry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+		assertThat(this.registry.get("cache.size").gauge().value()).isEqualTo(1);
+	}
+
+	@Test
+	void evictionsAreBoundByCause() {
+		assertThat(this.registry.get("spring.pulsar.producer.cache.evictions").functionCounters())
+				.extracting((counter) -> counter.getId().getTag("cause"))
+				.containsExactlyInAnyOrder("collected", "expired", "size");
+	}
+
+	@Test
+	void producerCreationTimeIsRecordedByTopic() throws Exception {
+		this.producerFactory.createProducer(Schema.STRING, "topic1");
+		this.producerFactory.createProducer(Schema.STRING, "topic1");
+		assertThat(this.registry.get("spring.pulsar.producer.cache.creation").tag("topic", "topic1").timer().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void producerStatsArePublishedForCachedProducers() throws Exception {
+		this.producerFactory.createProducer(Schema.STRING, "topic1");
+		Tags producerTags = Tags.of("topic", "topic1", "producer", "producer1");
+		Awaitility.await().timeout(Duration.ofSeconds(5)).untilAsserted(() -> {
+			assertThat(
+					this.registry.get("spring.pulsar.producer.pending.queue.size").tags(producerTags).gauge().value())
+							.isEqualTo(5);
+			assertThat(this.registry.get("spring.pulsar.producer.send.latency").tags(producerTags)
+					.tag("quantile", "0.99").gauge().value()).isEqualTo(12.5);
+		});
+	}
+
+	@Test
+	void producerCreationIsNotRecordedAfterClose() throws Exception {
+		this.meterBinder.close();
+		this.producerFactory.createProducer(Schema.STRING, "topic1");
+		assertThat(this.registry.find("spring.pulsar.producer.cache.creation").timer()).isNull();
+	}
+
+}
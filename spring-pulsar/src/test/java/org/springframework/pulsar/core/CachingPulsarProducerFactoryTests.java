@@ -19,7 +19,10 @@ package org.springframework.pulsar.core;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.Duration;
@@ -29,12 +32,17 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
+import org.apache.pulsar.client.api.MessageId;
 import org.apache.pulsar.client.api.Producer;
+import org.apache.pulsar.client.api.ProducerBuilder;
 import org.apache.pulsar.client.api.PulsarClient;
 import org.apache.pulsar.client.api.PulsarClientException;
 import org.apache.pulsar.client.api.Schema;
+import org.apache.pulsar.client.api.TypedMessageBuilder;
+import org.apache.pulsar.client.api.interceptor.ProducerInterceptor;
 import org.apache.pulsar.client.impl.schema.StringSchema;
 import org.awaitility.Awaitility;
 import org.junit.jupiter.api.AfterEach;
@@ -45,9 +53,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.Answers;
 
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.pulsar.core.CachingPulsarProducerFactory.LeasedProducer;
 import org.springframework.pulsar.core.CachingPulsarProducerFactory.ProducerCacheKey;
 import org.springframework.pulsar.core.CachingPulsarProducerFactory.ProducerWithCloseCallback;
+import org.springframework.pulsar.core.PulsarTemplate.InterceptorsCustomizer;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.util.ObjectUtils;
 
@@ -82,12 +94,13 @@ class CachingPulsarProducerFactoryTests extends PulsarProducerFactoryTests {
 		Producer<String> producer1 = producerFactory.createProducer(schema, "topic1");
 		Producer<String> producer2 = producerFactory.createProducer(new StringSchema(), "topic1");
 		Producer<String> producer3 = producerFactory.createProducer(new StringSchema(), "topic1");
-		assertThat(producer1).isSameAs(producer2).isSameAs(producer3);
+		assertThat(cachedProducerFrom(producer1)).isSameAs(cachedProducerFrom(producer2))
+				.isSameAs(cachedProducerFrom(producer3));
 
 		Cache<ProducerCacheKey<String>, Producer<String>> producerCache = getAssertedProducerCache(producerFactory,
 				Collections.singletonList(cacheKey));
 		Producer<String> cachedProducerWrapper = producerCache.asMap().get(cacheKey);
-		assertThat(cachedProducerWrapper).isSameAs(producer1);
+		assertThat(cachedProducerWrapper).isSameAs(cachedProducerFrom(producer1));
 	}
 
 	@Test
@@ -194,7 +207,9 @@ class CachingPulsarProducerFactoryTests extends PulsarProducerFactoryTests {
 				Collections.emptyMap(), Duration.ofSeconds(3L), 10L, 2);
 		ProducerCacheKey<String> cacheKey = new ProducerCacheKey<>(schema, "topic1", null, null);
 
-		Producer<String> actualProducer = actualProducerFrom(producerFactory.createProducer(schema, "topic1"));
+		Producer<String> producer = producerFactory.createProducer(schema, "topic1");
+		Producer<String> actualProducer = actualProducerFrom(producer);
+		producer.close();
 
 		Cache<ProducerCacheKey<String>, Producer<String>> producerCache = getAssertedProducerCache(producerFactory,
 				Collections.singletonList(cacheKey));
@@ -214,6 +229,200 @@ class CachingPulsarProducerFactoryTests extends PulsarProducerFactoryTests {
 		getAssertedProducerCache(producerFactory, Collections.emptyList());
 	}
 
+	@Test
+	void prewarmTopicsCreateProducersOnInitialization() throws PulsarClientException {
+		CachingPulsarProducerFactory<String> producerFactory = producerFactory(pulsarClient, Collections.emptyMap());
+		producerFactory.addPrewarmTopic("topic1", schema);
+		producerFactory.addPrewarmTopic("topic2", schema);
+		producerFactory.afterSingletonsInstantiated();
+		ProducerCacheKey<String> cacheKey1 = new ProducerCacheKey<>(schema, "topic1", null, Collections.emptyList());
+		ProducerCacheKey<String> cacheKey2 = new ProducerCacheKey<>(schema, "topic2", null, Collections.emptyList());
+		Cache<ProducerCacheKey<String>, Producer<String>> producerCache = getAssertedProducerCache(producerFactory,
+				Arrays.asList(cacheKey1, cacheKey2));
+		assertThat(cachedProducerFrom(producerFactory.createProducer(schema, "topic1", null, Collections.emptyList())))
+				.isSameAs(producerCache.asMap().get(cacheKey1));
+	}
+
+	@Test
+	void prewarmTopicBeansCreateProducersOnInitialization() {
+		CachingPulsarProducerFactory<String> producerFactory = producerFactory(pulsarClient, Collections.emptyMap());
+		producerFactory.addPrewarmTopic("topic1", schema);
+		try (GenericApplicationContext context = new GenericApplicationContext()) {
+			context.registerBean("topic1", PulsarTopic.class, () -> PulsarTopic.builder("topic1").build());
+			context.registerBean("topic2", PulsarTopic.class, () -> PulsarTopic.builder("topic2").build());
+			context.refresh();
+			producerFactory.setApplicationContext(context);
+			producerFactory.setPrewarmTopicBeansSchema(schema);
+			producerFactory.afterSingletonsInstantiated();
+		}
+		getAssertedProducerCache(producerFactory,
+				Arrays.asList(new ProducerCacheKey<>(schema, "topic1", null, Collections.emptyList()),
+						new ProducerCacheKey<>(schema, "topic2", null, Collections.emptyList())));
+	}
+
+	@Test
+	void prewarmFailureDoesNotFailInitialization() {
+		pulsarClient = spy(pulsarClient);
+		when(this.pulsarClient.newProducer(schema)).thenThrow(new RuntimeException("5150"));
+		CachingPulsarProducerFactory<String> producerFactory = producerFactory(pulsarClient, Collections.emptyMap());
+		producerFactory.addPrewarmTopic("topic1", schema);
+		producerFactory.afterSingletonsInstantiated();
+		getAssertedProducerCache(producerFactory, Collections.emptyList());
+	}
+
+	@Test
+	void stripedTopicCreatesProducerPerStripe() throws PulsarClientException {
+		CachingPulsarProducerFactory<String> producerFactory = producerFactory(pulsarClient,
+				Collections.singletonMap("producerName", "striped"));
+		producerFactory.setProducerStripes("topic1", 3);
+		ProducerCacheKey<String> cacheKey = new ProducerCacheKey<>(schema, "topic1", null, null);
+
+		Producer<String> producer = producerFactory.createProducer(schema, "topic1");
+		assertThat(cachedProducerFrom(producerFactory.createProducer(schema, "topic1")))
+				.isSameAs(cachedProducerFrom(producer));
+		getAssertedProducerCache(producerFactory, Collections.singletonList(cacheKey));
+
+		Producer<String> actualProducer = actualProducerFrom(producer);
+		assertThat(actualProducer).isInstanceOf(StripedProducer.class);
+		List<Producer<String>> stripes = ((StripedProducer<String>) actualProducer).getProducers();
+		assertThat(stripes).extracting(Producer::getProducerName).containsExactly("striped-0", "striped-1",
+				"striped-2");
+		assertThat(producer.newMessage().key("key-1").value("msg").send()).isNotNull();
+
+		producerFactory.destroy();
+		Awaitility.await().timeout(Duration.ofSeconds(5L))
+				.untilAsserted(() -> assertThat(stripes).noneMatch(Producer::isConnected));
+	}
+
+	@Test
+	void evictedProducerIsClosedOnceSendsInFlightComplete() throws PulsarClientException {
+		CompletableFuture<MessageId> sendFuture = new CompletableFuture<>();
+		Producer<String> actualProducer = mockProducer(sendFuture);
+		CachingPulsarProducerFactory<String> producerFactory = producerFactory(mockClient(actualProducer), 1L);
+
+		sendAndClose(producerFactory.createProducer(schema, "topic1"));
+		producerFactory.createProducer(schema, "topic2");
+		producerFactory.getProducerCache().cleanUp();
+		assertThat(producerFactory.getProducerCache().asMap()).hasSize(1);
+		verify(actualProducer, never()).closeAsync();
+
+		sendFuture.complete(MessageId.earliest);
+		verify(actualProducer).closeAsync();
+	}
+
+	@Test
+	void producerEvictedBetweenCheckoutAndSendIsClosedOnceClosedByCaller() throws PulsarClientException {
+		Producer<String> actualProducer = mockProducer(CompletableFuture.completedFuture(MessageId.earliest));
+		CachingPulsarProducerFactory<String> producerFactory = producerFactory(mockClient(actualProducer), 1L);
+
+		Producer<String> producer = producerFactory.createProducer(schema, "topic1");
+		producerFactory.createProducer(schema, "topic2");
+		producerFactory.getProducerCache().cleanUp();
+		assertThat(producerFactory.getProducerCache().asMap()).hasSize(1);
+		verify(actualProducer, never()).closeAsync();
+
+		assertThat(producer.newMessage().value("msg").sendAsync()).isCompletedWithValue(MessageId.earliest);
+		verify(actualProducer, never()).closeAsync();
+		producer.close();
+		verify(actualProducer).closeAsync();
+	}
+
+	@Test
+	void producerClosedMoreThanOnceDoesNotReleaseLaterCheckouts() throws PulsarClientException {
+		Producer<String> actualProducer = mockProducer(CompletableFuture.completedFuture(MessageId.earliest));
+		CachingPulsarProducerFactory<String> producerFactory = producerFactory(mockClient(actualProducer), 1L);
+
+		Producer<String> producer = producerFactory.createProducer(schema, "topic1");
+		producer.close();
+		producer.close();
+		Producer<String> sameProducer = producerFactory.createProducer(schema, "topic1");
+		producerFactory.createProducer(schema, "topic2");
+		producerFactory.getProducerCache().cleanUp();
+		verify(actualProducer, never()).closeAsync();
+
+		sameProducer.close();
+		verify(actualProducer).closeAsync();
+	}
+
+	@Test
+	void producerClosedMoreThanOnceDoesNotReleaseOtherCheckouts() throws PulsarClientException {
+		CompletableFuture<MessageId> sendFuture = new CompletableFuture<>();
+		Producer<String> actualProducer = mockProducer(sendFuture);
+		CachingPulsarProducerFactory<String> producerFactory = producerFactory(mockClient(actualProducer), 1L);
+
+		Producer<String> producer = producerFactory.createProducer(schema, "topic1");
+		Producer<String> otherProducer = producerFactory.createProducer(schema, "topic1");
+		producerFactory.createProducer(schema, "topic2");
+		producerFactory.getProducerCache().cleanUp();
+		producer.close();
+		producer.closeAsync();
+		verify(actualProducer, never()).closeAsync();
+
+		sendAndClose(otherProducer);
+		otherProducer.close();
+		verify(actualProducer, never()).closeAsync();
+		sendFuture.complete(MessageId.earliest);
+		verify(actualProducer).closeAsync();
+	}
+
+	@Test
+	void evictedProducerIsClosedAfterDrainTimeout() throws PulsarClientException {
+		Producer<String> actualProducer = mockProducer(new CompletableFuture<>());
+		CachingPulsarProducerFactory<String> producerFactory = producerFactory(mockClient(actualProducer), 1L);
+		producerFactory.setEvictionDrainTimeout(Duration.ofMillis(200));
+
+		sendAndClose(producerFactory.createProducer(schema, "topic1"));
+		producerFactory.createProducer(schema, "topic2");
+		producerFactory.getProducerCache().cleanUp();
+		verify(actualProducer, never()).closeAsync();
+
+		Awaitility.await().timeout(Duration.ofSeconds(5L)).untilAsserted(() -> verify(actualProducer).closeAsync());
+	}
+
+	@Test
+	void evictedProducerWithoutSendsInFlightIsClosedRightAway() throws PulsarClientException {
+		Producer<String> actualProducer = mockProducer(CompletableFuture.completedFuture(MessageId.earliest));
+		CachingPulsarProducerFactory<String> producerFactory = producerFactory(mockClient(actualProducer), 1L);
+
+		sendAndClose(producerFactory.createProducer(schema, "topic1"));
+		producerFactory.createProducer(schema, "topic2");
+		producerFactory.getProducerCache().cleanUp();
+		verify(actualProducer).closeAsync();
+	}
+
+	private void sendAndClose(Producer<String> producer) {
+		// Return the checkout before the send completes
+		producer.newMessage().value("msg").sendAsync();
+		producer.closeAsync();
+	}
+
+	@SuppressWarnings("unchecked")
+	private Producer<String> mockProducer(CompletableFuture<MessageId> sendFuture) {
+		TypedMessageBuilder<String> messageBuilder = mock(TypedMessageBuilder.class, Answers.RETURNS_SELF);
+		when(messageBuilder.sendAsync()).thenReturn(sendFuture);
+		Producer<String> producer = mock(Producer.class);
+		when(producer.newMessage()).thenReturn(messageBuilder);
+		when(producer.closeAsync()).thenReturn(CompletableFuture.completedFuture(null));
+		return producer;
+	}
+
+	@SuppressWarnings("unchecked")
+	private PulsarClient mockClient(Producer<String> firstProducer) throws PulsarClientException {
+		Producer<String> otherProducer = mockProducer(new CompletableFuture<>());
+		ProducerBuilder<String> producerBuilder = mock(ProducerBuilder.class, Answers.RETURNS_SELF);
+		when(producerBuilder.create()).thenReturn(firstProducer, otherProducer);
+		PulsarClient client = mock(PulsarClient.class);
+		when(client.newProducer(schema)).thenReturn(producerBuilder);
+		return client;
+	}
+
+	private CachingPulsarProducerFactory<String> producerFactory(PulsarClient client, Long cacheMaximumSize) {
+		CachingPulsarProducerFactory<String> producerFactory = new CachingPulsarProducerFactory<>(client,
+				Collections.emptyMap(), Duration.ofMinutes(1L), cacheMaximumSize, 1);
+		producerFactories.add(producerFactory);
+		return producerFactory;
+	}
+
 	@Override
 	protected void assertProducerHasTopicSchemaAndEncryptionKeys(Producer<String> producer, String topic,
 			Schema<String> schema, Set<String> encryptionKeys) {
@@ -221,10 +430,14 @@ class CachingPulsarProducerFactoryTests extends PulsarProducerFactoryTests {
 				encryptionKeys);
 	}
 
-	@SuppressWarnings("unchecked")
 	private Producer<String> actualProducerFrom(Producer<String> wrappedProducer) {
-		assertThat(wrappedProducer).isInstanceOf(ProducerWithCloseCallback.class);
-		return ((ProducerWithCloseCallback) wrappedProducer).getActualProducer();
+		return cachedProducerFrom(wrappedProducer).getActualProducer();
+	}
+
+	@SuppressWarnings("unchecked")
+	private ProducerWithCloseCallback<String> cachedProducerFrom(Producer<String> leasedProducer) {
+		assertThat(leasedProducer).isInstanceOf(LeasedProducer.class);
+		return ((LeasedProducer<String>) leasedProducer).getCachedProducer();
 	}
 
 	@SuppressWarnings("unchecked")
@@ -278,6 +491,7 @@ class CachingPulsarProducerFactoryTests extends PulsarProducerFactoryTests {
 		static Stream<Arguments> equalsAndHashCodeTestProvider() {
 			Set<String> encryptionKeys1 = Set.of("key1");
 			List<ProducerBuilderCustomizer<String>> customizers1 = List.of(p -> p.property("key", "value"));
+			List<ProducerInterceptor> interceptors1 = List.of(mock(ProducerInterceptor.class));
 			ProducerCacheKey<String> key1 = new ProducerCacheKey<>(Schema.STRING, "topic1", encryptionKeys1,
 					customizers1);
 			return Stream
@@ -321,6 +535,21 @@ class CachingPulsarProducerFactoryTests extends PulsarProducerFactoryTests {
 									new ProducerCacheKey<>(Schema.STRING, "topic1", encryptionKeys1,
 											List.of(p -> p.property("key", "value"))),
 									false),
+							arguments(
+									Named.of("equalInterceptorsCustomizers",
+											new ProducerCacheKey<>(Schema.STRING, "topic1", encryptionKeys1,
+													List.of(new InterceptorsCustomizer<>(interceptors1)))),
+									new ProducerCacheKey<>(Schema.STRING, "topic1", encryptionKeys1,
+											List.of(new InterceptorsCustomizer<>(interceptors1))),
+									true),
+							arguments(
+									Named.of("differentInterceptorsCustomizers",
+											new ProducerCacheKey<>(Schema.STRING, "topic1", encryptionKeys1,
+													List.of(new InterceptorsCustomizer<>(interceptors1)))),
+									new ProducerCacheKey<>(Schema.STRING, "topic1", encryptionKeys1,
+											List.of(new InterceptorsCustomizer<>(
+													List.of(mock(ProducerInterceptor.class))))),
+									false),
 							arguments(
 									Named.of("differentNullInterceptor",
 											new ProducerCacheKey<>(Schema.STRING, "topic1", encryptionKeys1,
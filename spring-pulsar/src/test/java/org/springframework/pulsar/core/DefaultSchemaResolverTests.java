@@ -196,6 +196,30 @@ class DefaultSchemaResolverTests {
 			assertThat(resolver.getSchema(Bar.class, true)).isEqualTo(Schema.BYTES);
 		}
 
+		@Test
+		void customMessageTypesResolvedFromTypeHierarchy() {
+			resolver.addCustomSchemaMapping(BaseMessage.class, Schema.STRING);
+			resolver.addCustomSchemaMapping(MarkerMessage.class, Schema.BOOL);
+			assertThat(resolver.getSchema(SubMessage.class, false)).isEqualTo(Schema.STRING);
+			assertThat(resolver.getSchema(MarkedMessage.class, false)).isEqualTo(Schema.BOOL);
+			// superclass takes precedence over interface
+			assertThat(resolver.getSchema(MarkedSubMessage.class, false)).isEqualTo(Schema.STRING);
+		}
+
+		@Test
+		void resolvedCustomMessageTypesReflectMappingChanges() {
+			resolver.addCustomSchemaMapping(BaseMessage.class, Schema.STRING);
+			resolver.addCustomSchemaMapping(MarkerMessage.class, Schema.BOOL);
+			assertThat(resolver.getSchema(MarkedSubMessage.class, false)).isEqualTo(Schema.STRING);
+			resolver.addCustomSchemaMapping(MarkedSubMessage.class, Schema.INT32);
+			assertThat(resolver.getSchema(MarkedSubMessage.class, false)).isEqualTo(Schema.INT32);
+			resolver.removeCustomMapping(MarkedSubMessage.class);
+			resolver.removeCustomMapping(BaseMessage.class);
+			assertThat(resolver.getSchema(MarkedSubMessage.class, false)).isEqualTo(Schema.BOOL);
+			resolver.removeCustomMapping(MarkerMessage.class);
+			assertThat(resolver.getSchema(MarkedSubMessage.class, false)).isNull();
+		}
+
 	}
 
 	@Nested
@@ -250,6 +274,17 @@ class DefaultSchemaResolverTests {
 					}));
 		}
 
+		@Test
+		void structSchemasAreCached() {
+			assertThat(resolver.getSchema(SchemaType.JSON, ResolvableType.forType(Foo.class)))
+					.isSameAs(resolver.getSchema(SchemaType.JSON, ResolvableType.forType(Foo.class)));
+			assertThat(resolver.getSchema(SchemaType.AVRO, ResolvableType.forType(Foo.class)))
+					.isSameAs(resolver.getSchema(SchemaType.AVRO, ResolvableType.forType(Foo.class)))
+					.isNotSameAs(resolver.getSchema(SchemaType.JSON, ResolvableType.forType(Foo.class)));
+			assertThat(resolver.getSchema(SchemaType.PROTOBUF, ResolvableType.forType(Person.class)))
+					.isSameAs(resolver.getSchema(SchemaType.PROTOBUF, ResolvableType.forType(Person.class)));
+		}
+
 		@ParameterizedTest
 		@EnumSource(value = SchemaType.class, names = { "JSON", "AVRO", "PROTOBUF", "KEY_VALUE" })
 		void structSchemasRequireMessageType(SchemaType schemaType) {
@@ -345,4 +380,24 @@ class DefaultSchemaResolverTests {
 	record Zaa(String value) {
 	}
 
+	interface MarkerMessage {
+
+	}
+
+	static class BaseMessage {
+
+	}
+
+	static class SubMessage extends BaseMessage {
+
+	}
+
+	static class MarkedMessage implements MarkerMessage {
+
+	}
+
+	static class MarkedSubMessage extends SubMessage implements MarkerMessage {
+
+	}
+
 }
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.pulsar.client.api.PulsarClientException;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.pulsar.core.InFlightSendLimiter.OverflowStrategy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for {@link InFlightSendLimiter}.
+ */
+class InFlightSendLimiterTests {
+
+	private static final String TOPIC = "persistent://public/default/limiter-topic";
+
+	@Test
+	void permitsWithinWindowAreAcquiredImmediately() throws Exception {
+		InFlightSendLimiter limiter = new InFlightSendLimiter(2, OverflowStrategy.FAIL);
+		assertThat(limiter.acquire(TOPIC, 1)).isCompletedWithValue(1);
+		assertThat(limiter.acquire(TOPIC, 1)).isCompletedWithValue(1);
+		assertThat(limiter.getPermitsInUse()).isEqualTo(2);
+		limiter.release(TOPIC, 2);
+		assertThat(limiter.getPermitsInUse()).isZero();
+	}
+
+	@Test
+	void failStrategyRejectsWhenWindowIsFull() throws Exception {
+		InFlightSendLimiter limiter = new InFlightSendLimiter(1, OverflowStrategy.FAIL);
+		limiter.acquire(TOPIC, 1);
+		assertThatExceptionOfType(PulsarClientException.ProducerQueueIsFullError.class)
+				.isThrownBy(() -> limiter.acquire(TOPIC, 1)).withMessageContaining(TOPIC);
+		assertThat(limiter.getRejectedCount()).isEqualTo(1);
+		assertThat(limiter.getPermitsInUse()).isEqualTo(1);
+	}
+
+	@Test
+	void delayStrategyCompletesWhenPermitsAreReleased() throws Exception {
+		InFlightSendLimiter limiter = new InFlightSendLimiter(2, OverflowStrategy.DELAY);
+		limiter.acquire(TOPIC, 2);
+		CompletableFuture<Integer> first = limiter.acquire(TOPIC, 1);
+		CompletableFuture<Integer> second = limiter.acquire(TOPIC, 2);
+		assertThat(first).isNotDone();
+		limiter.release(TOPIC, 1);
+		assertThat(first).isCompletedWithValue(1);
+		// Waiters are granted in order so the second waits for the remaining permits
+		assertThat(second).isNotDone();
+		limiter.release(TOPIC, 1);
+		assertThat(second).isNotDone();
+		limiter.release(TOPIC, 1);
+		assertThat(second).isCompletedWithValue(2);
+		assertThat(limiter.getWaitCount()).isEqualTo(2);
+		assertThat(limiter.getTotalWaitTime(TimeUnit.NANOSECONDS)).isPositive();
+	}
+
+	@Test
+	void blockStrategyWaitsForReleasedPermits() throws Exception {
+		InFlightSendLimiter limiter = new InFlightSendLimiter(1, OverflowStrategy.BLOCK, false, Duration.ofSeconds(5));
+		limiter.acquire(TOPIC, 1);
+		CompletableFuture.runAsync(() -> limiter.release(TOPIC, 1),
+				CompletableFuture.delayedExecutor(50L, TimeUnit.MILLISECONDS));
+		assertThat(limiter.acquire(TOPIC, 1)).isCompletedWithValue(1);
+		assertThat(limiter.getWaitCount()).isEqualTo(1);
+	}
+
+	@Test
+	void blockStrategyRejectsAfterMaxBlockTime() throws Exception {
+		InFlightSendLimiter limiter = new InFlightSendLimiter(1, OverflowStrategy.BLOCK, false, Duration.ofMillis(50));
+		limiter.acquire(TOPIC, 1);
+		assertThatExceptionOfType(PulsarClientException.ProducerQueueIsFullError.class)
+				.isThrownBy(() -> limiter.acquire(TOPIC, 1));
+		assertThat(limiter.getRejectedCount()).isEqualTo(1);
+		// The timed out waiter must not be granted the released permit
+		limiter.release(TOPIC, 1);
+		assertThat(limiter.getPermitsInUse()).isZero();
+	}
+
+	@Test
+	void waitersBehindTimedOutWaiterAreGrantedOnceItGivesUp() throws Exception {
+		InFlightSendLimiter limiter = new InFlightSendLimiter(2, OverflowStrategy.BLOCK, false, Duration.ofMillis(300));
+		limiter.acquire(TOPIC, 2);
+		CompletableFuture<Integer> timedOut = acquireAsync(limiter, 2);
+		Thread.sleep(100);
+		CompletableFuture<Integer> behind = acquireAsync(limiter, 1);
+		Thread.sleep(50);
+		// Enough for the waiter behind but not for the one ahead of it
+		limiter.release(TOPIC, 1);
+		assertThat(timedOut).failsWithin(Duration.ofSeconds(2)).withThrowableOfType(ExecutionException.class)
+				.withCauseInstanceOf(PulsarClientException.ProducerQueueIsFullError.class);
+		assertThat(behind).succeedsWithin(Duration.ofSeconds(2)).isEqualTo(1);
+		assertThat(limiter.getPermitsInUse()).isEqualTo(2);
+	}
+
+	@Test
+	void permitsArePooledPerTopic() throws Exception {
+		String otherTopic = "persistent://public/default/limiter-other-topic";
+		InFlightSendLimiter limiter = new InFlightSendLimiter(1, OverflowStrategy.FAIL, true, Duration.ofSeconds(1));
+		limiter.acquire(TOPIC, 1);
+		assertThat(limiter.acquire(otherTopic, 1)).isCompletedWithValue(1);
+		assertThat(limiter.getPermitsInUse()).isEqualTo(2);
+		assertThat(limiter.getPermitsInUse(TOPIC)).isEqualTo(1);
+		assertThatExceptionOfType(PulsarClientException.ProducerQueueIsFullError.class)
+				.isThrownBy(() -> limiter.acquire(TOPIC, 1));
+	}
+
+	@Test
+	void idleTopicWindowsAreRemoved() throws Exception {
+		InFlightSendLimiter limiter = new InFlightSendLimiter(1, OverflowStrategy.DELAY, true, Duration.ofSeconds(1));
+		limiter.acquire(TOPIC, 1);
+		CompletableFuture<Integer> delayed = limiter.acquire(TOPIC, 1);
+		limiter.release(TOPIC, 1);
+		assertThat(delayed).isCompletedWithValue(1);
+		assertThat(topicWindows(limiter)).containsOnlyKeys(TOPIC);
+		limiter.release(TOPIC, 1);
+		assertThat(topicWindows(limiter)).isEmpty();
+		assertThat(limiter.acquire(TOPIC, 1)).isCompletedWithValue(1);
+		assertThat(limiter.getPermitsInUse(TOPIC)).isEqualTo(1);
+	}
+
+	@Test
+	void topicWindowIsNotExceededWhileIdleWindowsAreRemoved() throws Exception {
+		InFlightSendLimiter limiter = new InFlightSendLimiter(1, OverflowStrategy.BLOCK, true, Duration.ofSeconds(10));
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> senders = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				senders.add(executor.submit(() -> {
+					for (int j = 0; j < 2000; j++) {
+						limiter.acquire(TOPIC, 1);
+						maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+						inFlight.decrementAndGet();
+						limiter.release(TOPIC, 1);
+					}
+					return null;
+				}));
+			}
+			for (Future<?> sender : senders) {
+				sender.get(30, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertThat(maxInFlight).hasValue(1);
+		assertThat(limiter.getPermitsInUse()).isZero();
+		assertThat(topicWindows(limiter)).isEmpty();
+	}
+
+	@Test
+	void batchLargerThanWindowIsCappedAtMaxInFlight() throws Exception {
+		InFlightSendLimiter limiter = new InFlightSendLimiter(10, OverflowStrategy.FAIL);
+		assertThat(limiter.acquire(TOPIC, 100)).isCompletedWithValue(10);
+		assertThat(limiter.getPermitsInUse()).isEqualTo(10);
+	}
+
+	@Test
+	void meterBinderRegistersLimiterMeters() throws Exception {
+		InFlightSendLimiter limiter = new InFlightSendLimiter(5, OverflowStrategy.FAIL);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		new InFlightSendLimiterMeterBinder(limiter, List.of(Tag.of("template", "foo"))).bindTo(registry);
+		limiter.acquire(TOPIC, 5);
+		assertThatExceptionOfType(PulsarClientException.ProducerQueueIsFullError.class)
+				.isThrownBy(() -> limiter.acquire(TOPIC, 1));
+		assertThat(registry.get("spring.pulsar.template.in.flight.permits").tag("template", "foo").gauge().value())
+				.isEqualTo(5.0);
+		assertThat(registry.get("spring.pulsar.template.in.flight.permits.max").gauge().value()).isEqualTo(5.0);
+		assertThat(registry.get("spring.pulsar.template.in.flight.rejected").functionCounter().count()).isEqualTo(1.0);
+		assertThat(registry.get("spring.pulsar.template.in.flight.wait").functionTimer().count()).isZero();
+	}
+
+	private static CompletableFuture<Integer> acquireAsync(InFlightSendLimiter limiter, int permits) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return limiter.acquire(TOPIC, permits).join();
+			}
+			catch (PulsarClientException ex) {
+				throw new CompletionException(ex);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, ?> topicWindows(InFlightSendLimiter limiter) {
+		return (Map<String, ?>) ReflectionTestUtils.getField(limiter, "topicWindows");
+	}
+
+}
@@ -17,12 +17,17 @@
 package org.springframework.pulsar.core;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.time.Duration;
@@ -38,8 +43,12 @@ import java.util.stream.Stream;
 
 import org.apache.pulsar.client.api.Consumer;
 import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.Producer;
 import org.apache.pulsar.client.api.PulsarClient;
+import org.apache.pulsar.client.api.PulsarClientException;
 import org.apache.pulsar.client.api.Schema;
+import org.apache.pulsar.client.api.TypedMessageBuilder;
 import org.apache.pulsar.client.api.interceptor.ProducerInterceptor;
 import org.assertj.core.api.InstanceOfAssertFactories;
 import org.junit.jupiter.api.Named;
@@ -47,7 +56,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.Answers;
 
+import org.springframework.pulsar.core.InFlightSendLimiter.OverflowStrategy;
 import org.springframework.pulsar.core.PulsarOperations.SendMessageBuilder;
 import org.springframework.pulsar.test.support.PulsarTestContainerSupport;
 
@@ -195,6 +206,147 @@ class PulsarTemplateTests implements PulsarTestContainerSupport {
 						List.of(mock(ProducerInterceptor.class), mock(ProducerInterceptor.class))));
 	}
 
+	@Test
+	void sendWithInterceptorsReusesCachedProducer() throws Exception {
+		String topic = "swi-cached-producer-topic";
+		try (PulsarClient client = PulsarClient.builder().serviceUrl(PulsarTestContainerSupport.getPulsarBrokerUrl())
+				.build()) {
+			CachingPulsarProducerFactory<String> producerFactory = new CachingPulsarProducerFactory<>(client,
+					Collections.singletonMap("topicName", topic), Duration.ofMinutes(1L), 10L, 2);
+			try {
+				PulsarTemplate<String> pulsarTemplate = new PulsarTemplate<>(producerFactory,
+						List.of(mock(ProducerInterceptor.class)));
+				pulsarTemplate.send("test-interceptor-1");
+				pulsarTemplate.send("test-interceptor-2");
+				assertThat(client).extracting("producers").asInstanceOf(InstanceOfAssertFactories.COLLECTION)
+						.hasSize(1);
+			}
+			finally {
+				producerFactory.destroy();
+			}
+		}
+	}
+
+	@Test
+	void sendBatchUsesSingleProducer() throws Exception {
+		String topic = "sbt-single-producer-topic";
+		try (PulsarClient client = PulsarClient.builder().serviceUrl(PulsarTestContainerSupport.getPulsarBrokerUrl())
+				.build()) {
+			try (Consumer<String> consumer = client.newConsumer(Schema.STRING).topic(topic)
+					.subscriptionName("sbt-single-producer-sub").subscribe()) {
+				PulsarProducerFactory<String> producerFactory = spy(
+						new DefaultPulsarProducerFactory<>(client, Collections.singletonMap("topicName", topic)));
+				PulsarTemplate<String> pulsarTemplate = new PulsarTemplate<>(producerFactory);
+				List<String> payloads = List.of("sbt-msg-0", "sbt-msg-1", "sbt-msg-2");
+				assertThat(pulsarTemplate.newMessages(payloads).withMessageCustomizer((mb) -> mb.key("sbt-key"))
+						.sendAsync()).succeedsWithin(Duration.ofSeconds(3)).asInstanceOf(InstanceOfAssertFactories.LIST)
+								.hasSize(3).doesNotHaveDuplicates();
+				verify(producerFactory, times(1)).createProducer(any(), any(), any(), any());
+				for (String payload : payloads) {
+					Message<String> msg = consumer.receive(3, TimeUnit.SECONDS);
+					assertThat(msg.getValue()).isEqualTo(payload);
+					assertThat(msg.getKey()).isEqualTo("sbt-key");
+				}
+				await().atMost(Duration.ofSeconds(3)).untilAsserted(() -> assertThat(client).extracting("producers")
+						.asInstanceOf(InstanceOfAssertFactories.COLLECTION).isEmpty());
+			}
+		}
+	}
+
+	@Test
+	void sendEmptyBatchDoesNotCreateProducer() throws Exception {
+		@SuppressWarnings("unchecked")
+		PulsarProducerFactory<String> producerFactory = mock(PulsarProducerFactory.class);
+		PulsarTemplate<String> pulsarTemplate = new PulsarTemplate<>(producerFactory);
+		assertThat(pulsarTemplate.sendBatchAsync("sbt-empty-topic", Collections.emptyList()))
+				.isCompletedWithValue(Collections.emptyList());
+		verifyNoInteractions(producerFactory);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void sendLimiterReleasesPermitWhenSendCompletes() throws Exception {
+		String topic = "persistent://public/default/sl-release-topic";
+		CompletableFuture<MessageId> sendFuture = new CompletableFuture<>();
+		TypedMessageBuilder<String> messageBuilder = mock(TypedMessageBuilder.class, Answers.RETURNS_SELF);
+		when(messageBuilder.sendAsync()).thenReturn(sendFuture);
+		Producer<String> producer = mock(Producer.class);
+		when(producer.newMessage()).thenReturn(messageBuilder);
+		when(producer.closeAsync()).thenReturn(CompletableFuture.completedFuture(null));
+		PulsarProducerFactory<String> producerFactory = mock(PulsarProducerFactory.class);
+		when(producerFactory.createProducer(any(), any(), any(), any())).thenReturn(producer);
+		PulsarTemplate<String> pulsarTemplate = new PulsarTemplate<>(producerFactory);
+		InFlightSendLimiter sendLimiter = new InFlightSendLimiter(1, OverflowStrategy.FAIL);
+		pulsarTemplate.setSendLimiter(sendLimiter);
+
+		CompletableFuture<MessageId> firstSend = pulsarTemplate.sendAsync(topic, "msg-1");
+		assertThat(sendLimiter.getPermitsInUse(topic)).isEqualTo(1);
+		assertThatExceptionOfType(PulsarClientException.ProducerQueueIsFullError.class)
+				.isThrownBy(() -> pulsarTemplate.sendAsync(topic, "msg-2"));
+		sendFuture.complete(MessageId.earliest);
+		assertThat(firstSend).isCompletedWithValue(MessageId.earliest);
+		assertThat(sendLimiter.getPermitsInUse(topic)).isZero();
+		assertThat(pulsarTemplate.sendAsync(topic, "msg-3")).isCompletedWithValue(MessageId.earliest);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void sendLimiterDelaysSendUntilPermitIsAvailable() throws Exception {
+		String topic = "persistent://public/default/sl-delay-topic";
+		CompletableFuture<MessageId> sendFuture = new CompletableFuture<>();
+		TypedMessageBuilder<String> messageBuilder = mock(TypedMessageBuilder.class, Answers.RETURNS_SELF);
+		when(messageBuilder.sendAsync()).thenReturn(sendFuture, CompletableFuture.completedFuture(MessageId.latest));
+		Producer<String> producer = mock(Producer.class);
+		when(producer.newMessage()).thenReturn(messageBuilder);
+		when(producer.closeAsync()).thenReturn(CompletableFuture.completedFuture(null));
+		PulsarProducerFactory<String> producerFactory = mock(PulsarProducerFactory.class);
+		when(producerFactory.createProducer(any(), any(), any(), any())).thenReturn(producer);
+		PulsarTemplate<String> pulsarTemplate = new PulsarTemplate<>(producerFactory);
+		pulsarTemplate.setSendLimiter(new InFlightSendLimiter(1, OverflowStrategy.DELAY));
+
+		pulsarTemplate.sendAsync(topic, "msg-1");
+		CompletableFuture<MessageId> delayedSend = pulsarTemplate.sendAsync(topic, "msg-2");
+		assertThat(delayedSend).isNotDone();
+		verify(messageBuilder, times(1)).sendAsync();
+		sendFuture.complete(MessageId.earliest);
+		assertThat(delayedSend).succeedsWithin(Duration.ofSeconds(5)).isEqualTo(MessageId.latest);
+		verify(messageBuilder, times(2)).sendAsync();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void sendLimiterDelaysSendToUncachedTopicOffThreadReleasingPermit() throws Exception {
+		String topic = "persistent://public/default/sl-delay-cached-topic";
+		String uncachedTopic = "persistent://public/default/sl-delay-uncached-topic";
+		CompletableFuture<MessageId> sendFuture = new CompletableFuture<>();
+		TypedMessageBuilder<String> messageBuilder = mock(TypedMessageBuilder.class, Answers.RETURNS_SELF);
+		when(messageBuilder.sendAsync()).thenReturn(sendFuture, CompletableFuture.completedFuture(MessageId.latest));
+		Producer<String> producer = mock(Producer.class);
+		when(producer.newMessage()).thenReturn(messageBuilder);
+		when(producer.closeAsync()).thenReturn(CompletableFuture.completedFuture(null));
+		PulsarProducerFactory<String> producerFactory = mock(PulsarProducerFactory.class);
+		when(producerFactory.createProducer(any(), eq(topic), any(), any())).thenReturn(producer);
+		// A cache miss, creating the producer may block
+		List<Thread> creatingThreads = new ArrayList<>();
+		when(producerFactory.createProducer(any(), eq(uncachedTopic), any(), any())).thenAnswer((invocation) -> {
+			creatingThreads.add(Thread.currentThread());
+			return producer;
+		});
+		PulsarTemplate<String> pulsarTemplate = new PulsarTemplate<>(producerFactory);
+		pulsarTemplate.setSendLimiter(new InFlightSendLimiter(1, OverflowStrategy.DELAY));
+
+		pulsarTemplate.sendAsync(topic, "msg-1");
+		CompletableFuture<MessageId> delayedSend = pulsarTemplate.sendAsync(uncachedTopic, "msg-2");
+		assertThat(delayedSend).isNotDone();
+		// Acknowledge the first send on a thread standing for a client I/O thread
+		Thread ioThread = new Thread(() -> sendFuture.complete(MessageId.earliest), "pulsar-client-io-test");
+		ioThread.start();
+		ioThread.join();
+		assertThat(delayedSend).succeedsWithin(Duration.ofSeconds(5)).isEqualTo(MessageId.latest);
+		assertThat(creatingThreads).singleElement().isNotSameAs(ioThread)
+				.extracting(Thread::getName, InstanceOfAssertFactories.STRING).startsWith("pulsar-delayed-send-");
+	}
+
 	@Test
 	void sendMessageWithSpecificSchema() throws Exception {
 		String topic = "smt-specific-schema-topic";
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.Producer;
+import org.apache.pulsar.client.api.TypedMessageBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+
+import org.springframework.pulsar.core.CachingPulsarProducerFactory.StripingStrategy;
+
+/**
+ * Tests for {@link StripedProducer}.
+ */
+class StripedProducerTests {
+
+	private final List<Producer<String>> producers = new ArrayList<>();
+
+	private final List<TypedMessageBuilder<String>> messageBuilders = new ArrayList<>();
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void createProducers() {
+		for (int i = 0; i < 4; i++) {
+			TypedMessageBuilder<String> messageBuilder = mock(TypedMessageBuilder.class, Answers.RETURNS_SELF);
+			when(messageBuilder.sendAsync()).thenReturn(CompletableFuture.completedFuture(MessageId.latest));
+			Producer<String> producer = mock(Producer.class);
+			when(producer.newMessage()).thenReturn(messageBuilder);
+			when(producer.closeAsync()).thenReturn(CompletableFuture.completedFuture(null));
+			this.producers.add(producer);
+			this.messageBuilders.add(messageBuilder);
+		}
+	}
+
+	@Test
+	void messagesWithSameKeyUseSameProducer() {
+		StripedProducer<String> stripedProducer = new StripedProducer<>(this.producers, StripingStrategy.MESSAGE_KEY);
+		for (int i = 0; i < 10; i++) {
+			stripedProducer.newMessage().key("key-1").value("msg-" + i).sendAsync();
+		}
+		int stripe = Math.floorMod("key-1".hashCode(), this.producers.size());
+		verify(this.messageBuilders.get(stripe), times(10)).sendAsync();
+	}
+
+	@Test
+	void orderingKeyTakesPrecedenceOverKey() {
+		StripedProducer<String> stripedProducer = new StripedProducer<>(this.producers, StripingStrategy.MESSAGE_KEY);
+		byte[] orderingKey = "ordering-key".getBytes();
+		stripedProducer.newMessage().key("key-1").orderingKey(orderingKey).value("msg").sendAsync();
+		int stripe = Math.floorMod(Arrays.hashCode(orderingKey), this.producers.size());
+		verify(this.messageBuilders.get(stripe)).sendAsync();
+	}
+
+	@Test
+	void messagesWithoutKeyUseThreadProducer() {
+		StripedProducer<String> stripedProducer = new StripedProducer<>(this.producers, StripingStrategy.MESSAGE_KEY);
+		stripedProducer.newMessage().value("msg").sendAsync();
+		int stripe = (int) (Thread.currentThread().getId() % this.producers.size());
+		verify(this.messageBuilders.get(stripe)).sendAsync();
+	}
+
+	@Test
+	void threadStrategyIgnoresKey() {
+		StripedProducer<String> stripedProducer = new StripedProducer<>(this.producers, StripingStrategy.THREAD);
+		stripedProducer.newMessage().key("key-1").value("msg").sendAsync();
+		int stripe = (int) (Thread.currentThread().getId() % this.producers.size());
+		verify(this.messageBuilders.get(stripe)).sendAsync();
+	}
+
+	@Test
+	void messageBuilderCallsAreReplayedOnSelectedProducer() {
+		StripedProducer<String> stripedProducer = new StripedProducer<>(this.producers, StripingStrategy.MESSAGE_KEY);
+		TypedMessageBuilder<String> messageBuilder = stripedProducer.newMessage().key("key-1").value("msg")
+				.property("name", "value").deliverAfter(5, TimeUnit.SECONDS);
+		this.messageBuilders.forEach((builder) -> verify(builder, never()).value("msg"));
+		messageBuilder.sendAsync();
+		TypedMessageBuilder<String> selectedBuilder = this.messageBuilders
+				.get(Math.floorMod("key-1".hashCode(), this.producers.size()));
+		verify(selectedBuilder).key("key-1");
+		verify(selectedBuilder).value("msg");
+		verify(selectedBuilder).property("name", "value");
+		verify(selectedBuilder).deliverAfter(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void closeClosesAllProducers() {
+		StripedProducer<String> stripedProducer = new StripedProducer<>(this.producers, StripingStrategy.MESSAGE_KEY);
+		assertThat(stripedProducer.closeAsync()).isCompleted();
+		this.producers.forEach((producer) -> verify(producer).closeAsync());
+	}
+
+}
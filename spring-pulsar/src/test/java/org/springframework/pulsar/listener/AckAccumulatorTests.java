@@ -0,0 +1,214 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.PulsarClientException;
+import org.apache.pulsar.client.impl.MessageIdImpl;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link AckAccumulator}.
+ */
+class AckAccumulatorTests {
+
+	@SuppressWarnings("unchecked")
+	private final Consumer<String> consumer = mock(Consumer.class);
+
+	@Test
+	void cumulativeAckUsesLatestMessageOfEachTopic() throws Exception {
+		AckAccumulator<String> accumulator = new AckAccumulator<>(this.consumer, true, 1, null);
+		Message<String> a1 = message("a", 1);
+		Message<String> a2 = message("a", 2);
+		Message<String> a3 = message("a", 3);
+		Message<String> b1 = message("b", 1);
+		// completion order differs from receive order with concurrent dispatch
+		accumulator.ackAll(List.of(a1, a3, b1, a2));
+		assertThat(accumulator.flushIfDue()).isTrue();
+		verify(this.consumer).acknowledgeCumulative(a3);
+		verify(this.consumer).acknowledgeCumulative(b1);
+		verify(this.consumer, never()).acknowledgeCumulative(a2);
+		verify(this.consumer, never()).acknowledge(anyList());
+		assertThat(accumulator.getPendingAckCount()).isZero();
+	}
+
+	@Test
+	void individualAckSendsAllPendingMessageIdsAtOnce() throws Exception {
+		AckAccumulator<String> accumulator = new AckAccumulator<>(this.consumer, false, 1, null);
+		Message<String> m1 = message("a", 1);
+		Message<String> m2 = message("a", 2);
+		accumulator.ackAll(List.of(m1, m2));
+		accumulator.flush();
+		verify(this.consumer).acknowledge(List.of(m1.getMessageId(), m2.getMessageId()));
+		Message<String> m3 = message("a", 3);
+		accumulator.ack(m3);
+		accumulator.flush();
+		verify(this.consumer).acknowledge(m3.getMessageId());
+		verify(this.consumer, never()).acknowledgeCumulative(any(Message.class));
+	}
+
+	@Test
+	void nackDisablesCumulativeAckUntilNextFlush() throws Exception {
+		AckAccumulator<String> accumulator = new AckAccumulator<>(this.consumer, true, 1, null);
+		Message<String> m1 = message("a", 1);
+		Message<String> m2 = message("a", 2);
+		Message<String> m3 = message("a", 3);
+		accumulator.ack(m1);
+		accumulator.nack(m2);
+		accumulator.ack(m3);
+		accumulator.flush();
+		verify(this.consumer).negativeAcknowledge(m2);
+		verify(this.consumer).acknowledge(List.of(m1.getMessageId(), m3.getMessageId()));
+		verify(this.consumer, never()).acknowledgeCumulative(any(Message.class));
+		Message<String> m4 = message("a", 4);
+		accumulator.ack(m4);
+		accumulator.flush();
+		verify(this.consumer).acknowledgeCumulative(m4);
+	}
+
+	@Test
+	void heldMessageDisablesCumulativeAckUntilReleased() throws Exception {
+		AckAccumulator<String> accumulator = new AckAccumulator<>(this.consumer, true, 1, null);
+		Message<String> m1 = message("a", 1);
+		Message<String> m2 = message("a", 2);
+		Message<String> m3 = message("a", 3);
+		accumulator.hold(m1);
+		accumulator.ackAll(List.of(m2, m3));
+		accumulator.flush();
+		verify(this.consumer).acknowledge(List.of(m2.getMessageId(), m3.getMessageId()));
+		Message<String> m4 = message("a", 4);
+		accumulator.ack(m4);
+		accumulator.flush();
+		verify(this.consumer).acknowledge(m4.getMessageId());
+		verify(this.consumer, never()).acknowledgeCumulative(any(Message.class));
+		accumulator.release(m1);
+		accumulator.ack(m1);
+		accumulator.flush();
+		verify(this.consumer).acknowledgeCumulative(m1);
+	}
+
+	@Test
+	void flushIsDueOnceAckCountIsReached() {
+		AckAccumulator<String> accumulator = new AckAccumulator<>(this.consumer, false, 3, null);
+		assertThat(accumulator.flushIfDue()).isFalse();
+		accumulator.ack(message("a", 1));
+		accumulator.ack(message("a", 2));
+		assertThat(accumulator.flushIfDue()).isFalse();
+		verifyNoInteractions(this.consumer);
+		accumulator.ack(message("a", 3));
+		assertThat(accumulator.flushIfDue()).isTrue();
+		assertThat(accumulator.getPendingAckCount()).isZero();
+	}
+
+	@Test
+	void flushIsDueOnceAckTimeElapses() throws Exception {
+		AckAccumulator<String> accumulator = new AckAccumulator<>(this.consumer, false, 100, Duration.ofMillis(50));
+		accumulator.ack(message("a", 1));
+		assertThat(accumulator.flushIfDue()).isFalse();
+		Thread.sleep(100);
+		assertThat(accumulator.flushIfDue()).isTrue();
+		assertThat(accumulator.getPendingAckCount()).isZero();
+	}
+
+	@Test
+	void failedAckNacksPendingMessages() throws Exception {
+		AckAccumulator<String> accumulator = new AckAccumulator<>(this.consumer, false, 1, null);
+		doThrow(new PulsarClientException("fail")).when(this.consumer).acknowledge(anyList());
+		Message<String> m1 = message("a", 1);
+		Message<String> m2 = message("a", 2);
+		accumulator.ackAll(List.of(m1, m2));
+		accumulator.flush();
+		verify(this.consumer).negativeAcknowledge(m1);
+		verify(this.consumer).negativeAcknowledge(m2);
+		assertThat(accumulator.getPendingAckCount()).isZero();
+	}
+
+	@Test
+	void flushedAndFailedAcksAreRecorded() throws Exception {
+		ListenerMetrics metrics = mock(ListenerMetrics.class);
+		AckAccumulator<String> accumulator = new AckAccumulator<>(this.consumer, false, 1, null, metrics, false);
+		Message<String> m1 = message("a", 1);
+		Message<String> m2 = message("a", 2);
+		accumulator.ack(m1);
+		accumulator.nack(m2);
+		verify(metrics).nacked(m2);
+		accumulator.flush();
+		verify(metrics).acknowledged(eq(m1), anyLong());
+		doThrow(new PulsarClientException("fail")).when(this.consumer).acknowledge(any(MessageId.class));
+		Message<String> m3 = message("a", 3);
+		accumulator.ack(m3);
+		accumulator.flush();
+		verify(metrics).nacked(m3);
+		verify(metrics, never()).acknowledged(eq(m3), anyLong());
+	}
+
+	@Test
+	void pooledMessagesAreReleasedOnceAcknowledged() throws Exception {
+		AckAccumulator<String> accumulator = new AckAccumulator<>(this.consumer, false, 2, null, null, true);
+		Message<String> m1 = message("a", 1);
+		Message<String> m2 = message("a", 2);
+		Message<String> m3 = message("a", 3);
+		accumulator.ack(m1);
+		verify(m1, never()).release();
+		accumulator.nack(m2);
+		verify(m2).release();
+		accumulator.ack(m3);
+		accumulator.flush();
+		verify(this.consumer).acknowledge(List.of(new MessageIdImpl(1, 1, -1), new MessageIdImpl(1, 3, -1)));
+		verify(m1).release();
+		verify(m3).release();
+	}
+
+	@Test
+	void messagesAreNotReleasedUnlessPooled() throws Exception {
+		AckAccumulator<String> accumulator = new AckAccumulator<>(this.consumer, false, 1, null);
+		Message<String> m1 = message("a", 1);
+		Message<String> m2 = message("a", 2);
+		accumulator.ack(m1);
+		accumulator.nack(m2);
+		accumulator.flush();
+		verify(m1, never()).release();
+		verify(m2, never()).release();
+	}
+
+	@SuppressWarnings("unchecked")
+	private Message<String> message(String topic, long entryId) {
+		Message<String> message = mock(Message.class);
+		MessageId messageId = new MessageIdImpl(1, entryId, -1);
+		when(message.getTopicName()).thenReturn(topic);
+		when(message.getMessageId()).thenReturn(messageId);
+		return message;
+	}
+
+}
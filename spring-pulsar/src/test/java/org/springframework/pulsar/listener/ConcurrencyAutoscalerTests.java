@@ -0,0 +1,85 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ConcurrencyAutoscaler}.
+ */
+class ConcurrencyAutoscalerTests {
+
+	private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+	@Test
+	void scalesUpAfterConsecutiveHighLoadSamples() {
+		ConcurrencyAutoscaler autoscaler = new ConcurrencyAutoscaler(1, 3, Duration.ZERO, 0);
+		assertThat(autoscaler.evaluate(2, 1.7, 1 * SECOND)).isEqualTo(2);
+		assertThat(autoscaler.evaluate(2, 1.7, 2 * SECOND)).isEqualTo(3);
+		assertThat(autoscaler.evaluate(3, 3.0, 3 * SECOND)).isEqualTo(3);
+		assertThat(autoscaler.evaluate(3, 3.0, 4 * SECOND)).isEqualTo(3);
+	}
+
+	@Test
+	void scalesDownAfterConsecutiveLowLoadSamples() {
+		ConcurrencyAutoscaler autoscaler = new ConcurrencyAutoscaler(1, 3, Duration.ZERO, 0);
+		for (int i = 1; i < ConcurrencyAutoscaler.SCALE_DOWN_SAMPLES; i++) {
+			assertThat(autoscaler.evaluate(3, 0.9, i * SECOND)).isEqualTo(3);
+		}
+		assertThat(autoscaler.evaluate(3, 0.9, 10 * SECOND)).isEqualTo(2);
+		for (int i = 0; i < ConcurrencyAutoscaler.SCALE_DOWN_SAMPLES; i++) {
+			assertThat(autoscaler.evaluate(2, 0.1, (11 + i) * SECOND)).isEqualTo(i == 4 ? 1 : 2);
+		}
+		for (int i = 0; i < ConcurrencyAutoscaler.SCALE_DOWN_SAMPLES; i++) {
+			assertThat(autoscaler.evaluate(1, 0.0, (20 + i) * SECOND)).isEqualTo(1);
+		}
+	}
+
+	@Test
+	void loadBetweenThresholdsKeepsConcurrency() {
+		ConcurrencyAutoscaler autoscaler = new ConcurrencyAutoscaler(1, 4, Duration.ZERO, 0);
+		for (int i = 1; i <= 10; i++) {
+			// 70% average utilization but over 50% on one fewer consumer
+			assertThat(autoscaler.evaluate(2, 1.4, i * SECOND)).isEqualTo(2);
+		}
+	}
+
+	@Test
+	void interruptedStreakStartsOver() {
+		ConcurrencyAutoscaler autoscaler = new ConcurrencyAutoscaler(1, 3, Duration.ZERO, 0);
+		assertThat(autoscaler.evaluate(2, 1.8, 1 * SECOND)).isEqualTo(2);
+		assertThat(autoscaler.evaluate(2, 1.2, 2 * SECOND)).isEqualTo(2);
+		assertThat(autoscaler.evaluate(2, 1.8, 3 * SECOND)).isEqualTo(2);
+		assertThat(autoscaler.evaluate(2, 1.8, 4 * SECOND)).isEqualTo(3);
+	}
+
+	@Test
+	void cooldownDelaysChanges() {
+		ConcurrencyAutoscaler autoscaler = new ConcurrencyAutoscaler(1, 4, Duration.ofSeconds(30), 0);
+		assertThat(autoscaler.evaluate(1, 1.0, 10 * SECOND)).isEqualTo(1);
+		assertThat(autoscaler.evaluate(1, 1.0, 20 * SECOND)).isEqualTo(1);
+		assertThat(autoscaler.evaluate(1, 1.0, 30 * SECOND)).isEqualTo(2);
+		assertThat(autoscaler.evaluate(2, 2.0, 40 * SECOND)).isEqualTo(2);
+		assertThat(autoscaler.evaluate(2, 2.0, 50 * SECOND)).isEqualTo(2);
+		assertThat(autoscaler.evaluate(2, 2.0, 60 * SECOND)).isEqualTo(3);
+	}
+
+}
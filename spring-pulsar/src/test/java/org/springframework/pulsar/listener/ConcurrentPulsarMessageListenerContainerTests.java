@@ -21,29 +21,57 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.pulsar.client.api.Consumer;
 import org.apache.pulsar.client.api.DeadLetterPolicy;
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
 import org.apache.pulsar.client.api.Messages;
+import org.apache.pulsar.client.api.PulsarClientException;
 import org.apache.pulsar.client.api.RedeliveryBackoff;
 import org.apache.pulsar.client.api.Schema;
 import org.apache.pulsar.client.api.SubscriptionType;
+import org.apache.pulsar.client.impl.ConsumerBuilderImpl;
 import org.apache.pulsar.client.impl.MultiplierRedeliveryBackoff;
+import org.apache.pulsar.client.impl.conf.ConsumerConfigurationData;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 
+import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.pulsar.config.ConcurrentPulsarListenerContainerFactory;
 import org.springframework.pulsar.config.PulsarListenerEndpoint;
+import org.springframework.pulsar.core.ConsumerBuilderCustomizer;
 import org.springframework.pulsar.core.PulsarConsumerFactory;
 import org.springframework.pulsar.observation.PulsarListenerObservationConvention;
 import org.springframework.util.backoff.BackOff;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 /**
  * @author Soby Chacko
  * @author Alexander Preuß
@@ -73,6 +101,23 @@ public class ConcurrentPulsarMessageListenerContainerTests {
 		assertThat(pulsarContainerProperties.getMaxNumBytes()).isEqualTo(32_000);
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	void createConcurrentContainerFromFactoryAndVerifyVirtualThreads() {
+		PulsarConsumerFactory<Object> consumerFactory = mock(PulsarConsumerFactory.class);
+		PulsarContainerProperties containerProperties = new PulsarContainerProperties();
+		containerProperties.setVirtualThreads(true);
+		ConcurrentPulsarListenerContainerFactory<String> containerFactory = new ConcurrentPulsarListenerContainerFactory<>(
+				consumerFactory, containerProperties, null);
+		PulsarListenerEndpoint pulsarListenerEndpoint = mock(PulsarListenerEndpoint.class);
+		when(pulsarListenerEndpoint.getConcurrency()).thenReturn(1);
+
+		AbstractPulsarMessageListenerContainer<String> concurrentContainer = containerFactory
+				.createListenerContainer(pulsarListenerEndpoint);
+
+		assertThat(concurrentContainer.getContainerProperties().isVirtualThreads()).isTrue();
+	}
+
 	@Test
 	void deadLetterPolicyAppliedOnChildContainer() throws Exception {
 		PulsarListenerMockComponents env = setupListenerMockComponents(SubscriptionType.Shared);
@@ -172,6 +217,602 @@ public class ConcurrentPulsarMessageListenerContainerTests {
 				.hasMessage("concurrency > 1 is not allowed on Exclusive subscription type");
 	}
 
+	@Test
+	void concurrencyIsAdjustedToLoadWithinBounds() throws Exception {
+		PulsarListenerMockComponents env = setupListenerMockComponents(SubscriptionType.Shared);
+		AtomicBoolean idle = new AtomicBoolean();
+		@SuppressWarnings("unchecked")
+		Message<String> message = mock(Message.class);
+		when(message.getMessageId()).thenReturn(mock(MessageId.class));
+		@SuppressWarnings("unchecked")
+		Messages<String> messages = mock(Messages.class);
+		when(messages.iterator()).thenAnswer((invocation) -> List.of(message).iterator());
+		@SuppressWarnings("unchecked")
+		Messages<String> noMessages = mock(Messages.class);
+		when(noMessages.iterator()).thenAnswer((invocation) -> Collections.emptyIterator());
+		when(env.consumer().batchReceive()).thenAnswer((invocation) -> {
+			if (!idle.get()) {
+				return messages;
+			}
+			try {
+				Thread.sleep(100);
+			}
+			catch (InterruptedException ex) {
+				throw new PulsarClientException(ex);
+			}
+			return noMessages;
+		});
+		// consumers that hardly ever wait for messages are saturated
+		env.concurrentContainer().getContainerProperties()
+				.setMessageListener((PulsarRecordMessageListener<String>) (cons, msg) -> {
+					try {
+						Thread.sleep(20);
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+				});
+		ConcurrentPulsarMessageListenerContainer<String> concurrentContainer = env.concurrentContainer();
+		concurrentContainer.setConcurrency(1);
+		concurrentContainer.setMaxConcurrency(3);
+		concurrentContainer.setAutoscaleInterval(Duration.ofMillis(50));
+		concurrentContainer.setAutoscaleCooldown(Duration.ZERO);
+		try {
+			concurrentContainer.start();
+
+			await().atMost(Duration.ofSeconds(10))
+					.untilAsserted(() -> assertThat(concurrentContainer.getContainers()).hasSize(3));
+			Thread.sleep(300);
+			assertThat(concurrentContainer.getContainers()).hasSize(3);
+
+			idle.set(true);
+			await().atMost(Duration.ofSeconds(10))
+					.untilAsserted(() -> assertThat(concurrentContainer.getContainers()).hasSize(1));
+			Thread.sleep(600);
+			assertThat(concurrentContainer.getContainers()).hasSize(1);
+		}
+		finally {
+			concurrentContainer.stop();
+		}
+		assertThat(concurrentContainer.getContainers()).isEmpty();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void pauseIsNotHeldBackByConsumerDrainingAfterConcurrencyDecrease() throws Exception {
+		PulsarListenerMockComponents env = setupListenerMockComponents(SubscriptionType.Shared);
+		AtomicBoolean idle = new AtomicBoolean();
+		CountDownLatch release = new CountDownLatch(1);
+		stubSingleMessageBatches(env.consumer());
+		Messages<String> messages = env.consumer().batchReceive();
+		when(env.consumer().batchReceive()).thenAnswer((invocation) -> {
+			if (!idle.get()) {
+				return messages;
+			}
+			// a receive that does not react to the stop holds back the consumer stop
+			while (true) {
+				try {
+					release.await();
+					return mock(Messages.class);
+				}
+				catch (InterruptedException ex) {
+					// keep waiting
+				}
+			}
+		});
+		env.concurrentContainer().getContainerProperties()
+				.setMessageListener((PulsarRecordMessageListener<String>) (cons, msg) -> {
+					try {
+						Thread.sleep(20);
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+				});
+		ConcurrentPulsarMessageListenerContainer<String> concurrentContainer = env.concurrentContainer();
+		concurrentContainer.getContainerProperties().setShutdownTimeout(Duration.ofSeconds(5));
+		concurrentContainer.setMaxConcurrency(2);
+		concurrentContainer.setAutoscaleInterval(Duration.ofMillis(50));
+		concurrentContainer.setAutoscaleCooldown(Duration.ZERO);
+		try {
+			concurrentContainer.start();
+			await().atMost(Duration.ofSeconds(10))
+					.untilAsserted(() -> assertThat(concurrentContainer.getContainers()).hasSize(2));
+			idle.set(true);
+			await().atMost(Duration.ofSeconds(10))
+					.untilAsserted(() -> assertThat(concurrentContainer.getContainers()).hasSize(1));
+			long startNanos = System.nanoTime();
+			concurrentContainer.pause();
+			concurrentContainer.resume();
+			assertThat(Duration.ofNanos(System.nanoTime() - startNanos)).isLessThan(Duration.ofSeconds(2));
+		}
+		finally {
+			release.countDown();
+			concurrentContainer.stop();
+		}
+	}
+
+	@Test
+	void maxConcurrencyIsIgnoredOnExclusiveSubscription() throws Exception {
+		PulsarListenerMockComponents env = setupListenerMockComponents(SubscriptionType.Exclusive);
+		ConcurrentPulsarMessageListenerContainer<String> concurrentContainer = env.concurrentContainer();
+		concurrentContainer.setMaxConcurrency(3);
+		concurrentContainer.setAutoscaleInterval(Duration.ofMillis(50));
+		concurrentContainer.setAutoscaleCooldown(Duration.ZERO);
+		try {
+			concurrentContainer.start();
+			Thread.sleep(500);
+			assertThat(concurrentContainer.getContainers()).hasSize(1);
+		}
+		finally {
+			concurrentContainer.stop();
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void createConcurrentContainerFromFactoryAndVerifyAutoscaleSettings() {
+		PulsarConsumerFactory<Object> consumerFactory = mock(PulsarConsumerFactory.class);
+		ConcurrentPulsarListenerContainerFactory<String> containerFactory = new ConcurrentPulsarListenerContainerFactory<>(
+				consumerFactory, new PulsarContainerProperties(), null);
+		containerFactory.setMaxConcurrency(5);
+		containerFactory.setAutoscaleInterval(Duration.ofSeconds(3));
+		containerFactory.setAutoscaleCooldown(Duration.ofSeconds(20));
+		PulsarListenerEndpoint pulsarListenerEndpoint = mock(PulsarListenerEndpoint.class);
+		when(pulsarListenerEndpoint.getConcurrency()).thenReturn(2);
+
+		ConcurrentPulsarMessageListenerContainer<String> concurrentContainer = containerFactory
+				.createListenerContainer(pulsarListenerEndpoint);
+
+		assertThat(concurrentContainer.getConcurrency()).isEqualTo(2);
+		assertThat(concurrentContainer.getMaxConcurrency()).isEqualTo(5);
+		assertThat(concurrentContainer.getAutoscaleInterval()).isEqualTo(Duration.ofSeconds(3));
+		assertThat(concurrentContainer.getAutoscaleCooldown()).isEqualTo(Duration.ofSeconds(20));
+	}
+
+	@Test
+	void pausedContainerStopsReceivingUntilResumed() throws Exception {
+		PulsarListenerMockComponents env = setupListenerMockComponents(SubscriptionType.Shared);
+		AtomicInteger received = new AtomicInteger();
+		stubSingleMessageBatches(env.consumer());
+		ConcurrentPulsarMessageListenerContainer<String> concurrentContainer = env.concurrentContainer();
+		concurrentContainer.getContainerProperties()
+				.setMessageListener((PulsarRecordMessageListener<String>) (cons, msg) -> received.incrementAndGet());
+		concurrentContainer.setConcurrency(2);
+		try {
+			concurrentContainer.start();
+			await().atMost(Duration.ofSeconds(10)).until(() -> received.get() > 0);
+
+			concurrentContainer.pause();
+			assertThat(concurrentContainer.isPaused()).isTrue();
+			assertThat(concurrentContainer.getContainers()).allMatch(DefaultPulsarMessageListenerContainer::isPaused)
+					.allMatch(DefaultPulsarMessageListenerContainer::isRunning);
+			verify(env.consumer(), times(2)).pause();
+			verify(env.consumer(), never()).close();
+			Thread.sleep(300);
+			int receivedWhenPaused = received.get();
+			Thread.sleep(300);
+			assertThat(received.get()).isEqualTo(receivedWhenPaused);
+
+			concurrentContainer.resume();
+			assertThat(concurrentContainer.isPaused()).isFalse();
+			verify(env.consumer(), times(2)).resume();
+			await().atMost(Duration.ofSeconds(10)).until(() -> received.get() > receivedWhenPaused);
+		}
+		finally {
+			concurrentContainer.stop();
+		}
+	}
+
+	@Test
+	void rateLimitIsSharedByChildContainers() throws Exception {
+		PulsarListenerMockComponents env = setupListenerMockComponents(SubscriptionType.Shared);
+		AtomicInteger received = new AtomicInteger();
+		stubSingleMessageBatches(env.consumer());
+		ConcurrentPulsarMessageListenerContainer<String> concurrentContainer = env.concurrentContainer();
+		concurrentContainer.getContainerProperties()
+				.setMessageListener((PulsarRecordMessageListener<String>) (cons, msg) -> received.incrementAndGet());
+		concurrentContainer.getContainerProperties().setMaxMessagesPerSecond(20);
+		concurrentContainer.setConcurrency(3);
+		try {
+			concurrentContainer.start();
+			Thread.sleep(1000);
+		}
+		finally {
+			concurrentContainer.stop();
+		}
+		// one second burst plus one second worth of refill
+		assertThat(received.get()).isBetween(20, 45);
+	}
+
+	@Test
+	void metricsArePublishedToMeterRegistryOfApplicationContext() throws Exception {
+		PulsarListenerMockComponents env = setupListenerMockComponents(SubscriptionType.Shared);
+		stubSingleMessageBatches(env.consumer());
+		MeterRegistry registry = new SimpleMeterRegistry();
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.registerBean(MeterRegistry.class, () -> registry);
+		context.refresh();
+		ConcurrentPulsarMessageListenerContainer<String> concurrentContainer = env.concurrentContainer();
+		concurrentContainer.getContainerProperties().setMicrometerEnabled(true);
+		concurrentContainer.getContainerProperties().getMicrometerTags().put("app", "test");
+		concurrentContainer.setApplicationContext(context);
+		concurrentContainer.setBeanName("metricsListener");
+		try {
+			concurrentContainer.start();
+			await().atMost(Duration.ofSeconds(10)).until(() -> {
+				Counter acks = registry.find("spring.pulsar.listener.acks").tag("name", "metricsListener-0")
+						.tag("app", "test").counter();
+				return acks != null && acks.count() > 0;
+			});
+			assertThat(registry.get("spring.pulsar.listener.receive").timer().count()).isPositive();
+			assertThat(registry.get("spring.pulsar.listener.process").tag("type", "record").tag("result", "success")
+					.timer().count()).isPositive();
+		}
+		finally {
+			concurrentContainer.stop();
+		}
+		await().atMost(Duration.ofSeconds(10)).until(() -> registry.getMeters().isEmpty());
+	}
+
+	@Test
+	void consumerResourcesAreReleasedWhenListenerConsumerFails() throws Exception {
+		PulsarListenerMockComponents env = setupListenerMockComponents(SubscriptionType.Shared);
+		when(env.consumer().batchReceive()).thenThrow(new AssertionError("boom"));
+		MeterRegistry registry = new SimpleMeterRegistry();
+		GenericApplicationContext context = new GenericApplicationContext();
+		context.registerBean(MeterRegistry.class, () -> registry);
+		context.refresh();
+		ConcurrentPulsarMessageListenerContainer<String> concurrentContainer = env.concurrentContainer();
+		concurrentContainer.getContainerProperties().setMicrometerEnabled(true);
+		concurrentContainer.setApplicationContext(context);
+		try {
+			concurrentContainer.start();
+			verify(env.consumer(), timeout(10_000)).batchReceive();
+			await().atMost(Duration.ofSeconds(10)).until(() -> registry.getMeters().isEmpty());
+		}
+		finally {
+			concurrentContainer.stop();
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void keyOrderedDispatchCarriesOnAfterListenerFailure() throws Exception {
+		PulsarListenerMockComponents env = setupListenerMockComponents(SubscriptionType.Shared);
+		Message<String> failing = mock(Message.class);
+		when(failing.getMessageId()).thenReturn(mock(MessageId.class));
+		when(failing.getValue()).thenReturn("fail");
+		Message<String> message = mock(Message.class);
+		when(message.getMessageId()).thenReturn(mock(MessageId.class));
+		when(message.getValue()).thenReturn("hello");
+		Messages<String> messages = mock(Messages.class);
+		when(messages.iterator()).thenAnswer((invocation) -> List.of(failing, message).iterator());
+		Messages<String> noMessages = mock(Messages.class);
+		when(noMessages.iterator()).thenAnswer((invocation) -> Collections.emptyIterator());
+		when(env.consumer().batchReceive()).thenReturn(messages).thenReturn(noMessages);
+		List<String> values = new CopyOnWriteArrayList<>();
+		ConcurrentPulsarMessageListenerContainer<String> concurrentContainer = env.concurrentContainer();
+		PulsarContainerProperties containerProperties = concurrentContainer.getContainerProperties();
+		// no auto-nack so that the failure is not handled by the listener consumer
+		containerProperties.setAckMode(AckMode.MANUAL);
+		containerProperties.setDispatchConcurrency(2);
+		containerProperties.setMessageListener((PulsarRecordMessageListener<String>) (cons, msg) -> {
+			if (msg.getValue().equals("fail")) {
+				throw new IllegalStateException("fail");
+			}
+			values.add(msg.getValue());
+		});
+		try {
+			concurrentContainer.start();
+			verify(env.consumer(), timeout(10_000).atLeast(3)).batchReceive();
+			assertThat(concurrentContainer.getContainers().get(0).isRunning()).isTrue();
+		}
+		finally {
+			concurrentContainer.stop();
+		}
+		assertThat(values).containsExactly("hello");
+	}
+
+	@Test
+	void stopLetsReceivedMessagesBeHandledBeforeClosingConsumers() throws Exception {
+		PulsarListenerMockComponents env = setupListenerMockComponents(SubscriptionType.Shared);
+		stubSingleMessageBatches(env.consumer());
+		CountDownLatch handling = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ConcurrentPulsarMessageListenerContainer<String> concurrentContainer = env.concurrentContainer();
+		concurrentContainer.getContainerProperties()
+				.setMessageListener((PulsarRecordMessageListener<String>) (cons, msg) -> {
+					handling.countDown();
+					try {
+						release.await(10, TimeUnit.SECONDS);
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+				});
+		concurrentContainer.setConcurrency(2);
+		concurrentContainer.start();
+		assertThat(handling.await(10, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<Void> stopped = CompletableFuture.runAsync(concurrentContainer::stop);
+		Thread.sleep(300);
+		assertThat(stopped).isNotDone();
+		verify(env.consumer(), never()).closeAsync();
+		release.countDown();
+		stopped.get(10, TimeUnit.SECONDS);
+		InOrder inOrder = inOrder(env.consumer());
+		inOrder.verify(env.consumer(), atLeastOnce()).acknowledge(any(MessageId.class));
+		inOrder.verify(env.consumer(), times(2)).closeAsync();
+	}
+
+	@Test
+	void stopIsBoundedByShutdownTimeout() throws Exception {
+		PulsarListenerMockComponents env = setupListenerMockComponents(SubscriptionType.Shared);
+		stubSingleMessageBatches(env.consumer());
+		CountDownLatch handling = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ConcurrentPulsarMessageListenerContainer<String> concurrentContainer = env.concurrentContainer();
+		concurrentContainer.getContainerProperties()
+				.setMessageListener((PulsarRecordMessageListener<String>) (cons, msg) -> {
+					handling.countDown();
+					try {
+						release.await(30, TimeUnit.SECONDS);
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+				});
+		concurrentContainer.getContainerProperties().setShutdownTimeout(Duration.ofMillis(200));
+		try {
+			concurrentContainer.start();
+			assertThat(handling.await(10, TimeUnit.SECONDS)).isTrue();
+			long startNanos = System.nanoTime();
+			concurrentContainer.stop();
+			assertThat(Duration.ofNanos(System.nanoTime() - startNanos)).isLessThan(Duration.ofSeconds(5));
+			verify(env.consumer()).closeAsync();
+		}
+		finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	void batchListenerIsInvokedWithMessagesOfSeveralBatchReceives() throws Exception {
+		PulsarListenerMockComponents env = setupListenerMockComponents(SubscriptionType.Shared);
+		stubSingleMessageBatches(env.consumer());
+		List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+		ConcurrentPulsarMessageListenerContainer<String> concurrentContainer = env.concurrentContainer();
+		PulsarContainerProperties containerProperties = concurrentContainer.getContainerProperties();
+		containerProperties.setBatchListener(true);
+		containerProperties
+				.setMessageListener((PulsarBatchMessageListener<String>) (cons, msgs) -> batchSizes.add(msgs.size()));
+		containerProperties.setBatchWindowMaxMessages(3);
+		containerProperties.setBatchWindowMaxWait(Duration.ofSeconds(10));
+		try {
+			concurrentContainer.start();
+			await().atMost(Duration.ofSeconds(10)).until(() -> batchSizes.size() >= 2);
+		}
+		finally {
+			concurrentContainer.stop();
+		}
+		// the window in progress is handed over as is on stop
+		assertThat(batchSizes.subList(0, 2)).containsOnly(3);
+		verify(env.consumer(), atLeast(2)).acknowledge(argThat((List<MessageId> messageIds) -> messageIds.size() == 3));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void batchWindowIsClosedOnceMaxWaitElapses() throws Exception {
+		PulsarListenerMockComponents env = setupListenerMockComponents(SubscriptionType.Shared);
+		Message<String> message = mock(Message.class);
+		MessageId messageId = mock(MessageId.class);
+		when(message.getMessageId()).thenReturn(messageId);
+		Messages<String> messages = mock(Messages.class);
+		when(messages.size()).thenReturn(1);
+		when(messages.iterator()).thenAnswer((invocation) -> List.of(message).iterator());
+		doCallRealMethod().when(messages).forEach(any());
+		when(env.consumer().batchReceive()).thenReturn(messages).thenAnswer((invocation) -> {
+			Thread.sleep(10);
+			return mock(Messages.class);
+		});
+		List<Long> invocationNanos = new CopyOnWriteArrayList<>();
+		ConcurrentPulsarMessageListenerContainer<String> concurrentContainer = env.concurrentContainer();
+		PulsarContainerProperties containerProperties = concurrentContainer.getContainerProperties();
+		containerProperties.setBatchListener(true);
+		containerProperties.setMessageListener(
+				(PulsarBatchMessageListener<String>) (cons, msgs) -> invocationNanos.add(System.nanoTime()));
+		containerProperties.setBatchWindowMaxMessages(100);
+		containerProperties.setBatchWindowMaxWait(Duration.ofMillis(300));
+		long startNanos = System.nanoTime();
+		try {
+			concurrentContainer.start();
+			await().atMost(Duration.ofSeconds(10)).until(() -> !invocationNanos.isEmpty());
+		}
+		finally {
+			concurrentContainer.stop();
+		}
+		assertThat(Duration.ofNanos(invocationNanos.get(0) - startNanos))
+				.isGreaterThanOrEqualTo(Duration.ofMillis(300));
+		verify(env.consumer()).acknowledge(messageId);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void filteredMessagesAreAcknowledgedWithoutBeingDecoded() throws Exception {
+		PulsarListenerMockComponents env = setupListenerMockComponents(SubscriptionType.Shared);
+		Message<String> skipped = mock(Message.class);
+		MessageId skippedId = mock(MessageId.class);
+		when(skipped.getMessageId()).thenReturn(skippedId);
+		when(skipped.hasProperty("skip")).thenReturn(true);
+		Message<String> handled = mock(Message.class);
+		MessageId handledId = mock(MessageId.class);
+		when(handled.getMessageId()).thenReturn(handledId);
+		when(handled.getValue()).thenReturn("hello");
+		Messages<String> messages = mock(Messages.class);
+		when(messages.size()).thenReturn(2);
+		when(messages.iterator()).thenAnswer((invocation) -> List.of(skipped, handled).iterator());
+		when(env.consumer().batchReceive()).thenReturn(messages).thenReturn(mock(Messages.class));
+		List<String> values = new CopyOnWriteArrayList<>();
+		ConcurrentPulsarMessageListenerContainer<String> concurrentContainer = env.concurrentContainer();
+		PulsarContainerProperties containerProperties = concurrentContainer.getContainerProperties();
+		containerProperties
+				.setMessageListener((PulsarRecordMessageListener<String>) (cons, msg) -> values.add(msg.getValue()));
+		containerProperties
+				.setRecordFilterStrategy((RecordFilterStrategy<String>) (message) -> message.hasProperty("skip"));
+		try {
+			concurrentContainer.start();
+			await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> verify(env.consumer()).acknowledge(handledId));
+		}
+		finally {
+			concurrentContainer.stop();
+		}
+		assertThat(values).containsExactly("hello");
+		verify(env.consumer()).acknowledge(List.of(skippedId));
+		verify(skipped, never()).getValue();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void filteredMessagesReceivedAheadAreAcknowledgedWithoutBeingDecoded() throws Exception {
+		PulsarListenerMockComponents env = setupListenerMockComponents(SubscriptionType.Shared);
+		Message<String> skipped = mock(Message.class);
+		MessageId skippedId = mock(MessageId.class);
+		when(skipped.getMessageId()).thenReturn(skippedId);
+		when(skipped.hasProperty("skip")).thenReturn(true);
+		Message<String> handled = mock(Message.class);
+		MessageId handledId = mock(MessageId.class);
+		when(handled.getMessageId()).thenReturn(handledId);
+		when(handled.getValue()).thenReturn("hello");
+		Messages<String> messages = mock(Messages.class);
+		when(messages.size()).thenReturn(2);
+		when(messages.iterator()).thenAnswer((invocation) -> List.of(skipped, handled).iterator());
+		Messages<String> noMessages = mock(Messages.class);
+		when(noMessages.iterator()).thenAnswer((invocation) -> Collections.emptyIterator());
+		when(env.consumer().batchReceiveAsync()).thenReturn(CompletableFuture.completedFuture(messages))
+				.thenAnswer((invocation) -> CompletableFuture.supplyAsync(() -> noMessages,
+						CompletableFuture.delayedExecutor(10, TimeUnit.MILLISECONDS)));
+		List<String> values = new CopyOnWriteArrayList<>();
+		ConcurrentPulsarMessageListenerContainer<String> concurrentContainer = env.concurrentContainer();
+		PulsarContainerProperties containerProperties = concurrentContainer.getContainerProperties();
+		containerProperties
+				.setMessageListener((PulsarRecordMessageListener<String>) (cons, msg) -> values.add(msg.getValue()));
+		containerProperties
+				.setRecordFilterStrategy((RecordFilterStrategy<String>) (message) -> message.hasProperty("skip"));
+		containerProperties.setReceivePipelineDepth(1);
+		try {
+			concurrentContainer.start();
+			await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> verify(env.consumer()).acknowledge(handledId));
+		}
+		finally {
+			concurrentContainer.stop();
+		}
+		assertThat(values).containsExactly("hello");
+		verify(env.consumer()).acknowledge(List.of(skippedId));
+		verify(skipped, never()).getValue();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void recordListenerIsInvokedWithMessagesReceivedAhead() throws Exception {
+		PulsarListenerMockComponents env = setupListenerMockComponents(SubscriptionType.Shared);
+		Message<String> message = mock(Message.class);
+		MessageId messageId = mock(MessageId.class);
+		when(message.getMessageId()).thenReturn(messageId);
+		List<String> decodingThreads = new CopyOnWriteArrayList<>();
+		when(message.getValue()).thenAnswer((invocation) -> {
+			decodingThreads.add(Thread.currentThread().getName());
+			return "hello";
+		});
+		Messages<String> messages = mock(Messages.class);
+		when(messages.size()).thenReturn(1);
+		when(messages.iterator()).thenAnswer((invocation) -> List.of(message).iterator());
+		Messages<String> noMessages = mock(Messages.class);
+		when(noMessages.iterator()).thenAnswer((invocation) -> Collections.emptyIterator());
+		when(env.consumer().batchReceiveAsync()).thenReturn(CompletableFuture.completedFuture(messages))
+				.thenAnswer((invocation) -> CompletableFuture.supplyAsync(() -> noMessages,
+						CompletableFuture.delayedExecutor(10, TimeUnit.MILLISECONDS)));
+		List<String> values = new CopyOnWriteArrayList<>();
+		ConcurrentPulsarMessageListenerContainer<String> concurrentContainer = env.concurrentContainer();
+		PulsarContainerProperties containerProperties = concurrentContainer.getContainerProperties();
+		containerProperties
+				.setMessageListener((PulsarRecordMessageListener<String>) (cons, msg) -> values.add(msg.getValue()));
+		containerProperties.setReceivePipelineDepth(2);
+		try {
+			concurrentContainer.start();
+			await().atMost(Duration.ofSeconds(10)).until(() -> !values.isEmpty());
+			verify(env.consumer(), atLeast(3)).batchReceiveAsync();
+		}
+		finally {
+			concurrentContainer.stop();
+		}
+		assertThat(values).containsExactly("hello");
+		assertThat(decodingThreads).singleElement().asString().contains("-R-");
+		verify(env.consumer()).acknowledge(messageId);
+		verify(env.consumer(), never()).batchReceive();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void pooledMessagesAreReleasedOnceAcknowledged() throws Exception {
+		PulsarListenerMockComponents env = setupListenerMockComponents(SubscriptionType.Shared);
+		Message<String> message = mock(Message.class);
+		MessageId messageId = mock(MessageId.class);
+		when(message.getMessageId()).thenReturn(messageId);
+		Messages<String> messages = mock(Messages.class);
+		when(messages.size()).thenReturn(1);
+		when(messages.iterator()).thenAnswer((invocation) -> List.of(message).iterator());
+		when(env.consumer().batchReceive()).thenReturn(messages).thenReturn(mock(Messages.class));
+		ConcurrentPulsarMessageListenerContainer<String> concurrentContainer = env.concurrentContainer();
+		concurrentContainer.getContainerProperties().setPoolMessages(true);
+		try {
+			concurrentContainer.start();
+			await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> verify(message).release());
+			verify(env.consumer()).acknowledge(messageId);
+		}
+		finally {
+			concurrentContainer.stop();
+		}
+		assertThat(appliedConsumerConf(env).isPoolMessages()).isTrue();
+	}
+
+	@Test
+	void pooledMessagesAreNotUsedByBatchListener() throws Exception {
+		PulsarListenerMockComponents env = setupListenerMockComponents(SubscriptionType.Shared);
+		ConcurrentPulsarMessageListenerContainer<String> concurrentContainer = env.concurrentContainer();
+		concurrentContainer.getContainerProperties().getPulsarConsumerProperties().put("poolMessages", true);
+		concurrentContainer.getContainerProperties().setBatchListener(true);
+		concurrentContainer.getContainerProperties()
+				.setMessageListener((PulsarBatchMessageListener<String>) (cons, msgs) -> {
+				});
+		try {
+			concurrentContainer.start();
+		}
+		finally {
+			concurrentContainer.stop();
+		}
+		assertThat(appliedConsumerConf(env).isPoolMessages()).isFalse();
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private ConsumerConfigurationData<String> appliedConsumerConf(PulsarListenerMockComponents env) throws Exception {
+		ArgumentCaptor<List<ConsumerBuilderCustomizer<String>>> customizers = ArgumentCaptor.forClass(List.class);
+		verify(env.consumerFactory()).createConsumer(any(Schema.class), isNull(), isNull(), customizers.capture());
+		ConsumerBuilderImpl<String> builder = new ConsumerBuilderImpl<>(null, Schema.STRING);
+		customizers.getValue().forEach((customizer) -> customizer.customize(builder));
+		return builder.getConf();
+	}
+
+	@SuppressWarnings("unchecked")
+	private void stubSingleMessageBatches(Consumer<String> consumer) throws Exception {
+		Message<String> message = mock(Message.class);
+		when(message.getMessageId()).thenReturn(mock(MessageId.class));
+		Messages<String> messages = mock(Messages.class);
+		when(messages.size()).thenReturn(1);
+		when(messages.iterator()).thenAnswer((invocation) -> List.of(message).iterator());
+		doCallRealMethod().when(messages).forEach(any());
+		when(consumer.batchReceive()).thenReturn(messages);
+	}
+
 	@SuppressWarnings("unchecked")
 	private PulsarListenerMockComponents setupListenerMockComponents(SubscriptionType subscriptionType)
 			throws Exception {
@@ -179,6 +820,7 @@ public class ConcurrentPulsarMessageListenerContainerTests {
 		Consumer<String> consumer = mock(Consumer.class);
 		when(consumerFactory.createConsumer(any(Schema.class), isNull(), isNull(), anyList())).thenReturn(consumer);
 		when(consumer.batchReceive()).thenReturn(mock(Messages.class));
+		when(consumer.closeAsync()).thenReturn(CompletableFuture.completedFuture(null));
 
 		PulsarContainerProperties pulsarContainerProperties = new PulsarContainerProperties();
 		pulsarContainerProperties.setSchema(Schema.STRING);
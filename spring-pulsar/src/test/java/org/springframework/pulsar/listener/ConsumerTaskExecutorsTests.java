@@ -0,0 +1,72 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Tests for {@link ConsumerTaskExecutors}.
+ */
+class ConsumerTaskExecutorsTests {
+
+	@Test
+	void platformThreadsAreUsedByDefault() throws Exception {
+		SimpleAsyncTaskExecutor executor = ConsumerTaskExecutors.create("foo-C-", false);
+		Thread thread = threadOf(executor);
+		assertThat(thread.getName()).startsWith("foo-C-");
+		assertThat(isVirtual(thread)).isFalse();
+	}
+
+	@Test
+	void virtualThreadsAreUsedWhenRequested() throws Exception {
+		Assumptions.assumeTrue(ConsumerTaskExecutors.virtualThreadsAvailable(), "requires virtual threads");
+		SimpleAsyncTaskExecutor executor = ConsumerTaskExecutors.create("foo-C-", true);
+		Thread thread = threadOf(executor);
+		assertThat(thread.getName()).isEqualTo("foo-C-1");
+		assertThat(isVirtual(thread)).isTrue();
+	}
+
+	@Test
+	void virtualThreadsRequestedOnUnsupportedRuntimeFailsFast() {
+		Assumptions.assumeFalse(ConsumerTaskExecutors.virtualThreadsAvailable(), "requires a pre-21 runtime");
+		assertThatIllegalStateException().isThrownBy(() -> ConsumerTaskExecutors.create("foo-C-", true))
+				.withMessageStartingWith("Virtual threads were requested");
+	}
+
+	private Thread threadOf(SimpleAsyncTaskExecutor executor) throws Exception {
+		CompletableFuture<Thread> thread = new CompletableFuture<>();
+		executor.execute(() -> thread.complete(Thread.currentThread()));
+		return thread.get(5, TimeUnit.SECONDS);
+	}
+
+	private boolean isVirtual(Thread thread) {
+		Method isVirtual = ReflectionUtils.findMethod(Thread.class, "isVirtual");
+		return isVirtual != null && (boolean) ReflectionUtils.invokeMethod(isVirtual, thread);
+	}
+
+}
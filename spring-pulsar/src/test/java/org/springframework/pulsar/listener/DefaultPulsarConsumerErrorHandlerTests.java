@@ -16,6 +16,7 @@
 
 package org.springframework.pulsar.listener;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
@@ -47,6 +48,7 @@ import org.springframework.pulsar.core.PulsarOperations;
 import org.springframework.pulsar.core.PulsarTemplate;
 import org.springframework.pulsar.core.TypedMessageBuilderCustomizer;
 import org.springframework.pulsar.test.support.PulsarTestContainerSupport;
+import org.springframework.util.backoff.BackOffExecution;
 import org.springframework.util.backoff.FixedBackOff;
 
 /**
@@ -213,6 +215,81 @@ public class DefaultPulsarConsumerErrorHandlerTests implements PulsarTestContain
 		pulsarClient.close();
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	void nonBlockingRetriesKeepHandlingOtherRecords() throws Exception {
+		Map<String, Object> config = new HashMap<>();
+		config.put("topicNames", Collections.singleton("default-error-handler-tests-9"));
+		config.put("subscriptionName", "default-error-handler-tests-sub-9");
+
+		PulsarClient pulsarClient = PulsarClient.builder().serviceUrl(PulsarTestContainerSupport.getPulsarBrokerUrl())
+				.build();
+		DefaultPulsarConsumerFactory<Integer> pulsarConsumerFactory = new DefaultPulsarConsumerFactory<>(pulsarClient,
+				config);
+
+		PulsarContainerProperties pulsarContainerProperties = new PulsarContainerProperties();
+		List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+		AtomicInteger failures = new AtomicInteger(0);
+		pulsarContainerProperties.setMessageListener((PulsarRecordMessageListener<Integer>) (consumer, message) -> {
+			received.add(message.getValue());
+			// the first record fails twice and succeeds on its second retry
+			if (message.getValue() == 0 && failures.incrementAndGet() <= 2) {
+				throw new RuntimeException();
+			}
+		});
+		pulsarContainerProperties.setSchema(Schema.INT32);
+
+		Map<String, Object> prodConfig = new HashMap<>();
+		prodConfig.put("topicName", "default-error-handler-tests-9");
+		DefaultPulsarProducerFactory<Integer> pulsarProducerFactory = new DefaultPulsarProducerFactory<>(pulsarClient,
+				prodConfig);
+		PulsarTemplate<Integer> pulsarTemplate = new PulsarTemplate<>(pulsarProducerFactory);
+		PulsarTemplate<Integer> mockPulsarTemplate = mock(PulsarTemplate.class);
+
+		DefaultPulsarMessageListenerContainer<Integer> container = new DefaultPulsarMessageListenerContainer<>(
+				pulsarConsumerFactory, pulsarContainerProperties);
+		DefaultPulsarConsumerErrorHandler<Integer> errorHandler = new DefaultPulsarConsumerErrorHandler<>(
+				new PulsarDeadLetterPublishingRecoverer<>(mockPulsarTemplate), new FixedBackOff(1000, 5));
+		errorHandler.setNonBlockingRetries(true);
+		container.setPulsarConsumerErrorHandler(errorHandler);
+		container.start();
+
+		for (int i = 0; i < 5; i++) {
+			pulsarTemplate.send(i);
+		}
+
+		await().atMost(Duration.ofSeconds(10)).until(() -> received.size() == 7);
+		// the other records are not held up by the back off of the failed record
+		assertThat(received).containsExactly(0, 1, 2, 3, 4, 0, 0);
+		verifyNoInteractions(mockPulsarTemplate);
+
+		container.stop();
+		pulsarClient.close();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void nonBlockingRetryStateIsKeptPerMessage() {
+		DefaultPulsarConsumerErrorHandler<String> errorHandler = new DefaultPulsarConsumerErrorHandler<>(
+				mock(PulsarMessageRecovererFactory.class), new FixedBackOff(10, 2));
+		errorHandler.setNonBlockingRetries(true);
+		Message<String> first = mock(Message.class);
+		when(first.getMessageId()).thenReturn(mock(MessageId.class));
+		Message<String> second = mock(Message.class);
+		when(second.getMessageId()).thenReturn(mock(MessageId.class));
+		RuntimeException exception = new RuntimeException();
+
+		assertThat(errorHandler.nextRetryDelay(exception, first)).isEqualTo(10);
+		assertThat(errorHandler.nextRetryDelay(exception, second)).isEqualTo(10);
+		assertThat(errorHandler.nextRetryDelay(exception, first)).isEqualTo(10);
+		assertThat(errorHandler.nextRetryDelay(exception, first)).isEqualTo(BackOffExecution.STOP);
+		// the state of an exhausted message is cleared
+		assertThat(errorHandler.nextRetryDelay(exception, first)).isEqualTo(10);
+		errorHandler.clearMessage(second);
+		assertThat(errorHandler.nextRetryDelay(exception, second)).isEqualTo(10);
+		assertThat(errorHandler.currentMessage()).isNull();
+	}
+
 	@Test
 	@SuppressWarnings("unchecked")
 	void batchRecordListenerFirstOneOnlyErrorAndRecover() throws Exception {
@@ -30,6 +30,8 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -328,4 +330,46 @@ class DefaultPulsarMessageListenerContainerTests implements PulsarTestContainerS
 		pulsarClient.close();
 	}
 
+	@Test
+	void keyOrderedDispatchKeepsOrderPerKey() throws Exception {
+		Map<String, Object> config = new HashMap<>();
+		config.put("topicNames", Collections.singleton("dpmlct-017"));
+		config.put("subscriptionName", "dpmlct-sb-017");
+		PulsarClient pulsarClient = PulsarClient.builder().serviceUrl(PulsarTestContainerSupport.getPulsarBrokerUrl())
+				.build();
+		DefaultPulsarConsumerFactory<Integer> pulsarConsumerFactory = new DefaultPulsarConsumerFactory<>(pulsarClient,
+				config);
+		CountDownLatch latch = new CountDownLatch(100);
+		Map<String, List<Integer>> valuesPerKey = new ConcurrentHashMap<>();
+		Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		PulsarContainerProperties pulsarContainerProperties = new PulsarContainerProperties();
+		pulsarContainerProperties.setMessageListener((PulsarRecordMessageListener<Integer>) (consumer, msg) -> {
+			valuesPerKey.computeIfAbsent(msg.getKey(), (key) -> Collections.synchronizedList(new ArrayList<>()))
+					.add(msg.getValue());
+			threads.add(Thread.currentThread());
+			latch.countDown();
+		});
+		pulsarContainerProperties.setSchema(Schema.INT32);
+		pulsarContainerProperties.setDispatchConcurrency(4);
+		DefaultPulsarMessageListenerContainer<Integer> container = new DefaultPulsarMessageListenerContainer<>(
+				pulsarConsumerFactory, pulsarContainerProperties);
+		container.start();
+
+		Map<String, Object> prodConfig = Collections.singletonMap("topicName", "dpmlct-017");
+		DefaultPulsarProducerFactory<Integer> pulsarProducerFactory = new DefaultPulsarProducerFactory<>(pulsarClient,
+				prodConfig);
+		PulsarTemplate<Integer> pulsarTemplate = new PulsarTemplate<>(pulsarProducerFactory);
+		for (int i = 0; i < 100; i++) {
+			String key = "key-" + (i % 4);
+			pulsarTemplate.newMessage(i).withMessageCustomizer((builder) -> builder.key(key)).send();
+		}
+
+		assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(valuesPerKey).hasSize(4);
+		valuesPerKey.values().forEach((values) -> assertThat(values).hasSize(25).isSorted());
+		assertThat(threads).hasSizeGreaterThan(1);
+		container.stop();
+		pulsarClient.close();
+	}
+
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pulsar.client.api.Message;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.pulsar.listener.InFlightMessageTracker.Entry;
+
+/**
+ * Tests for {@link InFlightMessageTracker}.
+ */
+class InFlightMessageTrackerTests {
+
+	@Test
+	void entriesCompletedInOrderAreReleasedRightAway() throws Exception {
+		InFlightMessageTracker<String> tracker = new InFlightMessageTracker<>(10);
+		Entry<String> first = tracker.track(message(), 1, TimeUnit.SECONDS);
+		Entry<String> second = tracker.track(message(), 1, TimeUnit.SECONDS);
+		assertThat(tracker.complete(first, true)).containsExactly(first);
+		assertThat(tracker.complete(second, true)).containsExactly(second);
+		assertThat(tracker.size()).isZero();
+	}
+
+	@Test
+	void entriesCompletedOutOfOrderAreReleasedOnceContiguous() throws Exception {
+		InFlightMessageTracker<String> tracker = new InFlightMessageTracker<>(10);
+		Entry<String> first = tracker.track(message(), 1, TimeUnit.SECONDS);
+		Entry<String> second = tracker.track(message(), 1, TimeUnit.SECONDS);
+		Entry<String> third = tracker.track(message(), 1, TimeUnit.SECONDS);
+		Entry<String> fourth = tracker.track(message(), 1, TimeUnit.SECONDS);
+		assertThat(tracker.complete(third, true)).isEmpty();
+		assertThat(tracker.complete(second, false)).isEmpty();
+		List<Entry<String>> completed = tracker.complete(first, true);
+		assertThat(completed).containsExactly(first, second, third);
+		assertThat(completed).extracting(Entry::isSuccess).containsExactly(true, false, true);
+		assertThat(tracker.size()).isEqualTo(1);
+		assertThat(tracker.complete(fourth, true)).containsExactly(fourth);
+	}
+
+	@Test
+	void windowIsBoundedUntilOldestEntryCompletes() throws Exception {
+		InFlightMessageTracker<String> tracker = new InFlightMessageTracker<>(2);
+		Entry<String> first = tracker.track(message(), 1, TimeUnit.SECONDS);
+		Entry<String> second = tracker.track(message(), 1, TimeUnit.SECONDS);
+		assertThat(tracker.track(message(), 10, TimeUnit.MILLISECONDS)).isNull();
+		// completing a newer entry does not make room as the oldest one is pending
+		tracker.complete(second, true);
+		assertThat(tracker.track(message(), 10, TimeUnit.MILLISECONDS)).isNull();
+		tracker.complete(first, true);
+		assertThat(tracker.track(message(), 10, TimeUnit.MILLISECONDS)).isNotNull();
+		assertThat(tracker.track(message(), 10, TimeUnit.MILLISECONDS)).isNotNull();
+		assertThat(tracker.track(message(), 10, TimeUnit.MILLISECONDS)).isNull();
+	}
+
+	@Test
+	void completionAwaitsAllTrackedEntries() throws Exception {
+		InFlightMessageTracker<String> tracker = new InFlightMessageTracker<>(10);
+		assertThat(tracker.awaitCompletion(0, TimeUnit.MILLISECONDS)).isTrue();
+		Entry<String> first = tracker.track(message(), 1, TimeUnit.SECONDS);
+		Entry<String> second = tracker.track(message(), 1, TimeUnit.SECONDS);
+		tracker.complete(second, true);
+		assertThat(tracker.awaitCompletion(10, TimeUnit.MILLISECONDS)).isFalse();
+		tracker.complete(first, true);
+		assertThat(tracker.awaitCompletion(10, TimeUnit.MILLISECONDS)).isTrue();
+		// the window is left untouched
+		assertThat(tracker.track(message(), 10, TimeUnit.MILLISECONDS)).isNotNull();
+	}
+
+	@SuppressWarnings("unchecked")
+	private Message<String> message() {
+		return mock(Message.class);
+	}
+
+}
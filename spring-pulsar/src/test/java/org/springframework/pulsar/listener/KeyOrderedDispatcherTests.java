@@ -0,0 +1,179 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pulsar.client.api.Message;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Tests for {@link KeyOrderedDispatcher}.
+ */
+class KeyOrderedDispatcherTests {
+
+	private final KeyOrderedDispatcher dispatcher = new KeyOrderedDispatcher(4, Executors.newFixedThreadPool(3));
+
+	@AfterEach
+	void closeDispatcher() {
+		this.dispatcher.close();
+	}
+
+	@Test
+	void messagesWithSameKeyAreHandledInOrderOnSameThread() {
+		List<Message<String>> messages = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			messages.add(message("key-" + (i % 7), null, String.valueOf(i)));
+		}
+		Map<String, List<Integer>> valuesPerKey = new ConcurrentHashMap<>();
+		Map<String, Set<Thread>> threadsPerKey = new ConcurrentHashMap<>();
+		this.dispatcher.dispatch(messages, (message) -> {
+			valuesPerKey.computeIfAbsent(message.getKey(), (key) -> Collections.synchronizedList(new ArrayList<>()))
+					.add(Integer.valueOf(message.getValue()));
+			threadsPerKey.computeIfAbsent(message.getKey(), (key) -> ConcurrentHashMap.newKeySet())
+					.add(Thread.currentThread());
+		}, this::rethrow);
+		assertThat(valuesPerKey).hasSize(7);
+		assertThat(valuesPerKey.values().stream().mapToInt(List::size).sum()).isEqualTo(100);
+		valuesPerKey.values().forEach((values) -> assertThat(values).isSorted());
+		threadsPerKey.values().forEach((threads) -> assertThat(threads).hasSize(1));
+	}
+
+	@Test
+	void orderingKeyTakesPrecedenceOverKey() {
+		List<Message<String>> messages = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			messages.add(message("key-" + i, "same", String.valueOf(i)));
+		}
+		List<Integer> values = Collections.synchronizedList(new ArrayList<>());
+		Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		this.dispatcher.dispatch(messages, (message) -> {
+			values.add(Integer.valueOf(message.getValue()));
+			threads.add(Thread.currentThread());
+		}, this::rethrow);
+		assertThat(values).hasSize(20).isSorted();
+		assertThat(threads).hasSize(1);
+	}
+
+	@Test
+	void messagesWithDifferentKeysAreHandledConcurrently() throws Exception {
+		List<Message<String>> messages = List.of(message("a", null, "1"), message("b", null, "2"),
+				message("c", null, "3"), message("d", null, "4"));
+		// each lane waits until the others are in flight as well
+		CountDownLatch allInFlight = new CountDownLatch(messages.size());
+		Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		this.dispatcher.dispatch(messages, (message) -> {
+			threads.add(Thread.currentThread());
+			allInFlight.countDown();
+			try {
+				allInFlight.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}, this::rethrow);
+		assertThat(allInFlight.getCount()).isZero();
+		assertThat(threads).hasSize(4).contains(Thread.currentThread());
+	}
+
+	@Test
+	void keylessMessagesAreSpreadAcrossLanes() {
+		List<Message<String>> messages = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			messages.add(message(null, null, String.valueOf(i)));
+		}
+		Map<Thread, Integer> countsPerThread = new ConcurrentHashMap<>();
+		this.dispatcher.dispatch(messages, (message) -> countsPerThread.merge(Thread.currentThread(), 1, Integer::sum),
+				this::rethrow);
+		assertThat(countsPerThread.values()).hasSize(4).containsOnly(2);
+	}
+
+	@Test
+	void handlerFailureIsPassedToFailureHandlerAndLaneCarriesOn() {
+		List<Message<String>> messages = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			messages.add(message("key-" + (i % 4), null, String.valueOf(i)));
+		}
+		Set<String> handled = ConcurrentHashMap.newKeySet();
+		Map<String, RuntimeException> failures = new ConcurrentHashMap<>();
+		this.dispatcher.dispatch(messages, (message) -> {
+			if (message.getValue().equals("5")) {
+				throw new IllegalStateException("fail on 5");
+			}
+			handled.add(message.getValue());
+		}, (message, ex) -> failures.put(message.getValue(), ex));
+		assertThat(failures).containsOnlyKeys("5");
+		assertThat(failures.get("5")).hasMessage("fail on 5");
+		assertThat(handled).hasSize(39).doesNotContain("5").contains("9", "37");
+	}
+
+	@Test
+	void failureHandlerFailureIsRethrownAfterAllLanesComplete() {
+		List<Message<String>> messages = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			messages.add(message("key-" + (i % 4), null, String.valueOf(i)));
+		}
+		Set<String> handled = ConcurrentHashMap.newKeySet();
+		assertThatIllegalStateException().isThrownBy(() -> this.dispatcher.dispatch(messages, (message) -> {
+			if (message.getValue().equals("5")) {
+				throw new IllegalStateException("fail on 5");
+			}
+			handled.add(message.getValue());
+		}, (message, ex) -> {
+			throw ex;
+		})).withMessage("fail on 5");
+		// only the remaining messages of the failed key are skipped
+		String failedKey = "key-1";
+		messages.stream().filter((message) -> !message.getKey().equals(failedKey))
+				.forEach((message) -> assertThat(handled).contains(message.getValue()));
+		assertThat(handled).doesNotContain("5", "9", "37");
+	}
+
+	private void rethrow(Message<String> message, RuntimeException ex) {
+		throw ex;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Message<String> message(@Nullable String key, @Nullable String orderingKey, String value) {
+		Message<String> message = mock(Message.class);
+		when(message.hasKey()).thenReturn(key != null);
+		when(message.getKey()).thenReturn(key);
+		when(message.hasOrderingKey()).thenReturn(orderingKey != null);
+		when(message.getOrderingKey())
+				.thenReturn(orderingKey != null ? orderingKey.getBytes(StandardCharsets.UTF_8) : null);
+		when(message.getValue()).thenReturn(value);
+		return message;
+	}
+
+}
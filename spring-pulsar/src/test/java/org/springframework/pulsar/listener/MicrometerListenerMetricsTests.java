@@ -0,0 +1,147 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.Messages;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.context.support.GenericApplicationContext;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tests for {@link MicrometerListenerMetrics}.
+ */
+class MicrometerListenerMetricsTests {
+
+	private final MeterRegistry registry = new SimpleMeterRegistry();
+
+	private final MicrometerListenerMetrics metrics = new MicrometerListenerMetrics(this.registry, "listener1", "sub1",
+			"topic1", Map.of("app", "test"));
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void receiveIsRecordedWithConsumerTopics() {
+		Message<String> message = message("persistent://public/default/topic1-partition-0");
+		when(message.getPublishTime()).thenReturn(System.currentTimeMillis() - 1000);
+		Messages<String> messages = mock(Messages.class);
+		when(messages.size()).thenReturn(1);
+		when(messages.iterator()).thenAnswer((invocation) -> List.of(message).iterator());
+		this.metrics.received(messages, TimeUnit.MILLISECONDS.toNanos(20));
+		Timer receive = this.registry.get("spring.pulsar.listener.receive").tag("name", "listener1")
+				.tag("subscription", "sub1").tag("topic", "topic1").tag("app", "test").timer();
+		assertThat(receive.count()).isEqualTo(1);
+		assertThat(receive.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(20);
+		assertThat(this.registry.get("spring.pulsar.listener.receive.batch.size").summary().totalAmount()).isEqualTo(1);
+		Timer lag = this.registry.get("spring.pulsar.listener.lag").tag("topic", "persistent://public/default/topic1")
+				.timer();
+		assertThat(lag.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(1000);
+	}
+
+	@Test
+	void processingIsRecordedPerResult() {
+		Message<String> message = message("persistent://public/default/topic1");
+		this.metrics.processed(message, 10, null);
+		this.metrics.processed(message, 10, null);
+		this.metrics.processed(message, 10, new IllegalStateException());
+		this.metrics.processedBatch(List.of(message), 10, null);
+		assertThat(this.registry.get("spring.pulsar.listener.process").tag("type", "record").tag("result", "success")
+				.timer().count()).isEqualTo(2);
+		assertThat(this.registry.get("spring.pulsar.listener.process").tag("type", "record").tag("result", "failure")
+				.timer().count()).isEqualTo(1);
+		assertThat(this.registry.get("spring.pulsar.listener.process").tag("type", "batch").tag("result", "success")
+				.tag("topic", "topic1").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void acknowledgementsAndRetriesAreCountedPerTopic() {
+		Message<String> message1 = message("persistent://public/default/topic1");
+		Message<String> message2 = message("persistent://public/default/topic2");
+		this.metrics.acknowledged(message1, TimeUnit.MILLISECONDS.toNanos(5));
+		this.metrics.acknowledged(message2, 0);
+		this.metrics.nacked(message1);
+		this.metrics.retried(message1);
+		this.metrics.retried(message1);
+		assertThat(this.registry.get("spring.pulsar.listener.acks").tag("topic", "persistent://public/default/topic1")
+				.counter().count()).isEqualTo(1);
+		assertThat(this.registry.get("spring.pulsar.listener.ack.latency")
+				.tag("topic", "persistent://public/default/topic1").timer().totalTime(TimeUnit.MILLISECONDS))
+						.isEqualTo(5);
+		assertThat(this.registry.get("spring.pulsar.listener.acks").tag("topic", "persistent://public/default/topic2")
+				.counter().count()).isEqualTo(1);
+		assertThat(this.registry.get("spring.pulsar.listener.nacks").counter().count()).isEqualTo(1);
+		assertThat(this.registry.get("spring.pulsar.listener.retries").counter().count()).isEqualTo(2);
+	}
+
+	@Test
+	void metersAreRemovedOnClose() {
+		this.metrics.nacked(message("persistent://public/default/topic1"));
+		assertThat(this.registry.getMeters()).isNotEmpty();
+		this.metrics.close();
+		assertThat(this.registry.getMeters()).isEmpty();
+	}
+
+	@Test
+	void metersSharedWithNewMetricsAreKeptOnClose() {
+		Message<String> message = message("persistent://public/default/topic1");
+		this.metrics.nacked(message);
+		MicrometerListenerMetrics restarted = new MicrometerListenerMetrics(this.registry, "listener1", "sub1",
+				"topic1", Map.of("app", "test"));
+		restarted.nacked(message);
+		this.metrics.close();
+		restarted.nacked(message);
+		assertThat(this.registry.get("spring.pulsar.listener.nacks").counter().count()).isEqualTo(3);
+		assertThat(this.registry.find("spring.pulsar.listener.receive").timer()).isNotNull();
+		restarted.close();
+		assertThat(this.registry.getMeters()).isEmpty();
+	}
+
+	@Test
+	void metricsAreOnlyCreatedWithMeterRegistry() {
+		PulsarContainerProperties containerProperties = new PulsarContainerProperties("topic1", "topic2");
+		try (GenericApplicationContext context = new GenericApplicationContext()) {
+			context.refresh();
+			assertThat(MicrometerListenerMetrics.create(context, "listener1", containerProperties)).isNull();
+		}
+		try (GenericApplicationContext context = new GenericApplicationContext()) {
+			context.registerBean(MeterRegistry.class, () -> this.registry);
+			context.refresh();
+			assertThat(MicrometerListenerMetrics.create(context, "listener1", containerProperties)).isNotNull();
+			assertThat(this.registry.get("spring.pulsar.listener.receive").tag("topic", "topic1,topic2")
+					.tag("subscription", "none").timer()).isNotNull();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Message<String> message(String topic) {
+		Message<String> message = mock(Message.class);
+		when(message.getTopicName()).thenReturn(topic);
+		return message;
+	}
+
+}
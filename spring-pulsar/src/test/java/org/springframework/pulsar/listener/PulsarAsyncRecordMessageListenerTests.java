@@ -0,0 +1,199 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.DeadLetterPolicy;
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.Messages;
+import org.apache.pulsar.client.api.Schema;
+import org.apache.pulsar.client.api.SubscriptionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.lang.Nullable;
+import org.springframework.pulsar.core.PulsarConsumerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Tests for {@link DefaultPulsarMessageListenerContainer} with a
+ * {@link PulsarAsyncRecordMessageListener}.
+ */
+class PulsarAsyncRecordMessageListenerTests {
+
+	private final Map<String, CompletableFuture<Void>> futures = new ConcurrentHashMap<>();
+
+	private DefaultPulsarMessageListenerContainer<String> container;
+
+	@AfterEach
+	void stopContainer() {
+		if (this.container != null) {
+			this.container.stop();
+		}
+	}
+
+	@Test
+	void cumulativeAckAdvancesOverContiguousCompletedMessages() throws Exception {
+		List<Message<String>> messages = messages("m1", "m2", "m3");
+		Consumer<String> consumer = startContainer(messages, SubscriptionType.Exclusive, AckMode.BATCH, 10);
+		await().atMost(Duration.ofSeconds(5)).until(() -> this.futures.size() == 3);
+
+		this.futures.get("m3").complete(null);
+		this.futures.get("m2").complete(null);
+		verify(consumer, after(200).never()).acknowledgeCumulative(any(Message.class));
+
+		this.futures.get("m1").complete(null);
+		verify(consumer, timeout(5000)).acknowledgeCumulative(messages.get(2));
+		verify(consumer, never()).acknowledgeCumulative(messages.get(0));
+	}
+
+	@Test
+	void sharedSubscriptionAcksCompletedMessagesIndividually() throws Exception {
+		List<Message<String>> messages = messages("m1", "m2");
+		Consumer<String> consumer = startContainer(messages, SubscriptionType.Shared, AckMode.BATCH, 10);
+		await().atMost(Duration.ofSeconds(5)).until(() -> this.futures.size() == 2);
+
+		this.futures.get("m2").complete(null);
+		this.futures.get("m1").complete(null);
+		verify(consumer, timeout(5000))
+				.acknowledge(List.of(messages.get(0).getMessageId(), messages.get(1).getMessageId()));
+	}
+
+	@Test
+	void failedMessageIsNackedAndOthersAreAckedIndividually() throws Exception {
+		List<Message<String>> messages = messages("m1", "m2");
+		Consumer<String> consumer = startContainer(messages, SubscriptionType.Exclusive, AckMode.BATCH, 10);
+		await().atMost(Duration.ofSeconds(5)).until(() -> this.futures.size() == 2);
+
+		this.futures.get("m1").completeExceptionally(new IllegalStateException("fail"));
+		this.futures.get("m2").complete(null);
+		verify(consumer, timeout(5000)).negativeAcknowledge(messages.get(0));
+		verify(consumer, timeout(5000)).acknowledge(List.of(messages.get(1).getMessageId()));
+		verify(consumer, never()).acknowledgeCumulative(any(Message.class));
+	}
+
+	@Test
+	void failedMessageSentToDeadLetterTopicIsNotAwaitedForRedelivery() throws Exception {
+		List<Message<String>> messages = messages("m1", "m2");
+		when(messages.get(0).getRedeliveryCount()).thenReturn(1);
+		Consumer<String> consumer = startContainer(messages, SubscriptionType.Shared, AckMode.BATCH, 10,
+				DeadLetterPolicy.builder().maxRedeliverCount(1).deadLetterTopic("dlq-topic").build());
+		await().atMost(Duration.ofSeconds(5)).until(() -> this.futures.size() == 2);
+
+		this.futures.get("m1").completeExceptionally(new IllegalStateException("fail"));
+		this.futures.get("m2").complete(null);
+		verify(consumer, timeout(5000)).negativeAcknowledge(messages.get(0));
+		verify(consumer, timeout(5000)).acknowledge(List.of(messages.get(1).getMessageId()));
+		Object listenerConsumer = ReflectionTestUtils.getField(this.container, "listenerConsumer");
+		assertThat((Set<?>) ReflectionTestUtils.getField(listenerConsumer, "pendingRedeliveries")).isEmpty();
+	}
+
+	@Test
+	void recordAckModeAcksEachMessageOnCompletion() throws Exception {
+		List<Message<String>> messages = messages("m1", "m2");
+		Consumer<String> consumer = startContainer(messages, SubscriptionType.Exclusive, AckMode.RECORD, 10);
+		await().atMost(Duration.ofSeconds(5)).until(() -> this.futures.size() == 2);
+
+		this.futures.get("m2").complete(null);
+		verify(consumer, timeout(5000)).acknowledge(messages.get(1).getMessageId());
+		verify(consumer, never()).acknowledge(messages.get(0).getMessageId());
+	}
+
+	@Test
+	void dispatchWaitsForRoomInTheWindow() throws Exception {
+		List<Message<String>> messages = messages("m1", "m2", "m3");
+		startContainer(messages, SubscriptionType.Exclusive, AckMode.BATCH, 2);
+		await().atMost(Duration.ofSeconds(5)).until(() -> this.futures.size() == 2);
+		Thread.sleep(200);
+		assertThat(this.futures).containsOnlyKeys("m1", "m2");
+
+		this.futures.get("m2").complete(null);
+		Thread.sleep(200);
+		assertThat(this.futures).containsOnlyKeys("m1", "m2");
+
+		this.futures.get("m1").complete(null);
+		await().atMost(Duration.ofSeconds(5)).until(() -> this.futures.containsKey("m3"));
+	}
+
+	private Consumer<String> startContainer(List<Message<String>> messages, SubscriptionType subscriptionType,
+			AckMode ackMode, int maxInFlightMessages) throws Exception {
+		return startContainer(messages, subscriptionType, ackMode, maxInFlightMessages, null);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Consumer<String> startContainer(List<Message<String>> messages, SubscriptionType subscriptionType,
+			AckMode ackMode, int maxInFlightMessages, @Nullable DeadLetterPolicy deadLetterPolicy) throws Exception {
+		PulsarConsumerFactory<String> consumerFactory = mock(PulsarConsumerFactory.class);
+		Consumer<String> consumer = mock(Consumer.class);
+		when(consumerFactory.createConsumer(any(Schema.class), isNull(), isNull(), anyList())).thenReturn(consumer);
+		Messages<String> batch = mock(Messages.class);
+		when(batch.iterator()).thenAnswer((invocation) -> messages.iterator());
+		Messages<String> emptyBatch = mock(Messages.class);
+		when(emptyBatch.iterator()).thenAnswer((invocation) -> Collections.emptyIterator());
+		when(consumer.batchReceive()).thenReturn(batch).thenReturn(emptyBatch);
+
+		PulsarContainerProperties containerProperties = new PulsarContainerProperties();
+		containerProperties.setSchema(Schema.STRING);
+		containerProperties.setSubscriptionType(subscriptionType);
+		containerProperties.setAckMode(ackMode);
+		containerProperties.setMaxInFlightMessages(maxInFlightMessages);
+		containerProperties.setMessageListener((PulsarAsyncRecordMessageListener<String>) (cons, msg, ack) -> {
+			CompletableFuture<Void> future = new CompletableFuture<>();
+			this.futures.put(msg.getValue(), future);
+			return future;
+		});
+		this.container = new DefaultPulsarMessageListenerContainer<>(consumerFactory, containerProperties);
+		this.container.setDeadLetterPolicy(deadLetterPolicy);
+		this.container.start();
+		return consumer;
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Message<String>> messages(String... values) {
+		List<Message<String>> messages = new ArrayList<>();
+		for (String value : values) {
+			Message<String> message = mock(Message.class);
+			when(message.getValue()).thenReturn(value);
+			when(message.getMessageId()).thenReturn(mock(MessageId.class));
+			messages.add(message);
+		}
+		return messages;
+	}
+
+}
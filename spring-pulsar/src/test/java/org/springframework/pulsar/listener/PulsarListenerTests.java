@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -78,6 +79,8 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 import org.springframework.util.backoff.FixedBackOff;
 
+import reactor.core.publisher.Mono;
+
 /**
  * @author Soby Chacko
  * @author Alexander Preuß
@@ -370,6 +373,43 @@ public class PulsarListenerTests implements PulsarTestContainerSupport {
 
 	}
 
+	@Nested
+	@ContextConfiguration(classes = RecordFilterStrategyTest.RecordFilterStrategyConfig.class)
+	class RecordFilterStrategyTest {
+
+		private static final List<String> received = Collections.synchronizedList(new ArrayList<>());
+
+		private static CountDownLatch latch = new CountDownLatch(1);
+
+		@Test
+		void pulsarListenerWithRecordFilterStrategy() throws Exception {
+			pulsarTemplate.newMessage("skipped").withMessageCustomizer((builder) -> builder.property("skip", "true"))
+					.withTopic("rfst-topic").send();
+			pulsarTemplate.send("rfst-topic", "handled");
+			assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+			assertThat(received).containsExactly("handled");
+		}
+
+		@EnablePulsar
+		@Configuration
+		static class RecordFilterStrategyConfig {
+
+			@PulsarListener(id = "rfst-id", subscriptionName = "rfst-subscription", topics = "rfst-topic",
+					recordFilterStrategy = "skipFilter")
+			void listen(String msg) {
+				received.add(msg);
+				latch.countDown();
+			}
+
+			@Bean
+			RecordFilterStrategy<String> skipFilter() {
+				return (message) -> message.hasProperty("skip");
+			}
+
+		}
+
+	}
+
 	@Nested
 	@ContextConfiguration(classes = DeadLetterPolicyTest.DeadLetterPolicyConfig.class)
 	class DeadLetterPolicyTest {
@@ -411,6 +451,70 @@ public class PulsarListenerTests implements PulsarTestContainerSupport {
 
 	}
 
+	@Nested
+	@ContextConfiguration(classes = AsyncListenerTest.AsyncListenerConfig.class)
+	class AsyncListenerTest {
+
+		static CountDownLatch futureLatch = new CountDownLatch(1);
+
+		static CountDownLatch monoLatch = new CountDownLatch(1);
+
+		static CountDownLatch failedFutureLatch = new CountDownLatch(2);
+
+		@Test
+		void pulsarListenerReturningCompletableFuture() throws Exception {
+			pulsarTemplate.send("asyncListenerFuture-test-topic", "hello john doe");
+			assertThat(futureLatch.await(10, TimeUnit.SECONDS)).isTrue();
+		}
+
+		@Test
+		void pulsarListenerReturningMono() throws Exception {
+			pulsarTemplate.send("asyncListenerMono-test-topic", "hello john doe");
+			assertThat(monoLatch.await(10, TimeUnit.SECONDS)).isTrue();
+		}
+
+		@Test
+		void pulsarListenerReturningFailedFutureGetsRedelivered() throws Exception {
+			pulsarTemplate.send("asyncListenerFailed-test-topic", "hello john doe");
+			assertThat(failedFutureLatch.await(10, TimeUnit.SECONDS)).isTrue();
+		}
+
+		@EnablePulsar
+		@Configuration
+		static class AsyncListenerConfig {
+
+			@PulsarListener(id = "asyncListenerFuture", subscriptionName = "asyncListenerFutureSubscription",
+					topics = "asyncListenerFuture-test-topic")
+			CompletableFuture<Void> listenFuture(String msg) {
+				return CompletableFuture.runAsync(() -> futureLatch.countDown());
+			}
+
+			@PulsarListener(id = "asyncListenerMono", subscriptionName = "asyncListenerMonoSubscription",
+					topics = "asyncListenerMono-test-topic")
+			Mono<Void> listenMono(String msg) {
+				return Mono.fromRunnable(() -> monoLatch.countDown());
+			}
+
+			@PulsarListener(id = "asyncListenerFailed", subscriptionName = "asyncListenerFailedSubscription",
+					topics = "asyncListenerFailed-test-topic", negativeAckRedeliveryBackoff = "asyncRedeliveryBackoff",
+					subscriptionType = SubscriptionType.Shared)
+			CompletableFuture<Void> listenFailed(String msg) {
+				failedFutureLatch.countDown();
+				if (failedFutureLatch.getCount() > 0) {
+					return CompletableFuture.failedFuture(new RuntimeException("fail " + msg));
+				}
+				return CompletableFuture.completedFuture(null);
+			}
+
+			@Bean
+			public RedeliveryBackoff asyncRedeliveryBackoff() {
+				return MultiplierRedeliveryBackoff.builder().minDelayMs(1000).maxDelayMs(1000).build();
+			}
+
+		}
+
+	}
+
 	@Nested
 	class NegativeConcurrency {
 
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.Messages;
+import org.apache.pulsar.client.api.PulsarClientException;
+import org.apache.pulsar.client.api.SchemaSerializationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ReceivePipeline}.
+ */
+@SuppressWarnings("unchecked")
+class ReceivePipelineTests {
+
+	private final Consumer<String> consumer = mock(Consumer.class);
+
+	private final ExecutorService decodeExecutor = ConsumerTaskExecutors.createDecodeExecutor("test-R-", 3, false);
+
+	@AfterEach
+	void shutdownDecodeExecutor() {
+		this.decodeExecutor.shutdownNow();
+	}
+
+	@Test
+	void batchesAreReceivedAheadAndHandedOverInOrder() throws Exception {
+		ReceivePipeline<String> pipeline = new ReceivePipeline<>(this.consumer, 2, this.decodeExecutor, null);
+		Messages<String> first = messages(message("a"));
+		Messages<String> second = messages(message("b"));
+		Messages<String> third = messages(message("c"));
+		when(this.consumer.batchReceiveAsync()).thenReturn(CompletableFuture.completedFuture(first))
+				.thenReturn(CompletableFuture.completedFuture(second))
+				.thenReturn(CompletableFuture.completedFuture(third)).thenReturn(new CompletableFuture<>());
+		assertThat(pipeline.receive()).extracting(Message::getValue).containsExactly("a");
+		verify(this.consumer, times(3)).batchReceiveAsync();
+		assertThat(pipeline.receive()).extracting(Message::getValue).containsExactly("b");
+		assertThat(pipeline.receive()).extracting(Message::getValue).containsExactly("c");
+		verify(this.consumer, times(5)).batchReceiveAsync();
+	}
+
+	@Test
+	void valuesAreDecodedOnceReceived() throws Exception {
+		ReceivePipeline<String> pipeline = new ReceivePipeline<>(this.consumer, 1, this.decodeExecutor, null);
+		Message<String> message = message("a");
+		Messages<String> messages = messages(message);
+		when(this.consumer.batchReceiveAsync()).thenReturn(CompletableFuture.completedFuture(messages))
+				.thenReturn(new CompletableFuture<>());
+		Message<String> decoded = pipeline.receive().iterator().next();
+		verify(message).getValue();
+		assertThat(decoded.getValue()).isEqualTo("a");
+		assertThat(decoded.getValue()).isEqualTo("a");
+		verify(message).getValue();
+		assertThat(decoded.getMessageId()).isSameAs(message.getMessageId());
+	}
+
+	@Test
+	void valuesAreDecodedOnDecodeExecutorRatherThanThreadCompletingReceive() throws Exception {
+		ReceivePipeline<String> pipeline = new ReceivePipeline<>(this.consumer, 1, this.decodeExecutor, null);
+		AtomicReference<Thread> decodingThread = new AtomicReference<>();
+		Message<String> message = mock(Message.class);
+		when(message.getValue()).thenAnswer((invocation) -> {
+			decodingThread.set(Thread.currentThread());
+			return "a";
+		});
+		CompletableFuture<Messages<String>> received = new CompletableFuture<>();
+		when(this.consumer.batchReceiveAsync()).thenReturn(received).thenReturn(new CompletableFuture<>());
+		CompletableFuture<Messages<String>> handedOver = CompletableFuture.supplyAsync(() -> {
+			try {
+				return pipeline.receive();
+			}
+			catch (PulsarClientException ex) {
+				throw new IllegalStateException(ex);
+			}
+		});
+		await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> verify(this.consumer, times(2)).batchReceiveAsync());
+		Messages<String> messages = messages(message);
+		received.complete(messages);
+		assertThat(handedOver.get(10, TimeUnit.SECONDS)).extracting(Message::getValue).containsExactly("a");
+		assertThat(decodingThread.get().getName()).isEqualTo("test-R-1");
+	}
+
+	@Test
+	void filteredMessagesAreNotDecoded() throws Exception {
+		ReceivePipeline<String> pipeline = new ReceivePipeline<>(this.consumer, 1, this.decodeExecutor,
+				(message) -> message.hasProperty("skip"));
+		Message<String> skipped = message("a");
+		when(skipped.hasProperty("skip")).thenReturn(true);
+		Message<String> handled = message("b");
+		Messages<String> messages = mock(Messages.class);
+		when(messages.size()).thenReturn(2);
+		when(messages.iterator()).thenAnswer((invocation) -> List.of(skipped, handled).iterator());
+		when(this.consumer.batchReceiveAsync()).thenReturn(CompletableFuture.completedFuture(messages))
+				.thenReturn(new CompletableFuture<>());
+		List<Message<String>> received = new ArrayList<>();
+		pipeline.receive().forEach(received::add);
+		assertThat(received).extracting(ReceivePipeline::isFiltered).containsExactly(true, false);
+		verify(skipped, never()).getValue();
+		verify(handled).getValue();
+		assertThat(ReceivePipeline.isFiltered(skipped)).isFalse();
+	}
+
+	@Test
+	void decodeFailureIsThrownOnceValueIsRequested() throws Exception {
+		ReceivePipeline<String> pipeline = new ReceivePipeline<>(this.consumer, 1, this.decodeExecutor, null);
+		Message<String> message = mock(Message.class);
+		when(message.getValue()).thenThrow(new SchemaSerializationException("bad payload"));
+		Messages<String> messages = messages(message);
+		when(this.consumer.batchReceiveAsync()).thenReturn(CompletableFuture.completedFuture(messages));
+		Message<String> decoded = pipeline.receive().iterator().next();
+		assertThatExceptionOfType(SchemaSerializationException.class).isThrownBy(decoded::getValue)
+				.withMessage("bad payload");
+	}
+
+	@Test
+	void receiveFailureIsThrownAsPulsarClientException() {
+		ReceivePipeline<String> pipeline = new ReceivePipeline<>(this.consumer, 1, this.decodeExecutor, null);
+		when(this.consumer.batchReceiveAsync())
+				.thenReturn(CompletableFuture.failedFuture(new PulsarClientException.AlreadyClosedException("closed")));
+		assertThatExceptionOfType(PulsarClientException.AlreadyClosedException.class).isThrownBy(pipeline::receive);
+	}
+
+	@Test
+	void closeReleasesMessagesReceivedAhead() throws Exception {
+		ReceivePipeline<String> pipeline = new ReceivePipeline<>(this.consumer, 2, this.decodeExecutor, null);
+		Messages<String> received = messages(message("a"));
+		Message<String> receivedAhead = message("b");
+		Messages<String> messagesReceivedAhead = messages(receivedAhead);
+		when(this.consumer.batchReceiveAsync()).thenReturn(CompletableFuture.completedFuture(received))
+				.thenReturn(CompletableFuture.completedFuture(messagesReceivedAhead))
+				.thenReturn(new CompletableFuture<>());
+		pipeline.receive();
+		assertThat(pipeline.close(true)).isEqualTo(1);
+		verify(receivedAhead).release();
+	}
+
+	@Test
+	void closeCancelsOutstandingReceives() throws Exception {
+		ReceivePipeline<String> pipeline = new ReceivePipeline<>(this.consumer, 1, this.decodeExecutor, null);
+		Messages<String> received = messages(message("a"));
+		CompletableFuture<Messages<String>> receivedAhead = new CompletableFuture<>();
+		when(this.consumer.batchReceiveAsync()).thenReturn(CompletableFuture.completedFuture(received))
+				.thenReturn(receivedAhead);
+		pipeline.receive();
+		assertThat(pipeline.close(true)).isZero();
+		assertThat(receivedAhead).isCancelled();
+	}
+
+	@Test
+	void closeReleasesMessagesReceivedAheadButNotDecodedYet() throws Exception {
+		// only decodes the first batch
+		AtomicInteger decodes = new AtomicInteger();
+		ReceivePipeline<String> pipeline = new ReceivePipeline<>(this.consumer, 1, (decode) -> {
+			if (decodes.getAndIncrement() == 0) {
+				decode.run();
+			}
+		}, null);
+		Messages<String> received = messages(message("a"));
+		Message<String> receivedAhead = message("b");
+		Messages<String> messagesReceivedAhead = messages(receivedAhead);
+		when(this.consumer.batchReceiveAsync()).thenReturn(CompletableFuture.completedFuture(received))
+				.thenReturn(CompletableFuture.completedFuture(messagesReceivedAhead));
+		pipeline.receive();
+		assertThat(pipeline.close(true)).isEqualTo(1);
+		verify(receivedAhead).release();
+		verify(receivedAhead, never()).getValue();
+	}
+
+	private static Message<String> message(String value) {
+		Message<String> message = mock(Message.class);
+		when(message.getValue()).thenReturn(value);
+		when(message.getMessageId()).thenReturn(mock(MessageId.class));
+		return message;
+	}
+
+	private static Messages<String> messages(Message<String> message) {
+		Messages<String> messages = mock(Messages.class);
+		when(messages.size()).thenReturn(1);
+		when(messages.iterator()).thenAnswer((invocation) -> List.of(message).iterator());
+		return messages;
+	}
+
+}
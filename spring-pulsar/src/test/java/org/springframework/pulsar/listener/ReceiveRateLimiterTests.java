@@ -0,0 +1,102 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.Messages;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ReceiveRateLimiter}.
+ */
+class ReceiveRateLimiterTests {
+
+	private static final long MILLI = Duration.ofMillis(1).toNanos();
+
+	@Test
+	void noLimitWhenPropertiesSetNone() {
+		assertThat(ReceiveRateLimiter.of(new PulsarContainerProperties())).isNull();
+		PulsarContainerProperties containerProperties = new PulsarContainerProperties();
+		containerProperties.setMaxBytesPerSecond(1024);
+		assertThat(ReceiveRateLimiter.of(containerProperties)).isNotNull();
+	}
+
+	@Test
+	void messageLimitAllowsOneSecondBurstThenDelaysReceive() {
+		ReceiveRateLimiter rateLimiter = new ReceiveRateLimiter(100, 0, 0);
+		assertThat(rateLimiter.getDelayNanos(0)).isZero();
+		rateLimiter.record(messages(100, 10), 0);
+		// one token comes back every 10ms
+		assertThat(rateLimiter.getDelayNanos(0)).isEqualTo(10 * MILLI);
+		assertThat(rateLimiter.getDelayNanos(4 * MILLI)).isEqualTo(6 * MILLI);
+		assertThat(rateLimiter.getDelayNanos(10 * MILLI)).isZero();
+	}
+
+	@Test
+	void batchLargerThanLimitIsPaidBackBeforeNextReceive() {
+		ReceiveRateLimiter rateLimiter = new ReceiveRateLimiter(100, 0, 0);
+		rateLimiter.record(messages(250, 10), 0);
+		assertThat(rateLimiter.getDelayNanos(0)).isEqualTo(1510 * MILLI);
+		assertThat(rateLimiter.getDelayNanos(1510 * MILLI)).isZero();
+	}
+
+	@Test
+	void byteLimitUsesPayloadSizes() {
+		ReceiveRateLimiter rateLimiter = new ReceiveRateLimiter(0, 1000, 0);
+		rateLimiter.record(messages(3, 500), 0);
+		assertThat(rateLimiter.getDelayNanos(0)).isEqualTo(501 * MILLI);
+	}
+
+	@Test
+	void longestDelayOfBothLimitsApplies() {
+		ReceiveRateLimiter rateLimiter = new ReceiveRateLimiter(10, 1000, 0);
+		rateLimiter.record(messages(1, 2000), 0);
+		assertThat(rateLimiter.getDelayNanos(0)).isEqualTo(1001 * MILLI);
+		rateLimiter.record(messages(20, 0), 1001 * MILLI);
+		assertThat(rateLimiter.getDelayNanos(1001 * MILLI)).isEqualTo(1100 * MILLI);
+	}
+
+	@Test
+	void idleTimeDoesNotAccumulateMoreThanOneSecondOfTokens() {
+		ReceiveRateLimiter rateLimiter = new ReceiveRateLimiter(100, 0, 0);
+		rateLimiter.record(messages(200, 10), 60_000 * MILLI);
+		assertThat(rateLimiter.getDelayNanos(60_000 * MILLI)).isEqualTo(1010 * MILLI);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Messages<String> messages(int count, int size) {
+		List<Message<String>> list = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Message<String> message = mock(Message.class);
+			when(message.size()).thenReturn(size);
+			list.add(message);
+		}
+		Messages<String> messages = mock(Messages.class);
+		when(messages.size()).thenReturn(count);
+		when(messages.iterator()).thenAnswer((invocation) -> list.iterator());
+		return messages;
+	}
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.listener.adapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+import org.springframework.messaging.handler.invocation.InvocableHandlerMethod;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Tests for {@link DelegatingInvocableHandler}.
+ */
+class DelegatingInvocableHandlerTests {
+
+	private final DefaultMessageHandlerMethodFactory handlerMethodFactory = new DefaultMessageHandlerMethodFactory();
+
+	private final MultiMethodListener listener = new MultiMethodListener();
+
+	DelegatingInvocableHandlerTests() {
+		this.handlerMethodFactory.afterPropertiesSet();
+	}
+
+	@Test
+	void handlerMatchingPayloadTypeIsInvoked() throws Exception {
+		DelegatingInvocableHandler handler = new DelegatingInvocableHandler(
+				List.of(handlerMethod("listenString", String.class), handlerMethod("listenInteger", Integer.class)),
+				null, this.listener, null, null, null, null);
+		Object stringResult = handler.invoke(MessageBuilder.withPayload("hello").build());
+		assertThat(stringResult).isInstanceOf(InvocationResult.class);
+		assertThat(((InvocationResult) stringResult).getResult()).isEqualTo("string-hello");
+		assertThat(((InvocationResult) stringResult).isMessageReturnType()).isFalse();
+		Object integerResult = handler.invoke(MessageBuilder.withPayload(42).build());
+		assertThat(((InvocationResult) integerResult).getResult()).isEqualTo("integer-42");
+	}
+
+	private InvocableHandlerMethod handlerMethod(String name, Class<?>... parameterTypes) {
+		Method method = ReflectionUtils.findMethod(MultiMethodListener.class, name, parameterTypes);
+		return this.handlerMethodFactory.createInvocableHandlerMethod(this.listener, method);
+	}
+
+	static class MultiMethodListener {
+
+		String listenString(String payload) {
+			return "string-" + payload;
+		}
+
+		String listenInteger(Integer payload) {
+			return "integer-" + payload;
+		}
+
+	}
+
+}
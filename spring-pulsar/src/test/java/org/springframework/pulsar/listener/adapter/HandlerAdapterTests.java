@@ -0,0 +1,109 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.listener.adapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+import org.apache.pulsar.client.api.Consumer;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+import org.springframework.messaging.handler.invocation.InvocableHandlerMethod;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.pulsar.listener.Acknowledgement;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Tests for {@link HandlerAdapter}.
+ */
+class HandlerAdapterTests {
+
+	private final DefaultMessageHandlerMethodFactory handlerMethodFactory = new DefaultMessageHandlerMethodFactory();
+
+	private final TestListener listener = new TestListener();
+
+	HandlerAdapterTests() {
+		this.handlerMethodFactory.afterPropertiesSet();
+	}
+
+	@Test
+	void providedArgumentsAreBoundWithoutArgumentResolvers() throws Exception {
+		InvocableHandlerMethod handlerMethod = handlerMethod("listen", String.class, Consumer.class);
+		assertThat(ProvidedArgumentsInvoker.of(handlerMethod)).isNotNull();
+		Consumer<?> consumer = mock(Consumer.class);
+		Object result = new HandlerAdapter(handlerMethod).invoke(null, "payload", consumer, null);
+		assertThat(result).isEqualTo("payload");
+		assertThat(this.listener.consumer).isSameAs(consumer);
+	}
+
+	@Test
+	void exceptionThrownByListenerIsPropagated() {
+		InvocableHandlerMethod handlerMethod = handlerMethod("fail", String.class);
+		assertThatIOException().isThrownBy(() -> new HandlerAdapter(handlerMethod).invoke(null, "payload", null, null))
+				.withMessage("payload");
+	}
+
+	@Test
+	void annotatedParametersAreResolvedByHandlerMethod() throws Exception {
+		InvocableHandlerMethod handlerMethod = handlerMethod("listenWithHeader", String.class, Integer.class);
+		assertThat(ProvidedArgumentsInvoker.of(handlerMethod)).isNull();
+		Message<String> message = MessageBuilder.withPayload("payload").setHeader("foo", 7).build();
+		Object result = new HandlerAdapter(handlerMethod).invoke(message, "payload", null, null);
+		assertThat(result).isEqualTo("payload-7");
+	}
+
+	@Test
+	void unmatchedArgumentsAreResolvedByHandlerMethod() throws Exception {
+		InvocableHandlerMethod handlerMethod = handlerMethod("listen", String.class, Consumer.class);
+		Message<String> message = MessageBuilder.withPayload("converted").build();
+		Consumer<?> consumer = mock(Consumer.class);
+		Object result = new HandlerAdapter(handlerMethod).invoke(message, 42, consumer, mock(Acknowledgement.class));
+		assertThat(result).isEqualTo("converted");
+	}
+
+	private InvocableHandlerMethod handlerMethod(String name, Class<?>... parameterTypes) {
+		Method method = ReflectionUtils.findMethod(TestListener.class, name, parameterTypes);
+		return this.handlerMethodFactory.createInvocableHandlerMethod(this.listener, method);
+	}
+
+	static class TestListener {
+
+		private Consumer<?> consumer;
+
+		String listen(String payload, Consumer<?> consumer) {
+			this.consumer = consumer;
+			return payload;
+		}
+
+		void fail(String payload) throws IOException {
+			throw new IOException(payload);
+		}
+
+		String listenWithHeader(String payload, @Header("foo") Integer foo) {
+			return payload + "-" + foo;
+		}
+
+	}
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.pulsar.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.impl.MessageIdImpl;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.messaging.MessageHeaders;
+
+/**
+ * Tests for {@link DefaultPulsarMessageHeaderMapper}.
+ */
+class DefaultPulsarMessageHeaderMapperTests {
+
+	private final DefaultPulsarMessageHeaderMapper mapper = new DefaultPulsarMessageHeaderMapper();
+
+	@Test
+	void headersAreOnlyReadWhenRequested() {
+		Message<String> message = message();
+		MessageHeaders headers = this.mapper.toHeaders(message);
+		assertThat(headers.get(PulsarHeaders.TOPIC_NAME)).isEqualTo("topic1");
+		assertThat(headers.get(PulsarHeaders.TOPIC_NAME)).isEqualTo("topic1");
+		assertThat(headers.get("prop1")).isEqualTo("value1");
+		assertThat(headers.containsKey(PulsarHeaders.RAW_DATA)).isTrue();
+		assertThat(headers.getId()).isNotNull();
+		verify(message, times(1)).getTopicName();
+		verify(message, never()).getData();
+		verify(message, never()).getKeyBytes();
+		assertThat(headers.get(PulsarHeaders.RAW_DATA)).isEqualTo(new byte[] { 1, 2, 3 });
+		assertThat(headers.get(PulsarHeaders.RAW_DATA)).isSameAs(headers.get(PulsarHeaders.RAW_DATA));
+		verify(message, times(1)).getData();
+	}
+
+	@Test
+	void headersMatchMappedHeaders() {
+		Message<String> message = message();
+		Map<String, Object> mapped = new HashMap<>();
+		this.mapper.toHeaders(message, mapped);
+		MessageHeaders headers = this.mapper.toHeaders(message);
+		assertThat(headers.get(PulsarHeaders.KEY)).isEqualTo("key1");
+		assertThat(headers.containsKey(PulsarHeaders.ORDERING_KEY)).isFalse();
+		assertThat(headers.get(PulsarHeaders.ORDERING_KEY)).isNull();
+		assertThat(headers).hasSize(mapped.size() + 2);
+		assertThat(headers).containsAllEntriesOf(mapped).containsKeys(MessageHeaders.ID, MessageHeaders.TIMESTAMP);
+	}
+
+	@Test
+	void pulsarHeadersTakePrecedenceOverProperties() {
+		Message<String> message = message();
+		when(message.getProperties()).thenReturn(Map.of(PulsarHeaders.KEY, "prop-key", PulsarHeaders.ORDERING_KEY,
+				"prop-ordering-key", MessageHeaders.ID, "prop-id"));
+		MessageHeaders headers = this.mapper.toHeaders(message);
+		assertThat(headers.get(PulsarHeaders.KEY)).isEqualTo("key1");
+		assertThat(headers.get(PulsarHeaders.ORDERING_KEY)).isEqualTo("prop-ordering-key");
+		assertThat(headers.get(MessageHeaders.ID)).isNotEqualTo("prop-id");
+		assertThat(headers.entrySet()).hasSize(17);
+		assertThat(headers.get(PulsarHeaders.KEY)).isEqualTo("key1");
+	}
+
+	@Test
+	void headersAreReadUpFrontWhenNotLazy() {
+		Message<String> message = message();
+		this.mapper.setLazyHeaders(false);
+		MessageHeaders headers = this.mapper.toHeaders(message);
+		verify(message).getData();
+		reset(message);
+		assertThat(headers.get(PulsarHeaders.KEY)).isEqualTo("key1");
+		assertThat(headers.get(PulsarHeaders.RAW_DATA)).isEqualTo(new byte[] { 1, 2, 3 });
+		assertThat(headers.get("prop1")).isEqualTo("value1");
+	}
+
+	@Test
+	void headersAreSerializedWithAllValues() throws Exception {
+		MessageHeaders headers = this.mapper.toHeaders(message());
+		MessageHeaders copy = serializeAndDeserialize(headers);
+		assertThat(copy.getId()).isEqualTo(headers.getId());
+		assertThat(copy.get(PulsarHeaders.KEY)).isEqualTo("key1");
+		assertThat(copy.get(PulsarHeaders.MESSAGE_ID)).isEqualTo(headers.get(PulsarHeaders.MESSAGE_ID));
+		assertThat(copy.get("prop1")).isEqualTo("value1");
+	}
+
+	private MessageHeaders serializeAndDeserialize(MessageHeaders headers) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(headers);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			return (MessageHeaders) in.readObject();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Message<String> message() {
+		Message<String> message = mock(Message.class);
+		when(message.getProperties()).thenReturn(Map.of("prop1", "value1"));
+		when(message.hasKey()).thenReturn(true);
+		when(message.getKey()).thenReturn("key1");
+		when(message.getKeyBytes()).thenReturn(new byte[] { 4 });
+		when(message.getMessageId()).thenReturn(new MessageIdImpl(1, 2, -1));
+		when(message.getTopicName()).thenReturn("topic1");
+		when(message.getData()).thenAnswer((invocation) -> new byte[] { 1, 2, 3 });
+		return message;
+	}
+
+}